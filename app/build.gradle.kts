@@ -255,6 +255,10 @@ dependencies {
     implementation("io.reactivex.rxjava3:rxandroid:3.0.2")
     implementation("com.squareup.retrofit2:adapter-rxjava3:2.9.0")
 
+    // 6. Paging 3 - phân trang keyset cho danh sách health tips (bộ nhớ không đổi khi cuộn)
+    implementation("androidx.paging:paging-runtime:3.2.1")
+    implementation("androidx.paging:paging-rxjava3:3.2.1")
+
     // Javax Inject cho Dependency Injection
     implementation("javax.inject:javax.inject:1")
 }
\ No newline at end of file
@@ -146,6 +146,31 @@ public class ContentBlock {
         return null;
     }
 
+    /**
+     * Chuyển ContentBlock thành Map theo cấu trúc Firebase (ngược lại với fromJson)
+     */
+    public java.util.Map<String, Object> toMap() {
+        java.util.Map<String, Object> blockMap = new java.util.HashMap<>();
+        blockMap.put("id", id);
+        blockMap.put("type", type);
+        blockMap.put("value", value);
+
+        if (metadata != null) {
+            java.util.Map<String, Object> metaMap = new java.util.HashMap<>();
+            if (metadata.getLevel() != null) {
+                metaMap.put("level", metadata.getLevel());
+            }
+            if (metadata.getAlt() != null) {
+                metaMap.put("alt", metadata.getAlt());
+            }
+            if (metadata.getCaption() != null) {
+                metaMap.put("caption", metadata.getCaption());
+            }
+            blockMap.put("metadata", metaMap);
+        }
+        return blockMap;
+    }
+
     @Override
     public String toString() {
         return "ContentBlock{" +
@@ -47,6 +47,14 @@ public class HealthTip {
     @Exclude
     private transient List<ContentBlock> parsedContentBlocks;
 
+    // true nếu parsedContentBlocks được giải mã trực tiếp từ cache Room (contentBlocks dạng Map chưa được tạo)
+    @Exclude
+    private transient boolean contentBlocksDecoded;
+
+    // true nếu được tạo từ HealthTipSummary (danh sách) - không có nội dung đầy đủ
+    @Exclude
+    private transient boolean summaryOnly;
+
     /**
      * Constructor rỗng cho Firebase
      */
@@ -181,30 +189,12 @@ public class HealthTip {
 
         // Chuyển đổi từ ContentBlock sang Map để lưu trữ
         for (ContentBlock block : contentBlocks) {
-            Map<String, Object> blockMap = new java.util.HashMap<>();
-            blockMap.put("id", block.getId());
-            blockMap.put("type", block.getType());
-            blockMap.put("value", block.getValue());
-
-            if (block.getMetadata() != null) {
-                Map<String, Object> metaMap = new java.util.HashMap<>();
-                if (block.getMetadata().getLevel() != null) {
-                    metaMap.put("level", block.getMetadata().getLevel());
-                }
-                if (block.getMetadata().getAlt() != null) {
-                    metaMap.put("alt", block.getMetadata().getAlt());
-                }
-                if (block.getMetadata().getCaption() != null) {
-                    metaMap.put("caption", block.getMetadata().getCaption());
-                }
-                blockMap.put("metadata", metaMap);
-            }
-
-            mapList.add(blockMap);
+            mapList.add(block.toMap());
         }
 
         this.contentBlocks = mapList;
         this.parsedContentBlocks = contentBlocks; // Cache
+        this.contentBlocksDecoded = false;
 
         // Cập nhật content để tương thích ngược
         if (!contentBlocks.isEmpty()) {
@@ -220,13 +210,40 @@ public class HealthTip {
         }
     }
 
+    /**
+     * Gán nội dung đã giải mã sẵn (từ cache Room qua ContentBlockCodec) mà không đi qua Map
+     * Danh sách Map chỉ được tạo lại khi thật sự cần (getContentBlocks)
+     */
+    @Exclude
+    public void setDecodedContentBlocks(List<ContentBlock> contentBlocks) {
+        this.contentBlocks = null;
+        this.parsedContentBlocks = contentBlocks;
+        this.contentBlocksDecoded = contentBlocks != null;
+    }
+
+    /**
+     * Bài viết có contentBlocks (dạng Map từ Firebase hoặc đã giải mã từ cache) hay không
+     */
+    @Exclude
+    public boolean hasContentBlocks() {
+        return contentBlocks != null || contentBlocksDecoded;
+    }
+
     public List<Map<String, Object>> getContentBlocks() {
+        if (contentBlocks == null && contentBlocksDecoded) {
+            List<Map<String, Object>> mapList = new ArrayList<>(parsedContentBlocks.size());
+            for (ContentBlock block : parsedContentBlocks) {
+                mapList.add(block.toMap());
+            }
+            contentBlocks = mapList;
+        }
         return contentBlocks;
     }
 
     public void setContentBlocks(List<Map<String, Object>> contentBlocks) {
         this.contentBlocks = contentBlocks;
         this.parsedContentBlocks = null; // Reset cache
+        this.contentBlocksDecoded = false;
     }
 
     public String getCategoryId() {
@@ -343,6 +360,20 @@ public class HealthTip {
         isLiked = liked;
     }
 
+    /**
+     * Bản ghi chỉ có các trường hiển thị danh sách (đọc từ HealthTipSummary)
+     * Không được ghi đè lên bản ghi đầy đủ trong cache
+     */
+    @Exclude
+    public boolean isSummaryOnly() {
+        return summaryOnly;
+    }
+
+    @Exclude
+    public void setSummaryOnly(boolean summaryOnly) {
+        this.summaryOnly = summaryOnly;
+    }
+
     public Integer getRecommendationScore() {
         return recommendationScore;
     }
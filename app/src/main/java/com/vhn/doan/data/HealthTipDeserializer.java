@@ -0,0 +1,265 @@
+package com.vhn.doan.data;
+
+import com.google.firebase.database.DataSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Helper class để deserialize HealthTip từ Firebase DataSnapshot không dùng reflection
+ *
+ * snapshot.getValue(HealthTip.class) dò setter/field bằng reflection cho từng node và ném lỗi
+ * khi một trường đổi kiểu (số lưu thành chuỗi, tags lưu thành Map...). Class này gọi
+ * snapshot.getValue() một lần để lấy cây Map/List rồi đọc từng trường trong một lượt,
+ * chấp nhận cả định dạng cũ và mới:
+ * - content dạng chuỗi (cũ) hoặc dạng danh sách khối (mới, khi không có contentBlocks)
+ * - contentBlocks dạng List hoặc Map có key "0", "1"... (Firebase trả Map khi chỉ số bị thưa)
+ * - tags dạng List hoặc Map (tag -> true / key -> tag)
+ * - số dạng Long, Double hoặc chuỗi; boolean dạng Boolean, chuỗi hoặc số
+ * - favorite/liked hoặc isFavorite/isLiked
+ */
+public final class HealthTipDeserializer {
+
+    private HealthTipDeserializer() {
+    }
+
+    /**
+     * Tạo HealthTip từ Firebase DataSnapshot
+     * @param snapshot DataSnapshot từ Firebase
+     * @return HealthTip (ID lấy từ key) hoặc null nếu node không phải một bài viết
+     */
+    public static HealthTip fromDataSnapshot(DataSnapshot snapshot) {
+        if (snapshot == null || !snapshot.exists()) {
+            return null;
+        }
+
+        try {
+            return fromValue(snapshot.getKey(), snapshot.getValue());
+        } catch (Exception e) {
+            android.util.Log.e("HealthTipDeserializer",
+                "Lỗi khi deserialize health tip ID: " + snapshot.getKey(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Tạo HealthTip từ giá trị thô của một node (kết quả của DataSnapshot.getValue())
+     * Lượt xem/lượt thích âm được đưa về 0, createdAt thiếu được gán thời điểm hiện tại;
+     * title/content thiếu giữ null để nơi gọi tự quyết định giá trị hiển thị
+     * @param id key của node
+     * @param value Map các trường của bài viết
+     * @return HealthTip hoặc null nếu value không phải Map
+     */
+    public static HealthTip fromValue(String id, Object value) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> map = (Map<?, ?>) value;
+
+        HealthTip healthTip = new HealthTip();
+        healthTip.setId(id);
+        healthTip.setTitle(getString(map, "title"));
+        healthTip.setCategoryId(getString(map, "categoryId"));
+        healthTip.setCategoryName(getString(map, "categoryName"));
+        healthTip.setImageUrl(getString(map, "imageUrl"));
+        healthTip.setExcerpt(getString(map, "excerpt"));
+        healthTip.setStatus(getString(map, "status"));
+        healthTip.setAuthor(getString(map, "author"));
+        healthTip.setSeoTitle(getString(map, "seoTitle"));
+        healthTip.setSeoDescription(getString(map, "seoDescription"));
+        healthTip.setSlug(getString(map, "slug"));
+
+        Long viewCount = getLong(map, "viewCount");
+        healthTip.setViewCount(viewCount != null && viewCount > 0 ? clampToInt(viewCount) : 0);
+        Long likeCount = getLong(map, "likeCount");
+        healthTip.setLikeCount(likeCount != null && likeCount > 0 ? clampToInt(likeCount) : 0);
+        Long recommendationScore = getLong(map, "recommendationScore");
+        healthTip.setRecommendationScore(recommendationScore != null ? clampToInt(recommendationScore) : null);
+
+        Long createdAt = getLong(map, "createdAt");
+        healthTip.setCreatedAt(createdAt != null && createdAt > 0 ? createdAt : System.currentTimeMillis());
+        healthTip.setPublishedAt(getLong(map, "publishedAt"));
+        healthTip.setUpdatedAt(getLong(map, "updatedAt"));
+        healthTip.setScheduledAt(getLong(map, "scheduledAt"));
+
+        healthTip.setIsFeature(getBoolean(map, "isFeature"));
+        healthTip.setIsPinned(getBoolean(map, "isPinned"));
+        healthTip.setFavorite(getFlag(map, "favorite", "isFavorite"));
+        healthTip.setLiked(getFlag(map, "liked", "isLiked"));
+
+        healthTip.setTags(getTags(map.get("tags")));
+
+        // Nội dung: contentBlocks (mới) hoặc content (chuỗi cũ / danh sách khối)
+        Object content = map.get("content");
+        List<Map<String, Object>> contentBlocks = getBlocks(map.get("contentBlocks"));
+        if (contentBlocks == null && !(content instanceof String)) {
+            contentBlocks = getBlocks(content);
+        }
+        if (contentBlocks != null) {
+            healthTip.setContentBlocks(contentBlocks);
+        }
+        if (content instanceof String) {
+            healthTip.setContent((String) content);
+        }
+
+        return healthTip;
+    }
+
+    private static String getString(Map<?, ?> map, String field) {
+        Object value = map.get(field);
+        if (value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        return null;
+    }
+
+    /**
+     * Số nguyên từ Long/Integer/Double hoặc chuỗi số, null nếu thiếu hoặc không đọc được
+     */
+    private static Long getLong(Map<?, ?> map, String field) {
+        Object value = map.get(field);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            String text = ((String) value).trim();
+            if (text.isEmpty()) {
+                return null;
+            }
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                try {
+                    return (long) Double.parseDouble(text);
+                } catch (NumberFormatException ignored) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Boolean getBoolean(Map<?, ?> map, String field) {
+        Object value = map.get(field);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof String) {
+            String text = ((String) value).trim();
+            if ("true".equalsIgnoreCase(text) || "1".equals(text)) {
+                return Boolean.TRUE;
+            }
+            if ("false".equalsIgnoreCase(text) || "0".equals(text)) {
+                return Boolean.FALSE;
+            }
+            return null;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue() != 0;
+        }
+        return null;
+    }
+
+    private static boolean getFlag(Map<?, ?> map, String field, String legacyField) {
+        Boolean value = getBoolean(map, field);
+        if (value == null) {
+            value = getBoolean(map, legacyField);
+        }
+        return value != null && value;
+    }
+
+    private static int clampToInt(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    /**
+     * Tags dạng List (["a", "b"]) hoặc Map ({"a": true} / {"0": "a"})
+     */
+    private static List<String> getTags(Object value) {
+        if (value instanceof List) {
+            List<String> tags = new ArrayList<>(((List<?>) value).size());
+            for (Object tag : (List<?>) value) {
+                if (tag instanceof String) {
+                    tags.add((String) tag);
+                }
+            }
+            return tags;
+        }
+        if (value instanceof Map) {
+            List<String> tags = new ArrayList<>(((Map<?, ?>) value).size());
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (entry.getValue() instanceof String) {
+                    tags.add((String) entry.getValue());
+                } else if (!Boolean.FALSE.equals(entry.getValue()) && entry.getKey() != null) {
+                    tags.add(entry.getKey().toString());
+                }
+            }
+            return tags;
+        }
+        return null;
+    }
+
+    /**
+     * Danh sách khối nội dung dạng List hoặc Map theo chỉ số, bỏ qua phần tử null/không phải Map
+     * @return null nếu value không phải danh sách khối
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getBlocks(Object value) {
+        Collection<?> items;
+        if (value instanceof List) {
+            items = (List<?>) value;
+        } else if (value instanceof Map) {
+            items = sortByIndex((Map<?, ?>) value);
+        } else {
+            return null;
+        }
+
+        List<Map<String, Object>> blocks = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (item instanceof Map) {
+                blocks.add((Map<String, Object>) item);
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Giá trị của Map sắp theo key số ("2" trước "10"), key không phải số xếp sau theo chữ cái
+     */
+    private static Collection<?> sortByIndex(Map<?, ?> map) {
+        TreeMap<String, Object> sorted = new TreeMap<>((a, b) -> {
+            boolean aNumeric = isIndex(a);
+            boolean bNumeric = isIndex(b);
+            if (aNumeric && bNumeric) {
+                return a.length() != b.length() ? Integer.compare(a.length(), b.length()) : a.compareTo(b);
+            }
+            if (aNumeric != bNumeric) {
+                return aNumeric ? -1 : 1;
+            }
+            return a.compareTo(b);
+        });
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+        }
+        return sorted.values();
+    }
+
+    private static boolean isIndex(String key) {
+        if (key.isEmpty() || (key.length() > 1 && key.charAt(0) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -21,120 +21,107 @@ public class ShortVideoDeserializer {
         }
 
         try {
-            ShortVideo video = new ShortVideo();
+            // Đọc cả node một lần thay vì snapshot.child() cho từng trường
+            return fromValue(snapshot.getKey(), snapshot.getValue());
+        } catch (Exception e) {
+            android.util.Log.e("ShortVideoDeserializer",
+                "Lỗi khi deserialize video ID: " + snapshot.getKey(), e);
+            return null;
+        }
+    }
 
-            // Set ID từ key
-            video.setId(snapshot.getKey());
+    /**
+     * Tạo ShortVideo từ giá trị thô của một node (kết quả của DataSnapshot.getValue())
+     * @param id key của node
+     * @param value Map các trường của video
+     * @return ShortVideo object hoặc null nếu value không phải Map
+     */
+    public static ShortVideo fromValue(String id, Object value) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> map = (Map<?, ?>) value;
 
-            // Xử lý String fields
-            video.setTitle(getStringValue(snapshot, "title", ""));
-            video.setCaption(getStringValue(snapshot, "caption", ""));
-            video.setCategoryId(getStringValue(snapshot, "categoryId", ""));
-            video.setUserId(getStringValue(snapshot, "userId", ""));
-            video.setCldPublicId(getStringValue(snapshot, "cldPublicId", ""));
-            video.setStatus(getStringValue(snapshot, "status", "ready"));
+        ShortVideo video = new ShortVideo();
 
-            // 🎯 FIX: Parse videoUrl để hỗ trợ offline mode
-            video.setVideoUrl(getStringValue(snapshot, "videoUrl", null));
+        // Set ID từ key
+        video.setId(id);
 
-            // Parse thumbnail fields từ Firebase
-            video.setThumbnailUrl(getStringValue(snapshot, "thumbnailUrl", ""));
-            video.setThumb(getStringValue(snapshot, "thumb", "")); // Thêm parse field thumb
+        // Xử lý String fields
+        video.setTitle(getStringValue(map, "title", ""));
+        video.setCaption(getStringValue(map, "caption", ""));
+        video.setCategoryId(getStringValue(map, "categoryId", ""));
+        video.setUserId(getStringValue(map, "userId", ""));
+        video.setCldPublicId(getStringValue(map, "cldPublicId", ""));
+        video.setStatus(getStringValue(map, "status", "ready"));
 
-            // Xử lý Long fields (có thể là Number hoặc String)
-            video.setUploadDate(getLongValue(snapshot, "uploadDate", System.currentTimeMillis()));
-            video.setViewCount(getLongValue(snapshot, "viewCount", 0L));
-            video.setLikeCount(getLongValue(snapshot, "likeCount", 0L));
-            video.setCldVersion(getLongValue(snapshot, "cldVersion", 1L));
-            video.setDuration(getLongValue(snapshot, "duration", 0L)); // Thêm parse duration
-            video.setCommentCount(getLongValue(snapshot, "commentCount", 0L)); // Thêm parse commentCount
+        // 🎯 FIX: Parse videoUrl để hỗ trợ offline mode
+        video.setVideoUrl(getStringValue(map, "videoUrl", null));
 
-            // Xử lý Tags Map
-            video.setTags(getTagsMap(snapshot, "tags"));
+        // Parse thumbnail fields từ Firebase
+        video.setThumbnailUrl(getStringValue(map, "thumbnailUrl", ""));
+        video.setThumb(getStringValue(map, "thumb", "")); // Thêm parse field thumb
 
-            return video;
+        // Xử lý Long fields (có thể là Number hoặc String)
+        video.setUploadDate(getLongValue(map, "uploadDate", System.currentTimeMillis()));
+        video.setViewCount(getLongValue(map, "viewCount", 0L));
+        video.setLikeCount(getLongValue(map, "likeCount", 0L));
+        video.setCldVersion(getLongValue(map, "cldVersion", 1L));
+        video.setDuration(getLongValue(map, "duration", 0L)); // Thêm parse duration
+        video.setCommentCount(getLongValue(map, "commentCount", 0L)); // Thêm parse commentCount
 
-        } catch (Exception e) {
-            android.util.Log.e("ShortVideoDeserializer",
-                "Lỗi khi deserialize video ID: " + snapshot.getKey(), e);
-            return null;
-        }
+        // Xử lý Tags Map
+        video.setTags(getTagsMap(map.get("tags")));
+
+        return video;
     }
 
     /**
-     * Lấy giá trị String từ DataSnapshot
+     * Lấy giá trị String từ Map các trường
      */
-    private static String getStringValue(DataSnapshot snapshot, String field, String defaultValue) {
-        try {
-            DataSnapshot fieldSnapshot = snapshot.child(field);
-            if (fieldSnapshot.exists()) {
-                Object value = fieldSnapshot.getValue();
-                if (value != null) {
-                    return value.toString();
-                }
-            }
-        } catch (Exception e) {
-            android.util.Log.w("ShortVideoDeserializer",
-                "Không thể đọc string field: " + field, e);
-        }
-        return defaultValue;
+    private static String getStringValue(Map<?, ?> map, String field, String defaultValue) {
+        Object value = map.get(field);
+        return value != null ? value.toString() : defaultValue;
     }
 
     /**
-     * Lấy giá trị Long từ DataSnapshot (xử lý cả Number và String)
+     * Lấy giá trị Long từ Map các trường (xử lý cả Number và String)
      */
-    private static long getLongValue(DataSnapshot snapshot, String field, long defaultValue) {
-        try {
-            DataSnapshot fieldSnapshot = snapshot.child(field);
-            if (fieldSnapshot.exists()) {
-                Object value = fieldSnapshot.getValue();
-                if (value instanceof Number) {
-                    return ((Number) value).longValue();
-                } else if (value instanceof String) {
-                    try {
-                        return Long.parseLong((String) value);
-                    } catch (NumberFormatException e) {
-                        android.util.Log.w("ShortVideoDeserializer",
-                            "Không thể parse string thành long cho field: " + field +
-                            ", value: " + value);
-                    }
-                }
+    private static long getLongValue(Map<?, ?> map, String field, long defaultValue) {
+        Object value = map.get(field);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value instanceof String) {
+            try {
+                return Long.parseLong(((String) value).trim());
+            } catch (NumberFormatException e) {
+                // Giữ giá trị mặc định
             }
-        } catch (Exception e) {
-            android.util.Log.w("ShortVideoDeserializer",
-                "Không thể đọc long field: " + field, e);
         }
         return defaultValue;
     }
 
     /**
-     * Lấy Tags Map từ DataSnapshot
+     * Lấy Tags Map (tag -> bật/tắt) từ giá trị của trường tags
      */
-    private static Map<String, Boolean> getTagsMap(DataSnapshot snapshot, String field) {
+    private static Map<String, Boolean> getTagsMap(Object value) {
         Map<String, Boolean> tags = new HashMap<>();
-        try {
-            DataSnapshot tagsSnapshot = snapshot.child(field);
-            if (tagsSnapshot.exists()) {
-                for (DataSnapshot tagSnapshot : tagsSnapshot.getChildren()) {
-                    String tagName = tagSnapshot.getKey();
-                    Object tagValue = tagSnapshot.getValue();
-
-                    if (tagName != null) {
-                        boolean isEnabled = false;
-                        if (tagValue instanceof Boolean) {
-                            isEnabled = (Boolean) tagValue;
-                        } else if (tagValue instanceof String) {
-                            isEnabled = Boolean.parseBoolean((String) tagValue);
-                        } else if (tagValue instanceof Number) {
-                            isEnabled = ((Number) tagValue).intValue() != 0;
-                        }
-                        tags.put(tagName, isEnabled);
-                    }
+        if (!(value instanceof Map)) {
+            return tags;
+        }
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            Object tagValue = entry.getValue();
+            if (entry.getKey() != null) {
+                boolean isEnabled = false;
+                if (tagValue instanceof Boolean) {
+                    isEnabled = (Boolean) tagValue;
+                } else if (tagValue instanceof String) {
+                    isEnabled = Boolean.parseBoolean((String) tagValue);
+                } else if (tagValue instanceof Number) {
+                    isEnabled = ((Number) tagValue).intValue() != 0;
                 }
+                tags.put(entry.getKey().toString(), isEnabled);
             }
-        } catch (Exception e) {
-            android.util.Log.w("ShortVideoDeserializer",
-                "Không thể đọc tags map", e);
         }
         return tags;
     }
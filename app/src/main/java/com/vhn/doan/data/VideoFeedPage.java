@@ -0,0 +1,35 @@
+package com.vhn.doan.data;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Một trang của feed video ngắn
+ * Gồm các video đã xếp hạng của một cửa sổ ứng viên và token để lấy trang tiếp theo
+ */
+public class VideoFeedPage {
+
+    private final List<ShortVideo> videos;
+    private final String continuationToken;
+
+    /**
+     * @param videos các video của trang, đã xếp hạng
+     * @param continuationToken token truyền vào lần gọi sau để lấy trang tiếp theo, null nếu đã hết
+     */
+    public VideoFeedPage(List<ShortVideo> videos, String continuationToken) {
+        this.videos = videos != null ? videos : Collections.emptyList();
+        this.continuationToken = continuationToken;
+    }
+
+    public List<ShortVideo> getVideos() {
+        return videos;
+    }
+
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public boolean hasMore() {
+        return continuationToken != null;
+    }
+}
@@ -1,6 +1,7 @@
 package com.vhn.doan.data.local;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.util.Log;
 
 import androidx.room.Database;
@@ -14,16 +15,25 @@ import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.vhn.doan.data.local.Converters;
 import com.vhn.doan.data.local.dao.CategoryDao;
+import com.vhn.doan.data.local.dao.DailyRecommendationDao;
 import com.vhn.doan.data.local.dao.HealthTipDao;
 import com.vhn.doan.data.local.dao.NotificationHistoryDao;
+import com.vhn.doan.data.local.dao.OfflineImageDao;
+import com.vhn.doan.data.local.dao.PendingCounterDao;
+import com.vhn.doan.data.local.dao.SearchIndexDao;
 import com.vhn.doan.data.local.dao.VideoDao;
 import com.vhn.doan.data.local.entity.CategoryEntity;
+import com.vhn.doan.data.local.entity.DailyRecommendationEntity;
 import com.vhn.doan.data.local.entity.HealthTipEntity;
+import com.vhn.doan.data.local.entity.HealthTipFtsEntity;
 import com.vhn.doan.data.local.entity.NotificationHistoryEntity;
+import com.vhn.doan.data.local.entity.OfflineImageStateEntity;
+import com.vhn.doan.data.local.entity.PendingCounterEntity;
+import com.vhn.doan.data.local.entity.SearchDocumentEntity;
+import com.vhn.doan.data.local.entity.SearchTrigramEntity;
 import com.vhn.doan.data.local.entity.VideoEntity;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * AppDatabase - Room Database cho HealthTips App
@@ -32,11 +42,17 @@ import java.util.concurrent.Executors;
 @Database(
     entities = {
         HealthTipEntity.class,
+        HealthTipFtsEntity.class,
         CategoryEntity.class,
         VideoEntity.class,
-        NotificationHistoryEntity.class
+        NotificationHistoryEntity.class,
+        SearchDocumentEntity.class,
+        SearchTrigramEntity.class,
+        PendingCounterEntity.class,
+        DailyRecommendationEntity.class,
+        OfflineImageStateEntity.class
     },
-    version = 4,
+    version = 13,
     exportSchema = false
 )
 @TypeConverters(Converters.class)
@@ -47,16 +63,23 @@ public abstract class AppDatabase extends RoomDatabase {
 
     private static volatile AppDatabase INSTANCE;
 
-    // ExecutorService để chạy database operations trên background thread
-    private static final int NUMBER_OF_THREADS = 4;
+    // Pool đọc song song - truy vấn cache không phải chờ sau các lệnh ghi lớn (WAL)
+    public static final ExecutorService databaseReadExecutor =
+            DatabaseExecutors.getInstance().getReadExecutor();
+
+    // Một thread ghi duy nhất - mọi lệnh ghi chạy tuần tự, không tranh lock ghi SQLite
     public static final ExecutorService databaseWriteExecutor =
-            Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+            DatabaseExecutors.getInstance().getWriteExecutor();
 
     // Abstract methods để lấy DAOs
     public abstract HealthTipDao healthTipDao();
     public abstract CategoryDao categoryDao();
     public abstract VideoDao videoDao();
     public abstract NotificationHistoryDao notificationHistoryDao();
+    public abstract SearchIndexDao searchIndexDao();
+    public abstract PendingCounterDao pendingCounterDao();
+    public abstract DailyRecommendationDao dailyRecommendationDao();
+    public abstract OfflineImageDao offlineImageDao();
 
     // Migration từ version 3 sang 4 - Thêm bảng notification_history
     static final Migration MIGRATION_3_4 = new Migration(3, 4) {
@@ -105,6 +128,213 @@ public abstract class AppDatabase extends RoomDatabase {
         }
     };
 
+    // Migration từ version 4 sang 5 - Thêm bảng FTS4 health_tips_fts cho tìm kiếm offline
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            Log.d(TAG, "Migrating database from version 4 to 5");
+
+            database.execSQL(HealthTipFtsTriggers.CREATE_FTS_TABLE);
+
+            // Trigger đồng bộ giống với trigger Room tự sinh cho contentEntity
+            for (String sql : HealthTipFtsTriggers.ROOM_GENERATED) {
+                database.execSQL(sql);
+            }
+
+            // Index lại toàn bộ dữ liệu đang có trong cache
+            database.execSQL("INSERT INTO health_tips_fts(health_tips_fts) VALUES('rebuild')");
+
+            Log.d(TAG, "Migration from 4 to 5 completed successfully");
+        }
+    };
+
+    // Migration từ version 5 sang 6 - Thêm index trigram không dấu (search_documents, search_trigrams)
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            Log.d(TAG, "Migrating database from version 5 to 6");
+
+            database.execSQL(
+                "CREATE TABLE IF NOT EXISTS search_documents (" +
+                "doc_type TEXT NOT NULL, " +
+                "doc_id TEXT NOT NULL, " +
+                "normalized_text TEXT, " +
+                "PRIMARY KEY(doc_type, doc_id))"
+            );
+            database.execSQL(
+                "CREATE TABLE IF NOT EXISTS search_trigrams (" +
+                "doc_type TEXT NOT NULL, " +
+                "trigram TEXT NOT NULL, " +
+                "doc_id TEXT NOT NULL, " +
+                "PRIMARY KEY(doc_type, trigram, doc_id))"
+            );
+            database.execSQL("CREATE INDEX IF NOT EXISTS index_search_trigrams_doc_type_doc_id ON search_trigrams(doc_type, doc_id)");
+
+            // Index được điền dần khi repository ghi cache (chuẩn hóa tiếng Việt cần chạy trong Java)
+            Log.d(TAG, "Migration from 5 to 6 completed successfully");
+        }
+    };
+
+    // Migration từ version 6 sang 7 - Chuyển cột content_blocks sang định dạng ContentBlockCodec v2
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            Log.d(TAG, "Migrating database from version 6 to 7");
+
+            // Schema không đổi, chỉ ghi lại dữ liệu (mã hóa lại cần chạy trong Java)
+            int upgraded = 0;
+            try (Cursor cursor = database.query(
+                    "SELECT id, content_blocks FROM health_tips WHERE content_blocks IS NOT NULL")) {
+                while (cursor.moveToNext()) {
+                    String id = cursor.getString(0);
+                    String stored = cursor.getString(1);
+                    String current = ContentBlockCodec.upgrade(stored);
+                    if (current != null && !current.equals(stored)) {
+                        database.execSQL("UPDATE health_tips SET content_blocks = ? WHERE id = ?",
+                                new Object[]{current, id});
+                        upgraded++;
+                    }
+                }
+            }
+
+            Log.d(TAG, "Migration from 6 to 7 completed successfully: " + upgraded + " rows upgraded");
+        }
+    };
+
+    // Migration từ version 7 sang 8 - Thêm bảng pending_counters cho CounterAggregator
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            Log.d(TAG, "Migrating database from version 7 to 8");
+
+            database.execSQL(
+                "CREATE TABLE IF NOT EXISTS pending_counters (" +
+                "path TEXT PRIMARY KEY NOT NULL, " +
+                "delta INTEGER NOT NULL, " +
+                "updated_at INTEGER NOT NULL)"
+            );
+
+            Log.d(TAG, "Migration from 7 to 8 completed successfully");
+        }
+    };
+
+    // Migration từ version 8 sang 9 - Thêm bảng daily_recommendations (đề xuất tính sẵn theo ngày)
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            Log.d(TAG, "Migrating database from version 8 to 9");
+
+            database.execSQL(
+                "CREATE TABLE IF NOT EXISTS daily_recommendations (" +
+                "date TEXT PRIMARY KEY NOT NULL, " +
+                "tips TEXT, " +
+                "created_at INTEGER NOT NULL)"
+            );
+
+            Log.d(TAG, "Migration from 8 to 9 completed successfully");
+        }
+    };
+
+    // Migration từ version 9 sang 10 - Index recommendation_score (RecommendationEngine)
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            Log.d(TAG, "Migrating database from version 9 to 10");
+
+            database.execSQL(
+                "CREATE INDEX IF NOT EXISTS index_health_tips_recommendation_score " +
+                "ON health_tips (recommendation_score)"
+            );
+
+            Log.d(TAG, "Migration from 9 to 10 completed successfully");
+        }
+    };
+
+    // Migration từ version 10 sang 11 - Thêm cột byte_size cho eviction theo ngân sách byte (CacheManager)
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            Log.d(TAG, "Migrating database from version 10 to 11");
+
+            database.execSQL("ALTER TABLE health_tips ADD COLUMN byte_size INTEGER NOT NULL DEFAULT 0");
+
+            // Ước lượng cho các dòng đã có (giống HealthTipEntity.estimateByteSize, tính trên cột đã lưu)
+            database.execSQL(
+                "UPDATE health_tips SET byte_size = 256" +
+                " + length(CAST(COALESCE(title, '') AS BLOB))" +
+                " + length(CAST(COALESCE(content, '') AS BLOB))" +
+                " + length(CAST(COALESCE(excerpt, '') AS BLOB))" +
+                " + length(CAST(COALESCE(category_name, '') AS BLOB))" +
+                " + length(CAST(COALESCE(image_url, '') AS BLOB))" +
+                " + length(CAST(COALESCE(author, '') AS BLOB))" +
+                " + length(CAST(COALESCE(seo_title, '') AS BLOB))" +
+                " + length(CAST(COALESCE(seo_description, '') AS BLOB))" +
+                " + length(CAST(COALESCE(slug, '') AS BLOB))" +
+                " + length(CAST(COALESCE(content_blocks, '') AS BLOB))" +
+                " + length(CAST(COALESCE(tags, '') AS BLOB))"
+            );
+
+            Log.d(TAG, "Migration from 10 to 11 completed successfully");
+        }
+    };
+
+    // Migration từ version 11 sang 12 - Thêm bảng offline_images (trạng thái tải sẵn ảnh cho offline)
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            Log.d(TAG, "Migrating database from version 11 to 12");
+
+            database.execSQL(
+                "CREATE TABLE IF NOT EXISTS offline_images (" +
+                "tip_id TEXT PRIMARY KEY NOT NULL, " +
+                "image_signature INTEGER NOT NULL, " +
+                "image_count INTEGER NOT NULL, " +
+                "byte_size INTEGER NOT NULL, " +
+                "is_ready INTEGER NOT NULL, " +
+                "updated_at INTEGER NOT NULL)"
+            );
+
+            Log.d(TAG, "Migration from 11 to 12 completed successfully");
+        }
+    };
+
+    // Migration từ version 12 sang 13 - Trigger FTS chỉ chạy khi UPDATE ghi title/excerpt/content
+    static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            Log.d(TAG, "Migrating database from version 12 to 13");
+
+            limitFtsTriggers(database);
+
+            Log.d(TAG, "Migration from 12 to 13 completed successfully");
+        }
+    };
+
+    /**
+     * Room tạo lại trigger FTS mặc định khi tạo bảng (cài mới hoặc fallbackToDestructiveMigration)
+     * nên kiểm tra mỗi lần mở database
+     */
+    private static final RoomDatabase.Callback FTS_TRIGGER_CALLBACK = new RoomDatabase.Callback() {
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            try (Cursor cursor = db.query(HealthTipFtsTriggers.COUNT_COLUMN_LIMITED)) {
+                if (cursor.moveToFirst() && cursor.getInt(0) == 2) {
+                    return;
+                }
+            }
+            limitFtsTriggers(db);
+        }
+    };
+
+    /**
+     * Thay trigger UPDATE của health_tips_fts bằng bản giới hạn cột (xem HealthTipFtsTriggers)
+     */
+    static void limitFtsTriggers(SupportSQLiteDatabase database) {
+        for (String sql : HealthTipFtsTriggers.COLUMN_LIMITED) {
+            database.execSQL(sql);
+        }
+    }
+
     /**
      * Lấy instance của database (Singleton)
      */
@@ -117,8 +347,13 @@ public abstract class AppDatabase extends RoomDatabase {
                             AppDatabase.class,
                             DATABASE_NAME
                     )
+                    // WAL: các connection đọc chạy song song với thread ghi duy nhất
+                    .setJournalMode(JournalMode.WRITE_AHEAD_LOGGING)
+                    .setQueryExecutor(databaseReadExecutor)
+                    .setTransactionExecutor(databaseWriteExecutor)
                     // Không cho phép main thread queries (force background thread)
-                    .addMigrations(MIGRATION_3_4) // Thêm migration strategy
+                    .addMigrations(MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10, MIGRATION_10_11, MIGRATION_11_12, MIGRATION_12_13) // Thêm migration strategy
+                    .addCallback(FTS_TRIGGER_CALLBACK)
                     .fallbackToDestructiveMigration() // Xóa và tạo lại DB khi migrate fails
                     .build();
 
@@ -129,6 +364,14 @@ public abstract class AppDatabase extends RoomDatabase {
         return INSTANCE;
     }
 
+    /**
+     * Xếp một lệnh upsert vào lượt ghi tiếp theo - các lệnh trong cùng lượt chung một transaction
+     * Lệnh phải idempotent và không tự bắt exception (xem DatabaseExecutors.enqueueWrite)
+     */
+    public void enqueueWrite(Runnable write) {
+        DatabaseExecutors.getInstance().enqueueWrite(this, write);
+    }
+
     /**
      * Đóng database
      */
@@ -149,6 +392,11 @@ public abstract class AppDatabase extends RoomDatabase {
             categoryDao().deleteAll();
             videoDao().deleteAll();
             notificationHistoryDao().deleteAll();
+            searchIndexDao().deleteAllTrigrams();
+            searchIndexDao().deleteAllDocuments();
+            dailyRecommendationDao().deleteAll();
+            offlineImageDao().deleteAll();
+            HealthTipMemoryCache.getInstance().clear();
             Log.d(TAG, "All tables cleared");
         });
     }
@@ -160,9 +408,13 @@ public abstract class AppDatabase extends RoomDatabase {
     public void cleanupOldCache() {
         databaseWriteExecutor.execute(() -> {
             long sevenDaysAgo = System.currentTimeMillis() - (7 * 24 * 60 * 60 * 1000L);
-            healthTipDao().deleteOldHealthTips(sevenDaysAgo);
+            healthTipDao().deleteExpiredUnprotected(sevenDaysAgo);
             categoryDao().deleteOldCategories(sevenDaysAgo);
             videoDao().deleteOldVideos(sevenDaysAgo);
+            searchIndexDao().deleteOrphanHealthTipTrigrams();
+            searchIndexDao().deleteOrphanHealthTipDocuments();
+            searchIndexDao().deleteOrphanVideoTrigrams();
+            searchIndexDao().deleteOrphanVideoDocuments();
             Log.d(TAG, "Old cache cleaned up (older than 7 days)");
         });
     }
@@ -1,38 +1,106 @@
 package com.vhn.doan.data.local;
 
 import android.content.Context;
+import android.database.Cursor;
+import android.util.AtomicFile;
 import android.util.Log;
 
 import com.vhn.doan.data.HealthTip;
 import com.vhn.doan.data.local.dao.HealthTipDao;
+import com.vhn.doan.data.local.entity.CacheEntryInfo;
 import com.vhn.doan.data.local.entity.HealthTipEntity;
 
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * CacheManager - Quản lý cache thông minh theo kiểu TikTok/Facebook
  *
  * Chiến lược:
  * 1. Cache NGAY KHI USER SCROLL QUA item (passive caching)
- * 2. Giới hạn số lượng items trong cache
- * 3. Tự động cleanup theo LRU (Least Recently Used)
- * 4. Cache videos đã xem
+ * 2. Giới hạn tổng kích thước cache theo byte (cột byte_size cộng các index tìm kiếm
+ *    FTS4/trigram đi kèm), không theo số dòng
+ * 3. Eviction kiểu TinyLFU: dòng ít được truy cập nhất (FrequencySketch) bị xóa trước,
+ *    cùng tần suất thì xóa dòng lâu chưa truy cập nhất; khi cache đầy, tip mới chỉ được ghi
+ *    nếu được truy cập nhiều hơn dòng lạnh nhất đang giữ (admission)
+ *    FrequencySketch được lưu xuống file nên lịch sử truy cập còn sau khi khởi động lại app
+ * 4. Tip đã thích/yêu thích không bao giờ bị xóa (kể cả khi quá hạn)
+ * 5. Cache videos đã xem
  */
 public class CacheManager {
 
     private static final String TAG = "CacheManager";
 
-    // Giới hạn cache (có thể config)
-    private static final int MAX_CACHED_TIPS = 100; // Tối đa 100 tips
+    // Giới hạn cache (có thể config qua setMaxCacheBytes)
     private static final long MAX_CACHE_SIZE_MB = 50; // Tối đa 50MB
+    private static final long MIN_CACHE_SIZE_MB = 10;
+    // Máy sắp đầy bộ nhớ: cache không chiếm quá 5% dung lượng còn trống
+    private static final int USABLE_SPACE_PERCENT = 5;
     private static final long CACHE_EXPIRY_DAYS = 7; // Xóa cache > 7 ngày
 
+    // Khi vượt ngân sách thì xóa xuống 90% để không phải dọn lại sau mỗi lần ghi
+    private static final double EVICTION_TARGET_RATIO = 0.9;
+    // Cache được ghi mỗi lần scroll qua item - chỉ kiểm tra ngân sách tối đa mỗi 30 giây
+    private static final long CLEANUP_INTERVAL_MS = 30_000;
+    // Số tip mà FrequencySketch phân biệt tốt (bộ nhớ cố định ~16KB)
+    private static final int SKETCH_EXPECTED_TIPS = 4096;
+    // SQLite giới hạn 999 tham số cho một câu lệnh
+    private static final int SQL_IN_CHUNK_SIZE = 500;
+    private static final String SKETCH_FILE_NAME = "cache_frequency_sketch.bin";
+
+    // Một dòng search_trigrams nằm trong bảng, index khóa chính và index (doc_type, doc_id)
+    private static final long TRIGRAM_ROW_BYTES = 120;
+    private static final long SEARCH_DOCUMENT_OVERHEAD_BYTES = 48;
+    // Index tìm kiếm của health_tips: bảng phụ của FTS4 health_tips_fts, search_documents, search_trigrams
+    private static final String SEARCH_INDEX_BYTES_SQL = "SELECT "
+            + "(SELECT COALESCE(SUM(LENGTH(block)), 0) FROM health_tips_fts_segments)"
+            + " + (SELECT COALESCE(SUM(LENGTH(root)), 0) FROM health_tips_fts_segdir)"
+            + " + (SELECT COALESCE(SUM(LENGTH(size)), 0) FROM health_tips_fts_docsize)"
+            + " + (SELECT COALESCE(SUM(LENGTH(CAST(normalized_text AS BLOB)) + LENGTH(doc_id)), 0)"
+            + " + COUNT(*) * " + SEARCH_DOCUMENT_OVERHEAD_BYTES
+            + " FROM search_documents WHERE doc_type = 'health_tip')"
+            + " + (SELECT COUNT(*) * " + TRIGRAM_ROW_BYTES + " FROM search_trigrams WHERE doc_type = 'health_tip')";
+
     private static CacheManager instance;
+    private final AppDatabase database;
     private final HealthTipDao healthTipDao;
     private final Context context;
+    private final FrequencySketch frequencySketch = new FrequencySketch(SKETCH_EXPECTED_TIPS);
+    private final AtomicFile sketchFile;
+
+    private volatile long maxCacheBytes = MAX_CACHE_SIZE_MB * 1024 * 1024;
+    private volatile long lastCleanupAt = 0;
+    // Tổng byte (gồm index tìm kiếm) đo ở lượt eviction trước cộng các tip mới đã admit; -1 = chưa đo
+    private final AtomicLong estimatedBytes = new AtomicLong(-1);
+    // (bảng + index tìm kiếm) / bảng health_tips - mỗi byte của dòng kéo theo bấy nhiêu byte index
+    private volatile double indexFactor = 1.0;
+    // Tần suất của dòng lạnh nhất còn lại sau lượt eviction - tip mới phải vượt mức này khi cache đầy
+    private volatile int admissionFrequency = 0;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong evictedBytes = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong expiredCount = new AtomicLong();
 
     private CacheManager(Context context) {
         this.context = context.getApplicationContext();
-        AppDatabase db = AppDatabase.getInstance(this.context);
-        this.healthTipDao = db.healthTipDao();
+        this.database = AppDatabase.getInstance(this.context);
+        this.healthTipDao = database.healthTipDao();
+        this.sketchFile = new AtomicFile(new File(this.context.getFilesDir(), SKETCH_FILE_NAME));
+        // Đọc trên thread ghi, trước mọi lượt evictSync (lượt đó lưu sketch lại)
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            loadFrequencySketch();
+            setMaxCacheBytes(budgetForUsableSpace(this.context.getFilesDir().getUsableSpace()));
+        });
     }
 
     public static synchronized CacheManager getInstance(Context context) {
@@ -52,24 +120,35 @@ public class CacheManager {
         if (healthTip == null || healthTip.getId() == null) {
             return;
         }
+        frequencySketch.increment(healthTip.getId());
+
+        // Upsert được gộp với các lệnh ghi khác trong cùng lượt của thread ghi
+        database.enqueueWrite(() -> {
+            // Tip đọc từ HealthTipSummary đã có trong cache - chỉ cập nhật LRU,
+            // không ghi đè content/content_blocks bằng bản ghi rút gọn
+            if (healthTip.isSummaryOnly()) {
+                healthTipDao.updateCachedAt(healthTip.getId(), System.currentTimeMillis());
+                return;
+            }
 
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            try {
-                // Update timestamp để LRU tracking
-                HealthTipEntity entity = HealthTipEntity.fromHealthTip(healthTip);
-                entity.setCachedAt(System.currentTimeMillis());
-
-                healthTipDao.insert(entity);
-
-                Log.d(TAG, "✓ Cached tip: " + healthTip.getId() + " - " + healthTip.getTitle());
+            // Update timestamp để LRU tracking
+            HealthTipEntity entity = HealthTipEntity.fromHealthTip(healthTip);
+            entity.setCachedAt(System.currentTimeMillis());
+            if (admit(java.util.Collections.singletonList(entity)).isEmpty()) {
+                Log.d(TAG, "⛔ Not admitted (cache full, rarely accessed): " + healthTip.getId());
+                return;
+            }
 
-                // Check và cleanup nếu cần
-                checkAndCleanupIfNeeded();
+            RecommendationEngine.getInstance(context).scoreEntities(java.util.Collections.singletonList(entity));
+            healthTipDao.insert(entity);
+            TrigramSearchIndex.getInstance(context).indexHealthTips(java.util.Collections.singletonList(entity));
+            HealthTipMemoryCache.getInstance().invalidateAfterCommit(entity.getId());
 
-            } catch (Exception e) {
-                Log.e(TAG, "Error caching tip: " + e.getMessage(), e);
-            }
+            Log.d(TAG, "✓ Cached tip: " + healthTip.getId() + " - " + healthTip.getTitle());
         });
+
+        // Check và cleanup nếu cần
+        checkAndCleanupIfNeeded();
     }
 
     /**
@@ -80,63 +159,260 @@ public class CacheManager {
         if (healthTips == null || healthTips.isEmpty()) {
             return;
         }
+        for (HealthTip tip : healthTips) {
+            if (tip != null) {
+                frequencySketch.increment(tip.getId());
+            }
+        }
 
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            try {
-                java.util.List<HealthTipEntity> entities = new java.util.ArrayList<>();
-                long now = System.currentTimeMillis();
-
-                for (HealthTip tip : healthTips) {
-                    if (tip != null && tip.getId() != null) {
-                        HealthTipEntity entity = HealthTipEntity.fromHealthTip(tip);
-                        entity.setCachedAt(now);
-                        entities.add(entity);
+        database.enqueueWrite(() -> {
+            List<HealthTipEntity> entities = new ArrayList<>();
+            long now = System.currentTimeMillis();
+
+            for (HealthTip tip : healthTips) {
+                if (tip != null && tip.getId() != null) {
+                    if (tip.isSummaryOnly()) {
+                        healthTipDao.updateCachedAt(tip.getId(), now);
+                        continue;
                     }
+                    HealthTipEntity entity = HealthTipEntity.fromHealthTip(tip);
+                    entity.setCachedAt(now);
+                    entities.add(entity);
                 }
+            }
+            entities = admit(entities);
+
+            RecommendationEngine.getInstance(context).scoreEntities(entities);
+            healthTipDao.insertAll(entities);
+            TrigramSearchIndex.getInstance(context).indexHealthTips(entities);
+            java.util.List<String> ids = new java.util.ArrayList<>(entities.size());
+            for (HealthTipEntity entity : entities) {
+                ids.add(entity.getId());
+            }
+            HealthTipMemoryCache.getInstance().invalidateAfterCommit(ids);
+            Log.d(TAG, "✓ Batch cached " + entities.size() + " tips");
+        });
 
-                healthTipDao.insertAll(entities);
-                Log.d(TAG, "✓ Batch cached " + entities.size() + " tips");
+        checkAndCleanupIfNeeded();
+    }
 
-                checkAndCleanupIfNeeded();
+    /**
+     * Admission kiểu TinyLFU (chạy trên thread ghi): khi ghi thêm sẽ vượt ngân sách, tip chưa có
+     * trong cache chỉ được ghi nếu FrequencySketch đếm được nhiều lượt truy cập hơn dòng lạnh nhất
+     * còn lại sau lượt eviction trước. Tip đã có (làm mới nội dung) và tip đã thích/yêu thích luôn được ghi.
+     * @return các entity được ghi
+     */
+    private List<HealthTipEntity> admit(List<HealthTipEntity> entities) {
+        long currentBytes = estimatedBytes.get();
+        if (currentBytes < 0 || entities.isEmpty()) {
+            // Chưa đo kích thước lần nào - lượt evictSync đầu tiên sẽ đưa cache về ngân sách
+            return entities;
+        }
 
-            } catch (Exception e) {
-                Log.e(TAG, "Error batch caching: " + e.getMessage(), e);
+        List<String> ids = new ArrayList<>(entities.size());
+        for (HealthTipEntity entity : entities) {
+            ids.add(entity.getId());
+        }
+        Set<String> existingIds = new HashSet<>();
+        for (int i = 0; i < ids.size(); i += SQL_IN_CHUNK_SIZE) {
+            existingIds.addAll(healthTipDao.getExistingIdsSync(ids.subList(i, Math.min(i + SQL_IN_CHUNK_SIZE, ids.size()))));
+        }
+
+        long budget = maxCacheBytes;
+        List<HealthTipEntity> admitted = new ArrayList<>(entities.size());
+        long addedBytes = 0;
+        int rejected = 0;
+        for (HealthTipEntity entity : entities) {
+            boolean isNew = !existingIds.contains(entity.getId());
+            long cost = (long) (entity.getByteSize() * indexFactor);
+            if (isNew && !entity.isFavorite() && !entity.isLiked()
+                    && currentBytes + addedBytes + cost > budget
+                    && frequencySketch.frequency(entity.getId()) <= admissionFrequency) {
+                rejected++;
+                continue;
             }
-        });
+            admitted.add(entity);
+            if (isNew) {
+                addedBytes += cost;
+            }
+        }
+        estimatedBytes.addAndGet(addedBytes);
+        rejectedCount.addAndGet(rejected);
+        return admitted;
+    }
+
+    /**
+     * Kiểm tra và cleanup nếu vượt quá giới hạn (tối đa một lần mỗi CLEANUP_INTERVAL_MS)
+     */
+    private void checkAndCleanupIfNeeded() {
+        long now = System.currentTimeMillis();
+        if (now - lastCleanupAt < CLEANUP_INTERVAL_MS) {
+            return;
+        }
+        lastCleanupAt = now;
+        trimToBudget();
     }
 
     /**
-     * Kiểm tra và cleanup nếu vượt quá giới hạn
+     * Xóa cache quá hạn và đưa tổng kích thước về dưới ngân sách byte
      *
      * Logic cleanup:
-     * 1. Đếm số items trong cache
-     * 2. Nếu > MAX_CACHED_TIPS → Xóa items cũ nhất (LRU)
-     * 3. Xóa items quá 7 ngày
+     * 1. Xóa items quá 7 ngày (trừ tip đã thích/yêu thích)
+     * 2. Nếu tổng byte_size + index tìm kiếm > ngân sách → xếp các dòng còn lại theo (tần suất, thời điểm truy cập)
+     *    và xóa từ đầu danh sách cho tới khi còn EVICTION_TARGET_RATIO ngân sách
+     * 3. Lưu FrequencySketch xuống file
      */
-    private void checkAndCleanupIfNeeded() {
+    public void trimToBudget() {
         AppDatabase.databaseWriteExecutor.execute(() -> {
             try {
-                // 1. Cleanup items quá hạn (> 7 ngày)
-                long expiryTime = System.currentTimeMillis() - (CACHE_EXPIRY_DAYS * 24 * 60 * 60 * 1000L);
-                healthTipDao.deleteOldHealthTips(expiryTime);
+                evictSync();
+            } catch (Exception e) {
+                Log.e(TAG, "Error in cleanup: " + e.getMessage(), e);
+            }
+            saveFrequencySketch();
+        });
+    }
 
-                // 2. Đếm số items hiện tại
-                int currentCount = healthTipDao.getHealthTipCountSync();
+    private void evictSync() {
+        long now = System.currentTimeMillis();
+        long budget = maxCacheBytes;
 
-                if (currentCount > MAX_CACHED_TIPS) {
-                    // 3. Xóa items cũ nhất để giữ số lượng = MAX_CACHED_TIPS
-                    int itemsToDelete = currentCount - MAX_CACHED_TIPS;
-                    healthTipDao.deleteOldestItems(itemsToDelete);
+        // 1. Cleanup items quá hạn (> 7 ngày)
+        long expiryTime = now - (CACHE_EXPIRY_DAYS * 24 * 60 * 60 * 1000L);
+        int expired = healthTipDao.deleteExpiredUnprotected(expiryTime);
+        expiredCount.addAndGet(expired);
 
-                    Log.d(TAG, "🧹 Cleanup: Deleted " + itemsToDelete + " oldest items. Current: " + MAX_CACHED_TIPS);
-                } else {
-                    Log.d(TAG, "📊 Cache size: " + currentCount + "/" + MAX_CACHED_TIPS);
-                }
+        if (expired > 0) {
+            TrigramSearchIndex.getInstance(context).pruneOrphans();
+        }
 
-            } catch (Exception e) {
-                Log.e(TAG, "Error in cleanup: " + e.getMessage(), e);
+        // 2. So sánh tổng kích thước (dòng + index tìm kiếm) với ngân sách
+        long tableBytes = healthTipDao.getTotalByteSizeSync();
+        long totalBytes = tableBytes + getSearchIndexBytesSync();
+        double factor = tableBytes > 0 ? (double) totalBytes / tableBytes : 1.0;
+        indexFactor = factor;
+        if (totalBytes <= budget) {
+            estimatedBytes.set(totalBytes);
+            Log.d(TAG, "📊 Cache size: " + totalBytes / 1024 + "KB/" + budget / 1024 + "KB (tips "
+                    + tableBytes / 1024 + "KB)");
+            return;
+        }
+
+        // 3. Chọn dòng cần xóa: ít truy cập nhất trước, cùng tần suất thì cũ nhất trước
+        List<CacheEntryInfo> candidates = healthTipDao.getEvictionCandidatesSync();
+        int[] frequencies = new int[candidates.size()];
+        List<Integer> order = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            frequencies[i] = frequencySketch.frequency(candidates.get(i).id);
+            order.add(i);
+        }
+        order.sort((a, b) -> {
+            if (frequencies[a] != frequencies[b]) {
+                return Integer.compare(frequencies[a], frequencies[b]);
             }
+            return Long.compare(candidates.get(a).cachedAt, candidates.get(b).cachedAt);
         });
+
+        long target = (long) (budget * EVICTION_TARGET_RATIO);
+        List<String> victims = new ArrayList<>();
+        long freedBytes = 0;
+        int position = 0;
+        // Xóa một dòng giải phóng cả phần index tìm kiếm của nó (ước lượng theo factor)
+        while (position < order.size() && totalBytes - freedBytes > target) {
+            CacheEntryInfo victim = candidates.get(order.get(position++));
+            victims.add(victim.id);
+            freedBytes += (long) (victim.byteSize * factor);
+        }
+        // Dòng lạnh nhất còn giữ lại: mốc tần suất cho admission tới lượt sau
+        admissionFrequency = position < order.size() ? frequencies[order.get(position)] : 0;
+
+        database.runInTransaction(() -> {
+            for (int i = 0; i < victims.size(); i += SQL_IN_CHUNK_SIZE) {
+                healthTipDao.deleteByIds(victims.subList(i, Math.min(i + SQL_IN_CHUNK_SIZE, victims.size())));
+            }
+        });
+        TrigramSearchIndex.getInstance(context).pruneOrphans();
+
+        evictionCount.addAndGet(victims.size());
+        evictedBytes.addAndGet(freedBytes);
+        estimatedBytes.set(totalBytes - freedBytes);
+
+        Log.d(TAG, "🧹 Cleanup: Evicted " + victims.size() + " tips (" + freedBytes / 1024 + "KB), "
+                + expired + " expired, admission frequency > " + admissionFrequency + ". Current: "
+                + (totalBytes - freedBytes) / 1024 + "KB/" + budget / 1024 + "KB");
+        if (totalBytes - freedBytes > budget) {
+            Log.w(TAG, "Cache still over budget - favorite/liked tips alone exceed " + budget / 1024 + "KB");
+        }
+    }
+
+    /**
+     * Kích thước ước lượng các index tìm kiếm của health_tips (0 nếu không đọc được)
+     */
+    private long getSearchIndexBytesSync() {
+        try (Cursor cursor = database.query(SEARCH_INDEX_BYTES_SQL, null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        } catch (Exception e) {
+            Log.w(TAG, "Không đo được kích thước index tìm kiếm", e);
+            return 0;
+        }
+    }
+
+    private void loadFrequencySketch() {
+        try {
+            if (!frequencySketch.mergeFrom(sketchFile.readFully())) {
+                Log.w(TAG, "Bỏ qua file FrequencySketch không khớp kích thước");
+            }
+        } catch (FileNotFoundException e) {
+            // Lần chạy đầu tiên
+        } catch (IOException e) {
+            Log.w(TAG, "Error reading frequency sketch", e);
+        }
+    }
+
+    private void saveFrequencySketch() {
+        FileOutputStream out = null;
+        try {
+            out = sketchFile.startWrite();
+            out.write(frequencySketch.toByteArray());
+            sketchFile.finishWrite(out);
+        } catch (IOException e) {
+            Log.e(TAG, "Error writing frequency sketch", e);
+            if (out != null) {
+                sketchFile.failWrite(out);
+            }
+        }
+    }
+
+    /**
+     * Ngân sách byte của cache health tips
+     */
+    public void setMaxCacheBytes(long maxCacheBytes) {
+        this.maxCacheBytes = Math.max(0, maxCacheBytes);
+        trimToBudget();
+    }
+
+    public long getMaxCacheBytes() {
+        return maxCacheBytes;
+    }
+
+    /**
+     * Ngân sách mặc định theo dung lượng trống: USABLE_SPACE_PERCENT dung lượng trống,
+     * trong khoảng MIN_CACHE_SIZE_MB..MAX_CACHE_SIZE_MB
+     */
+    static long budgetForUsableSpace(long usableBytes) {
+        long byUsableSpace = Math.max(0, usableBytes) / 100 * USABLE_SPACE_PERCENT;
+        return Math.max(MIN_CACHE_SIZE_MB * 1024 * 1024, Math.min(MAX_CACHE_SIZE_MB * 1024 * 1024, byUsableSpace));
+    }
+
+    /**
+     * Ghi nhận một lần đọc chi tiết tip từ cache (hit) hoặc phải tải từ mạng (miss)
+     */
+    public void recordLookup(boolean hit) {
+        if (hit) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
     }
 
     /**
@@ -146,6 +422,8 @@ public class CacheManager {
     public void clearAllCache() {
         AppDatabase.databaseWriteExecutor.execute(() -> {
             healthTipDao.deleteAll();
+            HealthTipMemoryCache.getInstance().clear();
+            estimatedBytes.set(-1);
             Log.d(TAG, "🗑️ All cache cleared");
         });
     }
@@ -154,15 +432,17 @@ public class CacheManager {
      * Lấy thông tin cache stats
      */
     public void getCacheStats(CacheStatsCallback callback) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        AppDatabase.databaseReadExecutor.execute(() -> {
             int count = healthTipDao.getHealthTipCountSync();
+            int protectedCount = healthTipDao.getProtectedCountSync();
+            long totalBytes = healthTipDao.getTotalByteSizeSync();
 
-            // Estimate size (rough calculation)
-            // Giả sử mỗi tip ~50KB (title, content, images URLs, etc.)
-            long estimatedSizeMB = (count * 50) / 1024; // KB to MB
+            CacheStats stats = new CacheStats(count, protectedCount, totalBytes, maxCacheBytes,
+                    hitCount.get(), missCount.get(), evictionCount.get(), evictedBytes.get(),
+                    rejectedCount.get(), expiredCount.get());
 
             android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-            mainHandler.post(() -> callback.onStatsReady(count, estimatedSizeMB, MAX_CACHED_TIPS));
+            mainHandler.post(() -> callback.onStatsReady(stats));
         });
     }
 
@@ -170,7 +450,51 @@ public class CacheManager {
      * Callback cho cache stats
      */
     public interface CacheStatsCallback {
-        void onStatsReady(int itemCount, long sizeInMB, int maxItems);
+        void onStatsReady(CacheStats stats);
+    }
+
+    /**
+     * Thống kê cache health tips
+     */
+    public static class CacheStats {
+        public final int itemCount;
+        public final int protectedCount;
+        public final long totalBytes;
+        public final long maxBytes;
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        public final long evictedBytes;
+        // Số tip mới không được ghi vì cache đầy và tip ít được truy cập hơn dòng lạnh nhất đang giữ
+        public final long rejectedAdmissions;
+        public final long expired;
+
+        public CacheStats(int itemCount, int protectedCount, long totalBytes, long maxBytes,
+                          long hits, long misses, long evictions, long evictedBytes,
+                          long rejectedAdmissions, long expired) {
+            this.itemCount = itemCount;
+            this.protectedCount = protectedCount;
+            this.totalBytes = totalBytes;
+            this.maxBytes = maxBytes;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.evictedBytes = evictedBytes;
+            this.rejectedAdmissions = rejectedAdmissions;
+            this.expired = expired;
+        }
+
+        /**
+         * Tỷ lệ đọc chi tiết tìm thấy trong cache (0..1), 0 nếu chưa có lượt đọc nào
+         */
+        public double getHitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        public long getSizeInMB() {
+            return totalBytes / (1024 * 1024);
+        }
     }
 
     /**
@@ -179,14 +503,11 @@ public class CacheManager {
      */
     public void updateAccessTime(String tipId) {
         if (tipId == null) return;
+        frequencySketch.increment(tipId);
 
-        AppDatabase.databaseWriteExecutor.execute(() -> {
-            try {
-                healthTipDao.updateCachedAt(tipId, System.currentTimeMillis());
-                Log.d(TAG, "⏰ Updated access time for: " + tipId);
-            } catch (Exception e) {
-                Log.e(TAG, "Error updating access time: " + e.getMessage());
-            }
+        database.enqueueWrite(() -> {
+            healthTipDao.updateCachedAt(tipId, System.currentTimeMillis());
+            Log.d(TAG, "⏰ Updated access time for: " + tipId);
         });
     }
 }
@@ -0,0 +1,287 @@
+package com.vhn.doan.data.local;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.vhn.doan.data.ContentBlock;
+import com.vhn.doan.data.ContentMetadata;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ContentBlockCodec - Mã hóa/giải mã cột content_blocks trực tiếp sang ContentBlock
+ *
+ * Đọc bằng JsonReader (streaming) nên không tạo List<Map<String, Object>> trung gian
+ * như cách cũ (Gson + TypeToken rồi ContentBlock.fromJson cho từng Map).
+ *
+ * Định dạng lưu trong Room (có version để có thể đổi định dạng sau này):
+ * - v1 (cũ): mảng JSON các object {"id", "type", "value", "metadata": {"level", "alt", "caption"}}
+ * - v2: {"v":2,"b":[["id","type","value",level,"alt","caption"], ...]} - mỗi block là một mảng
+ *   vị trí cố định, không lặp lại tên trường; giá trị thiếu ghi là null
+ *
+ * decode() đọc được cả hai định dạng; AppDatabase.MIGRATION_6_7 chuyển dữ liệu v1 sang v2.
+ */
+public final class ContentBlockCodec {
+
+    public static final int FORMAT_VERSION = 2;
+
+    private static final String KEY_VERSION = "v";
+    private static final String KEY_BLOCKS = "b";
+
+    private ContentBlockCodec() {
+    }
+
+    /**
+     * Mã hóa danh sách block theo định dạng hiện tại (v2)
+     */
+    public static String encode(List<ContentBlock> blocks) {
+        if (blocks == null) {
+            return null;
+        }
+
+        StringWriter out = new StringWriter(blocks.size() * 128);
+        try (JsonWriter writer = new JsonWriter(out)) {
+            writer.setSerializeNulls(true);
+            writer.beginObject();
+            writer.name(KEY_VERSION).value(FORMAT_VERSION);
+            writer.name(KEY_BLOCKS).beginArray();
+            for (ContentBlock block : blocks) {
+                ContentMetadata metadata = block.getMetadata();
+                writer.beginArray();
+                writer.value(block.getId());
+                writer.value(block.getType());
+                writer.value(block.getValue());
+                writer.value(metadata != null ? metadata.getLevel() : null);
+                writer.value(metadata != null ? metadata.getAlt() : null);
+                writer.value(metadata != null ? metadata.getCaption() : null);
+                writer.endArray();
+            }
+            writer.endArray();
+            writer.endObject();
+        } catch (IOException e) {
+            // StringWriter không ném IOException
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Giải mã cột content_blocks (v1 hoặc v2)
+     * @return danh sách block, null nếu cột null hoặc dữ liệu hỏng
+     */
+    public static List<ContentBlock> decode(String stored) {
+        if (stored == null) {
+            return null;
+        }
+
+        try (JsonReader reader = new JsonReader(new StringReader(stored))) {
+            reader.setLenient(true);
+            JsonToken token = reader.peek();
+            if (token == JsonToken.BEGIN_ARRAY) {
+                return readLegacyBlocks(reader);
+            }
+            if (token == JsonToken.BEGIN_OBJECT) {
+                return readVersionedBlocks(reader);
+            }
+            return null;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Chuyển dữ liệu đã lưu sang định dạng hiện tại
+     * @return chuỗi v2, hoặc chính stored nếu đã là v2 / không đọc được
+     */
+    public static String upgrade(String stored) {
+        if (stored == null || isCurrentFormat(stored)) {
+            return stored;
+        }
+        List<ContentBlock> blocks = decode(stored);
+        return blocks != null ? encode(blocks) : stored;
+    }
+
+    /**
+     * Dữ liệu đã ở định dạng hiện tại hay chưa (v2 luôn bắt đầu bằng object)
+     */
+    public static boolean isCurrentFormat(String stored) {
+        for (int i = 0; i < stored.length(); i++) {
+            char c = stored.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c == '{';
+            }
+        }
+        return false;
+    }
+
+    private static List<ContentBlock> readVersionedBlocks(JsonReader reader) throws IOException {
+        List<ContentBlock> blocks = null;
+        int version = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (KEY_VERSION.equals(name)) {
+                version = reader.nextInt();
+            } else if (KEY_BLOCKS.equals(name)) {
+                blocks = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    blocks.add(readCompactBlock(reader));
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (version > FORMAT_VERSION) {
+            // Định dạng mới hơn phiên bản app - coi như không có cache để tải lại từ Firebase
+            return null;
+        }
+        return blocks != null ? blocks : new ArrayList<>();
+    }
+
+    private static ContentBlock readCompactBlock(JsonReader reader) throws IOException {
+        reader.beginArray();
+        String id = readString(reader);
+        String type = readString(reader);
+        String value = readString(reader);
+        Integer level = readInteger(reader);
+        String alt = readString(reader);
+        String caption = readString(reader);
+        // Bỏ qua các trường được thêm ở version sau
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+
+        ContentMetadata metadata = level != null || alt != null || caption != null
+                ? new ContentMetadata(level, alt, caption)
+                : null;
+        return new ContentBlock(id, type, value, metadata);
+    }
+
+    /**
+     * Đọc định dạng v1 (mảng object do Gson ghi) - cùng quy tắc với ContentBlock.fromJson
+     */
+    private static List<ContentBlock> readLegacyBlocks(JsonReader reader) throws IOException {
+        List<ContentBlock> blocks = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+
+            String id = null;
+            String type = null;
+            String value = null;
+            ContentMetadata metadata = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id":
+                        id = readString(reader);
+                        break;
+                    case "type":
+                        type = readString(reader);
+                        break;
+                    case "value":
+                        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            // Giống fromJson: value dạng mảng được thay bằng chuỗi rỗng
+                            reader.skipValue();
+                            value = "";
+                        } else {
+                            value = readString(reader);
+                        }
+                        break;
+                    case "metadata":
+                        metadata = readLegacyMetadata(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+            blocks.add(new ContentBlock(id, type, value, metadata));
+        }
+        reader.endArray();
+        return blocks;
+    }
+
+    private static ContentMetadata readLegacyMetadata(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+
+        Integer level = null;
+        String alt = null;
+        String caption = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "level":
+                    level = readInteger(reader);
+                    break;
+                case "alt":
+                    alt = readString(reader);
+                    break;
+                case "caption":
+                    caption = readString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new ContentMetadata(level, alt, caption);
+    }
+
+    /**
+     * Đọc giá trị dạng chuỗi; số/boolean được chuyển thành chuỗi, object/mảng bị bỏ qua
+     */
+    private static String readString(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return null;
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    private static Integer readInteger(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NUMBER:
+                return (int) reader.nextDouble();
+            case STRING:
+                try {
+                    return Integer.parseInt(reader.nextString().trim());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            case NULL:
+                reader.nextNull();
+                return null;
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.vhn.doan.data.local;
 import androidx.room.TypeConverter;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.vhn.doan.data.ContentBlock;
 
 import java.lang.reflect.Type;
 import java.util.List;
@@ -38,8 +39,25 @@ public class Converters {
         return gson.fromJson(json, listType);
     }
 
+    /**
+     * Mã hóa List<ContentBlock> cho cột content_blocks (xem ContentBlockCodec)
+     */
+    @TypeConverter
+    public static String fromContentBlockList(List<ContentBlock> contentBlocks) {
+        return ContentBlockCodec.encode(contentBlocks);
+    }
+
+    /**
+     * Giải mã cột content_blocks thẳng sang List<ContentBlock> (đọc được cả định dạng cũ)
+     */
+    @TypeConverter
+    public static List<ContentBlock> toContentBlockList(String stored) {
+        return ContentBlockCodec.decode(stored);
+    }
+
     /**
      * Chuyển đổi List<Map<String, Object>> sang JSON String
+     * Định dạng cũ (v1) của cột content_blocks - HealthTipEntity dùng fromContentBlockList
      */
     @TypeConverter
     public static String fromContentBlocks(List<Map<String, Object>> contentBlocks) {
@@ -51,6 +69,7 @@ public class Converters {
 
     /**
      * Chuyển đổi JSON String sang List<Map<String, Object>>
+     * Định dạng cũ (v1) của cột content_blocks - HealthTipEntity dùng toContentBlockList
      */
     @TypeConverter
     public static List<Map<String, Object>> toContentBlocks(String json) {
@@ -0,0 +1,419 @@
+package com.vhn.doan.data.local;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DatabaseExecutors - Tách luồng đọc và luồng ghi Room
+ *
+ * Database chạy ở chế độ WAL nên nhiều connection đọc có thể chạy song song với một connection ghi:
+ * - Read pool: READ_POOL_SIZE thread (bằng số connection đọc mặc định của SQLite ở chế độ WAL),
+ *   dùng cho mọi truy vấn đọc cache. Lệnh ghi lớn (cleanup, insert nhiều bản ghi) không làm
+ *   truy vấn đọc của màn hình Home phải xếp hàng chờ nữa.
+ * - Writer: đúng một thread ghi, các lệnh ghi không phải tranh nhau lock ghi của SQLite.
+ * - Upsert gộp: các lệnh ghi idempotent gửi qua {@link #enqueueWrite(AppDatabase, Runnable)}
+ *   được gom lại và chạy trong MỘT transaction mỗi lượt của thread ghi (thay vì mỗi lệnh một transaction).
+ *
+ * Cả hai pool đều đo độ dài hàng đợi và thời gian chờ (xem {@link #getStats()}).
+ */
+public final class DatabaseExecutors {
+
+    private static final String TAG = "DatabaseExecutors";
+
+    // Số connection đọc SQLite mở song song ở chế độ WAL
+    private static final int READ_POOL_SIZE = 4;
+
+    // Số lệnh ghi tối đa gom vào một transaction - giữ transaction ngắn để không chặn checkpoint WAL lâu
+    private static final int MAX_WRITES_PER_TRANSACTION = 64;
+
+    private static final String WRITER_THREAD_NAME = "db-write";
+
+    private static DatabaseExecutors instance;
+
+    private final MeteredExecutor readExecutor;
+    private final MeteredExecutor writeExecutor;
+
+    private final ConcurrentLinkedQueue<QueuedWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final Runnable drainRunnable = this::drainPendingWrites;
+
+    // Callback chờ transaction của lượt gộp hiện tại commit - chỉ dùng trên thread ghi
+    private final List<Runnable> afterCommitCallbacks = new ArrayList<>();
+    private boolean inQueuedWrite = false;
+
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong batchedWriteCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+
+    private DatabaseExecutors() {
+        readExecutor = new MeteredExecutor("db-read", READ_POOL_SIZE);
+        writeExecutor = new MeteredExecutor(WRITER_THREAD_NAME, 1);
+    }
+
+    /**
+     * Singleton instance
+     */
+    public static synchronized DatabaseExecutors getInstance() {
+        if (instance == null) {
+            instance = new DatabaseExecutors();
+        }
+        return instance;
+    }
+
+    /**
+     * Pool đọc song song - chỉ dùng cho truy vấn không ghi dữ liệu
+     */
+    public ExecutorService getReadExecutor() {
+        return readExecutor;
+    }
+
+    /**
+     * Thread ghi duy nhất - các lệnh ghi chạy tuần tự theo thứ tự gửi
+     */
+    public ExecutorService getWriteExecutor() {
+        return writeExecutor;
+    }
+
+    /**
+     * Xếp một lệnh ghi vào lượt gộp tiếp theo của thread ghi
+     *
+     * Lệnh ghi phải idempotent (upsert, set cờ, cập nhật thời gian...) và không gửi callback:
+     * nếu một lệnh trong lượt bị lỗi, transaction chung bị rollback và các lệnh được chạy lại
+     * riêng lẻ. Lệnh cần đọc-rồi-ghi (tăng bộ đếm) hoặc cần callback thì dùng getWriteExecutor().
+     */
+    public void enqueueWrite(AppDatabase database, Runnable write) {
+        pendingWrites.add(new QueuedWrite(database, write));
+        if (drainScheduled.compareAndSet(false, true)) {
+            writeExecutor.execute(drainRunnable);
+        }
+    }
+
+    /**
+     * Chạy callback sau khi dữ liệu vừa ghi đã commit (ví dụ xóa cache bộ nhớ của các dòng vừa ghi)
+     *
+     * Gọi bên trong lệnh của enqueueWrite: callback chạy sau khi transaction của lượt commit,
+     * bị bỏ nếu transaction rollback (lệnh được chạy lại sẽ đăng ký lại). Gọi ở nơi khác
+     * (lệnh ghi thường trên getWriteExecutor) thì callback chạy ngay.
+     */
+    public void runAfterCommit(Runnable callback) {
+        if (inQueuedWrite && Thread.currentThread().getName().startsWith(WRITER_THREAD_NAME)) {
+            afterCommitCallbacks.add(callback);
+        } else {
+            callback.run();
+        }
+    }
+
+    /**
+     * Một lượt của thread ghi: chạy các lệnh ghi đang chờ trong một transaction cho mỗi database
+     */
+    private void drainPendingWrites() {
+        // Reset trước khi lấy hàng đợi: lệnh gửi sau thời điểm này sẽ lên lịch lượt mới
+        drainScheduled.set(false);
+
+        Map<AppDatabase, List<QueuedWrite>> batches = new LinkedHashMap<>();
+        int drained = 0;
+        QueuedWrite queued;
+        while (drained < MAX_WRITES_PER_TRANSACTION && (queued = pendingWrites.poll()) != null) {
+            writeExecutor.recordWait(queued.enqueuedAtNanos);
+            List<QueuedWrite> batch = batches.get(queued.database);
+            if (batch == null) {
+                batch = new ArrayList<>();
+                batches.put(queued.database, batch);
+            }
+            batch.add(queued);
+            drained++;
+        }
+
+        for (Map.Entry<AppDatabase, List<QueuedWrite>> entry : batches.entrySet()) {
+            runBatch(entry.getKey(), entry.getValue());
+        }
+
+        if (!pendingWrites.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+            writeExecutor.execute(drainRunnable);
+        }
+    }
+
+    private void runBatch(AppDatabase database, List<QueuedWrite> batch) {
+        batchCount.incrementAndGet();
+        batchedWriteCount.addAndGet(batch.size());
+        updateMax(maxBatchSize, batch.size());
+
+        if (batch.size() == 1) {
+            runSingle(database, batch.get(0));
+            return;
+        }
+
+        try {
+            inQueuedWrite = true;
+            database.runInTransaction(() -> {
+                for (QueuedWrite write : batch) {
+                    // Lỗi của một lệnh (kể cả transaction lồng bên trong DAO) làm hỏng cả transaction,
+                    // nên ném ra để rollback rõ ràng rồi chạy lại từng lệnh
+                    write.write.run();
+                }
+            });
+            runAfterCommitCallbacks();
+        } catch (Exception e) {
+            afterCommitCallbacks.clear();
+            failedBatchCount.incrementAndGet();
+            Log.w(TAG, "Batched write failed, retrying " + batch.size() + " writes individually", e);
+            for (QueuedWrite write : batch) {
+                runSingle(database, write);
+            }
+        }
+    }
+
+    private void runSingle(AppDatabase database, QueuedWrite write) {
+        try {
+            inQueuedWrite = true;
+            database.runInTransaction(write.write);
+            runAfterCommitCallbacks();
+        } catch (Exception e) {
+            afterCommitCallbacks.clear();
+            Log.e(TAG, "Queued write failed", e);
+        } finally {
+            inQueuedWrite = false;
+        }
+    }
+
+    private void runAfterCommitCallbacks() {
+        inQueuedWrite = false;
+        List<Runnable> callbacks = new ArrayList<>(afterCommitCallbacks);
+        afterCommitCallbacks.clear();
+        for (Runnable callback : callbacks) {
+            try {
+                callback.run();
+            } catch (Exception e) {
+                Log.e(TAG, "After-commit callback failed", e);
+            }
+        }
+    }
+
+    /**
+     * Lấy thống kê hàng đợi của cả hai pool
+     */
+    public DatabaseStats getStats() {
+        return new DatabaseStats(
+                readExecutor.snapshot(),
+                writeExecutor.snapshot(),
+                pendingWrites.size(),
+                batchCount.get(),
+                batchedWriteCount.get(),
+                failedBatchCount.get(),
+                maxBatchSize.get());
+    }
+
+    /**
+     * Reset bộ đếm thống kê
+     */
+    public void resetStats() {
+        readExecutor.resetMetrics();
+        writeExecutor.resetMetrics();
+        batchCount.set(0);
+        batchedWriteCount.set(0);
+        failedBatchCount.set(0);
+        maxBatchSize.set(0);
+    }
+
+    private static void updateMax(AtomicInteger max, int value) {
+        int current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry
+        }
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // retry
+        }
+    }
+
+    /**
+     * Lệnh ghi đang chờ lượt gộp
+     */
+    private static final class QueuedWrite {
+        final AppDatabase database;
+        final Runnable write;
+        final long enqueuedAtNanos = System.nanoTime();
+
+        QueuedWrite(AppDatabase database, Runnable write) {
+            this.database = database;
+            this.write = write;
+        }
+    }
+
+    /**
+     * ThreadPoolExecutor cố định số thread, ghi lại thời gian mỗi task nằm trong hàng đợi
+     */
+    private static final class MeteredExecutor extends ThreadPoolExecutor {
+        private final String name;
+        private final AtomicInteger maxQueueDepth = new AtomicInteger();
+        private final AtomicLong waitCount = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        MeteredExecutor(String name, int threads) {
+            super(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    new NamedThreadFactory(name));
+            this.name = name;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            long enqueuedAtNanos = System.nanoTime();
+            super.execute(new TimedTask(command, enqueuedAtNanos));
+            updateMax(maxQueueDepth, getQueue().size());
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable runnable) {
+            super.beforeExecute(thread, runnable);
+            if (runnable instanceof TimedTask) {
+                recordWait(((TimedTask) runnable).enqueuedAtNanos);
+            }
+        }
+
+        void recordWait(long enqueuedAtNanos) {
+            long waitNanos = System.nanoTime() - enqueuedAtNanos;
+            waitCount.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            updateMax(maxWaitNanos, waitNanos);
+        }
+
+        ExecutorStats snapshot() {
+            long count = waitCount.get();
+            return new ExecutorStats(
+                    name,
+                    getCorePoolSize(),
+                    getActiveCount(),
+                    getQueue().size(),
+                    maxQueueDepth.get(),
+                    getCompletedTaskCount(),
+                    count == 0 ? 0 : totalWaitNanos.get() / count / 1_000_000.0,
+                    maxWaitNanos.get() / 1_000_000.0);
+        }
+
+        void resetMetrics() {
+            maxQueueDepth.set(0);
+            waitCount.set(0);
+            totalWaitNanos.set(0);
+            maxWaitNanos.set(0);
+        }
+    }
+
+    private static final class TimedTask implements Runnable {
+        final Runnable delegate;
+        final long enqueuedAtNanos;
+
+        TimedTask(Runnable delegate, long enqueuedAtNanos) {
+            this.delegate = delegate;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Thống kê một pool
+     */
+    public static class ExecutorStats {
+        public final String name;
+        public final int poolSize;
+        public final int activeCount;
+        public final int queueDepth;
+        public final int maxQueueDepth;
+        public final long completedCount;
+        public final double averageWaitMillis;
+        public final double maxWaitMillis;
+
+        public ExecutorStats(String name, int poolSize, int activeCount, int queueDepth, int maxQueueDepth,
+                             long completedCount, double averageWaitMillis, double maxWaitMillis) {
+            this.name = name;
+            this.poolSize = poolSize;
+            this.activeCount = activeCount;
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.completedCount = completedCount;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.ROOT,
+                    "%s[threads=%d active=%d queue=%d maxQueue=%d done=%d avgWait=%.1fms maxWait=%.1fms]",
+                    name, poolSize, activeCount, queueDepth, maxQueueDepth, completedCount,
+                    averageWaitMillis, maxWaitMillis);
+        }
+    }
+
+    /**
+     * Thống kê đọc/ghi database
+     */
+    public static class DatabaseStats {
+        public final ExecutorStats read;
+        public final ExecutorStats write;
+        public final int pendingBatchedWrites;
+        public final long batchCount;
+        public final long batchedWriteCount;
+        public final long failedBatchCount;
+        public final int maxBatchSize;
+
+        public DatabaseStats(ExecutorStats read, ExecutorStats write, int pendingBatchedWrites,
+                             long batchCount, long batchedWriteCount, long failedBatchCount, int maxBatchSize) {
+            this.read = read;
+            this.write = write;
+            this.pendingBatchedWrites = pendingBatchedWrites;
+            this.batchCount = batchCount;
+            this.batchedWriteCount = batchedWriteCount;
+            this.failedBatchCount = failedBatchCount;
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public double getAverageBatchSize() {
+            if (batchCount == 0) return 0;
+            return (double) batchedWriteCount / batchCount;
+        }
+
+        @Override
+        public String toString() {
+            return read + " " + write + String.format(java.util.Locale.ROOT,
+                    " batches=%d avgBatch=%.1f maxBatch=%d pending=%d failed=%d",
+                    batchCount, getAverageBatchSize(), maxBatchSize, pendingBatchedWrites, failedBatchCount);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.vhn.doan.data.local;
+
+import java.nio.ByteBuffer;
+
+/**
+ * FrequencySketch - Ước lượng tần suất truy cập theo key (Count-Min Sketch 4 hàng, bộ đếm tối đa 15)
+ *
+ * Dùng cho admission kiểu TinyLFU trong CacheManager: chỉ tốn bộ nhớ cố định dù số key lớn,
+ * và định kỳ chia đôi mọi bộ đếm (aging) để bài từng phổ biến nhưng không còn được đọc
+ * dần mất ưu thế so với bài mới được đọc nhiều.
+ * toByteArray/mergeFrom để lưu bộ đếm qua các lần khởi động app (key băm bằng String.hashCode nên ổn định).
+ */
+public class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0x5b8e3d1f, 0x2f6a9c43, 0x7d3b1e65};
+
+    private final byte[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions = 0;
+
+    /**
+     * @param expectedKeys số key dự kiến cần phân biệt (làm tròn lên lũy thừa của 2)
+     */
+    public FrequencySketch(int expectedKeys) {
+        int width = Integer.highestOneBit(Math.max(16, expectedKeys - 1)) << 1;
+        this.table = new byte[DEPTH][width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * width;
+    }
+
+    /**
+     * Ghi nhận một lần truy cập
+     */
+    public synchronized void increment(String key) {
+        if (key == null) {
+            return;
+        }
+        int hash = key.hashCode();
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            if (table[row][index] < MAX_COUNT) {
+                table[row][index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Tần suất ước lượng (0..15, có thể lớn hơn thực tế do va chạm hash, không bao giờ nhỏ hơn)
+     */
+    public synchronized int frequency(String key) {
+        if (key == null) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        int min = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, table[row][indexOf(hash, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Bộ đếm dạng byte để lưu xuống đĩa: [độ rộng 4 byte][additions 4 byte][DEPTH hàng bộ đếm]
+     */
+    public synchronized byte[] toByteArray() {
+        int width = mask + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(8 + DEPTH * width);
+        buffer.putInt(width);
+        buffer.putInt(additions);
+        for (byte[] row : table) {
+            buffer.put(row);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Cộng bộ đếm đã lưu (toByteArray) vào bộ đếm hiện tại - lượt truy cập ghi nhận trước khi
+     * đọc xong file không bị mất
+     * @return false nếu dữ liệu không khớp kích thước sketch (khi đó không thay đổi gì)
+     */
+    public synchronized boolean mergeFrom(byte[] saved) {
+        int width = mask + 1;
+        if (saved == null || saved.length != 8 + DEPTH * width) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(saved);
+        if (buffer.getInt() != width) {
+            return false;
+        }
+        int savedAdditions = buffer.getInt();
+        for (byte[] row : table) {
+            for (int i = 0; i < width; i++) {
+                int merged = row[i] + buffer.get();
+                row[i] = (byte) Math.max(0, Math.min(MAX_COUNT, merged));
+            }
+        }
+        additions = Math.max(0, Math.min(sampleSize - 1, additions + savedAdditions));
+        return true;
+    }
+
+    /**
+     * Aging: chia đôi mọi bộ đếm
+     */
+    private void reset() {
+        for (byte[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>= 1;
+            }
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+}
@@ -0,0 +1,64 @@
+package com.vhn.doan.data.local;
+
+/**
+ * Câu lệnh SQL tạo trigger đồng bộ health_tips -> health_tips_fts (FTS4 external content)
+ *
+ * Trigger Room tự sinh cho contentEntity chạy với MỌI lệnh UPDATE trên health_tips: lệnh chỉ ghi
+ * recommendation_score (RecommendationEngine) hay cached_at (CacheManager) cũng xóa dòng FTS rồi
+ * tokenize lại toàn bộ title/excerpt/content. COLUMN_LIMITED giữ nguyên tên trigger của Room nhưng
+ * thêm "UPDATE OF title, excerpt, content" - chỉ chạy khi lệnh UPDATE có ghi một trong ba cột đó.
+ *
+ * Dùng trong AppDatabase (migration và callback onOpen) và module :benchmark.
+ */
+public final class HealthTipFtsTriggers {
+
+    private static final String BEFORE_UPDATE = "room_fts_content_sync_health_tips_fts_BEFORE_UPDATE";
+    private static final String BEFORE_DELETE = "room_fts_content_sync_health_tips_fts_BEFORE_DELETE";
+    private static final String AFTER_UPDATE = "room_fts_content_sync_health_tips_fts_AFTER_UPDATE";
+    private static final String AFTER_INSERT = "room_fts_content_sync_health_tips_fts_AFTER_INSERT";
+
+    private static final String INDEXED_COLUMNS = "`title`, `excerpt`, `content`";
+    private static final String DELETE_FTS_ROW =
+            "BEGIN DELETE FROM `health_tips_fts` WHERE `docid`=OLD.`rowid`; END";
+    private static final String INSERT_FTS_ROW =
+            "BEGIN INSERT INTO `health_tips_fts`(`docid`, `title`, `excerpt`, `content`) "
+                    + "VALUES (NEW.`rowid`, NEW.`title`, NEW.`excerpt`, NEW.`content`); END";
+
+    /**
+     * Bảng FTS4 external content trên health_tips
+     */
+    public static final String CREATE_FTS_TABLE = "CREATE VIRTUAL TABLE IF NOT EXISTS `health_tips_fts` USING FTS4("
+            + "`title` TEXT, `excerpt` TEXT, `content` TEXT, tokenize=unicode61, content=`health_tips`)";
+
+    /**
+     * Trigger giống hệt trigger Room tự sinh (chạy với mọi UPDATE)
+     */
+    public static final String[] ROOM_GENERATED = {
+            "CREATE TRIGGER IF NOT EXISTS " + BEFORE_UPDATE + " BEFORE UPDATE ON `health_tips` " + DELETE_FTS_ROW,
+            "CREATE TRIGGER IF NOT EXISTS " + BEFORE_DELETE + " BEFORE DELETE ON `health_tips` " + DELETE_FTS_ROW,
+            "CREATE TRIGGER IF NOT EXISTS " + AFTER_UPDATE + " AFTER UPDATE ON `health_tips` " + INSERT_FTS_ROW,
+            "CREATE TRIGGER IF NOT EXISTS " + AFTER_INSERT + " AFTER INSERT ON `health_tips` " + INSERT_FTS_ROW,
+    };
+
+    /**
+     * Thay trigger UPDATE bằng bản chỉ chạy khi title/excerpt/content được ghi
+     * (trigger INSERT/DELETE giữ như Room sinh). Chạy lại nhiều lần vẫn cho cùng kết quả.
+     */
+    public static final String[] COLUMN_LIMITED = {
+            "DROP TRIGGER IF EXISTS " + BEFORE_UPDATE,
+            "DROP TRIGGER IF EXISTS " + AFTER_UPDATE,
+            "CREATE TRIGGER " + BEFORE_UPDATE + " BEFORE UPDATE OF " + INDEXED_COLUMNS
+                    + " ON `health_tips` " + DELETE_FTS_ROW,
+            "CREATE TRIGGER " + AFTER_UPDATE + " AFTER UPDATE OF " + INDEXED_COLUMNS
+                    + " ON `health_tips` " + INSERT_FTS_ROW,
+    };
+
+    /**
+     * Số trigger UPDATE đã giới hạn cột đang có (2 nghĩa là không cần chạy lại COLUMN_LIMITED)
+     */
+    public static final String COUNT_COLUMN_LIMITED = "SELECT COUNT(*) FROM sqlite_master WHERE type = 'trigger'"
+            + " AND name IN ('" + BEFORE_UPDATE + "', '" + AFTER_UPDATE + "') AND sql LIKE '%UPDATE OF%'";
+
+    private HealthTipFtsTriggers() {
+    }
+}
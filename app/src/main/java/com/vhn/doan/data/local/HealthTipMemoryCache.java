@@ -0,0 +1,144 @@
+package com.vhn.doan.data.local;
+
+import android.util.LruCache;
+
+import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.local.entity.HealthTipEntity;
+
+import java.util.Collection;
+
+/**
+ * HealthTipMemoryCache - Cache L1 trong bộ nhớ đặt trước HealthTipDao.getHealthTipByIdSync
+ *
+ * Giữ HealthTipEntity đã đọc từ Room (content_blocks đã giải mã thành ContentBlock), nên mở lại
+ * một bài vừa xem không phải truy vấn Room hay giải mã content_blocks lần nữa. Mỗi lần get trả về
+ * một HealthTip mới (chỉ copy field) để màn hình chi tiết sửa lượt thích/lượt xem không làm
+ * bẩn bản trong cache.
+ *
+ * Giới hạn theo byte ước lượng (HealthTipEntity.byteSize, x2 vì String Java là UTF-16).
+ * Các lệnh ghi health_tips gọi invalidate sau khi commit (DatabaseExecutors.runAfterCommit);
+ * put kèm stamp lấy trước khi đọc Room nên bản đọc trước một lần invalidate không được lưu lại.
+ * Lệnh ghi bài đầy đủ vừa tải (màn hình chi tiết) dùng putAfterCommit để thay luôn bản trong cache.
+ */
+public final class HealthTipMemoryCache {
+
+    // 1/32 heap của app, tối đa 8MB
+    private static final int MAX_BYTES =
+            (int) Math.min(Runtime.getRuntime().maxMemory() / 32, 8L * 1024 * 1024);
+
+    private static HealthTipMemoryCache instance;
+
+    private final LruCache<String, HealthTipEntity> cache;
+    private long version = 0;
+
+    private HealthTipMemoryCache() {
+        cache = new LruCache<String, HealthTipEntity>(MAX_BYTES) {
+            @Override
+            protected int sizeOf(String key, HealthTipEntity value) {
+                long bytes = value.getByteSize() > 0 ? value.getByteSize() : value.estimateByteSize();
+                return (int) Math.min(Integer.MAX_VALUE, bytes * 2);
+            }
+        };
+    }
+
+    public static synchronized HealthTipMemoryCache getInstance() {
+        if (instance == null) {
+            instance = new HealthTipMemoryCache();
+        }
+        return instance;
+    }
+
+    /**
+     * HealthTip đầy đủ từ cache, null nếu không có
+     */
+    public HealthTip get(String tipId) {
+        if (tipId == null) {
+            return null;
+        }
+        HealthTipEntity entity = cache.get(tipId);
+        return entity != null ? entity.toHealthTip() : null;
+    }
+
+    /**
+     * Stamp hiện tại - lấy TRƯỚC khi đọc Room rồi truyền vào put
+     */
+    public synchronized long stamp() {
+        return version;
+    }
+
+    /**
+     * Lưu entity vừa đọc từ Room, trừ khi đã có invalidate từ lúc lấy stamp
+     */
+    public synchronized void put(HealthTipEntity entity, long stamp) {
+        if (entity == null || stamp != version) {
+            return;
+        }
+        cache.put(entity.getId(), entity);
+    }
+
+    /**
+     * Thay bản trong cache bằng entity vừa ghi xuống Room (write-through)
+     * Tăng version như invalidate nên bản đọc Room trước lệnh ghi không ghi đè lên bản mới.
+     */
+    public synchronized void replace(HealthTipEntity entity) {
+        version++;
+        if (entity != null && entity.getId() != null) {
+            cache.put(entity.getId(), entity);
+        }
+    }
+
+    public synchronized void invalidate(String tipId) {
+        version++;
+        if (tipId != null) {
+            cache.remove(tipId);
+        }
+    }
+
+    public synchronized void invalidate(Collection<String> tipIds) {
+        version++;
+        if (tipIds != null) {
+            for (String tipId : tipIds) {
+                cache.remove(tipId);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        version++;
+        cache.evictAll();
+    }
+
+    /**
+     * Invalidate sau khi lệnh ghi hiện tại commit (gọi bên trong lệnh ghi)
+     */
+    public void invalidateAfterCommit(Collection<String> tipIds) {
+        DatabaseExecutors.getInstance().runAfterCommit(() -> invalidate(tipIds));
+    }
+
+    public void invalidateAfterCommit(String tipId) {
+        DatabaseExecutors.getInstance().runAfterCommit(() -> invalidate(tipId));
+    }
+
+    /**
+     * replace sau khi lệnh ghi hiện tại commit (gọi bên trong lệnh ghi, entity không được sửa sau đó)
+     */
+    public void putAfterCommit(HealthTipEntity entity) {
+        DatabaseExecutors.getInstance().runAfterCommit(() -> replace(entity));
+    }
+
+    public int hitCount() {
+        return cache.hitCount();
+    }
+
+    public int missCount() {
+        return cache.missCount();
+    }
+
+    public int sizeInBytes() {
+        return cache.size();
+    }
+
+    public int maxSizeInBytes() {
+        return cache.maxSize();
+    }
+}
@@ -0,0 +1,162 @@
+package com.vhn.doan.data.local;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.local.dao.HealthTipDao;
+import com.vhn.doan.data.local.entity.HealthTipEntity;
+import com.vhn.doan.utils.DataStoreManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * HealthTipSearchIndex - Tìm kiếm full-text trên Room cache (bảng FTS4 health_tips_fts)
+ * kết hợp TrigramSearchIndex cho từ khóa không dấu / chuỗi con
+ *
+ * Chiến lược:
+ * 1. Index được Room trigger tự cập nhật mỗi khi health_tips thay đổi
+ * 2. HealthTipSyncWorker đánh dấu thời điểm sync thành công gần nhất
+ * 3. Repository chỉ fallback về Firebase khi index đã cũ (isStale) và đang online
+ */
+public class HealthTipSearchIndex {
+
+    private static final String TAG = "HealthTipSearchIndex";
+
+    // Số kết quả mặc định cho một lần tìm kiếm
+    public static final int DEFAULT_SEARCH_LIMIT = 50;
+
+    // Index được coi là cũ nếu quá 24 giờ chưa sync (sync định kỳ mỗi 6 giờ)
+    private static final long STALE_AFTER_MS = 24 * 60 * 60 * 1000L;
+
+    private static HealthTipSearchIndex instance;
+    private final HealthTipDao healthTipDao;
+    private final DataStoreManager dataStoreManager;
+    private final TrigramSearchIndex trigramSearchIndex;
+
+    private HealthTipSearchIndex(Context context) {
+        Context appContext = context.getApplicationContext();
+        this.healthTipDao = AppDatabase.getInstance(appContext).healthTipDao();
+        this.dataStoreManager = DataStoreManager.getInstance(appContext);
+        this.trigramSearchIndex = TrigramSearchIndex.getInstance(appContext);
+    }
+
+    public static synchronized HealthTipSearchIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new HealthTipSearchIndex(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Kiểm tra index đã cũ hay chưa (synchronous - gọi trên background thread)
+     */
+    public boolean isStale() {
+        try {
+            long lastSync = dataStoreManager.getLong(DataStoreManager.Keys.LAST_SEARCH_INDEX_SYNC, 0L)
+                    .blockingFirst(0L);
+            return System.currentTimeMillis() - lastSync > STALE_AFTER_MS;
+        } catch (Exception e) {
+            Log.e(TAG, "Error reading index sync time", e);
+            return true;
+        }
+    }
+
+    /**
+     * Đánh dấu index vừa được sync đầy đủ
+     * Gọi sau khi HealthTipSyncWorker ghi dữ liệu mới vào Room
+     */
+    public void markFresh() {
+        dataStoreManager.putLong(DataStoreManager.Keys.LAST_SEARCH_INDEX_SYNC, System.currentTimeMillis())
+                .subscribe(prefs -> Log.d(TAG, "Search index marked fresh"),
+                        error -> Log.e(TAG, "Error marking search index fresh", error));
+    }
+
+    /**
+     * Tìm kiếm trong cache local (synchronous - gọi trên background thread)
+     * - Title, excerpt, danh mục: khớp chuỗi con không dấu (index trigram)
+     * - Nội dung bài viết: khớp theo từ/tiền tố của từ qua FTS trên toàn bộ bài
+     * @param query Từ khóa người dùng nhập
+     * @param limit Số kết quả tối đa
+     * @return Danh sách kết quả đã xếp hạng, rỗng nếu từ khóa không hợp lệ
+     */
+    public List<HealthTip> search(String query, int limit) {
+        String matchQuery = buildMatchQuery(query, null);
+        if (matchQuery == null) {
+            return new ArrayList<>();
+        }
+
+        // 1. FTS: khớp theo token, đã xếp hạng
+        Map<String, HealthTipEntity> ranked = new LinkedHashMap<>();
+        List<HealthTipEntity> entities = healthTipDao.searchHealthTipsFts(
+                matchQuery, buildMatchQuery(query, "title"), limit);
+        if (entities != null) {
+            for (HealthTipEntity entity : entities) {
+                ranked.put(entity.getId(), entity);
+            }
+        }
+
+        // 2. Trigram: bổ sung kết quả không dấu / chuỗi con mà FTS bỏ sót
+        if (ranked.size() < limit) {
+            List<String> missingIds = new ArrayList<>();
+            for (String id : trigramSearchIndex.search(TrigramSearchIndex.DOC_TYPE_HEALTH_TIP, query, limit)) {
+                if (!ranked.containsKey(id)) {
+                    missingIds.add(id);
+                }
+            }
+            if (!missingIds.isEmpty()) {
+                Map<String, HealthTipEntity> byId = new HashMap<>();
+                for (HealthTipEntity entity : healthTipDao.getHealthTipsByIdsSync(missingIds)) {
+                    byId.put(entity.getId(), entity);
+                }
+                for (String id : missingIds) {
+                    HealthTipEntity entity = byId.get(id);
+                    if (entity != null && ranked.size() < limit) {
+                        ranked.put(id, entity);
+                    }
+                }
+            }
+        }
+
+        List<HealthTip> results = new ArrayList<>(ranked.size());
+        for (HealthTipEntity entity : ranked.values()) {
+            results.add(entity.toHealthTip());
+        }
+        Log.d(TAG, "Local search '" + query + "' -> " + results.size() + " results");
+        return results;
+    }
+
+    /**
+     * Chuyển từ khóa người dùng thành biểu thức MATCH an toàn cho FTS4
+     * Mỗi token chỉ gồm chữ/số và được tìm theo prefix (token*), các token nối bằng AND ngầm định
+     * @param query Từ khóa gốc
+     * @param column Giới hạn trong một cột (ví dụ "title"), null để tìm trên mọi cột
+     * @return Biểu thức MATCH hoặc null nếu không có token nào
+     */
+    static String buildMatchQuery(String query, String column) {
+        if (query == null) {
+            return null;
+        }
+
+        String[] tokens = query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        StringBuilder builder = new StringBuilder();
+        for (String token : tokens) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            if (column != null) {
+                builder.append(column).append(':');
+            }
+            builder.append(token).append('*');
+        }
+        return builder.length() > 0 ? builder.toString() : null;
+    }
+}
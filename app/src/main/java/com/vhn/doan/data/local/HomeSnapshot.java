@@ -0,0 +1,168 @@
+package com.vhn.doan.data.local;
+
+import com.vhn.doan.data.Category;
+import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.local.entity.HealthTipSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HomeSnapshot - Toàn bộ dữ liệu màn hình Home trong một bản ghi
+ *
+ * Gồm danh mục và 4 danh sách bài viết (mới nhất, xem nhiều, thích nhiều, đề xuất hôm nay)
+ * dưới dạng HealthTipSummary (có sẵn ID). Được HomeSnapshotStore lưu sau mỗi lần làm mới thành công
+ * để lần mở app sau hiển thị ngay bằng một lần đọc, trước khi gọi Room/Firebase.
+ */
+public class HomeSnapshot {
+
+    private int version = HomeSnapshotStore.FORMAT_VERSION;
+    private long savedAt;
+
+    // Ngày (yyyy-MM-dd) và người dùng của danh sách đề xuất - đề xuất thay đổi theo ngày và theo user
+    private String recommendedDate;
+    private String recommendedUserId;
+
+    private List<Category> categories;
+    private List<HealthTipSummary> latest;
+    private List<HealthTipSummary> mostViewed;
+    private List<HealthTipSummary> mostLiked;
+    private List<HealthTipSummary> recommended;
+
+    /**
+     * Đủ cả 5 phần để lưu thành snapshot
+     */
+    public boolean isComplete() {
+        return categories != null && latest != null && mostViewed != null
+                && mostLiked != null && recommended != null;
+    }
+
+    /**
+     * Có ít nhất một phần có nội dung để hiển thị
+     */
+    public boolean hasContent() {
+        return !isEmpty(categories) || !isEmpty(latest) || !isEmpty(mostViewed)
+                || !isEmpty(mostLiked) || !isEmpty(recommended);
+    }
+
+    /**
+     * Danh sách đề xuất còn dùng được cho ngày và người dùng hiện tại
+     */
+    public boolean isRecommendedValidFor(String date, String userId) {
+        return recommended != null
+                && date != null && date.equals(recommendedDate)
+                && (userId == null ? recommendedUserId == null : userId.equals(recommendedUserId));
+    }
+
+    /**
+     * Bản sao nông để lưu - presenter tiếp tục cập nhật bản đang dùng
+     */
+    public HomeSnapshot copy() {
+        HomeSnapshot copy = new HomeSnapshot();
+        copy.version = version;
+        copy.savedAt = savedAt;
+        copy.recommendedDate = recommendedDate;
+        copy.recommendedUserId = recommendedUserId;
+        copy.categories = categories != null ? new ArrayList<>(categories) : null;
+        copy.latest = latest != null ? new ArrayList<>(latest) : null;
+        copy.mostViewed = mostViewed != null ? new ArrayList<>(mostViewed) : null;
+        copy.mostLiked = mostLiked != null ? new ArrayList<>(mostLiked) : null;
+        copy.recommended = recommended != null ? new ArrayList<>(recommended) : null;
+        return copy;
+    }
+
+    /**
+     * Chuyển danh sách HealthTip sang HealthTipSummary để lưu
+     */
+    public static List<HealthTipSummary> toSummaries(List<HealthTip> healthTips) {
+        List<HealthTipSummary> summaries = new ArrayList<>();
+        if (healthTips != null) {
+            for (HealthTip healthTip : healthTips) {
+                if (healthTip != null && healthTip.getId() != null) {
+                    summaries.add(HealthTipSummary.fromHealthTip(healthTip));
+                }
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Chuyển HealthTipSummary đã lưu thành HealthTip (summaryOnly) cho adapter
+     */
+    public static List<HealthTip> toHealthTips(List<HealthTipSummary> summaries) {
+        List<HealthTip> healthTips = new ArrayList<>();
+        if (summaries != null) {
+            for (HealthTipSummary summary : summaries) {
+                healthTips.add(summary.toHealthTip());
+            }
+        }
+        return healthTips;
+    }
+
+    private static boolean isEmpty(List<?> list) {
+        return list == null || list.isEmpty();
+    }
+
+    // Getters and Setters
+    public int getVersion() {
+        return version;
+    }
+
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    public void setSavedAt(long savedAt) {
+        this.savedAt = savedAt;
+    }
+
+    public String getRecommendedDate() {
+        return recommendedDate;
+    }
+
+    public String getRecommendedUserId() {
+        return recommendedUserId;
+    }
+
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<Category> categories) {
+        this.categories = categories;
+    }
+
+    public List<HealthTipSummary> getLatest() {
+        return latest;
+    }
+
+    public void setLatest(List<HealthTipSummary> latest) {
+        this.latest = latest;
+    }
+
+    public List<HealthTipSummary> getMostViewed() {
+        return mostViewed;
+    }
+
+    public void setMostViewed(List<HealthTipSummary> mostViewed) {
+        this.mostViewed = mostViewed;
+    }
+
+    public List<HealthTipSummary> getMostLiked() {
+        return mostLiked;
+    }
+
+    public void setMostLiked(List<HealthTipSummary> mostLiked) {
+        this.mostLiked = mostLiked;
+    }
+
+    public List<HealthTipSummary> getRecommended() {
+        return recommended;
+    }
+
+    public void setRecommended(List<HealthTipSummary> recommended, String date, String userId) {
+        this.recommended = recommended;
+        this.recommendedDate = date;
+        this.recommendedUserId = userId;
+    }
+}
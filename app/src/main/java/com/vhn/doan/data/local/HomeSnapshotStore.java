@@ -0,0 +1,182 @@
+package com.vhn.doan.data.local;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HomeSnapshotStore - Lưu/đọc HomeSnapshot trong một file JSON
+ *
+ * - Đọc: một lần đọc file (không cần mở Room) nên màn hình Home có nội dung ngay khi mở app;
+ *   sau lần đọc đầu snapshot được giữ trong bộ nhớ
+ * - Ghi: AtomicFile (ghi file mới rồi đổi tên) nên bản cũ được thay thế nguyên vẹn,
+ *   không bao giờ đọc phải snapshot ghi dở
+ * - Đo time-to-first-content: từ lúc process khởi động (cold start) và từ lúc presenter bắt đầu tải
+ */
+public final class HomeSnapshotStore {
+
+    private static final String TAG = "HomeSnapshotStore";
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final String FILE_NAME = "home_snapshot.json";
+
+    /**
+     * Callback nhận snapshot (null nếu chưa có hoặc không đọc được) - gọi trên main thread
+     */
+    public interface LoadCallback {
+        void onLoaded(HomeSnapshot snapshot);
+    }
+
+    private static HomeSnapshotStore instance;
+
+    private final AtomicFile file;
+    private final Gson gson = new Gson();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Một thread cho I/O file - các lần ghi chạy tuần tự theo thứ tự gọi save()
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+
+    private volatile HomeSnapshot cachedSnapshot;
+    private volatile boolean loaded = false;
+
+    private boolean firstContentReported = false;
+    private long lastTimeToFirstContentMillis = -1;
+    private long coldStartTimeToFirstContentMillis = -1;
+    private boolean lastFirstContentFromSnapshot = false;
+
+    private HomeSnapshotStore(Context context) {
+        this.file = new AtomicFile(new File(context.getApplicationContext().getFilesDir(), FILE_NAME));
+    }
+
+    /**
+     * Singleton instance
+     */
+    public static synchronized HomeSnapshotStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new HomeSnapshotStore(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Đọc snapshot đã lưu
+     */
+    public void load(LoadCallback callback) {
+        if (loaded) {
+            HomeSnapshot snapshot = cachedSnapshot;
+            mainHandler.post(() -> callback.onLoaded(snapshot != null ? snapshot.copy() : null));
+            return;
+        }
+
+        ioExecutor.execute(() -> {
+            HomeSnapshot snapshot = cachedSnapshot;
+            if (!loaded) {
+                snapshot = readFromDisk();
+                cachedSnapshot = snapshot;
+                loaded = true;
+            }
+            final HomeSnapshot result = snapshot;
+            mainHandler.post(() -> callback.onLoaded(result != null ? result.copy() : null));
+        });
+    }
+
+    /**
+     * Thay snapshot hiện tại bằng snapshot mới (bộ nhớ ngay lập tức, file ở background)
+     */
+    public void save(HomeSnapshot snapshot) {
+        if (snapshot == null || !snapshot.isComplete()) {
+            return;
+        }
+        HomeSnapshot toSave = snapshot.copy();
+        toSave.setSavedAt(System.currentTimeMillis());
+        cachedSnapshot = toSave;
+        loaded = true;
+
+        ioExecutor.execute(() -> writeToDisk(toSave));
+    }
+
+    /**
+     * Ghi nhận lần đầu màn hình Home có nội dung
+     * @param loadStartedAt SystemClock.elapsedRealtime() lúc presenter bắt đầu tải
+     * @param fromSnapshot Nội dung đầu tiên lấy từ snapshot hay từ repository
+     */
+    public synchronized void reportFirstContent(long loadStartedAt, boolean fromSnapshot) {
+        long now = SystemClock.elapsedRealtime();
+        lastTimeToFirstContentMillis = now - loadStartedAt;
+        lastFirstContentFromSnapshot = fromSnapshot;
+
+        if (!firstContentReported) {
+            // Lần đầu trong process = cold start: tính từ lúc process khởi động
+            firstContentReported = true;
+            coldStartTimeToFirstContentMillis = now - Process.getStartElapsedRealtime();
+            Log.i(TAG, "Cold start time-to-first-content: " + coldStartTimeToFirstContentMillis
+                    + "ms (" + (fromSnapshot ? "snapshot" : "repository") + ")");
+        }
+        Log.d(TAG, "Home time-to-first-content: " + lastTimeToFirstContentMillis
+                + "ms (" + (fromSnapshot ? "snapshot" : "repository") + ")");
+    }
+
+    /**
+     * Thời gian từ lúc process khởi động đến khi Home có nội dung, -1 nếu chưa có
+     */
+    public synchronized long getColdStartTimeToFirstContentMillis() {
+        return coldStartTimeToFirstContentMillis;
+    }
+
+    /**
+     * Thời gian từ lúc presenter bắt đầu tải đến khi Home có nội dung (lần gần nhất), -1 nếu chưa có
+     */
+    public synchronized long getLastTimeToFirstContentMillis() {
+        return lastTimeToFirstContentMillis;
+    }
+
+    public synchronized boolean isLastFirstContentFromSnapshot() {
+        return lastFirstContentFromSnapshot;
+    }
+
+    private HomeSnapshot readFromDisk() {
+        try {
+            byte[] bytes = file.readFully();
+            HomeSnapshot snapshot = gson.fromJson(new String(bytes, StandardCharsets.UTF_8), HomeSnapshot.class);
+            if (snapshot == null || snapshot.getVersion() != FORMAT_VERSION) {
+                return null;
+            }
+            return snapshot;
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException | JsonParseException e) {
+            Log.w(TAG, "Error reading home snapshot", e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(HomeSnapshot snapshot) {
+        FileOutputStream out = null;
+        try {
+            out = file.startWrite();
+            out.write(gson.toJson(snapshot).getBytes(StandardCharsets.UTF_8));
+            file.finishWrite(out);
+            Log.d(TAG, "Home snapshot saved");
+        } catch (IOException e) {
+            Log.e(TAG, "Error writing home snapshot", e);
+            if (out != null) {
+                file.failWrite(out);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.vhn.doan.data.local;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.vhn.doan.data.local.dao.HealthTipDao;
+import com.vhn.doan.data.local.entity.HealthTipEntity;
+import com.vhn.doan.data.local.entity.HealthTipScore;
+import com.vhn.doan.data.local.entity.HealthTipScoreInput;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RecommendationEngine - Duy trì cột recommendation_score của cache health_tips
+ *
+ * - Tip mới/cập nhật được chấm điểm ngay trước khi ghi (scoreEntities), không cần lệnh UPDATE riêng
+ * - Lượt xem/lượt thích thay đổi: chấm lại đúng các tip đó
+ * - Người dùng thích/yêu thích một tip: chấm lại các tip cùng danh mục (điểm sở thích thay đổi)
+ * - Chấm lại toàn bộ sau mỗi lần sync và khi điểm đã cũ (thành phần độ mới giảm theo thời gian)
+ * Danh sách đề xuất khi đó chỉ là một truy vấn theo index recommendation_score.
+ *
+ * Các method *Sync ghi trực tiếp - chỉ gọi trên thread ghi (AppDatabase.enqueueWrite
+ * hoặc AppDatabase.databaseWriteExecutor); các method còn lại tự xếp vào lượt ghi.
+ */
+public class RecommendationEngine {
+
+    private static final String TAG = "RecommendationEngine";
+
+    // Chấm lại toàn bộ khi lần gần nhất cách quá 6 giờ (cùng chu kỳ HealthTipSyncWorker)
+    private static final long FULL_RESCORE_INTERVAL_MILLIS = 6L * 60 * 60 * 1000;
+
+    // SQLite giới hạn 999 tham số cho một câu lệnh
+    private static final int SQL_IN_CHUNK_SIZE = 500;
+
+    private static RecommendationEngine instance;
+    private final AppDatabase appDatabase;
+    private final HealthTipDao healthTipDao;
+
+    // Thống kê theo danh mục - chỉ đọc/ghi trên thread ghi, null khi cần đọc lại
+    private RecommendationScorer.Stats stats;
+
+    private volatile long lastFullRescoreAt = 0;
+    private volatile boolean fullRescorePending = false;
+    private volatile long lastFullRescoreDurationMillis = -1;
+    private volatile int lastFullRescoreCount = 0;
+
+    private RecommendationEngine(Context context) {
+        this.appDatabase = AppDatabase.getInstance(context.getApplicationContext());
+        this.healthTipDao = appDatabase.healthTipDao();
+    }
+
+    public static synchronized RecommendationEngine getInstance(Context context) {
+        if (instance == null) {
+            instance = new RecommendationEngine(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Gán điểm cho các entity sắp được insert (gọi ngay trước healthTipDao.insert/insertAll)
+     */
+    public void scoreEntities(List<HealthTipEntity> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return;
+        }
+        RecommendationScorer.Stats current = getStats();
+        long now = System.currentTimeMillis();
+        for (HealthTipEntity entity : entities) {
+            entity.setRecommendationScore(RecommendationScorer.score(entity.getCategoryId(),
+                    entity.getViewCount(), entity.getLikeCount(), entity.getCreatedAt(),
+                    entity.isFavorite(), entity.isLiked(), current, now));
+        }
+        // Số tip mỗi danh mục có thể đã đổi - đọc lại ở lượt sau
+        stats = null;
+    }
+
+    /**
+     * Chấm lại các tip có lượt xem/lượt thích vừa thay đổi
+     */
+    public void rescoreSync(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        List<String> idList = new ArrayList<>(ids);
+        RecommendationScorer.Stats current = getStats();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < idList.size(); i += SQL_IN_CHUNK_SIZE) {
+            List<String> chunk = idList.subList(i, Math.min(i + SQL_IN_CHUNK_SIZE, idList.size()));
+            writeScores(healthTipDao.getScoreInputsByIdsSync(chunk), current, now);
+        }
+    }
+
+    /**
+     * Trạng thái thích/yêu thích của một tip vừa đổi: chấm lại cả danh mục của tip đó
+     */
+    public void onInteractionChangedSync(String tipId) {
+        List<HealthTipScoreInput> changed = healthTipDao.getScoreInputsByIdsSync(Collections.singletonList(tipId));
+        if (changed.isEmpty()) {
+            return;
+        }
+        stats = null;
+        RecommendationScorer.Stats current = getStats();
+        writeScores(healthTipDao.getScoreInputsByCategorySync(changed.get(0).getCategoryId()),
+                current, System.currentTimeMillis());
+    }
+
+    /**
+     * Chấm lại toàn bộ cache
+     * @return số tip đã chấm
+     */
+    public int rescoreAllSync() {
+        long start = SystemClock.elapsedRealtime();
+        List<HealthTipScoreInput> inputs = healthTipDao.getScoreInputsSync();
+        RecommendationScorer.Stats current = RecommendationScorer.Stats.fromInputs(inputs);
+        stats = current;
+        writeScores(inputs, current, System.currentTimeMillis());
+
+        lastFullRescoreAt = System.currentTimeMillis();
+        lastFullRescoreDurationMillis = SystemClock.elapsedRealtime() - start;
+        lastFullRescoreCount = inputs.size();
+        Log.d(TAG, "Rescored " + inputs.size() + " tips in " + lastFullRescoreDurationMillis + "ms");
+        return inputs.size();
+    }
+
+    /**
+     * Chấm lại toàn bộ nếu lần gần nhất đã quá FULL_RESCORE_INTERVAL_MILLIS (hoặc chưa có trong process)
+     */
+    public void rescoreAllIfStale() {
+        if (System.currentTimeMillis() - lastFullRescoreAt >= FULL_RESCORE_INTERVAL_MILLIS) {
+            rescoreAll();
+        }
+    }
+
+    /**
+     * Xếp lượt chấm lại toàn bộ cache (bỏ qua nếu đã có một lượt đang chờ)
+     */
+    public void rescoreAll() {
+        if (fullRescorePending) {
+            return;
+        }
+        fullRescorePending = true;
+        appDatabase.enqueueWrite(() -> {
+            try {
+                rescoreAllSync();
+            } finally {
+                fullRescorePending = false;
+            }
+        });
+    }
+
+    public long getLastFullRescoreDurationMillis() {
+        return lastFullRescoreDurationMillis;
+    }
+
+    public int getLastFullRescoreCount() {
+        return lastFullRescoreCount;
+    }
+
+    private RecommendationScorer.Stats getStats() {
+        if (stats == null) {
+            stats = RecommendationScorer.Stats.fromCategoryStats(healthTipDao.getCategoryScoreStatsSync());
+        }
+        return stats;
+    }
+
+    private void writeScores(List<HealthTipScoreInput> inputs, RecommendationScorer.Stats current, long now) {
+        if (inputs == null || inputs.isEmpty()) {
+            return;
+        }
+        List<HealthTipScore> scores = new ArrayList<>(inputs.size());
+        for (HealthTipScoreInput input : inputs) {
+            scores.add(new HealthTipScore(input.getId(), RecommendationScorer.score(input, current, now)));
+        }
+        healthTipDao.updateRecommendationScores(scores);
+    }
+}
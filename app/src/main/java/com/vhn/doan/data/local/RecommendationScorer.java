@@ -0,0 +1,141 @@
+package com.vhn.doan.data.local;
+
+import com.vhn.doan.data.local.entity.CategoryScoreStats;
+import com.vhn.doan.data.local.entity.HealthTipScoreInput;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RecommendationScorer - Công thức điểm đề xuất on-device (lưu ở cột recommendation_score)
+ *
+ * Điểm là tổng có trọng số của các thành phần trong [0, 1]:
+ * - Độ phổ biến: log(1 + lượt xem + 2 * lượt thích), bão hòa ở POPULARITY_SATURATION
+ * - Độ mới: giảm theo hàm mũ với tuổi bài viết
+ * - Sở thích: danh mục có nhiều bài người dùng đã thích/yêu thích được ưu tiên
+ * - Đa dạng: danh mục đông hơn mức trung bình bị giảm điểm để top không chỉ một danh mục
+ * Bài người dùng đã thích/yêu thích bị giảm một nửa để nhường chỗ cho bài chưa đọc.
+ *
+ * Điểm của một bài chỉ phụ thuộc vào dữ liệu của chính nó và Stats theo danh mục,
+ * nên có thể chấm lại từng bài (khi lượt xem/thích thay đổi) mà không đụng tới bài khác.
+ */
+public final class RecommendationScorer {
+
+    /**
+     * Điểm thực (0..1) được nhân hệ số này để lưu vào cột INTEGER
+     */
+    public static final int SCORE_SCALE = 1_000_000;
+
+    private static final double WEIGHT_POPULARITY = 0.35;
+    private static final double WEIGHT_RECENCY = 0.30;
+    private static final double WEIGHT_AFFINITY = 0.20;
+    private static final double WEIGHT_DIVERSITY = 0.15;
+
+    private static final double POPULARITY_SATURATION = Math.log1p(10_000);
+    // Sau RECENCY_DECAY_DAYS ngày điểm độ mới còn 1/e (~37%)
+    private static final double RECENCY_DECAY_DAYS = 14.0;
+    // Số bài đã tương tác để điểm sở thích của danh mục đạt ~63%
+    private static final double AFFINITY_SATURATION = 3.0;
+    private static final double ALREADY_INTERACTED_FACTOR = 0.5;
+
+    private static final double DAY_MILLIS = 24.0 * 60 * 60 * 1000;
+    private static final String UNKNOWN_CATEGORY = "";
+
+    private RecommendationScorer() {
+    }
+
+    /**
+     * Thống kê theo danh mục dùng chung cho mọi bài trong một lượt chấm điểm
+     */
+    public static final class Stats {
+        private final Map<String, int[]> categories;
+        private final double averageCategorySize;
+
+        private Stats(Map<String, int[]> categories) {
+            this.categories = categories;
+            int totalTips = 0;
+            for (int[] counts : categories.values()) {
+                totalTips += counts[0];
+            }
+            this.averageCategorySize = categories.isEmpty() ? 0 : (double) totalTips / categories.size();
+        }
+
+        /**
+         * Từ kết quả GROUP BY category_id (HealthTipDao.getCategoryScoreStatsSync)
+         */
+        public static Stats fromCategoryStats(List<CategoryScoreStats> rows) {
+            Map<String, int[]> categories = new HashMap<>();
+            if (rows != null) {
+                for (CategoryScoreStats row : rows) {
+                    categories.put(keyOf(row.categoryId), new int[]{row.tipCount, row.interactionCount});
+                }
+            }
+            return new Stats(categories);
+        }
+
+        /**
+         * Tính trực tiếp từ danh sách bài (khi đã đọc toàn bộ để chấm lại)
+         */
+        public static Stats fromInputs(List<HealthTipScoreInput> inputs) {
+            Map<String, int[]> categories = new HashMap<>();
+            for (HealthTipScoreInput input : inputs) {
+                int[] counts = categories.get(keyOf(input.getCategoryId()));
+                if (counts == null) {
+                    counts = new int[2];
+                    categories.put(keyOf(input.getCategoryId()), counts);
+                }
+                counts[0]++;
+                if (input.isFavorite() || input.isLiked()) {
+                    counts[1]++;
+                }
+            }
+            return new Stats(categories);
+        }
+
+        int tipCount(String categoryId) {
+            int[] counts = categories.get(keyOf(categoryId));
+            return counts != null ? counts[0] : 0;
+        }
+
+        int interactionCount(String categoryId) {
+            int[] counts = categories.get(keyOf(categoryId));
+            return counts != null ? counts[1] : 0;
+        }
+    }
+
+    public static int score(HealthTipScoreInput input, Stats stats, long now) {
+        return score(input.getCategoryId(), input.getViewCount(), input.getLikeCount(), input.getCreatedAt(),
+                input.isFavorite(), input.isLiked(), stats, now);
+    }
+
+    /**
+     * Điểm đề xuất của một bài viết (0..SCORE_SCALE)
+     */
+    public static int score(String categoryId, int viewCount, int likeCount, long createdAt,
+                            boolean isFavorite, boolean isLiked, Stats stats, long now) {
+        double engagement = Math.max(0, viewCount) + 2.0 * Math.max(0, likeCount);
+        double popularity = Math.min(1.0, Math.log1p(engagement) / POPULARITY_SATURATION);
+
+        double ageInDays = Math.max(0, now - createdAt) / DAY_MILLIS;
+        double recency = Math.exp(-ageInDays / RECENCY_DECAY_DAYS);
+
+        double affinity = 1.0 - Math.exp(-stats.interactionCount(categoryId) / AFFINITY_SATURATION);
+
+        int categorySize = stats.tipCount(categoryId);
+        double diversity = categorySize <= 0 ? 1.0 : Math.min(1.0, stats.averageCategorySize / categorySize);
+
+        double score = WEIGHT_POPULARITY * popularity
+                + WEIGHT_RECENCY * recency
+                + WEIGHT_AFFINITY * affinity
+                + WEIGHT_DIVERSITY * diversity;
+        if (isFavorite || isLiked) {
+            score *= ALREADY_INTERACTED_FACTOR;
+        }
+        return (int) Math.round(score * SCORE_SCALE);
+    }
+
+    private static String keyOf(String categoryId) {
+        return categoryId != null ? categoryId : UNKNOWN_CATEGORY;
+    }
+}
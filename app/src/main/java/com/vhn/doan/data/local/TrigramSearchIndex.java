@@ -0,0 +1,160 @@
+package com.vhn.doan.data.local;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.vhn.doan.data.local.dao.SearchIndexDao;
+import com.vhn.doan.data.local.entity.HealthTipEntity;
+import com.vhn.doan.data.local.entity.SearchDocumentEntity;
+import com.vhn.doan.data.local.entity.SearchTrigramEntity;
+import com.vhn.doan.data.local.entity.VideoEntity;
+import com.vhn.doan.utils.VietnameseTextNormalizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * TrigramSearchIndex - Index trigram không dấu lưu trong Room
+ *
+ * Cho phép tìm chuỗi con không phân biệt dấu ("suc khoe" khớp "sức khỏe") mà không phải quét
+ * toàn bộ bảng bằng LIKE '%query%':
+ * 1. Lọc ứng viên bằng posting list trigram (tra cứu theo primary key)
+ * 2. Xác minh chuỗi con trên văn bản đã chuẩn hóa của các ứng viên còn lại
+ *
+ * Health tip chỉ index title, excerpt và tên danh mục (đầy đủ, không cắt). Nội dung bài viết
+ * được tìm qua FTS4 (health_tips_fts, tokenizer unicode61 bỏ dấu) theo token/prefix trên toàn bộ
+ * độ dài - chuỗi con nằm giữa một từ của phần nội dung không được tìm thấy.
+ *
+ * Tất cả method đều synchronous - index/prune gọi trên AppDatabase.databaseWriteExecutor,
+ * search gọi trên AppDatabase.databaseReadExecutor
+ */
+public class TrigramSearchIndex {
+
+    private static final String TAG = "TrigramSearchIndex";
+
+    public static final String DOC_TYPE_HEALTH_TIP = "health_tip";
+    public static final String DOC_TYPE_VIDEO = "video";
+
+    // Giới hạn số trigram của từ khóa (SQLite giới hạn 999 tham số; bước xác minh đảm bảo đúng)
+    private static final int MAX_QUERY_TRIGRAMS = 32;
+
+    private static TrigramSearchIndex instance;
+    private final AppDatabase appDatabase;
+    private final SearchIndexDao searchIndexDao;
+
+    private TrigramSearchIndex(Context context) {
+        this.appDatabase = AppDatabase.getInstance(context.getApplicationContext());
+        this.searchIndexDao = appDatabase.searchIndexDao();
+    }
+
+    public static synchronized TrigramSearchIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new TrigramSearchIndex(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Index (hoặc index lại) danh sách health tips vừa được ghi vào cache
+     */
+    public void indexHealthTips(List<HealthTipEntity> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        for (HealthTipEntity entity : entities) {
+            ids.add(entity.getId());
+            // Nội dung bài viết để FTS đảm nhận - bảng trigram không phình theo bài dài
+            texts.add(VietnameseTextNormalizer.normalizeFields(
+                    entity.getTitle(), entity.getExcerpt(), entity.getCategoryName()));
+        }
+        indexDocuments(DOC_TYPE_HEALTH_TIP, ids, texts);
+    }
+
+    /**
+     * Index (hoặc index lại) danh sách videos vừa được ghi vào cache
+     */
+    public void indexVideos(List<VideoEntity> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        for (VideoEntity entity : entities) {
+            ids.add(entity.getId());
+            texts.add(VietnameseTextNormalizer.normalizeFields(entity.getTitle(), entity.getCaption()));
+        }
+        indexDocuments(DOC_TYPE_VIDEO, ids, texts);
+    }
+
+    private void indexDocuments(String docType, List<String> ids, List<String> texts) {
+        try {
+            appDatabase.runInTransaction(() -> {
+                searchIndexDao.deleteTrigramsForDocuments(docType, ids);
+
+                List<SearchDocumentEntity> documents = new ArrayList<>(ids.size());
+                List<SearchTrigramEntity> postings = new ArrayList<>();
+                for (int i = 0; i < ids.size(); i++) {
+                    String text = texts.get(i);
+                    documents.add(new SearchDocumentEntity(docType, ids.get(i), text));
+                    for (String gram : VietnameseTextNormalizer.trigrams(text)) {
+                        postings.add(new SearchTrigramEntity(docType, gram, ids.get(i)));
+                    }
+                }
+
+                searchIndexDao.insertDocuments(documents);
+                searchIndexDao.insertTrigrams(postings);
+            });
+            Log.d(TAG, "Indexed " + ids.size() + " " + docType + " documents");
+        } catch (RuntimeException e) {
+            if (appDatabase.inTransaction()) {
+                // Đang nằm trong transaction gộp của thread ghi - để transaction ngoài rollback rồi chạy lại
+                throw e;
+            }
+            Log.e(TAG, "Error indexing " + docType + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Tìm ID tài liệu khớp từ khóa (không dấu, chuỗi con)
+     * @param docType DOC_TYPE_HEALTH_TIP hoặc DOC_TYPE_VIDEO
+     * @param query Từ khóa người dùng nhập
+     * @param limit Số kết quả tối đa
+     * @return Danh sách ID, rỗng nếu từ khóa không có chữ/số
+     */
+    public List<String> search(String docType, String query, int limit) {
+        String normalizedQuery = VietnameseTextNormalizer.normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> grams = VietnameseTextNormalizer.trigrams(normalizedQuery);
+        if (grams.isEmpty()) {
+            return searchIndexDao.searchShortQuery(docType, normalizedQuery, limit);
+        }
+
+        List<String> queryGrams = new ArrayList<>(grams);
+        if (queryGrams.size() > MAX_QUERY_TRIGRAMS) {
+            queryGrams = queryGrams.subList(0, MAX_QUERY_TRIGRAMS);
+        }
+        return searchIndexDao.searchByTrigrams(docType, queryGrams, queryGrams.size(), normalizedQuery, limit);
+    }
+
+    /**
+     * Xóa index của các tài liệu không còn trong cache (sau cleanup/eviction)
+     */
+    public void pruneOrphans() {
+        try {
+            appDatabase.runInTransaction(() -> {
+                searchIndexDao.deleteOrphanHealthTipTrigrams();
+                searchIndexDao.deleteOrphanHealthTipDocuments();
+                searchIndexDao.deleteOrphanVideoTrigrams();
+                searchIndexDao.deleteOrphanVideoDocuments();
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "Error pruning search index: " + e.getMessage(), e);
+        }
+    }
+}
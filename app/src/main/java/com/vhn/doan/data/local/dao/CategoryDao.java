@@ -36,6 +36,12 @@ public interface CategoryDao {
     @Query("SELECT * FROM categories ORDER BY order_index ASC")
     LiveData<List<CategoryEntity>> getAllCategories();
 
+    /**
+     * Lấy tất cả categories (synchronous) - dùng để nạp từ điển danh mục khi khởi động
+     */
+    @Query("SELECT * FROM categories ORDER BY order_index ASC")
+    List<CategoryEntity> getAllCategoriesSync();
+
     /**
      * Lấy category theo ID
      */
@@ -0,0 +1,33 @@
+package com.vhn.doan.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.vhn.doan.data.local.entity.DailyRecommendationEntity;
+
+/**
+ * DAO cho bảng daily_recommendations (đề xuất đã tính sẵn theo ngày)
+ */
+@Dao
+public interface DailyRecommendationDao {
+
+    /**
+     * Chỉ ghi khi ngày chưa có đề xuất - lần tính đầu tiên của một ngày được giữ nguyên cả ngày
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertIfAbsent(DailyRecommendationEntity recommendation);
+
+    @Query("SELECT * FROM daily_recommendations WHERE date = :date LIMIT 1")
+    DailyRecommendationEntity getByDateSync(String date);
+
+    /**
+     * Xóa đề xuất của các ngày trước ngày chỉ định (so sánh chuỗi yyyy-MM-dd)
+     */
+    @Query("DELETE FROM daily_recommendations WHERE date < :date")
+    void deleteBefore(String date);
+
+    @Query("DELETE FROM daily_recommendations")
+    void deleteAll();
+}
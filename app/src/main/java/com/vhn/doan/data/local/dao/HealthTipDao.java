@@ -8,7 +8,13 @@ import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Update;
 
+import com.vhn.doan.data.local.entity.CacheEntryInfo;
+import com.vhn.doan.data.local.entity.CategoryScoreStats;
 import com.vhn.doan.data.local.entity.HealthTipEntity;
+import com.vhn.doan.data.local.entity.HealthTipScore;
+import com.vhn.doan.data.local.entity.HealthTipScoreInput;
+import com.vhn.doan.data.local.entity.HealthTipSummary;
+import com.vhn.doan.data.local.entity.OfflineImageCandidate;
 
 import java.util.List;
 
@@ -19,6 +25,18 @@ import java.util.List;
 @Dao
 public interface HealthTipDao {
 
+    /**
+     * Các cột của HealthTipSummary - content chỉ lấy đoạn đầu làm mô tả ngắn
+     */
+    String SUMMARY_COLUMNS = "id, title, excerpt, substr(content, 1, " + HealthTipSummary.CONTENT_PREVIEW_LENGTH
+            + ") AS content_preview, category_id, category_name, view_count, like_count, image_url, "
+            + "created_at, updated_at, is_favorite, is_liked, recommendation_score";
+
+    /**
+     * Các cột của HealthTipScoreInput
+     */
+    String SCORE_INPUT_COLUMNS = "id, category_id, view_count, like_count, created_at, is_favorite, is_liked";
+
     /**
      * Insert hoặc replace health tip
      */
@@ -108,6 +126,38 @@ public interface HealthTipDao {
     @Query("SELECT * FROM health_tips ORDER BY recommendation_score DESC LIMIT :limit")
     LiveData<List<HealthTipEntity>> getRecommendedHealthTips(int limit);
 
+    /**
+     * Tip được đề xuất (chỉ các cột hiển thị danh sách) - đi theo index recommendation_score
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM health_tips ORDER BY recommendation_score DESC LIMIT :limit")
+    List<HealthTipSummary> getRecommendedHealthTipSummariesSync(int limit);
+
+    /**
+     * Dữ liệu tính điểm đề xuất của toàn bộ cache (RecommendationEngine)
+     */
+    @Query("SELECT " + SCORE_INPUT_COLUMNS + " FROM health_tips")
+    List<HealthTipScoreInput> getScoreInputsSync();
+
+    @Query("SELECT " + SCORE_INPUT_COLUMNS + " FROM health_tips WHERE id IN (:ids)")
+    List<HealthTipScoreInput> getScoreInputsByIdsSync(List<String> ids);
+
+    @Query("SELECT " + SCORE_INPUT_COLUMNS + " FROM health_tips WHERE category_id IS :categoryId")
+    List<HealthTipScoreInput> getScoreInputsByCategorySync(String categoryId);
+
+    /**
+     * Số tip và số tip người dùng đã thích/yêu thích theo từng danh mục
+     */
+    @Query("SELECT category_id, COUNT(*) AS tip_count, "
+            + "SUM(CASE WHEN is_favorite = 1 OR is_liked = 1 THEN 1 ELSE 0 END) AS interaction_count "
+            + "FROM health_tips GROUP BY category_id")
+    List<CategoryScoreStats> getCategoryScoreStatsSync();
+
+    /**
+     * Chỉ ghi cột recommendation_score (partial update theo id)
+     */
+    @Update(entity = HealthTipEntity.class)
+    void updateRecommendationScores(List<HealthTipScore> scores);
+
     /**
      * Lấy health tips được yêu thích
      * @deprecated Sử dụng getFavoriteHealthTipsLimited() để tối ưu performance
@@ -174,19 +224,129 @@ public interface HealthTipDao {
 
     /**
      * Tìm kiếm health tips theo title
-     * @deprecated Sử dụng searchHealthTipsLimited() để tối ưu performance
+     * @deprecated Sử dụng TrigramSearchIndex (không dấu, dùng index) thay thế
      */
     @Query("SELECT * FROM health_tips WHERE title LIKE '%' || :query || '%' ORDER BY created_at DESC")
     LiveData<List<HealthTipEntity>> searchHealthTips(String query);
 
     /**
      * Tìm kiếm health tips theo title với giới hạn (OPTIMIZED)
+     * @deprecated LIKE '%...%' không dùng được index và phân biệt dấu - dùng TrigramSearchIndex
      * @param query Từ khóa tìm kiếm
      * @param limit Số lượng kết quả tối đa
      */
     @Query("SELECT * FROM health_tips WHERE title LIKE '%' || :query || '%' ORDER BY created_at DESC LIMIT :limit")
     LiveData<List<HealthTipEntity>> searchHealthTipsLimited(String query, int limit);
 
+    /**
+     * Tìm kiếm full-text qua bảng FTS4 health_tips_fts (synchronous - dùng index)
+     * Xếp hạng: khớp tiêu đề trước, sau đó theo lượt xem và ngày tạo
+     * @param matchQuery Biểu thức MATCH đã được chuẩn hóa (xem HealthTipSearchIndex)
+     * @param titleMatchQuery Biểu thức MATCH giới hạn trong cột title
+     * @param limit Số lượng kết quả tối đa
+     */
+    @Query("SELECT health_tips.* FROM health_tips " +
+            "JOIN health_tips_fts ON health_tips.rowid = health_tips_fts.rowid " +
+            "WHERE health_tips_fts MATCH :matchQuery " +
+            "ORDER BY (health_tips.rowid IN (SELECT rowid FROM health_tips_fts WHERE health_tips_fts MATCH :titleMatchQuery)) DESC, " +
+            "health_tips.view_count DESC, health_tips.created_at DESC " +
+            "LIMIT :limit")
+    List<HealthTipEntity> searchHealthTipsFts(String matchQuery, String titleMatchQuery, int limit);
+
+    // ===== SUMMARY PROJECTION CHO MÀN HÌNH DANH SÁCH =====
+    // Không đọc content/content_blocks - xem HealthTipSummary
+
+    /**
+     * Tất cả tip, giới hạn số lượng (chỉ các cột hiển thị danh sách)
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM health_tips ORDER BY created_at DESC LIMIT :limit")
+    List<HealthTipSummary> getAllHealthTipSummariesSyncLimited(int limit);
+
+    /**
+     * Tip mới nhất (chỉ các cột hiển thị danh sách)
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM health_tips ORDER BY created_at DESC LIMIT :limit")
+    List<HealthTipSummary> getLatestHealthTipSummariesSync(int limit);
+
+    /**
+     * Tip được xem nhiều nhất (chỉ các cột hiển thị danh sách)
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM health_tips ORDER BY view_count DESC LIMIT :limit")
+    List<HealthTipSummary> getMostViewedHealthTipSummariesSync(int limit);
+
+    /**
+     * Tip theo danh mục (chỉ các cột hiển thị danh sách)
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM health_tips WHERE category_id = :categoryId ORDER BY created_at DESC")
+    List<HealthTipSummary> getHealthTipSummariesByCategorySync(String categoryId);
+
+    /**
+     * Tip theo danh sách ID (chỉ các cột hiển thị danh sách)
+     * Thứ tự trả về không xác định - caller tự sắp xếp theo danh sách ID
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM health_tips WHERE id IN (:ids)")
+    List<HealthTipSummary> getHealthTipSummariesByIdsSync(List<String> ids);
+
+    /**
+     * Lấy nhiều health tips theo danh sách ID (synchronous)
+     * Thứ tự trả về không xác định - caller tự sắp xếp theo danh sách ID
+     */
+    @Query("SELECT * FROM health_tips WHERE id IN (:ids)")
+    List<HealthTipEntity> getHealthTipsByIdsSync(List<String> ids);
+
+    // ===== KEYSET PAGINATION (createdAt DESC, id DESC) =====
+    // categoryId = null để lấy mọi danh mục. Trả về HealthTipSummary (không đọc content)
+
+    /**
+     * Trang đầu tiên (mới nhất) cho PagingSource
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM health_tips WHERE (:categoryId IS NULL OR category_id = :categoryId) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit")
+    List<HealthTipSummary> getFirstPageSync(String categoryId, int limit);
+
+    /**
+     * Trang các tip cũ hơn cursor (không bao gồm cursor)
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM health_tips WHERE (:categoryId IS NULL OR category_id = :categoryId) " +
+            "AND (created_at < :createdAt OR (created_at = :createdAt AND id < :id)) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit")
+    List<HealthTipSummary> getPageOlderThanSync(String categoryId, long createdAt, String id, int limit);
+
+    /**
+     * Trang bắt đầu từ cursor (bao gồm cursor) - dùng khi refresh giữ vị trí
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM health_tips WHERE (:categoryId IS NULL OR category_id = :categoryId) " +
+            "AND (created_at < :createdAt OR (created_at = :createdAt AND id <= :id)) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit")
+    List<HealthTipSummary> getPageFromSync(String categoryId, long createdAt, String id, int limit);
+
+    /**
+     * Trang các tip mới hơn cursor, trả về theo thứ tự TĂNG dần (caller tự đảo ngược)
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM health_tips WHERE (:categoryId IS NULL OR category_id = :categoryId) " +
+            "AND (created_at > :createdAt OR (created_at = :createdAt AND id > :id)) " +
+            "ORDER BY created_at ASC, id ASC LIMIT :limit")
+    List<HealthTipSummary> getPageNewerThanSync(String categoryId, long createdAt, String id, int limit);
+
+    /**
+     * Lấy toàn bộ ID đang có trong cache (synchronous)
+     * Dùng để đối chiếu khi full sync và xóa các tip đã bị xóa trên server
+     */
+    @Query("SELECT id FROM health_tips")
+    List<String> getAllIdsSync();
+
+    /**
+     * Các ID trong danh sách đã có trong cache (CacheManager chỉ xét admission cho tip mới)
+     */
+    @Query("SELECT id FROM health_tips WHERE id IN (:ids)")
+    List<String> getExistingIdsSync(List<String> ids);
+
+    /**
+     * Xóa health tips theo danh sách ID (tombstone từ delta sync)
+     */
+    @Query("DELETE FROM health_tips WHERE id IN (:ids)")
+    void deleteByIds(List<String> ids);
+
     /**
      * Đếm số lượng health tips
      */
@@ -244,6 +404,40 @@ public interface HealthTipDao {
     @Query("DELETE FROM health_tips WHERE id IN (SELECT id FROM health_tips ORDER BY cached_at ASC LIMIT :count)")
     void deleteOldestItems(int count);
 
+    /**
+     * Tổng kích thước ước lượng của cache (byte)
+     */
+    @Query("SELECT COALESCE(SUM(byte_size), 0) FROM health_tips")
+    long getTotalByteSizeSync();
+
+    /**
+     * Số tip được bảo vệ khỏi eviction (đã thích hoặc yêu thích)
+     */
+    @Query("SELECT COUNT(*) FROM health_tips WHERE is_favorite = 1 OR is_liked = 1")
+    int getProtectedCountSync();
+
+    /**
+     * Các dòng có thể bị xóa khi vượt ngân sách (không gồm tip đã thích/yêu thích)
+     */
+    @Query("SELECT id, byte_size, cached_at FROM health_tips WHERE is_favorite = 0 AND is_liked = 0")
+    List<CacheEntryInfo> getEvictionCandidatesSync();
+
+    /**
+     * Tip cần tải sẵn ảnh cho offline, theo thứ tự ưu tiên:
+     * đã thích/yêu thích, rồi điểm đề xuất, rồi vừa truy cập
+     */
+    @Query("SELECT id, image_url, content_blocks FROM health_tips " +
+           "ORDER BY (is_favorite = 1 OR is_liked = 1) DESC, recommendation_score DESC, cached_at DESC " +
+           "LIMIT :limit")
+    List<OfflineImageCandidate> getOfflineImageCandidatesSync(int limit);
+
+    /**
+     * Xóa tip cache quá hạn, trừ tip đã thích/yêu thích
+     * @return số dòng đã xóa
+     */
+    @Query("DELETE FROM health_tips WHERE cached_at < :timestamp AND is_favorite = 0 AND is_liked = 0")
+    int deleteExpiredUnprotected(long timestamp);
+
     /**
      * Update cached_at timestamp (cho LRU tracking)
      * Gọi khi user xem/access một tip
@@ -0,0 +1,44 @@
+package com.vhn.doan.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.vhn.doan.data.local.entity.OfflineImageStateEntity;
+
+import java.util.List;
+
+/**
+ * DAO cho bảng offline_images (trạng thái tải sẵn ảnh của từng tip)
+ */
+@Dao
+public interface OfflineImageDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(OfflineImageStateEntity state);
+
+    @Query("SELECT * FROM offline_images")
+    List<OfflineImageStateEntity> getAllSync();
+
+    @Query("SELECT is_ready FROM offline_images WHERE tip_id = :tipId")
+    boolean isOfflineReadySync(String tipId);
+
+    @Query("SELECT tip_id FROM offline_images WHERE is_ready = 1")
+    List<String> getOfflineReadyIdsSync();
+
+    /**
+     * Tổng byte ảnh đã tải sẵn (chỉ tính các tip đã đủ ảnh)
+     */
+    @Query("SELECT COALESCE(SUM(byte_size), 0) FROM offline_images WHERE is_ready = 1")
+    long getReadyByteSizeSync();
+
+    /**
+     * Xóa trạng thái của các tip đã bị xóa khỏi cache health_tips
+     */
+    @Query("DELETE FROM offline_images WHERE tip_id NOT IN (SELECT id FROM health_tips)")
+    int deleteOrphans();
+
+    @Query("DELETE FROM offline_images")
+    void deleteAll();
+}
@@ -0,0 +1,32 @@
+package com.vhn.doan.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.vhn.doan.data.local.entity.PendingCounterEntity;
+
+import java.util.List;
+
+/**
+ * DAO cho bảng pending_counters (delta lượt xem/lượt thích chờ gửi lên Firebase)
+ */
+@Dao
+public interface PendingCounterDao {
+
+    /**
+     * Ghi giá trị delta tuyệt đối hiện tại của một đường dẫn (idempotent)
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(PendingCounterEntity counter);
+
+    @Query("SELECT * FROM pending_counters")
+    List<PendingCounterEntity> getAllSync();
+
+    @Query("DELETE FROM pending_counters WHERE path = :path")
+    void deleteByPath(String path);
+
+    @Query("DELETE FROM pending_counters")
+    void deleteAll();
+}
@@ -0,0 +1,84 @@
+package com.vhn.doan.data.local.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.vhn.doan.data.local.entity.SearchDocumentEntity;
+import com.vhn.doan.data.local.entity.SearchTrigramEntity;
+
+import java.util.List;
+
+/**
+ * DAO cho index tìm kiếm trigram (search_documents + search_trigrams)
+ */
+@Dao
+public interface SearchIndexDao {
+
+    // Câu truy vấn tìm kiếm để dạng hằng số cho benchmark JMH chạy đúng SQL này trên SQLite
+    String SEARCH_BY_TRIGRAMS_SQL = "SELECT doc_id FROM search_documents " +
+            "WHERE doc_type = :docType AND doc_id IN (" +
+            "SELECT doc_id FROM search_trigrams WHERE doc_type = :docType AND trigram IN (:trigrams) " +
+            "GROUP BY doc_id HAVING COUNT(*) = :trigramCount) " +
+            "AND normalized_text LIKE '%' || :normalizedQuery || '%' " +
+            "LIMIT :limit";
+
+    String SEARCH_SHORT_QUERY_SQL = "SELECT doc_id FROM search_documents " +
+            "WHERE doc_type = :docType AND normalized_text LIKE '%' || :normalizedQuery || '%' " +
+            "LIMIT :limit";
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertDocuments(List<SearchDocumentEntity> documents);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertTrigrams(List<SearchTrigramEntity> trigrams);
+
+    /**
+     * Xóa posting list của các tài liệu trước khi index lại
+     */
+    @Query("DELETE FROM search_trigrams WHERE doc_type = :docType AND doc_id IN (:docIds)")
+    void deleteTrigramsForDocuments(String docType, List<String> docIds);
+
+    /**
+     * Tìm tài liệu chứa TẤT CẢ trigram của từ khóa, sau đó xác minh chuỗi con trên văn bản chuẩn hóa
+     * @param docType Loại tài liệu (health_tip, video)
+     * @param trigrams Trigram của từ khóa đã chuẩn hóa
+     * @param trigramCount Số trigram phân biệt trong danh sách
+     * @param normalizedQuery Từ khóa đã chuẩn hóa (dùng để xác minh)
+     * @param limit Số kết quả tối đa
+     */
+    @Query(SEARCH_BY_TRIGRAMS_SQL)
+    List<String> searchByTrigrams(String docType, List<String> trigrams, int trigramCount,
+                                  String normalizedQuery, int limit);
+
+    /**
+     * Tìm kiếm cho từ khóa ngắn hơn 3 ký tự (không có trigram) - quét văn bản chuẩn hóa
+     */
+    @Query(SEARCH_SHORT_QUERY_SQL)
+    List<String> searchShortQuery(String docType, String normalizedQuery, int limit);
+
+    /**
+     * Dọn index của các health tip đã bị xóa khỏi cache
+     */
+    @Query("DELETE FROM search_documents WHERE doc_type = 'health_tip' AND doc_id NOT IN (SELECT id FROM health_tips)")
+    void deleteOrphanHealthTipDocuments();
+
+    @Query("DELETE FROM search_trigrams WHERE doc_type = 'health_tip' AND doc_id NOT IN (SELECT id FROM health_tips)")
+    void deleteOrphanHealthTipTrigrams();
+
+    /**
+     * Dọn index của các video đã bị xóa khỏi cache
+     */
+    @Query("DELETE FROM search_documents WHERE doc_type = 'video' AND doc_id NOT IN (SELECT id FROM videos)")
+    void deleteOrphanVideoDocuments();
+
+    @Query("DELETE FROM search_trigrams WHERE doc_type = 'video' AND doc_id NOT IN (SELECT id FROM videos)")
+    void deleteOrphanVideoTrigrams();
+
+    @Query("DELETE FROM search_documents")
+    void deleteAllDocuments();
+
+    @Query("DELETE FROM search_trigrams")
+    void deleteAllTrigrams();
+}
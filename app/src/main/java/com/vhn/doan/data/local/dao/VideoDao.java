@@ -68,10 +68,17 @@ public interface VideoDao {
 
     /**
      * Tìm kiếm videos
+     * @deprecated LIKE '%...%' không dùng được index và phân biệt dấu - dùng TrigramSearchIndex
      */
     @Query("SELECT * FROM videos WHERE title LIKE '%' || :query || '%' OR caption LIKE '%' || :query || '%' ORDER BY upload_date DESC")
     LiveData<List<VideoEntity>> searchVideos(String query);
 
+    /**
+     * Lấy nhiều videos theo danh sách ID (synchronous)
+     */
+    @Query("SELECT * FROM videos WHERE id IN (:ids)")
+    List<VideoEntity> getVideosByIdsSync(List<String> ids);
+
     /**
      * Lấy videos theo uploader
      */
@@ -102,6 +109,12 @@ public interface VideoDao {
     @Query("UPDATE videos SET is_liked = :isLiked WHERE id = :id")
     void updateLikeStatus(String id, boolean isLiked);
 
+    /**
+     * Bỏ cờ like của tất cả videos (trước khi đồng bộ lại theo liked index)
+     */
+    @Query("UPDATE videos SET is_liked = 0 WHERE is_liked = 1")
+    void clearLikeStatus();
+
     /**
      * Update view count
      */
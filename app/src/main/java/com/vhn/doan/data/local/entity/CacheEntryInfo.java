@@ -0,0 +1,21 @@
+package com.vhn.doan.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+/**
+ * Projection của bảng health_tips cho CacheManager khi chọn dòng cần xóa
+ * (chỉ id, kích thước và thời điểm truy cập - không đọc nội dung bài)
+ */
+public class CacheEntryInfo {
+
+    @NonNull
+    @ColumnInfo(name = "id")
+    public String id = "";
+
+    @ColumnInfo(name = "byte_size")
+    public long byteSize;
+
+    @ColumnInfo(name = "cached_at")
+    public long cachedAt;
+}
@@ -0,0 +1,19 @@
+package com.vhn.doan.data.local.entity;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * Thống kê theo danh mục trong cache: số bài viết và số bài người dùng đã thích/yêu thích
+ * (HealthTipDao.getCategoryScoreStatsSync - dùng cho điểm đa dạng và điểm sở thích)
+ */
+public class CategoryScoreStats {
+
+    @ColumnInfo(name = "category_id")
+    public String categoryId;
+
+    @ColumnInfo(name = "tip_count")
+    public int tipCount;
+
+    @ColumnInfo(name = "interaction_count")
+    public int interactionCount;
+}
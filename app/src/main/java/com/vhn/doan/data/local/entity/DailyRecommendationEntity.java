@@ -0,0 +1,88 @@
+package com.vhn.doan.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Room Entity lưu danh sách đề xuất đã tính sẵn cho một ngày (khóa yyyy-MM-dd)
+ * Danh sách được lưu nguyên dạng HealthTipSummary (JSON) nên màn hình Home đọc bằng một truy vấn
+ * theo khóa chính, kể cả khi các bài viết đã bị xóa khỏi bảng health_tips
+ */
+@Entity(tableName = "daily_recommendations")
+public class DailyRecommendationEntity {
+
+    private static final Gson GSON = new Gson();
+    private static final Type SUMMARY_LIST_TYPE = new TypeToken<List<HealthTipSummary>>() {}.getType();
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "date")
+    private String date;
+
+    @ColumnInfo(name = "tips")
+    private String tips;
+
+    @ColumnInfo(name = "created_at")
+    private long createdAt;
+
+    public DailyRecommendationEntity(@NonNull String date, String tips, long createdAt) {
+        this.date = date;
+        this.tips = tips;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Tạo bản ghi từ danh sách đề xuất vừa tính
+     */
+    public static DailyRecommendationEntity of(@NonNull String date, List<HealthTipSummary> summaries) {
+        return new DailyRecommendationEntity(date, GSON.toJson(summaries, SUMMARY_LIST_TYPE),
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Danh sách đề xuất đã lưu (rỗng nếu dữ liệu hỏng)
+     */
+    public List<HealthTipSummary> getSummaries() {
+        try {
+            List<HealthTipSummary> summaries = GSON.fromJson(tips, SUMMARY_LIST_TYPE);
+            return summaries != null ? summaries : new ArrayList<>();
+        } catch (JsonParseException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    @NonNull
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(@NonNull String date) {
+        this.date = date;
+    }
+
+    public String getTips() {
+        return tips;
+    }
+
+    public void setTips(String tips) {
+        this.tips = tips;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -8,25 +8,31 @@ import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.room.TypeConverters;
 
+import com.vhn.doan.data.ContentBlock;
 import com.vhn.doan.data.HealthTip;
 import com.vhn.doan.data.local.Converters;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * Room Entity cho HealthTip - Cache local database
- * Index trên categoryId để tìm kiếm nhanh
+ * Index trên categoryId để tìm kiếm nhanh, trên recommendation_score cho danh sách đề xuất
  */
 @Entity(
     tableName = "health_tips",
     indices = {
         @Index(value = "category_id"),
-        @Index(value = "created_at")
+        @Index(value = "created_at"),
+        @Index(value = "recommendation_score")
     }
 )
 @TypeConverters(Converters.class)
 public class HealthTipEntity {
+
+    // Phần cố định mỗi dòng (cột số, rowid, index) và mỗi content block (khóa JSON, metadata)
+    private static final int ROW_OVERHEAD_BYTES = 256;
+    private static final int BLOCK_OVERHEAD_BYTES = 48;
+
     @PrimaryKey
     @NonNull
     @ColumnInfo(name = "id")
@@ -69,8 +75,9 @@ public class HealthTipEntity {
     private int recommendationScore;
 
     // Các trường bổ sung để support offline mode đầy đủ
+    // Lưu bằng ContentBlockCodec (định dạng có version) - giải mã thẳng sang ContentBlock
     @ColumnInfo(name = "content_blocks")
-    private List<Map<String, Object>> contentBlocks;
+    private List<ContentBlock> contentBlocks;
 
     @ColumnInfo(name = "tags")
     private List<String> tags;
@@ -108,6 +115,10 @@ public class HealthTipEntity {
     @ColumnInfo(name = "cached_at")
     private long cachedAt; // Thời điểm cache vào DB
 
+    // Kích thước ước lượng của dòng (byte UTF-8 các cột văn bản) - CacheManager giữ tổng dưới ngân sách
+    @ColumnInfo(name = "byte_size", defaultValue = "0")
+    private long byteSize;
+
     // Constructors
     public HealthTipEntity() {
         this.cachedAt = System.currentTimeMillis();
@@ -152,7 +163,7 @@ public class HealthTipEntity {
         entity.setFavorite(healthTip.isFavorite());
         entity.setLiked(healthTip.isLiked());
         entity.setRecommendationScore(healthTip.getRecommendationScore() != null ? healthTip.getRecommendationScore() : 0);
-        entity.setContentBlocks(healthTip.getContentBlocks());
+        entity.setContentBlocks(healthTip.hasContentBlocks() ? healthTip.getContentBlockObjects() : null);
         entity.setTags(healthTip.getTags());
         entity.setAuthor(healthTip.getAuthor());
         entity.setStatus(healthTip.getStatus());
@@ -165,9 +176,57 @@ public class HealthTipEntity {
         entity.setScheduledAt(healthTip.getScheduledAt());
         entity.setSlug(healthTip.getSlug());
         entity.setCachedAt(System.currentTimeMillis());
+        entity.setByteSize(entity.estimateByteSize());
         return entity;
     }
 
+    /**
+     * Ước lượng số byte dòng chiếm trong database: byte UTF-8 của các cột văn bản
+     * cộng phần cố định cho các cột số và index
+     */
+    public long estimateByteSize() {
+        long size = ROW_OVERHEAD_BYTES;
+        size += utf8Length(title) + utf8Length(content) + utf8Length(excerpt) + utf8Length(categoryName)
+                + utf8Length(imageUrl) + utf8Length(author) + utf8Length(seoTitle)
+                + utf8Length(seoDescription) + utf8Length(slug);
+        if (contentBlocks != null) {
+            for (ContentBlock block : contentBlocks) {
+                size += BLOCK_OVERHEAD_BYTES + utf8Length(block.getId()) + utf8Length(block.getType())
+                        + utf8Length(block.getValue());
+                if (block.getMetadata() != null) {
+                    size += utf8Length(block.getMetadata().getAlt()) + utf8Length(block.getMetadata().getCaption());
+                }
+            }
+        }
+        if (tags != null) {
+            for (String tag : tags) {
+                size += utf8Length(tag) + 3;
+            }
+        }
+        return size;
+    }
+
+    private static long utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
     /**
      * Chuyển đổi Entity thành HealthTip model
      */
@@ -186,7 +245,7 @@ public class HealthTipEntity {
         healthTip.setFavorite(this.isFavorite);
         healthTip.setLiked(this.isLiked);
         healthTip.setRecommendationScore(this.recommendationScore);
-        healthTip.setContentBlocks(this.contentBlocks);
+        healthTip.setDecodedContentBlocks(this.contentBlocks);
         healthTip.setTags(this.tags);
         healthTip.setAuthor(this.author);
         healthTip.setStatus(this.status);
@@ -307,6 +366,14 @@ public class HealthTipEntity {
         this.cachedAt = cachedAt;
     }
 
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    public void setByteSize(long byteSize) {
+        this.byteSize = byteSize;
+    }
+
     public String getContent() {
         return content;
     }
@@ -315,11 +382,11 @@ public class HealthTipEntity {
         this.content = content;
     }
 
-    public List<Map<String, Object>> getContentBlocks() {
+    public List<ContentBlock> getContentBlocks() {
         return contentBlocks;
     }
 
-    public void setContentBlocks(List<Map<String, Object>> contentBlocks) {
+    public void setContentBlocks(List<ContentBlock> contentBlocks) {
         this.contentBlocks = contentBlocks;
     }
 
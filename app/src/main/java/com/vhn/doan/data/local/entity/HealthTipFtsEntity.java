@@ -0,0 +1,64 @@
+package com.vhn.doan.data.local.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+import androidx.room.PrimaryKey;
+
+/**
+ * Bảng FTS4 (full-text search) cho health_tips
+ * Dùng external content = health_tips nên Room tự tạo trigger đồng bộ:
+ * mọi insert/update/delete vào health_tips (saveToCache, HealthTipSyncWorker, CacheManager)
+ * đều tự cập nhật index, không cần ghi 2 lần.
+ * Trigger UPDATE được thay bằng bản chỉ chạy khi ghi title/excerpt/content (HealthTipFtsTriggers)
+ */
+@Fts4(contentEntity = HealthTipEntity.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "health_tips_fts")
+public class HealthTipFtsEntity {
+
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private int rowId;
+
+    @ColumnInfo(name = "title")
+    private String title;
+
+    @ColumnInfo(name = "excerpt")
+    private String excerpt;
+
+    @ColumnInfo(name = "content")
+    private String content;
+
+    public int getRowId() {
+        return rowId;
+    }
+
+    public void setRowId(int rowId) {
+        this.rowId = rowId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
@@ -0,0 +1,23 @@
+package com.vhn.doan.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+/**
+ * Partial entity để cập nhật riêng cột recommendation_score (HealthTipDao.updateRecommendationScores)
+ * Không ghi đè view_count/like_count/is_favorite có thể vừa thay đổi ở lệnh ghi khác
+ */
+public class HealthTipScore {
+
+    @NonNull
+    @ColumnInfo(name = "id")
+    public String id;
+
+    @ColumnInfo(name = "recommendation_score")
+    public int recommendationScore;
+
+    public HealthTipScore(@NonNull String id, int recommendationScore) {
+        this.id = id;
+        this.recommendationScore = recommendationScore;
+    }
+}
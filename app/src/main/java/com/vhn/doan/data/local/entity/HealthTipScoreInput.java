@@ -0,0 +1,90 @@
+package com.vhn.doan.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+/**
+ * Projection của bảng health_tips chỉ gồm các cột RecommendationScorer cần để tính điểm
+ * (không đọc title/content nên chấm lại toàn bộ cache chỉ tốn một lần quét nhẹ)
+ */
+public class HealthTipScoreInput {
+
+    @NonNull
+    @ColumnInfo(name = "id")
+    private String id = "";
+
+    @ColumnInfo(name = "category_id")
+    private String categoryId;
+
+    @ColumnInfo(name = "view_count")
+    private int viewCount;
+
+    @ColumnInfo(name = "like_count")
+    private int likeCount;
+
+    @ColumnInfo(name = "created_at")
+    private long createdAt;
+
+    @ColumnInfo(name = "is_favorite")
+    private boolean isFavorite;
+
+    @ColumnInfo(name = "is_liked")
+    private boolean isLiked;
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    public void setId(@NonNull String id) {
+        this.id = id;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(String categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public int getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(int viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(int likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public boolean isFavorite() {
+        return isFavorite;
+    }
+
+    public void setFavorite(boolean favorite) {
+        isFavorite = favorite;
+    }
+
+    public boolean isLiked() {
+        return isLiked;
+    }
+
+    public void setLiked(boolean liked) {
+        isLiked = liked;
+    }
+}
@@ -0,0 +1,228 @@
+package com.vhn.doan.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+import com.vhn.doan.data.HealthTip;
+
+/**
+ * Projection gọn của bảng health_tips cho các màn hình danh sách
+ *
+ * Chỉ gồm các cột mà card danh sách hiển thị (tiêu đề, ảnh, danh mục, lượt xem/thích...).
+ * Không đọc content và content_blocks nên CursorWindow nhỏ hơn nhiều và không phải
+ * parse JSON content_blocks qua Converters cho từng dòng. Nội dung đầy đủ chỉ được
+ * đọc bằng HealthTipEntity khi mở HealthTipDetailActivity.
+ */
+public class HealthTipSummary {
+
+    /**
+     * Độ dài đoạn content đầu tiên dùng làm mô tả ngắn khi tip không có excerpt
+     */
+    public static final int CONTENT_PREVIEW_LENGTH = 200;
+
+    @NonNull
+    @ColumnInfo(name = "id")
+    private String id = "";
+
+    @ColumnInfo(name = "title")
+    private String title;
+
+    @ColumnInfo(name = "excerpt")
+    private String excerpt;
+
+    @ColumnInfo(name = "content_preview")
+    private String contentPreview;
+
+    @ColumnInfo(name = "category_id")
+    private String categoryId;
+
+    @ColumnInfo(name = "category_name")
+    private String categoryName;
+
+    @ColumnInfo(name = "view_count")
+    private int viewCount;
+
+    @ColumnInfo(name = "like_count")
+    private int likeCount;
+
+    @ColumnInfo(name = "image_url")
+    private String imageUrl;
+
+    @ColumnInfo(name = "created_at")
+    private long createdAt;
+
+    @ColumnInfo(name = "updated_at")
+    private Long updatedAt;
+
+    @ColumnInfo(name = "is_favorite")
+    private boolean isFavorite;
+
+    @ColumnInfo(name = "is_liked")
+    private boolean isLiked;
+
+    @ColumnInfo(name = "recommendation_score")
+    private int recommendationScore;
+
+    /**
+     * Chuyển đổi thành HealthTip cho adapter danh sách
+     * HealthTip trả về được đánh dấu summaryOnly (không có content/contentBlocks)
+     */
+    public HealthTip toHealthTip() {
+        HealthTip healthTip = new HealthTip();
+        healthTip.setId(this.id);
+        healthTip.setTitle(this.title);
+        healthTip.setExcerpt(this.excerpt);
+        healthTip.setContent(this.contentPreview);
+        healthTip.setCategoryId(this.categoryId);
+        healthTip.setCategoryName(this.categoryName);
+        healthTip.setViewCount(this.viewCount);
+        healthTip.setLikeCount(this.likeCount);
+        healthTip.setImageUrl(this.imageUrl);
+        healthTip.setCreatedAt(this.createdAt);
+        healthTip.setUpdatedAt(this.updatedAt);
+        healthTip.setFavorite(this.isFavorite);
+        healthTip.setLiked(this.isLiked);
+        healthTip.setRecommendationScore(this.recommendationScore);
+        healthTip.setSummaryOnly(true);
+        return healthTip;
+    }
+
+    /**
+     * Tạo bản rút gọn từ HealthTip (dùng cho HomeSnapshot)
+     */
+    public static HealthTipSummary fromHealthTip(HealthTip healthTip) {
+        HealthTipSummary summary = new HealthTipSummary();
+        summary.setId(healthTip.getId() != null ? healthTip.getId() : "");
+        summary.setTitle(healthTip.getTitle());
+        summary.setExcerpt(healthTip.getExcerpt());
+        String content = healthTip.getContent();
+        summary.setContentPreview(content != null && content.length() > CONTENT_PREVIEW_LENGTH
+                ? content.substring(0, CONTENT_PREVIEW_LENGTH)
+                : content);
+        summary.setCategoryId(healthTip.getCategoryId());
+        summary.setCategoryName(healthTip.getCategoryName());
+        summary.setViewCount(healthTip.getViewCount() != null ? healthTip.getViewCount() : 0);
+        summary.setLikeCount(healthTip.getLikeCount() != null ? healthTip.getLikeCount() : 0);
+        summary.setImageUrl(healthTip.getImageUrl());
+        summary.setCreatedAt(healthTip.getCreatedAt() != null ? healthTip.getCreatedAt() : 0L);
+        summary.setUpdatedAt(healthTip.getUpdatedAt());
+        summary.setFavorite(healthTip.isFavorite());
+        summary.setLiked(healthTip.isLiked());
+        summary.setRecommendationScore(healthTip.getRecommendationScore() != null ? healthTip.getRecommendationScore() : 0);
+        return summary;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    public void setId(@NonNull String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getExcerpt() {
+        return excerpt;
+    }
+
+    public void setExcerpt(String excerpt) {
+        this.excerpt = excerpt;
+    }
+
+    public String getContentPreview() {
+        return contentPreview;
+    }
+
+    public void setContentPreview(String contentPreview) {
+        this.contentPreview = contentPreview;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(String categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public int getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(int viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(int likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public boolean isFavorite() {
+        return isFavorite;
+    }
+
+    public void setFavorite(boolean favorite) {
+        isFavorite = favorite;
+    }
+
+    public boolean isLiked() {
+        return isLiked;
+    }
+
+    public void setLiked(boolean liked) {
+        isLiked = liked;
+    }
+
+    public int getRecommendationScore() {
+        return recommendationScore;
+    }
+
+    public void setRecommendationScore(int recommendationScore) {
+        this.recommendationScore = recommendationScore;
+    }
+}
@@ -0,0 +1,46 @@
+package com.vhn.doan.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+import com.vhn.doan.data.ContentBlock;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Projection của bảng health_tips cho OfflineImagePrecacheWorker
+ * (chỉ id, ảnh bìa và content blocks - không đọc các cột văn bản khác)
+ */
+public class OfflineImageCandidate {
+
+    @NonNull
+    @ColumnInfo(name = "id")
+    public String id = "";
+
+    @ColumnInfo(name = "image_url")
+    public String imageUrl;
+
+    @ColumnInfo(name = "content_blocks")
+    public List<ContentBlock> contentBlocks;
+
+    /**
+     * Mọi URL ảnh màn hình chi tiết cần: ảnh bìa rồi ảnh trong content blocks (bỏ trùng, giữ thứ tự)
+     */
+    public List<String> getImageUrls() {
+        Set<String> urls = new LinkedHashSet<>();
+        if (imageUrl != null && !imageUrl.isEmpty()) {
+            urls.add(imageUrl);
+        }
+        if (contentBlocks != null) {
+            for (ContentBlock block : contentBlocks) {
+                if ("image".equals(block.getType()) && block.getValue() != null && !block.getValue().isEmpty()) {
+                    urls.add(block.getValue());
+                }
+            }
+        }
+        return new ArrayList<>(urls);
+    }
+}
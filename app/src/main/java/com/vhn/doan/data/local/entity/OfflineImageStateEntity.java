@@ -0,0 +1,107 @@
+package com.vhn.doan.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import java.util.List;
+
+/**
+ * Room Entity ghi nhận ảnh của một tip đã được tải sẵn vào disk cache của Glide hay chưa
+ *
+ * Tách khỏi health_tips vì các dòng health_tips bị ghi đè (REPLACE) ở mỗi lần sync.
+ * image_signature là hash danh sách URL ảnh lúc tải: tip đổi ảnh thì không còn khớp
+ * và được tải lại ở lượt sau.
+ */
+@Entity(tableName = "offline_images")
+public class OfflineImageStateEntity {
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "tip_id")
+    private String tipId;
+
+    @ColumnInfo(name = "image_signature")
+    private int imageSignature;
+
+    @ColumnInfo(name = "image_count")
+    private int imageCount;
+
+    // Tổng kích thước các file ảnh trong disk cache của Glide
+    @ColumnInfo(name = "byte_size")
+    private long byteSize;
+
+    // true khi mọi ảnh đã tải xong - tip mở được đầy đủ khi offline
+    @ColumnInfo(name = "is_ready")
+    private boolean ready;
+
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt;
+
+    public OfflineImageStateEntity(@NonNull String tipId, int imageSignature, int imageCount,
+                                   long byteSize, boolean ready, long updatedAt) {
+        this.tipId = tipId;
+        this.imageSignature = imageSignature;
+        this.imageCount = imageCount;
+        this.byteSize = byteSize;
+        this.ready = ready;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Hash của danh sách URL ảnh (theo thứ tự)
+     */
+    public static int signatureOf(List<String> imageUrls) {
+        return String.join("\n", imageUrls).hashCode();
+    }
+
+    @NonNull
+    public String getTipId() {
+        return tipId;
+    }
+
+    public void setTipId(@NonNull String tipId) {
+        this.tipId = tipId;
+    }
+
+    public int getImageSignature() {
+        return imageSignature;
+    }
+
+    public void setImageSignature(int imageSignature) {
+        this.imageSignature = imageSignature;
+    }
+
+    public int getImageCount() {
+        return imageCount;
+    }
+
+    public void setImageCount(int imageCount) {
+        this.imageCount = imageCount;
+    }
+
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    public void setByteSize(long byteSize) {
+        this.byteSize = byteSize;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,57 @@
+package com.vhn.doan.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Room Entity lưu phần chênh lệch lượt xem/lượt thích chưa gửi lên Firebase
+ * Mỗi dòng là một đường dẫn Firebase (ví dụ health_tips/{id}/viewCount) cùng tổng delta đang chờ,
+ * để CounterAggregator gửi tiếp sau khi process bị kill
+ */
+@Entity(tableName = "pending_counters")
+public class PendingCounterEntity {
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "path")
+    private String path;
+
+    @ColumnInfo(name = "delta")
+    private long delta;
+
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt;
+
+    public PendingCounterEntity(@NonNull String path, long delta, long updatedAt) {
+        this.path = path;
+        this.delta = delta;
+        this.updatedAt = updatedAt;
+    }
+
+    @NonNull
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(@NonNull String path) {
+        this.path = path;
+    }
+
+    public long getDelta() {
+        return delta;
+    }
+
+    public void setDelta(long delta) {
+        this.delta = delta;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,59 @@
+package com.vhn.doan.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * Room Entity lưu văn bản đã chuẩn hóa (không dấu) của một tài liệu được index
+ * Dùng để xác minh lại kết quả sau khi lọc ứng viên bằng trigram
+ */
+@Entity(
+    tableName = "search_documents",
+    primaryKeys = {"doc_type", "doc_id"}
+)
+public class SearchDocumentEntity {
+
+    @NonNull
+    @ColumnInfo(name = "doc_type")
+    private String docType;
+
+    @NonNull
+    @ColumnInfo(name = "doc_id")
+    private String docId;
+
+    @ColumnInfo(name = "normalized_text")
+    private String normalizedText;
+
+    public SearchDocumentEntity(@NonNull String docType, @NonNull String docId, String normalizedText) {
+        this.docType = docType;
+        this.docId = docId;
+        this.normalizedText = normalizedText;
+    }
+
+    @NonNull
+    public String getDocType() {
+        return docType;
+    }
+
+    public void setDocType(@NonNull String docType) {
+        this.docType = docType;
+    }
+
+    @NonNull
+    public String getDocId() {
+        return docId;
+    }
+
+    public void setDocId(@NonNull String docId) {
+        this.docId = docId;
+    }
+
+    public String getNormalizedText() {
+        return normalizedText;
+    }
+
+    public void setNormalizedText(String normalizedText) {
+        this.normalizedText = normalizedText;
+    }
+}
@@ -0,0 +1,65 @@
+package com.vhn.doan.data.local.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Room Entity cho posting list trigram: mỗi dòng = (trigram, tài liệu chứa trigram đó)
+ * Primary key bắt đầu bằng (doc_type, trigram) nên tra cứu theo trigram dùng index B-tree
+ */
+@Entity(
+    tableName = "search_trigrams",
+    primaryKeys = {"doc_type", "trigram", "doc_id"},
+    indices = {
+        @Index(value = {"doc_type", "doc_id"})
+    }
+)
+public class SearchTrigramEntity {
+
+    @NonNull
+    @ColumnInfo(name = "doc_type")
+    private String docType;
+
+    @NonNull
+    @ColumnInfo(name = "trigram")
+    private String trigram;
+
+    @NonNull
+    @ColumnInfo(name = "doc_id")
+    private String docId;
+
+    public SearchTrigramEntity(@NonNull String docType, @NonNull String trigram, @NonNull String docId) {
+        this.docType = docType;
+        this.trigram = trigram;
+        this.docId = docId;
+    }
+
+    @NonNull
+    public String getDocType() {
+        return docType;
+    }
+
+    public void setDocType(@NonNull String docType) {
+        this.docType = docType;
+    }
+
+    @NonNull
+    public String getTrigram() {
+        return trigram;
+    }
+
+    public void setTrigram(@NonNull String trigram) {
+        this.trigram = trigram;
+    }
+
+    @NonNull
+    public String getDocId() {
+        return docId;
+    }
+
+    public void setDocId(@NonNull String docId) {
+        this.docId = docId;
+    }
+}
@@ -0,0 +1,80 @@
+package com.vhn.doan.data.paging;
+
+import androidx.annotation.NonNull;
+
+import com.vhn.doan.data.HealthTip;
+
+import java.util.Objects;
+
+/**
+ * HealthTipPageCursor - Khóa phân trang keyset (createdAt + id)
+ *
+ * Danh sách được sắp xếp theo (createdAt DESC, id DESC). Cursor trỏ vào một item cụ thể:
+ * - Trang kế tiếp lấy các item "cũ hơn" cursor
+ * - Trang phía trước lấy các item "mới hơn" cursor
+ * - inclusive = true: trang bắt đầu TỪ chính item này (dùng khi refresh giữ vị trí cuộn)
+ *
+ * id được dùng làm tie-breaker để không bỏ sót/trùng lặp khi nhiều tip cùng createdAt
+ */
+public final class HealthTipPageCursor {
+
+    private final long createdAt;
+    private final String id;
+    private final boolean inclusive;
+
+    private HealthTipPageCursor(long createdAt, @NonNull String id, boolean inclusive) {
+        this.createdAt = createdAt;
+        this.id = id;
+        this.inclusive = inclusive;
+    }
+
+    /**
+     * Cursor loại trừ item - dùng cho trang kế tiếp/trang trước
+     */
+    public static HealthTipPageCursor after(HealthTip healthTip) {
+        return new HealthTipPageCursor(createdAtOf(healthTip), healthTip.getId(), false);
+    }
+
+    /**
+     * Cursor bao gồm item - dùng làm refresh key
+     */
+    public static HealthTipPageCursor at(HealthTip healthTip) {
+        return new HealthTipPageCursor(createdAtOf(healthTip), healthTip.getId(), true);
+    }
+
+    private static long createdAtOf(HealthTip healthTip) {
+        return healthTip.getCreatedAt() != null ? healthTip.getCreatedAt() : 0L;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    public boolean isInclusive() {
+        return inclusive;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HealthTipPageCursor)) return false;
+        HealthTipPageCursor that = (HealthTipPageCursor) o;
+        return createdAt == that.createdAt && inclusive == that.inclusive && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdAt, id, inclusive);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "HealthTipPageCursor{" + createdAt + ", " + id + (inclusive ? ", inclusive" : "") + "}";
+    }
+}
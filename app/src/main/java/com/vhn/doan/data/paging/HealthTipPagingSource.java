@@ -0,0 +1,118 @@
+package com.vhn.doan.data.paging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.PagingState;
+import androidx.paging.rxjava3.RxPagingSource;
+import androidx.room.InvalidationTracker;
+
+import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.local.AppDatabase;
+import com.vhn.doan.data.local.dao.HealthTipDao;
+import com.vhn.doan.data.local.entity.HealthTipSummary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import kotlin.Unit;
+
+/**
+ * HealthTipPagingSource - PagingSource keyset đọc health tips từ Room
+ *
+ * Mỗi trang là một truy vấn keyset (createdAt + id) dùng index created_at, không dùng OFFSET
+ * nên chi phí mỗi trang không tăng theo độ sâu cuộn. PagingSource tự invalidate khi bảng
+ * health_tips thay đổi (ví dụ HealthTipRemoteMediator vừa ghi trang mới từ Firebase).
+ * Trang chỉ đọc projection HealthTipSummary, không đọc content/content_blocks.
+ */
+public class HealthTipPagingSource extends RxPagingSource<HealthTipPageCursor, HealthTip> {
+
+    private static final String HEALTH_TIPS_TABLE = "health_tips";
+
+    private final HealthTipDao healthTipDao;
+    private final String categoryId;
+
+    /**
+     * @param appDatabase Room database
+     * @param categoryId ID danh mục, null để lấy mọi danh mục
+     */
+    public HealthTipPagingSource(AppDatabase appDatabase, @Nullable String categoryId) {
+        this.healthTipDao = appDatabase.healthTipDao();
+        this.categoryId = categoryId;
+
+        InvalidationTracker.Observer observer = new InvalidationTracker.Observer(HEALTH_TIPS_TABLE) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                invalidate();
+            }
+        };
+        appDatabase.getInvalidationTracker().addObserver(observer);
+        registerInvalidatedCallback(() -> {
+            appDatabase.getInvalidationTracker().removeObserver(observer);
+            return Unit.INSTANCE;
+        });
+    }
+
+    @NonNull
+    @Override
+    public Single<LoadResult<HealthTipPageCursor, HealthTip>> loadSingle(@NonNull LoadParams<HealthTipPageCursor> params) {
+        return Single.fromCallable(() -> loadPage(params))
+                .subscribeOn(Schedulers.from(AppDatabase.databaseReadExecutor))
+                .onErrorReturn(LoadResult.Error::new);
+    }
+
+    private LoadResult<HealthTipPageCursor, HealthTip> loadPage(LoadParams<HealthTipPageCursor> params) {
+        HealthTipPageCursor key = params.getKey();
+        int limit = params.getLoadSize();
+        boolean prepend = params instanceof LoadParams.Prepend;
+
+        List<HealthTipSummary> summaries;
+        if (key == null) {
+            summaries = healthTipDao.getFirstPageSync(categoryId, limit);
+        } else if (prepend) {
+            summaries = healthTipDao.getPageNewerThanSync(categoryId, key.getCreatedAt(), key.getId(), limit);
+            Collections.reverse(summaries);
+        } else if (key.isInclusive()) {
+            summaries = healthTipDao.getPageFromSync(categoryId, key.getCreatedAt(), key.getId(), limit);
+        } else {
+            summaries = healthTipDao.getPageOlderThanSync(categoryId, key.getCreatedAt(), key.getId(), limit);
+        }
+
+        List<HealthTip> items = new ArrayList<>(summaries.size());
+        for (HealthTipSummary summary : summaries) {
+            items.add(summary.toHealthTip());
+        }
+
+        if (items.isEmpty()) {
+            return new LoadResult.Page<>(items, null, null);
+        }
+
+        // Trang đầu (key == null) không có trang phía trước; prepend thiếu item nghĩa là đã tới đầu danh sách
+        HealthTipPageCursor prevKey = key == null || (prepend && items.size() < limit)
+                ? null
+                : HealthTipPageCursor.after(items.get(0));
+        // Append/refresh thiếu item nghĩa là đã hết cache - RemoteMediator sẽ tải thêm từ Firebase
+        HealthTipPageCursor nextKey = !prepend && items.size() < limit
+                ? null
+                : HealthTipPageCursor.after(items.get(items.size() - 1));
+        return new LoadResult.Page<>(items, prevKey, nextKey);
+    }
+
+    /**
+     * Refresh (sau invalidate) bắt đầu từ item gần vị trí đang xem để danh sách không nhảy về đầu
+     */
+    @Nullable
+    @Override
+    public HealthTipPageCursor getRefreshKey(@NonNull PagingState<HealthTipPageCursor, HealthTip> state) {
+        Integer anchorPosition = state.getAnchorPosition();
+        if (anchorPosition == null) {
+            return null;
+        }
+        int position = Math.max(0, anchorPosition - state.getConfig().pageSize / 2);
+        HealthTip item = state.closestItemToPosition(position);
+        return item != null ? HealthTipPageCursor.at(item) : null;
+    }
+}
@@ -0,0 +1,99 @@
+package com.vhn.doan.data.paging;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.LoadType;
+import androidx.paging.PagingState;
+import androidx.paging.rxjava3.RxRemoteMediator;
+
+import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.repository.HealthTipRepository;
+import com.vhn.doan.utils.NetworkUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+import io.reactivex.rxjava3.core.Single;
+
+/**
+ * HealthTipRemoteMediator - Tải thêm trang từ Firebase khi PagingSource đọc hết cache Room
+ *
+ * Room là nguồn dữ liệu duy nhất của UI: mediator chỉ ghi trang mới vào Room
+ * (qua HealthTipRepository.getHealthTipsPage), PagingSource tự invalidate và đọc lại.
+ * Khi offline, mediator báo hết trang để danh sách chỉ hiển thị phần đã cache.
+ */
+@ExperimentalPagingApi
+public class HealthTipRemoteMediator extends RxRemoteMediator<HealthTipPageCursor, HealthTip> {
+
+    private static final String TAG = "HealthTipRemoteMediator";
+
+    private final Context context;
+    private final HealthTipRepository healthTipRepository;
+    private final String categoryId;
+
+    /**
+     * @param context Context để kiểm tra mạng
+     * @param healthTipRepository Repository ghi trang từ Firebase vào Room
+     * @param categoryId ID danh mục, null để lấy mọi danh mục
+     */
+    public HealthTipRemoteMediator(Context context, HealthTipRepository healthTipRepository,
+                                   @Nullable String categoryId) {
+        this.context = context.getApplicationContext();
+        this.healthTipRepository = healthTipRepository;
+        this.categoryId = categoryId;
+    }
+
+    @NonNull
+    @Override
+    public Single<InitializeAction> initializeSingle() {
+        // Cache hiển thị ngay, trang mới nhất được làm mới song song
+        return Single.just(InitializeAction.LAUNCH_INITIAL_REFRESH);
+    }
+
+    @NonNull
+    @Override
+    public Single<MediatorResult> loadSingle(@NonNull LoadType loadType,
+                                             @NonNull PagingState<HealthTipPageCursor, HealthTip> state) {
+        if (loadType == LoadType.PREPEND) {
+            // Trang mới nhất luôn được tải khi REFRESH nên không cần tải về phía trước
+            return Single.just(new MediatorResult.Success(true));
+        }
+        if (!NetworkUtils.isNetworkAvailable(context)) {
+            return Single.just(new MediatorResult.Success(true));
+        }
+
+        HealthTipPageCursor cursor = null;
+        if (loadType == LoadType.APPEND) {
+            HealthTip lastItem = state.lastItemOrNull();
+            if (lastItem == null) {
+                return Single.just(new MediatorResult.Success(true));
+            }
+            cursor = HealthTipPageCursor.after(lastItem);
+        }
+
+        final HealthTipPageCursor pageCursor = cursor;
+        final int pageSize = state.getConfig().pageSize;
+        return Single.<List<HealthTip>>create(emitter ->
+                        healthTipRepository.getHealthTipsPage(categoryId, pageCursor, pageSize,
+                                new HealthTipRepository.HealthTipCallback() {
+                                    @Override
+                                    public void onSuccess(List<HealthTip> healthTips) {
+                                        emitter.onSuccess(healthTips);
+                                    }
+
+                                    @Override
+                                    public void onError(String errorMessage) {
+                                        emitter.tryOnError(new IOException(errorMessage));
+                                    }
+                                }))
+                .map(healthTips -> {
+                    Log.d(TAG, loadType + " loaded " + healthTips.size() + " tips from Firebase");
+                    return (MediatorResult) new MediatorResult.Success(healthTips.size() < pageSize);
+                })
+                .onErrorReturn(MediatorResult.Error::new);
+    }
+}
@@ -0,0 +1,261 @@
+package com.vhn.doan.data.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.vhn.doan.data.local.AppDatabase;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BatchLoader - Tải nhiều bản ghi theo danh sách ID (multi-get)
+ *
+ * Thay cho việc mở một listener Firebase cho mỗi ID rồi đếm số lần hoàn thành:
+ * 1. Lấy các ID có sẵn trong Room bằng một truy vấn IN (...) trên background thread
+ * 2. Chỉ tải các ID còn thiếu từ Firebase, tối đa maxConcurrency request cùng lúc
+ * 3. Trả kết quả theo đúng thứ tự ID yêu cầu
+ *
+ * Timeout tính cho từng ID chứ không cho cả lô: ID quá hạn được tính là lỗi và nhường chỗ
+ * cho ID kế tiếp, nên lô lớn vẫn được tải hết. Các ID lỗi/quá hạn được trả trong
+ * BatchResult.failedIds để người gọi báo kết quả thiếu thay vì coi như đủ.
+ *
+ * Callback luôn được gọi đúng một lần trên main thread.
+ *
+ * @param <T> Kiểu bản ghi
+ */
+public final class BatchLoader<T> {
+
+    private static final String TAG = "BatchLoader";
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 8;
+    // Thời gian chờ tối đa cho mỗi ID
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10_000L;
+
+    /**
+     * Nguồn local (Room) - chạy trên AppDatabase.databaseReadExecutor
+     */
+    public interface LocalSource<T> {
+        /**
+         * @param ids Danh sách ID cần tìm (không trùng lặp)
+         * @return Map id -> bản ghi cho các ID có trong cache
+         */
+        Map<String, T> loadLocal(List<String> ids);
+    }
+
+    /**
+     * Nguồn remote (Firebase) - tải một ID
+     */
+    public interface RemoteSource<T> {
+        /**
+         * Gọi callback.onSuccess(null) nếu bản ghi không tồn tại
+         */
+        void fetch(String id, RepositoryCallback<T> callback);
+    }
+
+    /**
+     * Callback nhận kết quả tải
+     */
+    public interface BatchCallback<T> {
+        void onLoaded(BatchResult<T> result);
+    }
+
+    /**
+     * Kết quả tải theo lô
+     */
+    public static class BatchResult<T> {
+        // Các bản ghi tìm thấy, theo thứ tự ID yêu cầu
+        public final List<T> items;
+        // Các bản ghi vừa tải từ remote (để caller ghi lại vào cache)
+        public final List<T> remoteItems;
+        // Các ID không có trong kết quả (không tồn tại hoặc tải lỗi)
+        public final List<String> missingIds;
+        // Các ID tải lỗi hoặc quá hạn - có thể vẫn tồn tại trên server
+        public final List<String> failedIds;
+
+        BatchResult(List<T> items, List<T> remoteItems, List<String> missingIds, List<String> failedIds) {
+            this.items = items;
+            this.remoteItems = remoteItems;
+            this.missingIds = missingIds;
+            this.failedIds = failedIds;
+        }
+
+        /**
+         * true nếu có ID tải lỗi/quá hạn - danh sách items có thể thiếu
+         */
+        public boolean isPartial() {
+            return !failedIds.isEmpty();
+        }
+    }
+
+    private final LocalSource<T> localSource;
+    private final RemoteSource<T> remoteSource;
+    private final int maxConcurrency;
+    private final long timeoutMillis;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * @param localSource Nguồn Room, null nếu chỉ tải từ remote
+     * @param remoteSource Nguồn Firebase
+     */
+    public BatchLoader(LocalSource<T> localSource, RemoteSource<T> remoteSource) {
+        this(localSource, remoteSource, DEFAULT_MAX_CONCURRENCY, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public BatchLoader(LocalSource<T> localSource, RemoteSource<T> remoteSource,
+                       int maxConcurrency, long timeoutMillis) {
+        this.localSource = localSource;
+        this.remoteSource = remoteSource;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Tải các bản ghi theo danh sách ID
+     */
+    public void load(List<String> ids, BatchCallback<T> callback) {
+        List<String> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids != null ? ids : Collections.emptyList()));
+        uniqueIds.remove(null);
+        BatchRequest request = new BatchRequest(uniqueIds, callback);
+
+        if (uniqueIds.isEmpty() || localSource == null) {
+            mainHandler.post(() -> request.startRemote(Collections.emptyMap()));
+            return;
+        }
+
+        AppDatabase.databaseReadExecutor.execute(() -> {
+            Map<String, T> found;
+            try {
+                found = localSource.loadLocal(uniqueIds);
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading batch from local cache", e);
+                found = Collections.emptyMap();
+            }
+            final Map<String, T> localItems = found;
+            mainHandler.post(() -> request.startRemote(localItems));
+        });
+    }
+
+    /**
+     * Trạng thái của một lần load - chỉ truy cập trên main thread
+     */
+    private final class BatchRequest {
+        private final List<String> ids;
+        private final BatchCallback<T> callback;
+        private final Map<String, T> results = new HashMap<>();
+        private final List<T> remoteItems = new ArrayList<>();
+        private final ArrayDeque<String> pendingIds = new ArrayDeque<>();
+        // ID đang tải -> runnable timeout của ID đó
+        private final Map<String, Runnable> activeTimeouts = new HashMap<>();
+        private final List<String> failedIds = new ArrayList<>();
+        private boolean finished = false;
+
+        BatchRequest(List<String> ids, BatchCallback<T> callback) {
+            this.ids = ids;
+            this.callback = callback;
+        }
+
+        void startRemote(Map<String, T> localItems) {
+            results.putAll(localItems);
+            for (String id : ids) {
+                if (!results.containsKey(id)) {
+                    pendingIds.add(id);
+                }
+            }
+
+            if (pendingIds.isEmpty()) {
+                finish();
+                return;
+            }
+
+            Log.d(TAG, "Batch: " + localItems.size() + " from cache, " + pendingIds.size() + " from remote");
+            pump();
+        }
+
+        private void pump() {
+            while (!finished && activeTimeouts.size() < maxConcurrency && !pendingIds.isEmpty()) {
+                String id = pendingIds.poll();
+                Runnable timeoutRunnable = () -> {
+                    Log.w(TAG, "Timed out loading " + id);
+                    onFetched(id, null, true);
+                };
+                activeTimeouts.put(id, timeoutRunnable);
+                mainHandler.postDelayed(timeoutRunnable, timeoutMillis);
+                try {
+                    remoteSource.fetch(id, new RepositoryCallback<T>() {
+                        @Override
+                        public void onSuccess(T result) {
+                            runOnMain(() -> onFetched(id, result, false));
+                        }
+
+                        @Override
+                        public void onError(String error) {
+                            Log.w(TAG, "Error loading " + id + ": " + error);
+                            runOnMain(() -> onFetched(id, null, true));
+                        }
+                    });
+                } catch (Exception e) {
+                    Log.e(TAG, "Error starting fetch for " + id, e);
+                    onFetched(id, null, true);
+                }
+            }
+        }
+
+        private void onFetched(String id, T result, boolean failed) {
+            // Bỏ qua kết quả đến sau khi ID đã quá hạn
+            Runnable timeoutRunnable = activeTimeouts.remove(id);
+            if (finished || timeoutRunnable == null) {
+                return;
+            }
+            mainHandler.removeCallbacks(timeoutRunnable);
+            if (failed) {
+                failedIds.add(id);
+            } else if (result != null) {
+                results.put(id, result);
+                remoteItems.add(result);
+            }
+
+            if (activeTimeouts.isEmpty() && pendingIds.isEmpty()) {
+                finish();
+            } else {
+                pump();
+            }
+        }
+
+        private void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+
+            List<T> items = new ArrayList<>(results.size());
+            List<String> missingIds = new ArrayList<>();
+            for (String id : ids) {
+                T item = results.get(id);
+                if (item != null) {
+                    items.add(item);
+                } else {
+                    missingIds.add(id);
+                }
+            }
+            if (!failedIds.isEmpty()) {
+                Log.w(TAG, "Batch partial - " + items.size() + "/" + ids.size() + " items, failed: " + failedIds);
+            }
+            callback.onLoaded(new BatchResult<>(items, remoteItems, missingIds, failedIds));
+        }
+
+        private void runOnMain(Runnable runnable) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                runnable.run();
+            } else {
+                mainHandler.post(runnable);
+            }
+        }
+    }
+}
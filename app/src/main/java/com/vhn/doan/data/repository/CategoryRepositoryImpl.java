@@ -1,6 +1,8 @@
 package com.vhn.doan.data.repository;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import com.google.firebase.database.DataSnapshot;
@@ -10,6 +12,9 @@ import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.Query;
 import com.google.firebase.database.ValueEventListener;
 import com.vhn.doan.data.Category;
+import com.vhn.doan.data.local.AppDatabase;
+import com.vhn.doan.data.local.dao.CategoryDao;
+import com.vhn.doan.data.local.entity.CategoryEntity;
 import com.vhn.doan.utils.AuthTokenManager;
 import com.vhn.doan.utils.Constants;
 
@@ -17,13 +22,32 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Triển khai CategoryRepository sử dụng Firebase Realtime Database
+ * Các hàm đọc danh sách (fetchX) được gộp qua RequestCoalescer khi nhiều màn hình gọi cùng lúc
  */
 public class CategoryRepositoryImpl implements CategoryRepository {
 
     private static final String TAG = "CategoryRepoImpl";
+
+    /**
+     * Tên mặc định khi bài viết không có danh mục hoặc danh mục không tồn tại
+     */
+    public static final String UNCATEGORIZED_NAME = "Chưa phân loại";
+
+    // Từ điển danh mục dùng chung cho toàn process (id -> tên), lookup O(1) không cần gọi mạng.
+    // Được nạp một lần từ Room, sau đó giữ mới bằng MỘT subscription listenToCategories duy nhất.
+    private static final Map<String, String> categoryNames = new ConcurrentHashMap<>();
+    private static final List<Consumer<Boolean>> pendingDictionaryCallbacks = new ArrayList<>();
+    private static final Object dictionaryLock = new Object();
+    private static final Handler dictionaryHandler = new Handler(Looper.getMainLooper());
+    private static volatile boolean dictionaryReady = false;
+    private static CategoryRepositoryImpl dictionaryOwner;
+    private static boolean dictionarySubscribed = false;
+
     private final FirebaseDatabase database;
     private final DatabaseReference categoryRef;
     private final Context context;
@@ -73,8 +97,226 @@ public class CategoryRepositoryImpl implements CategoryRepository {
         return errorMessage + ": " + databaseError.getMessage();
     }
 
+    /**
+     * Đảm bảo từ điển danh mục đã được nạp và đang được lắng nghe thay đổi
+     *
+     * Lần gọi đầu tiên nạp từ Room (nếu có) và đăng ký listener Firebase duy nhất cho node categories;
+     * các lần gọi sau chỉ chờ lần nạp đầu (nếu chưa xong) rồi trả về ngay.
+     *
+     * @param context Context để truy cập Room, có thể null (khi đó chỉ dùng Firebase)
+     * @param onReady nhận true nếu từ điển có dữ liệu, false nếu lần nạp đầu thất bại.
+     *                Luôn được gọi trên main thread.
+     */
+    public static void ensureCategoryDictionary(Context context, Consumer<Boolean> onReady) {
+        boolean subscribe = false;
+        boolean readyNow;
+        synchronized (dictionaryLock) {
+            // Owner không có Context (constructor cũ) được thay khi có Context để dùng được Room
+            if (dictionaryOwner == null
+                    || (!dictionarySubscribed && dictionaryOwner.context == null && context != null)) {
+                dictionaryOwner = new CategoryRepositoryImpl(context);
+            }
+            if (!dictionarySubscribed) {
+                dictionarySubscribed = true;
+                subscribe = true;
+            }
+            readyNow = dictionaryReady;
+            if (!readyNow && onReady != null) {
+                pendingDictionaryCallbacks.add(onReady);
+            }
+        }
+
+        if (subscribe) {
+            dictionaryOwner.startDictionarySubscription();
+        }
+        if (readyNow && onReady != null) {
+            dictionaryHandler.post(() -> onReady.accept(true));
+        }
+    }
+
+    /**
+     * Tra cứu tên danh mục trong từ điển dùng chung
+     * @return tên danh mục, hoặc null nếu chưa biết ID này
+     */
+    public static String getCategoryName(String categoryId) {
+        if (categoryId == null || categoryId.isEmpty()) {
+            return null;
+        }
+        return categoryNames.get(categoryId);
+    }
+
+    /**
+     * Tra cứu tên danh mục, trả về "Chưa phân loại" nếu không tìm thấy
+     */
+    public static String getCategoryNameOrDefault(String categoryId) {
+        String name = getCategoryName(categoryId);
+        return name != null && !name.isEmpty() ? name : UNCATEGORIZED_NAME;
+    }
+
+    /**
+     * Từ điển đã có dữ liệu (từ Room hoặc Firebase) hay chưa
+     */
+    public static boolean isCategoryDictionaryReady() {
+        return dictionaryReady;
+    }
+
+    /**
+     * Nạp từ điển từ Room rồi đăng ký listener Firebase duy nhất
+     */
+    private void startDictionarySubscription() {
+        if (context != null) {
+            AppDatabase.databaseReadExecutor.execute(() -> {
+                try {
+                    List<CategoryEntity> cached = AppDatabase.getInstance(context).categoryDao().getAllCategoriesSync();
+                    // Firebase có thể đã trả về trước - không ghi đè dữ liệu mới hơn
+                    if (cached != null && !cached.isEmpty() && !dictionaryReady) {
+                        for (CategoryEntity entity : cached) {
+                            if (entity.getName() != null && !entity.getName().isEmpty()) {
+                                categoryNames.putIfAbsent(entity.getId(), entity.getName());
+                            }
+                        }
+                        Log.d(TAG, "Category dictionary warmed from Room: " + cached.size() + " items");
+                        markDictionaryLoaded(true);
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "Error warming category dictionary from Room", e);
+                }
+            });
+        }
+
+        listenToCategories(new CategoryCallback() {
+            @Override
+            public void onSuccess(List<Category> categories) {
+                Map<String, String> latest = new HashMap<>();
+                for (Category category : categories) {
+                    if (category.getId() != null && category.getName() != null && !category.getName().isEmpty()) {
+                        latest.put(category.getId(), category.getName());
+                    }
+                }
+                // Thêm/cập nhật trước rồi mới xóa để lookup đồng thời không thấy từ điển rỗng
+                categoryNames.putAll(latest);
+                categoryNames.keySet().retainAll(latest.keySet());
+                Log.d(TAG, "Category dictionary refreshed: " + latest.size() + " items");
+
+                saveCategoriesToRoom(categories);
+                markDictionaryLoaded(true);
+            }
+
+            @Override
+            public void onSingleCategoryLoaded(Category category) {
+                // Không dùng cho listener
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                Log.e(TAG, "Category dictionary listener cancelled: " + errorMessage);
+                // Firebase tự hủy listener khi bị cancel - lần ensure kế tiếp sẽ đăng ký lại
+                synchronized (dictionaryLock) {
+                    dictionarySubscribed = false;
+                }
+                markDictionaryLoaded(dictionaryReady);
+            }
+        });
+    }
+
+    /**
+     * Đánh dấu lần nạp đầu đã xong và gọi các callback đang chờ trên main thread
+     */
+    private static void markDictionaryLoaded(boolean success) {
+        List<Consumer<Boolean>> callbacks;
+        synchronized (dictionaryLock) {
+            if (success) {
+                dictionaryReady = true;
+            }
+            callbacks = new ArrayList<>(pendingDictionaryCallbacks);
+            pendingDictionaryCallbacks.clear();
+        }
+        if (callbacks.isEmpty()) {
+            return;
+        }
+        final boolean hasData = success || dictionaryReady;
+        dictionaryHandler.post(() -> {
+            for (Consumer<Boolean> callback : callbacks) {
+                callback.accept(hasData);
+            }
+        });
+    }
+
+    /**
+     * Ghi danh mục mới nhất vào Room để lần khởi động sau có từ điển ngay cả khi offline
+     */
+    private void saveCategoriesToRoom(List<Category> categories) {
+        if (context == null || categories == null || categories.isEmpty()) {
+            return;
+        }
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            try {
+                AppDatabase appDatabase = AppDatabase.getInstance(context);
+                CategoryDao categoryDao = appDatabase.categoryDao();
+                List<CategoryEntity> entities = new ArrayList<>(categories.size());
+                for (int i = 0; i < categories.size(); i++) {
+                    Category category = categories.get(i);
+                    if (category.getId() == null) {
+                        continue;
+                    }
+                    entities.add(new CategoryEntity(category.getId(), category.getName(),
+                            category.getDescription(), category.getIconUrl(), null,
+                            category.getTipCount(), i));
+                }
+                appDatabase.runInTransaction(() -> {
+                    categoryDao.deleteAll();
+                    categoryDao.insertAll(entities);
+                });
+            } catch (Exception e) {
+                Log.e(TAG, "Error saving categories to Room", e);
+            }
+        });
+    }
+
+    /**
+     * Gộp các request đọc danh mục trùng nhau đang chạy đồng thời thành một lần đọc Firebase
+     */
+    private void coalesce(String key, Consumer<CategoryCallback> operation, final CategoryCallback callback) {
+        RequestCoalescer.getInstance().execute(key,
+                shared -> operation.accept(new CategoryCallback() {
+                    @Override
+                    public void onSuccess(List<Category> categories) {
+                        shared.onSuccess(categories);
+                    }
+
+                    @Override
+                    public void onSingleCategoryLoaded(Category category) {
+                        // Không dùng cho danh sách danh mục
+                    }
+
+                    @Override
+                    public void onError(String errorMessage) {
+                        shared.onError(errorMessage);
+                    }
+                }),
+                new RepositoryCallback<List<Category>>() {
+                    @Override
+                    public void onSuccess(List<Category> result) {
+                        callback.onSuccess(result);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        callback.onError(error);
+                    }
+                });
+    }
+
     @Override
     public void getAllCategories(final CategoryCallback callback) {
+        coalesce(RequestCoalescer.key("CategoryRepository.getAllCategories"),
+                shared -> fetchAllCategories(shared), callback);
+    }
+
+    /**
+     * Tải toàn bộ danh mục từ Firebase
+     */
+    private void fetchAllCategories(final CategoryCallback callback) {
         categoryRef.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot dataSnapshot) {
@@ -150,6 +392,14 @@ public class CategoryRepositoryImpl implements CategoryRepository {
 
     @Override
     public void getCategoriesByActiveStatus(boolean isActive, final CategoryCallback callback) {
+        coalesce(RequestCoalescer.key("CategoryRepository.getCategoriesByActiveStatus", isActive),
+                shared -> fetchCategoriesByActiveStatus(isActive, shared), callback);
+    }
+
+    /**
+     * Tải danh mục theo trạng thái
+     */
+    private void fetchCategoriesByActiveStatus(boolean isActive, final CategoryCallback callback) {
         Query query = categoryRef.orderByChild("active").equalTo(isActive);
         query.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
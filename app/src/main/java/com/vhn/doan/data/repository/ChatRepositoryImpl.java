@@ -464,40 +464,7 @@ public class ChatRepositoryImpl implements ChatRepository {
 
     @Override
     public String extractTopic(String content) {
-        try {
-            // Các từ khóa chủ đề về sức khỏe
-            String[] healthTopics = {
-                "tim mạch", "huyết áp", "cholesterol", "đường huyết", "tiểu đường",
-                "dinh dưỡng", "vitamin", "protein", "carb", "chất béo",
-                "tập luyện", "thể dục", "yoga", "cardio", "cơ bắp",
-                "giảm cân", "tăng cân", "béo phì", "ăn kiêng",
-                "stress", "lo âu", "trầm cảm", "tâm lý", "tinh thần",
-                "giấc ngủ", "mất ngủ", "ngủ", "nghỉ ngơi",
-                "da", "tóc", "móng", "mỹ phẩm", "chăm sóc da",
-                "mang thai", "sinh sản", "kinh nguyệt", "phụ khoa",
-                "trẻ em", "em bé", "sức khỏe trẻ", "phát triển",
-                "người cao tuổi", "lão hóa", "xương khớp", "cột sống",
-                "mắt", "thị lực", "tai", "thính giác",
-                "răng", "miệng", "nha khoa", "vệ sinh răng miệng",
-                "cảm cúm", "sốt", "ho", "viêm họng", "virus",
-                "thuốc", "dược phẩm", "tác dụng phụ", "liều dùng"
-            };
-
-            content = content.toLowerCase();
-
-            for (String topic : healthTopics) {
-                if (content.contains(topic)) {
-                    return topic;
-                }
-            }
-
-            // Nếu không tìm thấy chủ đề cụ thể, trả về chủ đề chung
-            return "sức khỏe tổng quát";
-
-        } catch (Exception e) {
-            Log.e(TAG, "Error extracting topic", e);
-            return "sức khỏe tổng quát";
-        }
+        return ChatTopicExtractor.extract(content);
     }
 
     /**
@@ -0,0 +1,48 @@
+package com.vhn.doan.data.repository;
+
+/**
+ * Nhận diện chủ đề sức khỏe của một tin nhắn chat theo danh sách từ khóa
+ * (tách khỏi ChatRepositoryImpl.extractTopic để dùng được ngoài Android)
+ */
+public final class ChatTopicExtractor {
+
+    public static final String GENERAL_TOPIC = "sức khỏe tổng quát";
+
+    // Các từ khóa chủ đề về sức khỏe - từ khóa đứng trước được ưu tiên
+    private static final String[] HEALTH_TOPICS = {
+        "tim mạch", "huyết áp", "cholesterol", "đường huyết", "tiểu đường",
+        "dinh dưỡng", "vitamin", "protein", "carb", "chất béo",
+        "tập luyện", "thể dục", "yoga", "cardio", "cơ bắp",
+        "giảm cân", "tăng cân", "béo phì", "ăn kiêng",
+        "stress", "lo âu", "trầm cảm", "tâm lý", "tinh thần",
+        "giấc ngủ", "mất ngủ", "ngủ", "nghỉ ngơi",
+        "da", "tóc", "móng", "mỹ phẩm", "chăm sóc da",
+        "mang thai", "sinh sản", "kinh nguyệt", "phụ khoa",
+        "trẻ em", "em bé", "sức khỏe trẻ", "phát triển",
+        "người cao tuổi", "lão hóa", "xương khớp", "cột sống",
+        "mắt", "thị lực", "tai", "thính giác",
+        "răng", "miệng", "nha khoa", "vệ sinh răng miệng",
+        "cảm cúm", "sốt", "ho", "viêm họng", "virus",
+        "thuốc", "dược phẩm", "tác dụng phụ", "liều dùng"
+    };
+
+    private ChatTopicExtractor() {
+    }
+
+    /**
+     * @return từ khóa chủ đề đầu tiên xuất hiện trong nội dung, GENERAL_TOPIC nếu không có
+     */
+    public static String extract(String content) {
+        if (content == null) {
+            return GENERAL_TOPIC;
+        }
+        String lowerContent = content.toLowerCase();
+        for (String topic : HEALTH_TOPICS) {
+            if (lowerContent.contains(topic)) {
+                return topic;
+            }
+        }
+        // Nếu không tìm thấy chủ đề cụ thể, trả về chủ đề chung
+        return GENERAL_TOPIC;
+    }
+}
@@ -0,0 +1,387 @@
+package com.vhn.doan.data.repository;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ServerValue;
+import com.vhn.doan.data.local.AppDatabase;
+import com.vhn.doan.data.local.dao.PendingCounterDao;
+import com.vhn.doan.data.local.entity.PendingCounterEntity;
+import com.vhn.doan.workers.CounterFlushWorker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * CounterAggregator - Gộp lượt xem/lượt thích rồi ghi lên Firebase theo lô (write-behind)
+ *
+ * Thay cho đọc-rồi-ghi (health tip) hoặc runTransaction (video) cho MỖI lượt xem:
+ * 1. Mỗi lượt xem/thích chỉ cộng delta vào bộ nhớ và ghi giá trị delta hiện tại vào Room (pending_counters)
+ * 2. Định kỳ FLUSH_INTERVAL_MILLIS, và khi app xuống nền, tất cả delta được gửi bằng MỘT lệnh
+ *    updateChildren nhiều đường dẫn với ServerValue.increment - không bị retry khi nhiều người cùng xem
+ * 3. Delta trong Room được nạp lại khi khởi động nên không mất khi process bị kill;
+ *    khi app xuống nền CounterFlushWorker được lên lịch để gửi nốt khi có mạng
+ *
+ * Delta chỉ bị trừ sau khi Firebase xác nhận ghi thành công (at-least-once).
+ */
+public final class CounterAggregator {
+
+    private static final String TAG = "CounterAggregator";
+
+    public static final String FIELD_VIEW_COUNT = "viewCount";
+    public static final String FIELD_LIKE_COUNT = "likeCount";
+
+    // Khoảng thời gian gộp delta trước khi gửi lên Firebase
+    private static final long FLUSH_INTERVAL_MILLIS = 60_000L;
+
+    // Thời gian tối đa chờ Firebase khi flush đồng bộ từ CounterFlushWorker
+    private static final long FLUSH_TIMEOUT_SECONDS = 30L;
+
+    private static final String FLUSH_WORK_NAME = "counter_flush";
+
+    private static volatile CounterAggregator instance;
+
+    private final Context context;
+    private final AppDatabase appDatabase;
+    private final PendingCounterDao pendingCounterDao;
+    private final FirebaseDatabase firebaseDatabase;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, AtomicLong> pendingDeltas = new ConcurrentHashMap<>();
+    private final Runnable flushRunnable = this::flush;
+    private final CountDownLatch restoreLatch = new CountDownLatch(1);
+    private final AtomicBoolean flushInFlight = new AtomicBoolean(false);
+
+    // Chỉ truy cập trên main thread
+    private boolean flushScheduled = false;
+
+    private final AtomicLong recordedCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedPathCount = new AtomicLong();
+
+    private CounterAggregator(Context context) {
+        this.context = context.getApplicationContext();
+        this.appDatabase = AppDatabase.getInstance(this.context);
+        this.pendingCounterDao = appDatabase.pendingCounterDao();
+        this.firebaseDatabase = FirebaseDatabase.getInstance();
+
+        restorePendingDeltas();
+        this.context.registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                if (level >= TRIM_MEMORY_UI_HIDDEN) {
+                    onAppBackgrounded();
+                }
+            }
+
+            @Override
+            public void onConfigurationChanged(@NonNull Configuration newConfig) {
+            }
+
+            @Override
+            public void onLowMemory() {
+            }
+        });
+    }
+
+    /**
+     * Singleton instance
+     */
+    public static CounterAggregator getInstance(Context context) {
+        if (instance == null) {
+            synchronized (CounterAggregator.class) {
+                if (instance == null) {
+                    instance = new CounterAggregator(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Instance đã khởi tạo (HomeActivity khởi tạo khi mở app), null nếu chưa có
+     * Dùng cho repository không giữ Context như FirebaseVideoRepositoryImpl
+     */
+    public static CounterAggregator getInstanceIfCreated() {
+        return instance;
+    }
+
+    /**
+     * Ghi nhận một lượt xem
+     * @param node Node Firebase chứa item (Constants.HEALTH_TIPS_REF, Constants.VIDEOS_REF)
+     */
+    public void recordView(String node, String itemId) {
+        record(node, itemId, FIELD_VIEW_COUNT, 1);
+    }
+
+    /**
+     * Ghi nhận thích (+1) hoặc bỏ thích (-1)
+     */
+    public void recordLike(String node, String itemId, boolean liked) {
+        record(node, itemId, FIELD_LIKE_COUNT, liked ? 1 : -1);
+    }
+
+    /**
+     * Cộng delta cho một trường đếm của item
+     */
+    public void record(String node, String itemId, String field, long delta) {
+        if (node == null || itemId == null || itemId.isEmpty() || delta == 0) {
+            return;
+        }
+        String path = node + "/" + itemId + "/" + field;
+        pendingDeltas.computeIfAbsent(path, key -> new AtomicLong()).addAndGet(delta);
+        recordedCount.incrementAndGet();
+        persist(path);
+        runOnMain(this::scheduleFlush);
+    }
+
+    /**
+     * Tổng delta đang chờ gửi của một item (để UI cộng vào số liệu lấy từ cache)
+     */
+    public long getPendingDelta(String node, String itemId, String field) {
+        AtomicLong delta = pendingDeltas.get(node + "/" + itemId + "/" + field);
+        return delta != null ? delta.get() : 0;
+    }
+
+    /**
+     * Gửi ngay tất cả delta đang chờ (không chờ kết quả)
+     */
+    public void flush() {
+        runOnMain(() -> {
+            mainHandler.removeCallbacks(flushRunnable);
+            flushScheduled = false;
+            Map<String, Long> snapshot = snapshotDeltas();
+            if (snapshot.isEmpty()) {
+                return;
+            }
+            if (!flushInFlight.compareAndSet(false, true)) {
+                // Lượt flush hiện tại xong sẽ lên lịch lượt tiếp nếu còn delta
+                return;
+            }
+            startFlush(snapshot, null);
+        });
+    }
+
+    /**
+     * Gửi delta đang chờ và đợi kết quả - chỉ gọi trên background thread (CounterFlushWorker)
+     *
+     * Hết thời gian chờ không hủy được lệnh ghi (SDK vẫn gửi khi có mạng), nên lượt flush vẫn
+     * được giữ trạng thái đang chạy và delta chỉ bị trừ khi chính lệnh ghi đó hoàn tất.
+     * @return true nếu không còn gì để gửi hoặc đã gửi thành công,
+     *         false nếu đang có lượt flush khác, lệnh ghi lỗi hoặc chưa xong trong FLUSH_TIMEOUT_SECONDS
+     */
+    public boolean flushBlocking() throws Exception {
+        awaitRestore();
+        Map<String, Long> snapshot = snapshotDeltas();
+        if (snapshot.isEmpty()) {
+            return true;
+        }
+        if (!flushInFlight.compareAndSet(false, true)) {
+            return false;
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean success = new AtomicBoolean(false);
+        startFlush(snapshot, succeeded -> {
+            success.set(succeeded);
+            done.countDown();
+        });
+        if (!done.await(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            Log.w(TAG, "Counter flush still pending after " + FLUSH_TIMEOUT_SECONDS + "s");
+            return false;
+        }
+        return success.get();
+    }
+
+    /**
+     * Lấy thống kê gộp
+     */
+    public CounterStats getStats() {
+        return new CounterStats(recordedCount.get(), flushCount.get(), flushedPathCount.get(), snapshotDeltas().size());
+    }
+
+    private void onAppBackgrounded() {
+        int pendingCount = snapshotDeltas().size();
+        if (pendingCount == 0) {
+            return;
+        }
+        Log.d(TAG, "App backgrounded - flushing " + pendingCount + " pending counters");
+        flush();
+
+        // Nếu process bị kill trước khi Firebase xác nhận (hoặc đang offline), worker gửi nốt khi có mạng
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(CounterFlushWorker.class)
+                .setConstraints(constraints)
+                .setInitialDelay(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(FLUSH_WORK_NAME, ExistingWorkPolicy.REPLACE, request);
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled && !snapshotDeltas().isEmpty()) {
+            flushScheduled = true;
+            mainHandler.postDelayed(flushRunnable, FLUSH_INTERVAL_MILLIS);
+        }
+    }
+
+    private Map<String, Long> snapshotDeltas() {
+        Map<String, Long> snapshot = new HashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : pendingDeltas.entrySet()) {
+            long delta = entry.getValue().get();
+            if (delta != 0) {
+                snapshot.put(entry.getKey(), delta);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gửi snapshot; delta chỉ bị trừ và flushInFlight chỉ được bỏ khi lệnh ghi hoàn tất
+     * Gọi sau khi đã đặt flushInFlight = true
+     * @param onDone nhận true nếu ghi thành công (sau khi đã trừ delta), có thể null
+     */
+    private void startFlush(Map<String, Long> snapshot, Consumer<Boolean> onDone) {
+        sendDeltas(snapshot).addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                onFlushed(snapshot);
+            } else {
+                Log.w(TAG, "Counter flush failed, keeping " + snapshot.size() + " deltas", task.getException());
+            }
+            flushInFlight.set(false);
+            if (onDone != null) {
+                onDone.accept(task.isSuccessful());
+            }
+            scheduleFlush();
+        });
+    }
+
+    /**
+     * Một lệnh updateChildren cho tất cả đường dẫn - Firebase ghi nguyên tử và cộng dồn phía server
+     */
+    private Task<Void> sendDeltas(Map<String, Long> snapshot) {
+        Map<String, Object> updates = new HashMap<>(snapshot.size());
+        for (Map.Entry<String, Long> entry : snapshot.entrySet()) {
+            updates.put(entry.getKey(), ServerValue.increment(entry.getValue()));
+        }
+        Log.d(TAG, "Flushing " + updates.size() + " counters in one update");
+        return firebaseDatabase.getReference().updateChildren(updates);
+    }
+
+    /**
+     * Trừ phần đã gửi (delta mới phát sinh trong lúc gửi được giữ lại)
+     */
+    private void onFlushed(Map<String, Long> snapshot) {
+        flushCount.incrementAndGet();
+        flushedPathCount.addAndGet(snapshot.size());
+        for (Map.Entry<String, Long> entry : snapshot.entrySet()) {
+            AtomicLong delta = pendingDeltas.get(entry.getKey());
+            if (delta != null) {
+                delta.addAndGet(-entry.getValue());
+            }
+            persist(entry.getKey());
+        }
+    }
+
+    /**
+     * Ghi giá trị delta hiện tại của đường dẫn vào Room
+     *
+     * Ghi giá trị tuyệt đối (không cộng dồn trong SQL) nên lệnh idempotent và gộp được vào
+     * transaction chung của thread ghi; giá trị đọc lúc chạy luôn là mới nhất.
+     */
+    private void persist(String path) {
+        appDatabase.enqueueWrite(() -> {
+            AtomicLong delta = pendingDeltas.get(path);
+            long value = delta != null ? delta.get() : 0;
+            if (value == 0) {
+                // Giữ entry 0 trong bộ nhớ - xóa khỏi map có thể làm mất delta đang được cộng đồng thời
+                pendingCounterDao.deleteByPath(path);
+            } else {
+                pendingCounterDao.upsert(new PendingCounterEntity(path, value, System.currentTimeMillis()));
+            }
+        });
+    }
+
+    /**
+     * Nạp delta chưa gửi từ lần chạy trước
+     *
+     * Chạy trên thread ghi và được xếp trước mọi lệnh persist(), nên giá trị trong Room
+     * được cộng vào bộ nhớ trước khi bị ghi đè bằng giá trị mới.
+     */
+    private void restorePendingDeltas() {
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            try {
+                int restored = 0;
+                for (PendingCounterEntity counter : pendingCounterDao.getAllSync()) {
+                    if (counter.getDelta() != 0) {
+                        pendingDeltas.computeIfAbsent(counter.getPath(), key -> new AtomicLong())
+                                .addAndGet(counter.getDelta());
+                        restored++;
+                    }
+                }
+                if (restored > 0) {
+                    Log.d(TAG, "Restored " + restored + " pending counters");
+                    runOnMain(this::scheduleFlush);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error restoring pending counters", e);
+            } finally {
+                restoreLatch.countDown();
+            }
+        });
+    }
+
+    private void awaitRestore() throws InterruptedException {
+        restoreLatch.await(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void runOnMain(Runnable runnable) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            runnable.run();
+        } else {
+            mainHandler.post(runnable);
+        }
+    }
+
+    /**
+     * Thống kê gộp lượt xem/lượt thích
+     */
+    public static class CounterStats {
+        public final long recordedCount;
+        public final long flushCount;
+        public final long flushedPathCount;
+        public final int pendingPathCount;
+
+        public CounterStats(long recordedCount, long flushCount, long flushedPathCount, int pendingPathCount) {
+            this.recordedCount = recordedCount;
+            this.flushCount = flushCount;
+            this.flushedPathCount = flushedPathCount;
+            this.pendingPathCount = pendingPathCount;
+        }
+
+        /**
+         * Số lượt ghi Firebase tiết kiệm được so với ghi từng lượt
+         */
+        public long getSavedWrites() {
+            return Math.max(0, recordedCount - flushCount);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.vhn.doan.data.repository;
+
+import com.vhn.doan.data.HealthTip;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * DailyRecommendationGenerator - Thuật toán chọn bài viết đề xuất theo ngày
+ *
+ * Kết quả chỉ phụ thuộc vào ngày (yyyy-MM-dd) và tập bài viết đầu vào:
+ * - Seed ngẫu nhiên lấy từ ngày
+ * - Tuổi bài viết tính tới đầu ngày đó (không dùng giờ hiện tại)
+ * - Bài cùng điểm được xếp theo ID nên thứ tự đầu vào (Firebase hay Room) không ảnh hưởng
+ * Dùng chung cho DailyRecommendationWorker (tính trước) và HealthTipRepositoryImpl (tính bù)
+ */
+public final class DailyRecommendationGenerator {
+
+    public static final String DATE_PATTERN = "yyyy-MM-dd";
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private DailyRecommendationGenerator() {
+    }
+
+    /**
+     * Ngày hiện tại theo định dạng yyyy-MM-dd (khóa của danh sách đề xuất)
+     */
+    public static String today() {
+        return new SimpleDateFormat(DATE_PATTERN, Locale.getDefault()).format(new Date());
+    }
+
+    /**
+     * Tạo danh sách bài viết đề xuất cho một ngày cụ thể
+     * Sử dụng thuật toán seed để đảm bảo tính nhất quán
+     */
+    public static List<HealthTip> generate(List<HealthTip> allHealthTips, String date, int limit) {
+        if (allHealthTips == null || allHealthTips.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Tạo seed từ ngày - cùng một ngày sẽ luôn có cùng một bộ bài viết được đề xuất
+        Random random = new Random(date.hashCode());
+        long referenceTime = startOfDay(date);
+
+        // Tạo bản sao để không ảnh hưởng đến danh sách gốc
+        List<HealthTip> availableTips = new ArrayList<>(allHealthTips);
+        List<HealthTip> recommendedTips = new ArrayList<>();
+
+        // Thuật toán đề xuất:
+        // 1. Chia bài viết thành các nhóm theo điểm số (cao, trung bình, thấp)
+        // 2. Chọn ngẫu nhiên từ mỗi nhóm để đảm bảo đa dạng
+        // 3. Ưu tiên bài viết có điểm cao nhưng vẫn có sự ngẫu nhiên
+
+        // Tính điểm cho từng bài viết
+        for (HealthTip tip : availableTips) {
+            int viewCount = tip.getViewCount() != null ? tip.getViewCount() : 0;
+            int likeCount = tip.getLikeCount() != null ? tip.getLikeCount() : 0;
+            long ageInDays = Math.max(0, (referenceTime - tip.getCreatedAt()) / DAY_MILLIS);
+
+            // Điểm = (lượt xem + lượt thích * 2) / (tuổi bài viết + 1)
+            // Điều này ưu tiên bài viết mới và có tương tác cao
+            double score = (viewCount + likeCount * 2.0) / (ageInDays + 1);
+            tip.setRecommendationScore((int) (score * 100)); // Nhân 100 để dễ so sánh
+        }
+
+        // Sắp xếp theo điểm, cùng điểm thì theo ID
+        availableTips.sort((tip1, tip2) -> {
+            int score1 = tip1.getRecommendationScore() != null ? tip1.getRecommendationScore() : 0;
+            int score2 = tip2.getRecommendationScore() != null ? tip2.getRecommendationScore() : 0;
+            if (score1 != score2) {
+                return Integer.compare(score2, score1);
+            }
+            String id1 = tip1.getId() != null ? tip1.getId() : "";
+            String id2 = tip2.getId() != null ? tip2.getId() : "";
+            return id1.compareTo(id2);
+        });
+
+        // Chia thành 3 nhóm: Top 30%, Middle 40%, Bottom 30%
+        int totalCount = availableTips.size();
+        int topCount = Math.max(1, (int) (totalCount * 0.3));
+        int middleCount = Math.max(1, (int) (totalCount * 0.4));
+
+        List<HealthTip> topTips = availableTips.subList(0, Math.min(topCount, totalCount));
+        List<HealthTip> middleTips = availableTips.subList(Math.min(topCount, totalCount),
+                Math.min(topCount + middleCount, totalCount));
+        List<HealthTip> bottomTips = availableTips.subList(Math.min(topCount + middleCount, totalCount), totalCount);
+
+        // Chọn bài viết từ mỗi nhóm với tỷ lệ: 50% top, 30% middle, 20% bottom
+        int topLimit = Math.max(1, (int) (limit * 0.5));
+        int middleLimit = Math.max(1, (int) (limit * 0.3));
+        int bottomLimit = limit - topLimit - middleLimit;
+
+        addRandomTipsFromGroup(topTips, topLimit, recommendedTips, random);
+        addRandomTipsFromGroup(middleTips, middleLimit, recommendedTips, random);
+        addRandomTipsFromGroup(bottomTips, bottomLimit, recommendedTips, random);
+
+        // Nếu chưa đủ số lượng, thêm các bài viết còn lại theo thứ tự điểm
+        for (HealthTip tip : availableTips) {
+            if (recommendedTips.size() >= limit) break;
+            if (!recommendedTips.contains(tip)) {
+                recommendedTips.add(tip);
+            }
+        }
+
+        // Trộn ngẫu nhiên danh sách cuối cùng để tạo sự đa dạng trong hiển thị
+        Collections.shuffle(recommendedTips, random);
+
+        return recommendedTips;
+    }
+
+    /**
+     * Thêm ngẫu nhiên các bài viết từ một nhóm vào danh sách đề xuất
+     */
+    private static void addRandomTipsFromGroup(List<HealthTip> sourceTips, int maxCount,
+                                               List<HealthTip> targetTips, Random random) {
+        if (sourceTips.isEmpty() || maxCount <= 0) return;
+
+        List<HealthTip> availableTips = new ArrayList<>();
+        for (HealthTip tip : sourceTips) {
+            if (!targetTips.contains(tip)) {
+                availableTips.add(tip);
+            }
+        }
+
+        Collections.shuffle(availableTips, random);
+
+        int addCount = Math.min(maxCount, availableTips.size());
+        for (int i = 0; i < addCount; i++) {
+            targetTips.add(availableTips.get(i));
+        }
+    }
+
+    /**
+     * Thời điểm 00:00 của ngày (múi giờ máy), hoặc giờ hiện tại nếu ngày không hợp lệ
+     */
+    private static long startOfDay(String date) {
+        try {
+            Date parsed = new SimpleDateFormat(DATE_PATTERN, Locale.getDefault()).parse(date);
+            if (parsed != null) {
+                return parsed.getTime();
+            }
+        } catch (ParseException ignored) {
+            // Ngày không đúng định dạng - vẫn tạo đề xuất, chỉ mất tính ổn định theo giờ
+        }
+        return System.currentTimeMillis();
+    }
+}
@@ -17,6 +17,13 @@ public interface FavoriteRepository {
     interface FavoriteListCallback {
         void onSuccess(List<HealthTip> favoriteHealthTips);
         void onError(String error);
+
+        /**
+         * Một số bài viết yêu thích chưa tải được (lỗi mạng/quá hạn) - mặc định chuyển sang onSuccess
+         */
+        default void onPartialResult(List<HealthTip> favoriteHealthTips, List<String> failedIds) {
+            onSuccess(favoriteHealthTips);
+        }
     }
 
     /**
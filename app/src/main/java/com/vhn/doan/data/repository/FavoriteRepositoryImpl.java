@@ -132,35 +132,29 @@ public class FavoriteRepositoryImpl implements FavoriteRepository {
                     return;
                 }
 
-                // Lấy chi tiết từng bài viết yêu thích
-                List<HealthTip> favoriteHealthTips = new ArrayList<>();
-                final int[] completedRequests = {0};
-
-                for (String healthTipId : favoriteIds) {
-                    healthTipRepository.getHealthTipDetail(healthTipId, new HealthTipRepository.SingleHealthTipCallback() {
-                        @Override
-                        public void onSuccess(HealthTip healthTip) {
-                            if (healthTip != null) {
-                                healthTip.setFavorite(true); // Đánh dấu là yêu thích
-                                favoriteHealthTips.add(healthTip);
-                            }
-                            completedRequests[0]++;
-
-                            if (completedRequests[0] == favoriteIds.size()) {
-                                callback.onSuccess(favoriteHealthTips);
-                            }
+                // Lấy chi tiết các bài viết yêu thích theo lô (cache Room trước, chỉ tải phần thiếu)
+                healthTipRepository.getHealthTipsByIds(favoriteIds, new HealthTipRepository.HealthTipCallback() {
+                    @Override
+                    public void onSuccess(List<HealthTip> healthTips) {
+                        for (HealthTip healthTip : healthTips) {
+                            healthTip.setFavorite(true); // Đánh dấu là yêu thích
                         }
+                        callback.onSuccess(healthTips);
+                    }
 
-                        @Override
-                        public void onError(String errorMessage) {
-                            completedRequests[0]++;
-
-                            if (completedRequests[0] == favoriteIds.size()) {
-                                callback.onSuccess(favoriteHealthTips);
-                            }
+                    @Override
+                    public void onPartialResult(List<HealthTip> healthTips, List<String> failedIds) {
+                        for (HealthTip healthTip : healthTips) {
+                            healthTip.setFavorite(true);
                         }
-                    });
-                }
+                        callback.onPartialResult(healthTips, failedIds);
+                    }
+
+                    @Override
+                    public void onError(String errorMessage) {
+                        callback.onError(errorMessage);
+                    }
+                });
             }
 
             @Override
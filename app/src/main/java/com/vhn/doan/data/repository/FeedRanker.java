@@ -0,0 +1,406 @@
+package com.vhn.doan.data.repository;
+
+import com.vhn.doan.data.ShortVideo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Xếp hạng feed video ngắn với đặc trưng tính trước
+ *
+ * Giữ nguyên thuật toán kiểu TikTok của feed (lọc đã xem/đã thích, chia nhóm Favorite/Trending/Diverse,
+ * sắp theo điểm engagement, xáo trộn trong từng tier, trộn theo mẫu 2-1-1) nhưng:
+ * - Đặc trưng và điểm của mỗi video được tính MỘT lần thay vì ở cả hai vế của mỗi phép so sánh
+ * - Trending tra bằng HashSet, favorite category được nhớ theo categoryId
+ * - Khi chỉ cần limit video đầu, mỗi nhóm chỉ chọn top-K (làm tròn lên hết tier) bằng heap
+ *   thay vì sắp xếp toàn bộ nhóm
+ *
+ * Với cùng dữ liệu và cùng trạng thái Random, rank(...) cho đúng thứ tự như thuật toán cũ:
+ * điểm giống hệt, video cùng điểm giữ thứ tự đầu vào và Random được gọi theo đúng trình tự.
+ * Tier không được chọn khi có limit vẫn rút đủ số ngẫu nhiên như khi xáo trộn nó, nên
+ * rank(..., limit) luôn là limit video đầu của rank(...) với cùng trạng thái Random.
+ * Chỉ dùng Java thuần nên chạy được trong unit test và module benchmark JVM.
+ */
+public final class FeedRanker {
+
+    // Trọng số của điểm engagement
+    private static final double FAVORITE_CATEGORY_WEIGHT = 100.0;
+    private static final double TAG_MATCH_WEIGHT = 20.0;
+    private static final double TRENDING_WEIGHT = 50.0;
+    private static final double MAX_LIKE_RATIO_SCORE = 30.0;
+    private static final double MAX_VIEW_SCORE = 20.0;
+    private static final long RECENT_DAYS = 7;
+    private static final double RECENCY_WEIGHT = 2.0;
+    private static final long DAY_MILLIS = 1000 * 60 * 60 * 24;
+
+    // Thứ tự trong feed: điểm giảm dần, cùng điểm thì giữ thứ tự đầu vào (như sort ổn định)
+    private static final Comparator<ScoredVideo> BY_SCORE = (a, b) -> {
+        int byScore = Double.compare(b.score, a.score);
+        return byScore != 0 ? byScore : Integer.compare(a.order, b.order);
+    };
+
+    private FeedRanker() {
+    }
+
+    /**
+     * Xếp hạng toàn bộ feed
+     * @param now thời điểm hiện tại (ms) dùng cho điểm độ mới
+     * @param random nguồn ngẫu nhiên cho bước xáo trộn trong từng tier
+     */
+    public static List<ShortVideo> rank(List<ShortVideo> videos,
+                                        Map<String, Boolean> userPreferences,
+                                        Collection<String> favoriteCategories,
+                                        Collection<String> trendingVideoIds,
+                                        Map<String, Long> watchedVideoIds,
+                                        Set<String> likedVideoIds,
+                                        long now,
+                                        Random random) {
+        return rank(videos, userPreferences, favoriteCategories, trendingVideoIds, watchedVideoIds,
+                likedVideoIds, now, random, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Xếp hạng và chỉ trả về limit video đầu của feed
+     * Mỗi nhóm chỉ chọn số video nó đóng góp vào limit vị trí đầu theo mẫu trộn, làm tròn lên hết tier
+     */
+    public static List<ShortVideo> rank(List<ShortVideo> videos,
+                                        Map<String, Boolean> userPreferences,
+                                        Collection<String> favoriteCategories,
+                                        Collection<String> trendingVideoIds,
+                                        Map<String, Long> watchedVideoIds,
+                                        Set<String> likedVideoIds,
+                                        long now,
+                                        Random random,
+                                        int limit) {
+        if (videos == null || videos.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        Set<String> trending = trendingVideoIds instanceof Set
+                ? (Set<String>) trendingVideoIds
+                : new HashSet<>(trendingVideoIds != null ? trendingVideoIds : Collections.emptyList());
+        FavoriteMatcher favoriteMatcher = new FavoriteMatcher(favoriteCategories);
+
+        // Step 1: Lọc video đã xem hoặc đã thích (hết video thì dùng lại toàn bộ)
+        List<ShortVideo> availableVideos = new ArrayList<>(videos.size());
+        for (ShortVideo video : videos) {
+            String id = video.getId();
+            boolean watched = watchedVideoIds != null && watchedVideoIds.containsKey(id);
+            boolean liked = likedVideoIds != null && likedVideoIds.contains(id);
+            if (!watched && !liked) {
+                availableVideos.add(video);
+            }
+        }
+        if (availableVideos.isEmpty()) {
+            availableVideos = videos;
+        }
+
+        // Step 2: Tính đặc trưng một lần và chia nhóm
+        List<ScoredVideo> favoriteVideos = new ArrayList<>();
+        List<ScoredVideo> trendingVideos = new ArrayList<>();
+        List<ScoredVideo> diverseVideos = new ArrayList<>();
+        for (int i = 0; i < availableVideos.size(); i++) {
+            ScoredVideo scored = new ScoredVideo(availableVideos.get(i), i,
+                    userPreferences, favoriteMatcher, trending, now);
+            if (scored.favoriteCategory || scored.tagMatches > 0) {
+                favoriteVideos.add(scored);
+            } else if (scored.trending) {
+                trendingVideos.add(scored);
+            } else {
+                diverseVideos.add(scored);
+            }
+        }
+
+        // Step 3: Số video mỗi nhóm cần cho limit vị trí đầu, chọn top-K và xáo trộn theo tier
+        int[] quotas = interleaveQuotas(favoriteVideos.size(), trendingVideos.size(), diverseVideos.size(), limit);
+        List<ShortVideo> favorites = selectAndShuffle(favoriteVideos, quotas[0], random);
+        List<ShortVideo> trendings = selectAndShuffle(trendingVideos, quotas[1], random);
+        List<ShortVideo> diverses = selectAndShuffle(diverseVideos, quotas[2], random);
+
+        // Step 4: Trộn theo mẫu 2 favorite → 1 trending → 1 diverse
+        return interleave(favorites, trendings, diverses, limit);
+    }
+
+    /**
+     * Số video mỗi nhóm đóng góp vào limit vị trí đầu của mẫu trộn
+     * (chỉ phụ thuộc kích thước nhóm nên tính được trước khi sắp xếp)
+     */
+    static int[] interleaveQuotas(int favoriteCount, int trendingCount, int diverseCount, int limit) {
+        int total = favoriteCount + trendingCount + diverseCount;
+        if (limit >= total) {
+            return new int[] {favoriteCount, trendingCount, diverseCount};
+        }
+
+        int fav = 0, trend = 0, div = 0, added = 0;
+        int pattern = 0;
+        while (added < limit) {
+            if (pattern == 0 || pattern == 1) {
+                if (fav < favoriteCount) {
+                    fav++;
+                    added++;
+                }
+            } else if (pattern == 2) {
+                if (trend < trendingCount) {
+                    trend++;
+                    added++;
+                } else if (fav < favoriteCount) {
+                    fav++;
+                    added++;
+                }
+            } else {
+                if (div < diverseCount) {
+                    div++;
+                    added++;
+                } else if (fav < favoriteCount) {
+                    fav++;
+                    added++;
+                }
+            }
+            pattern = (pattern + 1) % 4;
+        }
+        return new int[] {fav, trend, div};
+    }
+
+    /**
+     * Chọn quota video điểm cao nhất của nhóm (làm tròn lên hết tier), sắp xếp rồi xáo trộn trong từng tier
+     * Tier tính trên kích thước cả nhóm (mỗi tier 20% hoặc tối thiểu 3 video)
+     */
+    private static List<ShortVideo> selectAndShuffle(List<ScoredVideo> group, int quota, Random random) {
+        int size = group.size();
+        int tierSize = Math.max(3, size / 5);
+        int needed = quota >= size ? size : Math.min(size, ((quota + tierSize - 1) / tierSize) * tierSize);
+
+        List<ScoredVideo> selected = needed == size ? sortAll(group) : topK(group, needed);
+
+        // Xáo trộn trong tier để video đầu không luôn giống nhau (bỏ qua nhóm chỉ có 1 video)
+        if (size > 1) {
+            for (int i = 0; i < size; i += tierSize) {
+                int end = Math.min(i + tierSize, size);
+                if (i < selected.size()) {
+                    Collections.shuffle(selected.subList(i, end), random);
+                } else {
+                    skipShuffle(end - i, random);
+                }
+            }
+        }
+
+        List<ShortVideo> result = new ArrayList<>(selected.size());
+        for (ScoredVideo scored : selected) {
+            result.add(scored.video);
+        }
+        return result;
+    }
+
+    /**
+     * Rút đúng các số ngẫu nhiên mà Collections.shuffle dùng cho danh sách length phần tử
+     * (nextInt(length), nextInt(length - 1), ..., nextInt(2)) mà không cần danh sách
+     */
+    private static void skipShuffle(int length, Random random) {
+        for (int i = length; i > 1; i--) {
+            random.nextInt(i);
+        }
+    }
+
+    private static List<ScoredVideo> sortAll(List<ScoredVideo> group) {
+        List<ScoredVideo> sorted = new ArrayList<>(group);
+        Collections.sort(sorted, BY_SCORE);
+        return sorted;
+    }
+
+    /**
+     * k phần tử đứng đầu theo BY_SCORE bằng min-heap kích thước k - O(n log k)
+     */
+    private static List<ScoredVideo> topK(List<ScoredVideo> group, int k) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<ScoredVideo> heap = new PriorityQueue<>(k, BY_SCORE.reversed());
+        for (ScoredVideo scored : group) {
+            if (heap.size() < k) {
+                heap.add(scored);
+            } else if (BY_SCORE.compare(scored, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(scored);
+            }
+        }
+        List<ScoredVideo> top = new ArrayList<>(heap);
+        Collections.sort(top, BY_SCORE);
+        return top;
+    }
+
+    private static List<ShortVideo> interleave(List<ShortVideo> favoriteVideos,
+                                               List<ShortVideo> trendingVideos,
+                                               List<ShortVideo> diverseVideos,
+                                               int limit) {
+        int total = favoriteVideos.size() + trendingVideos.size() + diverseVideos.size();
+        List<ShortVideo> finalFeed = new ArrayList<>(Math.min(total, limit));
+        int favIndex = 0, trendIndex = 0, divIndex = 0;
+        int pattern = 0;
+
+        while (finalFeed.size() < limit &&
+               (favIndex < favoriteVideos.size() ||
+                trendIndex < trendingVideos.size() ||
+                divIndex < diverseVideos.size())) {
+
+            if (pattern == 0 || pattern == 1) {
+                if (favIndex < favoriteVideos.size()) {
+                    finalFeed.add(favoriteVideos.get(favIndex++));
+                }
+            } else if (pattern == 2) {
+                if (trendIndex < trendingVideos.size()) {
+                    finalFeed.add(trendingVideos.get(trendIndex++));
+                } else if (favIndex < favoriteVideos.size()) {
+                    // Fallback to favorite if no trending
+                    finalFeed.add(favoriteVideos.get(favIndex++));
+                }
+            } else {
+                if (divIndex < diverseVideos.size()) {
+                    finalFeed.add(diverseVideos.get(divIndex++));
+                } else if (favIndex < favoriteVideos.size()) {
+                    // Fallback to favorite if no diverse
+                    finalFeed.add(favoriteVideos.get(favIndex++));
+                }
+            }
+
+            pattern = (pattern + 1) % 4;
+        }
+
+        return finalFeed;
+    }
+
+    /**
+     * Video cùng vector đặc trưng và điểm engagement đã tính sẵn
+     */
+    static final class ScoredVideo {
+        final ShortVideo video;
+        final int order;
+        final boolean favoriteCategory;
+        final int tagMatches;
+        final boolean trending;
+        final double score;
+
+        ScoredVideo(ShortVideo video, int order, Map<String, Boolean> userPreferences,
+                    FavoriteMatcher favoriteMatcher, Set<String> trendingVideoIds, long now) {
+            this.video = video;
+            this.order = order;
+            this.favoriteCategory = favoriteMatcher.matches(video.getCategoryId());
+            this.tagMatches = countTagMatches(video.getTags(), userPreferences);
+            this.trending = trendingVideoIds.contains(video.getId());
+            this.score = score(favoriteCategory, tagMatches, trending,
+                    valueOf(video.getViewCount()), valueOf(video.getLikeCount()), valueOf(video.getUploadDate()), now);
+        }
+    }
+
+    /**
+     * Điểm engagement - cùng công thức và thứ tự phép tính với feed cũ để kết quả trùng khớp
+     */
+    static double score(boolean favoriteCategory, int tagMatches, boolean trending,
+                        long viewCount, long likeCount, long uploadDate, long now) {
+        double score = 0.0;
+
+        // Factor 1: Favorite category (high weight)
+        if (favoriteCategory) {
+            score += FAVORITE_CATEGORY_WEIGHT;
+        }
+
+        // Factor 2: Tag matching (medium-high weight)
+        score += tagMatches * TAG_MATCH_WEIGHT;
+
+        // Factor 3: Trending status (medium weight)
+        if (trending) {
+            score += TRENDING_WEIGHT;
+        }
+
+        if (viewCount > 0) {
+            // Factor 4: Like ratio (likes / views) - max 30 points
+            double likeRatio = (double) likeCount / viewCount;
+            score += Math.min(likeRatio * 1000, MAX_LIKE_RATIO_SCORE);
+
+            // Factor 5: View count (logarithmic scale) - max 20 points
+            score += Math.min(Math.log10(viewCount) * 5, MAX_VIEW_SCORE);
+        }
+
+        // Factor 6: Recency (newer videos get boost) - max 15 points
+        long daysSinceUpload = (now - uploadDate) / DAY_MILLIS;
+        if (daysSinceUpload < RECENT_DAYS) {
+            score += (RECENT_DAYS - daysSinceUpload) * RECENCY_WEIGHT;
+        }
+
+        return score;
+    }
+
+    /**
+     * Số tag được bật ở cả video và preferences của người dùng
+     */
+    static int countTagMatches(Map<String, Boolean> videoTags, Map<String, Boolean> userPreferences) {
+        if (videoTags == null || videoTags.isEmpty() || userPreferences == null || userPreferences.isEmpty()) {
+            return 0;
+        }
+        int matchCount = 0;
+        for (Map.Entry<String, Boolean> videoTag : videoTags.entrySet()) {
+            if (Boolean.TRUE.equals(videoTag.getValue()) && Boolean.TRUE.equals(userPreferences.get(videoTag.getKey()))) {
+                matchCount++;
+            }
+        }
+        return matchCount;
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    /**
+     * So khớp categoryId với danh sách favorite (không phân biệt hoa thường, chứa nhau hai chiều)
+     * Kết quả được nhớ theo categoryId vì số category ít hơn nhiều so với số video
+     */
+    static final class FavoriteMatcher {
+        private final List<String> favorites = new ArrayList<>();
+        private final List<String> lowerFavorites = new ArrayList<>();
+        private final Map<String, Boolean> matchesByCategory = new HashMap<>();
+
+        FavoriteMatcher(Collection<String> favoriteCategories) {
+            if (favoriteCategories != null) {
+                for (String favorite : favoriteCategories) {
+                    if (favorite != null) {
+                        favorites.add(favorite);
+                        lowerFavorites.add(favorite.toLowerCase());
+                    }
+                }
+            }
+        }
+
+        boolean matches(String categoryId) {
+            if (categoryId == null || favorites.isEmpty()) {
+                return false;
+            }
+            Boolean cached = matchesByCategory.get(categoryId);
+            if (cached == null) {
+                cached = computeMatch(categoryId);
+                matchesByCategory.put(categoryId, cached);
+            }
+            return cached;
+        }
+
+        private boolean computeMatch(String categoryId) {
+            String lowerCategory = categoryId.toLowerCase();
+            for (int i = 0; i < favorites.size(); i++) {
+                String lowerFavorite = lowerFavorites.get(i);
+                if (favorites.get(i).equalsIgnoreCase(categoryId) ||
+                    lowerCategory.contains(lowerFavorite) ||
+                    lowerFavorite.contains(lowerCategory)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
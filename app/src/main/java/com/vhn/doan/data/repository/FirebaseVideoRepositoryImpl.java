@@ -9,16 +9,23 @@ import com.google.firebase.database.ValueEventListener;
 import com.vhn.doan.data.ShortVideo;
 import com.vhn.doan.data.ShortVideoDeserializer;
 import com.vhn.doan.data.VideoComment;
+import com.vhn.doan.data.VideoFeedPage;
 import com.vhn.doan.utils.Constants;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 
 /**
  * Triển khai VideoRepository sử dụng Firebase Realtime Database
@@ -35,8 +42,30 @@ public class FirebaseVideoRepositoryImpl implements VideoRepository {
     // Map để quản lý các listener realtime
     private final Map<String, ValueEventListener> activeListeners = new HashMap<>();
 
-    // Cache để lưu trạng thái like của các video
-    private final Map<String, Boolean> likeStatusCache = new HashMap<>();
+    // Index video đã thích theo người dùng (dùng chung cho mọi repository)
+    private final LikedVideoIndex likedVideoIndex = LikedVideoIndex.getInstance();
+
+    // Hạn chót của từng nguồn dữ liệu feed - nguồn trễ hạn bị bỏ qua thay vì chặn cả feed
+    private static final long VIDEOS_TIMEOUT_MS = 10_000L;
+    private static final long SIGNAL_TIMEOUT_MS = 3_000L;
+    private static final long TRENDING_TIMEOUT_MS = 2_000L;
+
+    // Tên nguồn trong metric độ trễ (tag FeedMetrics)
+    private static final String FEED_METRICS_TAG = "FeedMetrics";
+    private static final String FEED_SOURCE_VIDEOS = "videos";
+    private static final String FEED_SOURCE_WINDOW = "window";
+    private static final String FEED_SOURCE_PREFERENCES = "preferences";
+    private static final String FEED_SOURCE_FAVORITE_CATEGORIES = "favoriteCategories";
+    private static final String FEED_SOURCE_TRENDING = "trending";
+    private static final String FEED_SOURCE_WATCHED = "watched";
+    private static final String FEED_SOURCE_LIKED = "liked";
+
+    // Tín hiệu cá nhân hóa mới nhất - dùng lại cho các trang tiếp theo và lần xếp hạng sớm
+    // (chỉ ghi trên main thread)
+    private volatile FeedSignals feedSignals;
+
+    // Nguồn ngẫu nhiên cho bước xáo trộn trong FeedRanker
+    private final Random random = new Random();
 
     /**
      * Constructor mặc định
@@ -54,568 +83,433 @@ public class FirebaseVideoRepositoryImpl implements VideoRepository {
             return;
         }
 
-        // Dữ liệu tạm để collect từ 6 sources
-        final List<ShortVideo> allVideos = new ArrayList<>();
-        final Map<String, Boolean> userPreferences = new HashMap<>();
-        final List<String> favoriteCategories = new ArrayList<>();
-        final List<String> trendingVideoIds = new ArrayList<>();
-        final Map<String, Long> watchedVideoIds = new HashMap<>(); // 🎯 Watched videos with timestamp
-        final java.util.Set<String> likedVideoIds = new java.util.HashSet<>(); // 🎯 Liked videos
-        final CountDownLatch latch = new CountDownLatch(6); // Tăng lên 6
+        // Video hiển thị ngay khi danh sách về, xếp hạng lại khi tín hiệu cá nhân hóa về sau
+        FeedComposer composer = new FeedComposer(earlySignals(userId, country),
+                (ranked, reranked) -> callback.onSuccess(ranked));
 
         // 1. Lấy tất cả videos (không filter theo status, sẽ filter trong code)
         // Chấp nhận status: "ready", "published" (bỏ qua: "draft", "processing", "failed")
-        videosRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(DataSnapshot dataSnapshot) {
-                        try {
-                            android.util.Log.d("VideoRepository", "🎬 Tổng số video trong Firebase: " + dataSnapshot.getChildrenCount());
-
-                            int readyCount = 0;
-                            int publishedCount = 0;
-                            int otherCount = 0;
-
-                            for (DataSnapshot videoSnapshot : dataSnapshot.getChildren()) {
-                                try {
-                                    // Kiểm tra status trước khi deserialize
-                                    String status = videoSnapshot.child("status").getValue(String.class);
-
-                                    // Chỉ load video có status = "ready" hoặc "published"
-                                    if ("ready".equals(status) || "published".equals(status)) {
-                                        // Sử dụng custom deserializer thay vì getValue(ShortVideo.class)
-                                        ShortVideo video = ShortVideoDeserializer.fromDataSnapshot(videoSnapshot);
-                                        if (video != null) {
-                                            allVideos.add(video);
-                                            android.util.Log.d("VideoRepository", "✅ Loaded video [" + status + "]: " + video.getId() + " - " + video.getTitle());
-
-                                            if ("ready".equals(status)) readyCount++;
-                                            else publishedCount++;
-                                        } else {
-                                            android.util.Log.w("VideoRepository", "⚠️ Video null sau deserialize: " + videoSnapshot.getKey());
-                                        }
-                                    } else {
-                                        android.util.Log.d("VideoRepository", "⏭️ Bỏ qua video với status='" + status + "': " + videoSnapshot.getKey());
-                                        otherCount++;
-                                    }
-                                } catch (Exception e) {
-                                    // Log lỗi conversion cho video cụ thể và skip video đó
-                                    android.util.Log.w("VideoRepository",
-                                        "❌ Không thể convert video với ID: " + videoSnapshot.getKey() +
-                                        ", Lỗi: " + e.getMessage());
-                                }
-                            }
-                            android.util.Log.d("VideoRepository", "📦 Đã load thành công " + allVideos.size() + " videos " +
-                                "(ready: " + readyCount + ", published: " + publishedCount + ", bỏ qua: " + otherCount + ")");
-                        } catch (Exception e) {
-                            android.util.Log.e("VideoRepository", "Lỗi khi đọc videos từ Firebase", e);
-                        }
-                        latch.countDown();
-                    }
-
-                    @Override
-                    public void onCancelled(DatabaseError databaseError) {
-                        android.util.Log.e("VideoRepository", "Firebase query bị hủy", databaseError.toException());
-                        latch.countDown();
-                    }
-                });
-
-        // 2. Lấy user preferences
-        if (userId != null && !userId.isEmpty()) {
-            usersRef.child(userId).child(Constants.USER_PREFERENCES_REF)
-                    .addListenerForSingleValueEvent(new ValueEventListener() {
-                        @Override
-                        public void onDataChange(DataSnapshot dataSnapshot) {
-                            if (dataSnapshot.exists()) {
-                                for (DataSnapshot prefSnapshot : dataSnapshot.getChildren()) {
-                                    String key = prefSnapshot.getKey();
-                                    Boolean value = prefSnapshot.getValue(Boolean.class);
-                                    if (key != null && value != null) {
-                                        userPreferences.put(key, value);
-                                    }
-                                }
-                            }
-                            latch.countDown();
-                        }
+        Single<List<ShortVideo>> videosSource = withDeadline(FEED_SOURCE_VIDEOS, readOnce(videosRef, dataSnapshot -> {
+            android.util.Log.d("VideoRepository", "🎬 Tổng số video trong Firebase: " + dataSnapshot.getChildrenCount());
+            List<ShortVideo> allVideos = new ArrayList<>();
+            int skipped = collectFeedVideos(dataSnapshot, allVideos);
+            android.util.Log.d("VideoRepository", "📦 Đã load thành công " + allVideos.size() + " videos " +
+                "(bỏ qua: " + skipped + ")");
+            return allVideos;
+        }), VIDEOS_TIMEOUT_MS);
+
+        videosSource
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(composer::onVideos, error -> callback.onError(feedErrorMessage(error)));
+
+        // 2-6. Preferences, favorite categories, trending, watched videos, liked index
+        loadFeedSignals(userId, country)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(composer::onSignals);
+    }
 
-                        @Override
-                        public void onCancelled(DatabaseError databaseError) {
-                            latch.countDown();
-                        }
-                    });
-        } else {
-            latch.countDown();
+    @Override
+    public void getFeedPage(String userId, String country, String continuationToken, int pageSize,
+                            VideoPageCallback callback) {
+        if (callback == null) {
+            return;
         }
 
-        // 🎯 NEW: Lấy favorite categories của user
-        if (userId != null && !userId.isEmpty()) {
-            usersRef.child(userId).child("favoriteCategories")
-                    .addListenerForSingleValueEvent(new ValueEventListener() {
-                        @Override
-                        public void onDataChange(DataSnapshot dataSnapshot) {
-                            if (dataSnapshot.exists()) {
-                                for (DataSnapshot categorySnapshot : dataSnapshot.getChildren()) {
-                                    String categoryName = categorySnapshot.getValue(String.class);
-                                    if (categoryName != null && !categoryName.isEmpty()) {
-                                        favoriteCategories.add(categoryName);
-                                    }
-                                }
-                            }
-                            latch.countDown();
-                        }
+        final int windowSize = Math.max(1, pageSize);
+        final String[] nextToken = new String[1];
 
-                        @Override
-                        public void onCancelled(DatabaseError databaseError) {
-                            latch.countDown();
-                        }
-                    });
-        } else {
-            latch.countDown();
-        }
+        // Tín hiệu cá nhân hóa chỉ tải ở trang đầu, các trang sau dùng lại
+        FeedSignals cached = feedSignals;
+        final boolean reuseSignals = continuationToken != null && cached != null && cached.isFor(userId, country);
 
-        // 3. Lấy trending videos cho country
-        if (country != null && !country.isEmpty()) {
-            trendingVideosRef.child(country)
-                    .addListenerForSingleValueEvent(new ValueEventListener() {
-                        @Override
-                        public void onDataChange(DataSnapshot dataSnapshot) {
-                            if (dataSnapshot.exists()) {
-                                for (DataSnapshot trendingSnapshot : dataSnapshot.getChildren()) {
-                                    // Xử lý cả trường hợp videoId là String hoặc Number
-                                    Object videoIdValue = trendingSnapshot.getValue();
-                                    String videoId = null;
-
-                                    if (videoIdValue instanceof String) {
-                                        videoId = (String) videoIdValue;
-                                    } else if (videoIdValue instanceof Number) {
-                                        videoId = String.valueOf(videoIdValue);
-                                    } else if (videoIdValue != null) {
-                                        videoId = videoIdValue.toString();
-                                    }
-
-                                    if (videoId != null && !videoId.isEmpty()) {
-                                        trendingVideoIds.add(videoId);
-                                    }
-                                }
-                            }
-                            latch.countDown();
-                        }
+        FeedComposer composer = new FeedComposer(earlySignals(userId, country), (ranked, reranked) -> {
+            android.util.Log.d("VideoRepository", "📄 Feed page: " + ranked.size() + " videos, next=" + nextToken[0] +
+                (reranked ? " (xếp hạng lại)" : ""));
+            VideoFeedPage page = new VideoFeedPage(ranked, nextToken[0]);
+            if (reranked) {
+                callback.onReranked(page);
+            } else {
+                callback.onSuccess(page);
+            }
+        });
 
-                        @Override
-                        public void onCancelled(DatabaseError databaseError) {
-                            latch.countDown();
-                        }
-                    });
-        } else {
-            latch.countDown();
+        // Cửa sổ ứng viên: pageSize video theo key giảm dần (push key tăng theo thời gian tạo),
+        // bắt đầu ngay trước video cuối của trang trước
+        Query windowQuery = videosRef.orderByKey();
+        if (continuationToken != null) {
+            windowQuery = windowQuery.endBefore(continuationToken);
         }
-
-        // 🎯 Lấy danh sách videos đã xem của user
-        if (userId != null && !userId.isEmpty()) {
-            usersRef.child(userId).child("watchedVideos")
-                    .addListenerForSingleValueEvent(new ValueEventListener() {
-                        @Override
-                        public void onDataChange(DataSnapshot dataSnapshot) {
-                            if (dataSnapshot.exists()) {
-                                for (DataSnapshot watchedSnapshot : dataSnapshot.getChildren()) {
-                                    String videoId = watchedSnapshot.getKey();
-                                    Long timestamp = watchedSnapshot.getValue(Long.class);
-                                    if (videoId != null && timestamp != null) {
-                                        watchedVideoIds.put(videoId, timestamp);
-                                    }
-                                }
-                                android.util.Log.d("VideoRepository", "Loaded " + watchedVideoIds.size() + " watched videos for user");
-                            }
-                            latch.countDown();
-                        }
-
-                        @Override
-                        public void onCancelled(DatabaseError databaseError) {
-                            android.util.Log.e("VideoRepository", "Error loading watched videos", databaseError.toException());
-                            latch.countDown();
-                        }
-                    });
+        Single<List<ShortVideo>> windowSource = withDeadline(FEED_SOURCE_WINDOW,
+                readOnce(windowQuery.limitToLast(windowSize), dataSnapshot -> {
+                    // Children theo key tăng dần - phần tử đầu tiên là video cũ nhất của cửa sổ
+                    java.util.Iterator<DataSnapshot> children = dataSnapshot.getChildren().iterator();
+                    nextToken[0] = children.hasNext() && dataSnapshot.getChildrenCount() >= windowSize
+                            ? children.next().getKey() : null;
+                    List<ShortVideo> windowVideos = new ArrayList<>();
+                    collectFeedVideos(dataSnapshot, windowVideos);
+                    Collections.reverse(windowVideos);
+                    return windowVideos;
+                }), VIDEOS_TIMEOUT_MS);
+
+        windowSource
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(composer::onVideos, error -> callback.onError(feedErrorMessage(error)));
+
+        if (reuseSignals) {
+            composer.onSignals(cached);
         } else {
-            latch.countDown();
+            loadFeedSignals(userId, country)
+                    .observeOn(AndroidSchedulers.mainThread())
+                    .subscribe(composer::onSignals);
         }
+    }
 
-        // 🎯 NEW: Lấy danh sách videos đã like của user
-        if (userId != null && !userId.isEmpty()) {
-            videosRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot dataSnapshot) {
-                    int likeCount = 0;
-                    for (DataSnapshot videoSnapshot : dataSnapshot.getChildren()) {
-                        String videoId = videoSnapshot.getKey();
-                        if (videoId != null) {
-                            // Check if user liked this video
-                            DataSnapshot likesSnapshot = videoSnapshot.child(Constants.VIDEO_LIKES_REF).child(userId);
-                            if (likesSnapshot.exists()) {
-                                likedVideoIds.add(videoId);
-                                likeCount++;
-                            }
-                        }
-                    }
-                    android.util.Log.d("VideoRepository", "Loaded " + likeCount + " liked videos for user");
-                    latch.countDown();
-                }
+    /**
+     * Tín hiệu dùng cho lần xếp hạng đầu khi video về trước: tín hiệu của phiên trước nếu cùng user/country
+     */
+    private FeedSignals earlySignals(String userId, String country) {
+        FeedSignals cached = feedSignals;
+        return cached != null && cached.isFor(userId, country) ? cached : new FeedSignals(userId, country);
+    }
 
-                @Override
-                public void onCancelled(DatabaseError databaseError) {
-                    android.util.Log.e("VideoRepository", "Error loading liked videos", databaseError.toException());
-                    latch.countDown();
-                }
-            });
-        } else {
-            latch.countDown();
+    private static String feedErrorMessage(Throwable error) {
+        if (error instanceof TimeoutException) {
+            return "Timeout khi tải dữ liệu video";
         }
+        return "Lỗi khi tải dữ liệu video: " + error.getMessage();
+    }
 
-        // Chờ tất cả requests hoàn thành và sắp xếp kết quả
-        new Thread(() -> {
+    /**
+     * Đọc các video ready/published trong một snapshot (node videos hoặc một cửa sổ của nó)
+     * @return số video bị bỏ qua (status khác hoặc lỗi dữ liệu)
+     */
+    private int collectFeedVideos(DataSnapshot dataSnapshot, List<ShortVideo> videos) {
+        int skipped = 0;
+        for (DataSnapshot videoSnapshot : dataSnapshot.getChildren()) {
             try {
-                // Timeout sau 10 giây
-                if (latch.await(10, TimeUnit.SECONDS)) {
-                    android.util.Log.d("VideoRepository", "📊 Trước khi filter - Total videos: " + allVideos.size() +
-                        ", Preferences: " + userPreferences.size() +
-                        ", Favorite categories: " + favoriteCategories.size() +
-                        ", Trending: " + trendingVideoIds.size());
-
-                    // 🎯 Filter and sort videos with TikTok-style algorithm
-                    List<ShortVideo> sortedVideos = filterAndSortVideosSmartly(
-                        allVideos,
-                        userPreferences,
-                        favoriteCategories,
-                        trendingVideoIds,
-                        watchedVideoIds,
-                        likedVideoIds
-                    );
-
-                    android.util.Log.d("VideoRepository", "📊 Sau khi filter - Total videos: " + allVideos.size() +
-                        ", Watched: " + watchedVideoIds.size() +
-                        ", Liked: " + likedVideoIds.size() +
-                        ", Final feed: " + sortedVideos.size());
-
-                    if (sortedVideos.isEmpty()) {
-                        android.util.Log.w("VideoRepository", "⚠️ CẢNH BÁO: Danh sách video cuối cùng trống!");
-                    }
+                // Kiểm tra status trước khi deserialize
+                String status = videoSnapshot.child("status").getValue(String.class);
 
-                    // Đảm bảo callback được gọi trên Main UI Thread
-                    android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                    mainHandler.post(() -> callback.onSuccess(sortedVideos));
-                } else {
-                    // Đảm bảo callback lỗi cũng được gọi trên Main UI Thread
-                    android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                    mainHandler.post(() -> callback.onError("Timeout khi tải dữ liệu video"));
+                // Chỉ load video có status = "ready" hoặc "published"
+                if (!"ready".equals(status) && !"published".equals(status)) {
+                    skipped++;
+                    continue;
                 }
-            } catch (InterruptedException e) {
-                // Đảm bảo callback lỗi được gọi trên Main UI Thread
-                android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                mainHandler.post(() -> callback.onError("Lỗi khi tải dữ liệu video: " + e.getMessage()));
-            }
-        }).start();
-    }
 
-    @Override
-    public List<ShortVideo> getFeed(String userId, String country) {
-        final List<ShortVideo> result = new ArrayList<>();
-        final CountDownLatch latch = new CountDownLatch(1);
-
-        getFeed(userId, country, new VideoCallback() {
-            @Override
-            public void onSuccess(List<ShortVideo> videos) {
-                result.addAll(videos);
-                latch.countDown();
-            }
-
-            @Override
-            public void onError(String errorMessage) {
-                latch.countDown();
+                // Sử dụng custom deserializer thay vì getValue(ShortVideo.class)
+                ShortVideo video = ShortVideoDeserializer.fromDataSnapshot(videoSnapshot);
+                if (video == null) {
+                    android.util.Log.w("VideoRepository", "⚠️ Video null sau deserialize: " + videoSnapshot.getKey());
+                    skipped++;
+                    continue;
+                }
+                videos.add(video);
+            } catch (Exception e) {
+                // Log lỗi conversion cho video cụ thể và skip video đó
+                android.util.Log.w("VideoRepository",
+                    "❌ Không thể convert video với ID: " + videoSnapshot.getKey() +
+                    ", Lỗi: " + e.getMessage());
+                skipped++;
             }
-        });
-
-        try {
-            latch.await(15, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            // Return empty list if interrupted
         }
-
-        return result;
+        return skipped;
     }
 
     /**
-     * 🎯 TikTok-STYLE ALGORITHM: Filter and sort videos intelligently
-     *
-     * Strategy:
-     * 1. Filter out watched AND liked videos (unless all videos are filtered - then recycle)
-     * 2. Categorize videos into groups: Favorite, Trending, Diverse
-     * 3. Mix groups intelligently to prevent boredom
-     * 4. Sort within each group by engagement metrics
+     * Tải các tín hiệu cá nhân hóa của feed song song, mỗi nguồn có hạn chót riêng
+     * Nguồn lỗi hoặc trễ hạn góp giá trị rỗng nên Single này luôn thành công
      */
-    private List<ShortVideo> filterAndSortVideosSmartly(
-            List<ShortVideo> videos,
-            Map<String, Boolean> userPreferences,
-            List<String> favoriteCategories,
-            List<String> trendingVideoIds,
-            Map<String, Long> watchedVideoIds,
-            java.util.Set<String> likedVideoIds) {
-
-        // Step 1: Filter watched AND liked videos
-        List<ShortVideo> availableVideos = new ArrayList<>();
-        for (ShortVideo video : videos) {
-            // Loại bỏ video đã xem HOẶC đã like
-            if (!watchedVideoIds.containsKey(video.getId()) && !likedVideoIds.contains(video.getId())) {
-                availableVideos.add(video);
-            }
-        }
-
-        // 🎯 RECYCLING LOGIC: If no available videos, allow all videos again
-        if (availableVideos.isEmpty() && !videos.isEmpty()) {
-            android.util.Log.d("VideoRepository", "All videos watched/liked! Recycling all videos...");
-            availableVideos = new ArrayList<>(videos);
-        }
-
-        // Step 2: Categorize videos into groups
-        List<ShortVideo> favoriteVideos = new ArrayList<>();
-        List<ShortVideo> trendingVideos = new ArrayList<>();
-        List<ShortVideo> diverseVideos = new ArrayList<>();
+    private Single<FeedSignals> loadFeedSignals(String userId, String country) {
+        boolean hasUser = userId != null && !userId.isEmpty();
+        boolean hasCountry = country != null && !country.isEmpty();
+
+        // 2. User preferences
+        Single<Map<String, Boolean>> preferences = hasUser
+                ? withDeadline(FEED_SOURCE_PREFERENCES,
+                        readOnce(usersRef.child(userId).child(Constants.USER_PREFERENCES_REF), this::parsePreferences),
+                        SIGNAL_TIMEOUT_MS)
+                        .onErrorReturnItem(Collections.emptyMap())
+                : Single.just(Collections.emptyMap());
+
+        // 🎯 Favorite categories của user
+        Single<List<String>> favoriteCategories = hasUser
+                ? withDeadline(FEED_SOURCE_FAVORITE_CATEGORIES,
+                        readOnce(usersRef.child(userId).child("favoriteCategories"), this::parseFavoriteCategories),
+                        SIGNAL_TIMEOUT_MS)
+                        .onErrorReturnItem(Collections.emptyList())
+                : Single.just(Collections.emptyList());
+
+        // 3. Trending videos cho country
+        Single<List<String>> trending = hasCountry
+                ? withDeadline(FEED_SOURCE_TRENDING,
+                        readOnce(trendingVideosRef.child(country), this::parseTrendingVideoIds),
+                        TRENDING_TIMEOUT_MS)
+                        .onErrorReturnItem(Collections.emptyList())
+                : Single.just(Collections.emptyList());
+
+        // 🎯 Videos đã xem của user
+        Single<Map<String, Long>> watched = hasUser
+                ? withDeadline(FEED_SOURCE_WATCHED,
+                        readOnce(usersRef.child(userId).child("watchedVideos"), this::parseWatchedVideos),
+                        SIGNAL_TIMEOUT_MS)
+                        .onErrorReturnItem(Collections.emptyMap())
+                : Single.just(Collections.emptyMap());
+
+        // 🎯 Video đã like - đọc từ index theo người dùng, O(số lượt thích)
+        Single<java.util.Set<String>> liked = hasUser
+                ? withDeadline(FEED_SOURCE_LIKED, Single.<java.util.Set<String>>create(emitter ->
+                        likedVideoIndex.load(userId, new LikedVideoIndex.LoadCallback() {
+                            @Override
+                            public void onLoaded(java.util.Set<String> likedVideoIds) {
+                                emitter.onSuccess(likedVideoIds);
+                            }
 
-        for (ShortVideo video : availableVideos) {
-            boolean isFavorite = isFavoriteCategory(video, favoriteCategories) ||
-                               calculateTagMatchScore(video, userPreferences) > 0;
-            boolean isTrending = trendingVideoIds.contains(video.getId());
+                            @Override
+                            public void onError(String errorMessage) {
+                                emitter.tryOnError(new IllegalStateException(errorMessage));
+                            }
+                        })), SIGNAL_TIMEOUT_MS)
+                        .onErrorReturnItem(Collections.emptySet())
+                : Single.just(Collections.emptySet());
+
+        return Single.zip(preferences, favoriteCategories, trending, watched, liked,
+                (prefs, favorites, trendingIds, watchedIds, likedIds) -> {
+                    FeedSignals signals = new FeedSignals(userId, country);
+                    signals.userPreferences.putAll(prefs);
+                    signals.favoriteCategories.addAll(favorites);
+                    signals.trendingVideoIds.addAll(trendingIds);
+                    signals.watchedVideoIds.putAll(watchedIds);
+                    signals.likedVideoIds.addAll(likedIds);
+                    android.util.Log.d("VideoRepository", "📊 Tín hiệu feed - Preferences: " + prefs.size() +
+                        ", Favorite categories: " + favorites.size() +
+                        ", Trending: " + trendingIds.size() +
+                        ", Watched: " + watchedIds.size() +
+                        ", Liked: " + likedIds.size());
+                    return signals;
+                });
+    }
 
-            if (isFavorite) {
-                favoriteVideos.add(video);
-            } else if (isTrending) {
-                trendingVideos.add(video);
-            } else {
-                diverseVideos.add(video);
+    private Map<String, Boolean> parsePreferences(DataSnapshot dataSnapshot) {
+        Map<String, Boolean> preferences = new HashMap<>();
+        for (DataSnapshot prefSnapshot : dataSnapshot.getChildren()) {
+            String key = prefSnapshot.getKey();
+            Boolean value = prefSnapshot.getValue(Boolean.class);
+            if (key != null && value != null) {
+                preferences.put(key, value);
             }
         }
+        return preferences;
+    }
 
-        // Step 3: Sort each group by engagement
-        Comparator<ShortVideo> engagementComparator = new Comparator<ShortVideo>() {
-            @Override
-            public int compare(ShortVideo v1, ShortVideo v2) {
-                // Calculate engagement score
-                double score1 = calculateEngagementScore(v1, userPreferences, favoriteCategories, trendingVideoIds);
-                double score2 = calculateEngagementScore(v2, userPreferences, favoriteCategories, trendingVideoIds);
-                return Double.compare(score2, score1); // Higher score first
+    private List<String> parseFavoriteCategories(DataSnapshot dataSnapshot) {
+        List<String> categories = new ArrayList<>();
+        for (DataSnapshot categorySnapshot : dataSnapshot.getChildren()) {
+            String categoryName = categorySnapshot.getValue(String.class);
+            if (categoryName != null && !categoryName.isEmpty()) {
+                categories.add(categoryName);
             }
-        };
+        }
+        return categories;
+    }
 
-        Collections.sort(favoriteVideos, engagementComparator);
-        Collections.sort(trendingVideos, engagementComparator);
-        Collections.sort(diverseVideos, engagementComparator);
-
-        // 🎯 SHUFFLE NHẸ: Shuffle trong mỗi nhóm để tránh video đầu luôn giống nhau
-        // Nhưng vẫn ưu tiên video có engagement cao bằng cách shuffle theo "tiers"
-        shuffleWithinTiers(favoriteVideos, userPreferences, favoriteCategories, trendingVideoIds);
-        shuffleWithinTiers(trendingVideos, userPreferences, favoriteCategories, trendingVideoIds);
-        shuffleWithinTiers(diverseVideos, userPreferences, favoriteCategories, trendingVideoIds);
-
-        // Step 4: 🎯 SMART MIXING to prevent boredom (like TikTok)
-        // Pattern: 2 favorites → 1 trending → 1 diverse → repeat
-        List<ShortVideo> finalFeed = new ArrayList<>();
-        int favIndex = 0, trendIndex = 0, divIndex = 0;
-        int pattern = 0;
-
-        while (favIndex < favoriteVideos.size() ||
-               trendIndex < trendingVideos.size() ||
-               divIndex < diverseVideos.size()) {
-
-            // Add 2 favorite videos
-            if (pattern == 0 || pattern == 1) {
-                if (favIndex < favoriteVideos.size()) {
-                    finalFeed.add(favoriteVideos.get(favIndex++));
-                }
-            }
-            // Add 1 trending video
-            else if (pattern == 2) {
-                if (trendIndex < trendingVideos.size()) {
-                    finalFeed.add(trendingVideos.get(trendIndex++));
-                } else if (favIndex < favoriteVideos.size()) {
-                    // Fallback to favorite if no trending
-                    finalFeed.add(favoriteVideos.get(favIndex++));
-                }
-            }
-            // Add 1 diverse video
-            else if (pattern == 3) {
-                if (divIndex < diverseVideos.size()) {
-                    finalFeed.add(diverseVideos.get(divIndex++));
-                } else if (favIndex < favoriteVideos.size()) {
-                    // Fallback to favorite if no diverse
-                    finalFeed.add(favoriteVideos.get(favIndex++));
-                }
+    private List<String> parseTrendingVideoIds(DataSnapshot dataSnapshot) {
+        List<String> trendingVideoIds = new ArrayList<>();
+        for (DataSnapshot trendingSnapshot : dataSnapshot.getChildren()) {
+            // Xử lý cả trường hợp videoId là String hoặc Number
+            Object videoIdValue = trendingSnapshot.getValue();
+            String videoId = null;
+
+            if (videoIdValue instanceof String) {
+                videoId = (String) videoIdValue;
+            } else if (videoIdValue instanceof Number) {
+                videoId = String.valueOf(videoIdValue);
+            } else if (videoIdValue != null) {
+                videoId = videoIdValue.toString();
             }
 
-            pattern = (pattern + 1) % 4; // Cycle through pattern
+            if (videoId != null && !videoId.isEmpty()) {
+                trendingVideoIds.add(videoId);
+            }
         }
+        return trendingVideoIds;
+    }
 
-        android.util.Log.d("VideoRepository", "Smart mix - Favorites: " + favoriteVideos.size() +
-            ", Trending: " + trendingVideos.size() +
-            ", Diverse: " + diverseVideos.size() +
-            ", Final: " + finalFeed.size());
-
-        // 🎯 Log video đầu tiên để debug
-        if (!finalFeed.isEmpty()) {
-            android.util.Log.d("VideoRepository", "🎬 First video in feed: " + finalFeed.get(0).getTitle() + " (ID: " + finalFeed.get(0).getId() + ")");
+    private Map<String, Long> parseWatchedVideos(DataSnapshot dataSnapshot) {
+        Map<String, Long> watchedVideoIds = new HashMap<>();
+        for (DataSnapshot watchedSnapshot : dataSnapshot.getChildren()) {
+            String videoId = watchedSnapshot.getKey();
+            Long timestamp = watchedSnapshot.getValue(Long.class);
+            if (videoId != null && timestamp != null) {
+                watchedVideoIds.put(videoId, timestamp);
+            }
         }
-
-        return finalFeed;
+        return watchedVideoIds;
     }
 
     /**
-     * Calculate engagement score for a video based on multiple factors
+     * Đọc một query đúng một lần dưới dạng Single; hủy đăng ký listener nếu bị dispose (vd. quá hạn)
      */
-    private double calculateEngagementScore(ShortVideo video,
-                                           Map<String, Boolean> userPreferences,
-                                           List<String> favoriteCategories,
-                                           List<String> trendingVideoIds) {
-        double score = 0.0;
-
-        // Factor 1: Favorite category (high weight)
-        if (isFavoriteCategory(video, favoriteCategories)) {
-            score += 100.0;
-        }
-
-        // Factor 2: Tag matching (medium-high weight)
-        int tagMatches = calculateTagMatchScore(video, userPreferences);
-        score += tagMatches * 20.0;
-
-        // Factor 3: Trending status (medium weight)
-        if (trendingVideoIds.contains(video.getId())) {
-            score += 50.0;
-        }
-
-        // Factor 4: Engagement metrics (normalized)
-        // Like ratio (likes / views) - max 30 points
-        if (video.getViewCount() > 0) {
-            double likeRatio = (double) video.getLikeCount() / video.getViewCount();
-            score += Math.min(likeRatio * 1000, 30.0);
-        }
-
-        // Factor 5: View count (logarithmic scale) - max 20 points
-        if (video.getViewCount() > 0) {
-            score += Math.min(Math.log10(video.getViewCount()) * 5, 20.0);
-        }
-
-        // Factor 6: Recency (newer videos get boost) - max 15 points
-        long daysSinceUpload = (System.currentTimeMillis() - video.getUploadDate()) / (1000 * 60 * 60 * 24);
-        if (daysSinceUpload < 7) {
-            score += (7 - daysSinceUpload) * 2.0; // New videos get more points
-        }
+    private static <T> Single<T> readOnce(Query query, SnapshotParser<T> parser) {
+        return Single.create(emitter -> {
+            ValueEventListener listener = new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot dataSnapshot) {
+                    try {
+                        emitter.onSuccess(parser.parse(dataSnapshot));
+                    } catch (Exception e) {
+                        emitter.tryOnError(e);
+                    }
+                }
 
-        return score;
+                @Override
+                public void onCancelled(DatabaseError databaseError) {
+                    emitter.tryOnError(databaseError.toException());
+                }
+            };
+            emitter.setCancellable(() -> query.removeEventListener(listener));
+            query.addListenerForSingleValueEvent(listener);
+        });
     }
 
     /**
-     * Tính điểm khớp tags giữa video và user preferences
+     * Gắn hạn chót cho một nguồn feed và ghi độ trễ của nguồn đó làm metric
+     * (feed_source=<tên> latency_ms=<ms> outcome=ok|timeout|error)
      */
-    private int calculateTagMatchScore(ShortVideo video, Map<String, Boolean> userPreferences) {
-        if (video.getTags() == null || video.getTags().isEmpty() ||
-            userPreferences == null || userPreferences.isEmpty()) {
-            return 0;
-        }
+    private static <T> Single<T> withDeadline(String source, Single<T> single, long timeoutMs) {
+        return Single.defer(() -> {
+            long startNanos = System.nanoTime();
+            return single
+                    .timeout(timeoutMs, TimeUnit.MILLISECONDS)
+                    .doOnSuccess(value -> logSourceLatency(source, startNanos, "ok"))
+                    .doOnError(error -> logSourceLatency(source, startNanos,
+                            error instanceof TimeoutException ? "timeout" : "error"));
+        });
+    }
 
-        int matchCount = 0;
-        for (Map.Entry<String, Boolean> videoTag : video.getTags().entrySet()) {
-            String tagName = videoTag.getKey();
-            Boolean tagEnabled = videoTag.getValue();
-
-            // Chỉ tính các tag được bật trong video
-            if (tagEnabled != null && tagEnabled) {
-                Boolean userPref = userPreferences.get(tagName);
-                // Nếu user cũng bật preference này
-                if (userPref != null && userPref) {
-                    matchCount++;
-                }
-            }
-        }
+    private static void logSourceLatency(String source, long startNanos, String outcome) {
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        android.util.Log.i(FEED_METRICS_TAG, "feed_source=" + source + " latency_ms=" + latencyMs + " outcome=" + outcome);
+    }
+
+    private interface SnapshotParser<T> {
+        T parse(DataSnapshot dataSnapshot);
+    }
 
-        return matchCount;
+    private interface RankedFeedListener {
+        void onRanked(List<ShortVideo> ranked, boolean reranked);
     }
 
     /**
-     * 🎯 NEW: Kiểm tra video có thuộc favorite category không
+     * Ghép danh sách video với tín hiệu cá nhân hóa khi mỗi bên về tới (các phương thức chạy trên main thread)
+     * - Video về trước: xếp hạng ngay với tín hiệu sẵn có, xếp hạng lại khi tín hiệu về (reranked = true)
+     * - Tín hiệu về trước: chỉ xếp hạng một lần khi video về
+     * Xếp hạng chạy trên Schedulers.computation(); kết quả của lượt xếp hạng cũ bị bỏ qua
      */
-    private boolean isFavoriteCategory(ShortVideo video, List<String> favoriteCategories) {
-        if (video == null || video.getCategoryId() == null ||
-            favoriteCategories == null || favoriteCategories.isEmpty()) {
-            return false;
+    private final class FeedComposer {
+        private final FeedSignals earlySignals;
+        private final RankedFeedListener listener;
+        private List<ShortVideo> videos;
+        private FeedSignals signals;
+        private int generation = 0;
+        private boolean delivered = false;
+
+        FeedComposer(FeedSignals earlySignals, RankedFeedListener listener) {
+            this.earlySignals = earlySignals;
+            this.listener = listener;
         }
 
-        // Lấy category ID/name từ video và check xem có trong favoriteCategories không
-        String videoCategoryId = video.getCategoryId();
+        void onVideos(List<ShortVideo> videos) {
+            this.videos = videos;
+            rank(signals != null ? signals : earlySignals);
+        }
 
-        // So sánh với favorite categories (case-insensitive)
-        for (String favCategory : favoriteCategories) {
-            if (favCategory != null &&
-                (favCategory.equalsIgnoreCase(videoCategoryId) ||
-                 videoCategoryId.toLowerCase().contains(favCategory.toLowerCase()) ||
-                 favCategory.toLowerCase().contains(videoCategoryId.toLowerCase()))) {
-                return true;
+        void onSignals(FeedSignals signals) {
+            this.signals = signals;
+            feedSignals = signals;
+            if (videos != null) {
+                rank(signals);
             }
         }
 
-        return false;
+        private void rank(FeedSignals using) {
+            final int rankGeneration = ++generation;
+            final List<ShortVideo> input = videos;
+            Single.fromCallable(() -> rankFeed(input, using))
+                    .subscribeOn(Schedulers.computation())
+                    .observeOn(AndroidSchedulers.mainThread())
+                    .subscribe(ranked -> {
+                        if (rankGeneration != generation) {
+                            return; // Đã có lượt xếp hạng mới hơn
+                        }
+                        for (ShortVideo video : ranked) {
+                            video.setLiked(using.likedVideoIds.contains(video.getId()));
+                        }
+                        if (ranked.isEmpty() && !input.isEmpty()) {
+                            android.util.Log.w("VideoRepository", "⚠️ CẢNH BÁO: Danh sách video cuối cùng trống!");
+                        }
+                        boolean reranked = delivered;
+                        delivered = true;
+                        listener.onRanked(ranked, reranked);
+                    }, error -> android.util.Log.e("VideoRepository", "Lỗi khi xếp hạng feed", error));
+        }
+    }
+
+    private List<ShortVideo> rankFeed(List<ShortVideo> videos, FeedSignals signals) {
+        return FeedRanker.rank(videos, signals.userPreferences, signals.favoriteCategories,
+                signals.trendingVideoIds, signals.watchedVideoIds, signals.likedVideoIds,
+                System.currentTimeMillis(), random);
     }
 
     /**
-     * 🎯 Shuffle video trong cùng tier để tạo đa dạng nhưng vẫn ưu tiên video có engagement cao
-     *
-     * Chiến lược:
-     * - Chia danh sách thành các tier dựa trên điểm engagement (mỗi tier ~20% danh sách)
-     * - Shuffle trong mỗi tier
-     * - Kết quả: Video top vẫn ưu tiên nhưng thứ tự thay đổi mỗi lần
+     * Tín hiệu cá nhân hóa dùng để xếp hạng feed của một người dùng
      */
-    private void shuffleWithinTiers(List<ShortVideo> videos,
-                                   Map<String, Boolean> userPreferences,
-                                   List<String> favoriteCategories,
-                                   List<String> trendingVideoIds) {
-        if (videos == null || videos.size() <= 1) return;
-
-        // Tính điểm cho từng video
-        List<VideoWithScore> videosWithScores = new ArrayList<>();
-        for (ShortVideo video : videos) {
-            double score = calculateEngagementScore(video, userPreferences, favoriteCategories, trendingVideoIds);
-            videosWithScores.add(new VideoWithScore(video, score));
-        }
-
-        // Chia thành tiers (mỗi tier 20% hoặc tối thiểu 3 videos)
-        int tierSize = Math.max(3, videos.size() / 5);
-        List<ShortVideo> shuffledVideos = new ArrayList<>();
-
-        for (int i = 0; i < videos.size(); i += tierSize) {
-            int end = Math.min(i + tierSize, videos.size());
-            List<VideoWithScore> tier = videosWithScores.subList(i, end);
+    private static final class FeedSignals {
+        final String userId;
+        final String country;
+        final Map<String, Boolean> userPreferences = new HashMap<>();
+        final List<String> favoriteCategories = new ArrayList<>();
+        final java.util.Set<String> trendingVideoIds = new java.util.HashSet<>();
+        final Map<String, Long> watchedVideoIds = new HashMap<>(); // 🎯 Watched videos with timestamp
+        final java.util.Set<String> likedVideoIds = new java.util.HashSet<>(); // 🎯 Liked videos
 
-            // Shuffle trong tier
-            Collections.shuffle(tier);
+        FeedSignals(String userId, String country) {
+            this.userId = userId;
+            this.country = country;
+        }
 
-            // Add vào kết quả
-            for (VideoWithScore vws : tier) {
-                shuffledVideos.add(vws.video);
-            }
+        boolean isFor(String userId, String country) {
+            return java.util.Objects.equals(this.userId, userId) && java.util.Objects.equals(this.country, country);
         }
+    }
 
-        // Cập nhật lại list gốc
-        videos.clear();
-        videos.addAll(shuffledVideos);
+    @Override
+    public List<ShortVideo> getFeed(String userId, String country) {
+        final List<ShortVideo> result = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);
 
-        android.util.Log.d("VideoRepository", "🔀 Shuffled " + videos.size() + " videos within tiers (tier size: " + tierSize + ")");
-    }
+        getFeed(userId, country, new VideoCallback() {
+            @Override
+            public void onSuccess(List<ShortVideo> videos) {
+                // Chỉ lấy lần trả về đầu tiên (lần xếp hạng lại đến sau khi đã trả kết quả)
+                if (latch.getCount() > 0) {
+                    result.addAll(videos);
+                    latch.countDown();
+                }
+            }
 
-    /**
-     * Helper class để lưu video cùng điểm số
-     */
-    private static class VideoWithScore {
-        ShortVideo video;
-        double score;
+            @Override
+            public void onError(String errorMessage) {
+                latch.countDown();
+            }
+        });
 
-        VideoWithScore(ShortVideo video, double score) {
-            this.video = video;
-            this.score = score;
+        try {
+            latch.await(15, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            // Return empty list if interrupted
         }
+
+        return result;
     }
 
     @Override
@@ -659,16 +553,14 @@ public class FirebaseVideoRepositoryImpl implements VideoRepository {
     public void likeVideo(String videoId, String userId, BooleanCallback callback) {
         if (!validateParams(videoId, userId, callback)) return;
 
-        DatabaseReference likeRef = videosRef.child(videoId).child(Constants.VIDEO_LIKES_REF).child(userId);
-
-        // Tạo tài liệu like (optimistic UI)
-        Map<String, Object> likeData = new HashMap<>();
-        likeData.put("timestamp", com.google.firebase.database.ServerValue.TIMESTAMP);
+        // Ghi like và index users/{uid}/likedVideos trong cùng một lệnh (optimistic UI)
+        Map<String, Object> updates = LikedVideoIndex.buildLikeUpdate(videoId, userId, true);
 
-        likeRef.setValue(likeData).addOnCompleteListener(task -> {
+        database.getReference().updateChildren(updates).addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
-                // Cập nhật trạng thái like vào cache
-                cacheLikeStatus(videoId, userId, true);
+                // Cập nhật index trong bộ nhớ và Room
+                likedVideoIndex.markLiked(userId, videoId, true);
+                recordLikeDelta(videoId, true);
                 callback.onSuccess(true);
             } else {
                 callback.onError("Không thể like video: " +
@@ -681,12 +573,14 @@ public class FirebaseVideoRepositoryImpl implements VideoRepository {
     public void unlikeVideo(String videoId, String userId, BooleanCallback callback) {
         if (!validateParams(videoId, userId, callback)) return;
 
-        DatabaseReference likeRef = videosRef.child(videoId).child(Constants.VIDEO_LIKES_REF).child(userId);
+        // Xóa like và index users/{uid}/likedVideos trong cùng một lệnh
+        Map<String, Object> updates = LikedVideoIndex.buildLikeUpdate(videoId, userId, false);
 
-        likeRef.removeValue().addOnCompleteListener(task -> {
+        database.getReference().updateChildren(updates).addOnCompleteListener(task -> {
             if (task.isSuccessful()) {
-                // Xóa trạng thái like khỏi cache
-                clearLikeStatusCache(videoId, userId);
+                // Cập nhật index trong bộ nhớ và Room
+                likedVideoIndex.markLiked(userId, videoId, false);
+                recordLikeDelta(videoId, false);
                 callback.onSuccess(false);
             } else {
                 callback.onError("Không thể unlike video: " +
@@ -695,31 +589,36 @@ public class FirebaseVideoRepositoryImpl implements VideoRepository {
         });
     }
 
+    /**
+     * Cộng/trừ likeCount của video qua CounterAggregator (gửi theo lô)
+     */
+    private void recordLikeDelta(String videoId, boolean liked) {
+        CounterAggregator counterAggregator = CounterAggregator.getInstanceIfCreated();
+        if (counterAggregator != null) {
+            counterAggregator.recordLike(Constants.VIDEOS_REF, videoId, liked);
+        }
+    }
+
     @Override
     public void isVideoLiked(String videoId, String userId, BooleanCallback callback) {
         if (!validateParams(videoId, userId, callback)) return;
 
-        // Kiểm tra trạng thái like trong cache trước
-        Boolean cachedStatus = getCachedLikeStatus(videoId, userId);
+        // Trả lời từ index trong bộ nhớ; lần đầu nạp index của user (một lần cho mọi video)
+        Boolean cachedStatus = likedVideoIndex.isLiked(userId, videoId);
         if (cachedStatus != null) {
             callback.onSuccess(cachedStatus);
             return;
         }
 
-        DatabaseReference likeRef = videosRef.child(videoId).child(Constants.VIDEO_LIKES_REF).child(userId);
-
-        likeRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        likedVideoIndex.load(userId, new LikedVideoIndex.LoadCallback() {
             @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                boolean isLiked = dataSnapshot.exists();
-                // Lưu trạng thái like vào cache
-                cacheLikeStatus(videoId, userId, isLiked);
-                callback.onSuccess(isLiked);
+            public void onLoaded(java.util.Set<String> likedVideoIds) {
+                callback.onSuccess(likedVideoIds.contains(videoId));
             }
 
             @Override
-            public void onCancelled(DatabaseError databaseError) {
-                callback.onError("Lỗi khi kiểm tra like status: " + databaseError.getMessage());
+            public void onError(String errorMessage) {
+                callback.onError("Lỗi khi kiểm tra like status: " + errorMessage);
             }
         });
     }
@@ -1092,6 +991,17 @@ public class FirebaseVideoRepositoryImpl implements VideoRepository {
             return;
         }
 
+        // Gộp lượt xem rồi gửi theo lô bằng ServerValue.increment - tránh một transaction
+        // (và các lần retry khi video đang hot) cho mỗi lượt xem
+        CounterAggregator counterAggregator = CounterAggregator.getInstanceIfCreated();
+        if (counterAggregator != null) {
+            counterAggregator.recordView(Constants.VIDEOS_REF, videoId);
+            if (callback != null) {
+                callback.onSuccess(true);
+            }
+            return;
+        }
+
         DatabaseReference videoRef = videosRef.child(videoId);
 
         // Cập nhật view count bằng cách tăng giá trị hiện tại lên 1
@@ -1211,45 +1121,6 @@ public class FirebaseVideoRepositoryImpl implements VideoRepository {
         return true;
     }
 
-    /**
-     * Tạo key cho cache trạng thái like
-     */
-    private String getLikeStatusCacheKey(String videoId, String userId) {
-        return videoId + "_" + userId;
-    }
-
-    /**
-     * Lưu trạng thái like vào cache
-     */
-    private void cacheLikeStatus(String videoId, String userId, boolean isLiked) {
-        if (videoId != null && userId != null && !videoId.isEmpty() && !userId.isEmpty()) {
-            String cacheKey = getLikeStatusCacheKey(videoId, userId);
-            likeStatusCache.put(cacheKey, isLiked);
-        }
-    }
-
-    /**
-     * Lấy trạng thái like từ cache
-     * @return Boolean trạng thái like hoặc null nếu không có trong cache
-     */
-    private Boolean getCachedLikeStatus(String videoId, String userId) {
-        if (videoId == null || userId == null || videoId.isEmpty() || userId.isEmpty()) {
-            return null;
-        }
-        String cacheKey = getLikeStatusCacheKey(videoId, userId);
-        return likeStatusCache.get(cacheKey);
-    }
-
-    /**
-     * Xóa trạng thái like khỏi cache
-     */
-    private void clearLikeStatusCache(String videoId, String userId) {
-        if (videoId != null && userId != null && !videoId.isEmpty() && !userId.isEmpty()) {
-            String cacheKey = getLikeStatusCacheKey(videoId, userId);
-            likeStatusCache.remove(cacheKey);
-        }
-    }
-
     @Override
     public void getLikedVideos(String userId, VideoCallback callback) {
         android.util.Log.d("FirebaseVideoRepo", "getLikedVideos được gọi với userId: " + userId);
@@ -1262,128 +1133,68 @@ public class FirebaseVideoRepositoryImpl implements VideoRepository {
             return;
         }
 
-        android.util.Log.d("FirebaseVideoRepo", "Bắt đầu query Firebase cho videos có status=ready hoặc published");
-
-        // Lấy tất cả videos, filter theo status trong code (vì Firebase không hỗ trợ OR query)
-        videosRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(DataSnapshot dataSnapshot) {
-                        android.util.Log.d("FirebaseVideoRepo", "Firebase query trả về " + dataSnapshot.getChildrenCount() + " videos");
-
-                        List<ShortVideo> likedVideos = new ArrayList<>();
-
-                        // Tạo map để lưu trữ dữ liệu video theo ID
-                        Map<String, DataSnapshot> videoDataMap = new HashMap<>();
-                        List<String> videoIds = new ArrayList<>();
-
-                        // Collect all video data and IDs (chỉ lấy video có status = "ready" hoặc "published")
-                        for (DataSnapshot videoSnapshot : dataSnapshot.getChildren()) {
-                            String videoId = videoSnapshot.getKey();
-                            String status = videoSnapshot.child("status").getValue(String.class);
+        // Danh sách ID lấy từ index theo người dùng, sau đó chỉ đọc đúng các video đó
+        likedVideoIndex.load(userId, new LikedVideoIndex.LoadCallback() {
+            @Override
+            public void onLoaded(java.util.Set<String> likedVideoIds) {
+                android.util.Log.d("FirebaseVideoRepo", "Liked index có " + likedVideoIds.size() + " videos");
+                loadVideosByIds(likedVideoIds, callback);
+            }
 
-                            if (videoId != null && ("ready".equals(status) || "published".equals(status))) {
-                                videoIds.add(videoId);
-                                videoDataMap.put(videoId, videoSnapshot);
-                                android.util.Log.d("FirebaseVideoRepo", "Tìm thấy video [" + status + "]: " + videoId);
-                            }
-                        }
+            @Override
+            public void onError(String errorMessage) {
+                callback.onError("Lỗi Firebase: " + errorMessage);
+            }
+        });
+    }
 
-                        android.util.Log.d("FirebaseVideoRepo", "Tổng cộng " + videoIds.size() + " videos (ready/published) để kiểm tra like status");
+    /**
+     * Đọc các video theo ID (mỗi ID một lượt đọc), giữ video ready/published, đánh dấu đã like
+     * và sắp xếp theo ngày upload mới nhất
+     */
+    private void loadVideosByIds(java.util.Set<String> videoIds, VideoCallback callback) {
+        List<ShortVideo> likedVideos = new ArrayList<>();
+        if (videoIds.isEmpty()) {
+            callback.onSuccess(likedVideos);
+            return;
+        }
 
-                        if (videoIds.isEmpty()) {
-                            android.util.Log.d("FirebaseVideoRepo", "Không có video nào trong database");
-                            callback.onSuccess(likedVideos);
-                            return;
-                        }
+        // Listener Firebase chạy trên main thread nên không cần đồng bộ
+        AtomicInteger pending = new AtomicInteger(videoIds.size());
+        Runnable onVideoDone = () -> {
+            if (pending.decrementAndGet() != 0) {
+                return;
+            }
+            // Sort by upload date (most recent first)
+            Collections.sort(likedVideos, (v1, v2) -> Long.compare(v2.getUploadDate(), v1.getUploadDate()));
+            android.util.Log.d("FirebaseVideoRepo", "Trả về kết quả với " + likedVideos.size() + " liked videos");
+            callback.onSuccess(likedVideos);
+        };
 
-                        final CountDownLatch latch = new CountDownLatch(videoIds.size());
-
-                        // Check each video if user has liked it
-                        for (String videoId : videoIds) {
-                            android.util.Log.d("FirebaseVideoRepo", "Kiểm tra like status cho video: " + videoId);
-
-                            DatabaseReference likeRef = videosRef.child(videoId)
-                                    .child(Constants.VIDEO_LIKES_REF).child(userId);
-
-                            likeRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                                @Override
-                                public void onDataChange(DataSnapshot likeSnapshot) {
-                                    android.util.Log.d("FirebaseVideoRepo", "Like check cho video " + videoId + " - exists: " + likeSnapshot.exists());
-
-                                    if (likeSnapshot.exists()) {
-                                        android.util.Log.d("FirebaseVideoRepo", "User đã like video: " + videoId);
-                                        // User has liked this video, get video details từ map
-                                        DataSnapshot videoData = videoDataMap.get(videoId);
-                                        if (videoData != null) {
-                                            try {
-                                                ShortVideo video = ShortVideoDeserializer.fromDataSnapshot(videoData);
-                                                if (video != null) {
-                                                    video.setLiked(true);
-                                                    synchronized (likedVideos) {
-                                                        likedVideos.add(video);
-                                                        android.util.Log.d("FirebaseVideoRepo", "Đã thêm liked video: " + video.getTitle() + " (ID: " + videoId + ")");
-                                                    }
-                                                } else {
-                                                    android.util.Log.w("FirebaseVideoRepo", "ShortVideoDeserializer trả về null cho video: " + videoId);
-                                                }
-                                            } catch (Exception e) {
-                                                android.util.Log.w("FirebaseVideoRepo",
-                                                    "Không thể parse liked video: " + videoId, e);
-                                            }
-                                        } else {
-                                            android.util.Log.w("FirebaseVideoRepo", "Không tìm thấy videoData trong map cho videoId: " + videoId);
-                                        }
-                                    }
-                                    latch.countDown();
-                                    android.util.Log.d("FirebaseVideoRepo", "Còn lại " + latch.getCount() + " video cần kiểm tra");
-                                }
-
-                                @Override
-                                public void onCancelled(DatabaseError databaseError) {
-                                    android.util.Log.w("FirebaseVideoRepo",
-                                        "Lỗi khi kiểm tra like status cho video: " + videoId, databaseError.toException());
-                                    latch.countDown();
-                                }
-                            });
+        for (String videoId : videoIds) {
+            videosRef.child(videoId).addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot videoSnapshot) {
+                    String status = videoSnapshot.child("status").getValue(String.class);
+                    if ("ready".equals(status) || "published".equals(status)) {
+                        ShortVideo video = ShortVideoDeserializer.fromDataSnapshot(videoSnapshot);
+                        if (video != null) {
+                            video.setLiked(true);
+                            likedVideos.add(video);
+                        } else {
+                            android.util.Log.w("FirebaseVideoRepo", "ShortVideoDeserializer trả về null cho video: " + videoId);
                         }
-
-                        // Wait for all checks to complete then sort by upload date
-                        new Thread(() -> {
-                            try {
-                                android.util.Log.d("FirebaseVideoRepo", "Đang chờ tất cả like checks hoàn thành...");
-
-                                if (latch.await(15, TimeUnit.SECONDS)) {
-                                    android.util.Log.d("FirebaseVideoRepo", "Tất cả checks hoàn thành. Tìm thấy " + likedVideos.size() + " liked videos");
-
-                                    // Sort by upload date (most recent first)
-                                    synchronized (likedVideos) {
-                                        Collections.sort(likedVideos, (v1, v2) ->
-                                            Long.compare(v2.getUploadDate(), v1.getUploadDate()));
-                                    }
-
-                                    android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                                    mainHandler.post(() -> {
-                                        android.util.Log.d("FirebaseVideoRepo", "Trả về kết quả với " + likedVideos.size() + " liked videos");
-                                        callback.onSuccess(new ArrayList<>(likedVideos));
-                                    });
-                                } else {
-                                    android.util.Log.e("FirebaseVideoRepo", "Timeout khi chờ like checks");
-                                    android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                                    mainHandler.post(() -> callback.onError("Timeout khi tải video đã like"));
-                                }
-                            } catch (InterruptedException e) {
-                                android.util.Log.e("FirebaseVideoRepo", "Thread bị interrupt", e);
-                                android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
-                                mainHandler.post(() -> callback.onError("Lỗi khi tải video đã like: " + e.getMessage()));
-                            }
-                        }).start();
                     }
+                    onVideoDone.run();
+                }
 
-                    @Override
-                    public void onCancelled(DatabaseError databaseError) {
-                        android.util.Log.e("FirebaseVideoRepo", "Firebase query bị cancelled", databaseError.toException());
-                        callback.onError("Lỗi Firebase: " + databaseError.getMessage());
-                    }
-                });
+                @Override
+                public void onCancelled(DatabaseError databaseError) {
+                    android.util.Log.w("FirebaseVideoRepo",
+                        "Lỗi khi tải liked video: " + videoId, databaseError.toException());
+                    onVideoDone.run();
+                }
+            });
+        }
     }
 }
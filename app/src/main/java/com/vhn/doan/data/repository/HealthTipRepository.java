@@ -1,9 +1,14 @@
 package com.vhn.doan.data.repository;
 
+import androidx.paging.PagingData;
+
 import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.paging.HealthTipPageCursor;
 
 import java.util.List;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 /**
  * Interface HealthTipRepository định nghĩa các phương thức để truy cập và quản lý dữ liệu mẹo sức khỏe
  * Tuân theo nguyên tắc thiết kế repository trong kiến trúc MVP
@@ -25,6 +30,16 @@ public interface HealthTipRepository {
          * @param errorMessage thông báo lỗi
          */
         void onError(String errorMessage);
+
+        /**
+         * Được gọi thay cho onSuccess khi tải theo danh sách ID nhưng một số ID bị lỗi/quá hạn
+         * Mặc định chuyển sang onSuccess với phần đã tải được
+         * @param healthTips các mẹo sức khỏe tải được
+         * @param failedIds các ID chưa tải được (có thể thử lại)
+         */
+        default void onPartialResult(List<HealthTip> healthTips, List<String> failedIds) {
+            onSuccess(healthTips);
+        }
     }
 
     /**
@@ -60,6 +75,25 @@ public interface HealthTipRepository {
         void onError(String errorMessage);
     }
 
+    /**
+     * Interface callback cho delta sync (gọi trên background thread, SAU KHI Room đã ghi xong)
+     */
+    interface DeltaSyncCallback {
+        /**
+         * Được gọi khi delta sync thành công
+         * @param upsertedCount số mẹo được thêm/cập nhật vào cache
+         * @param deletedCount số mẹo bị xóa khỏi cache (tombstone)
+         * @param newWatermark giá trị updatedAt lớn nhất đã sync, dùng cho lần sync sau
+         */
+        void onSuccess(int upsertedCount, int deletedCount, long newWatermark);
+
+        /**
+         * Được gọi khi delta sync thất bại (watermark không được tăng)
+         * @param errorMessage thông báo lỗi
+         */
+        void onError(String errorMessage);
+    }
+
     /**
      * Lấy danh sách tất cả mẹo sức khỏe
      * @param callback callback để nhận kết quả
@@ -73,6 +107,24 @@ public interface HealthTipRepository {
      */
     void getHealthTipsByCategory(String categoryId, HealthTipCallback callback);
 
+    /**
+     * Tải một trang mẹo sức khỏe từ Firebase theo keyset (createdAt + id) và lưu vào Room
+     * Callback được gọi sau khi dữ liệu đã ghi vào Room
+     * @param categoryId ID danh mục, null để lấy mọi danh mục
+     * @param cursor item cuối của trang trước, null để lấy trang mới nhất
+     * @param pageSize số item mỗi trang
+     * @param callback callback để nhận kết quả (sắp xếp createdAt giảm dần)
+     */
+    void getHealthTipsPage(String categoryId, HealthTipPageCursor cursor, int pageSize, HealthTipCallback callback);
+
+    /**
+     * Luồng PagingData đọc từ Room (PagingSource) và tự tải thêm từ Firebase khi cuộn hết cache
+     * Số item giữ trong bộ nhớ bị giới hạn (maxSize) nên cuộn không giới hạn với bộ nhớ không đổi
+     * @param categoryId ID danh mục, null để lấy mọi danh mục
+     * @param pageSize số item mỗi trang
+     */
+    Flowable<PagingData<HealthTip>> getHealthTipsPagingData(String categoryId, int pageSize);
+
     /**
      * Lấy thông tin chi tiết một mẹo sức khỏe
      * @param tipId ID của mẹo sức khỏe
@@ -125,6 +177,22 @@ public interface HealthTipRepository {
      */
     void getFavoriteHealthTips(String userId, HealthTipCallback callback);
 
+    /**
+     * Lấy nhiều mẹo sức khỏe theo danh sách ID (ưu tiên cache Room, chỉ tải phần thiếu từ Firebase)
+     * @param tipIds danh sách ID cần lấy
+     * @param callback callback nhận kết quả theo đúng thứ tự ID; có thể thiếu các ID không tìm thấy
+     */
+    void getHealthTipsByIds(List<String> tipIds, HealthTipCallback callback);
+
+    /**
+     * Làm nóng trước chi tiết các mẹo sức khỏe sắp được mở (cache L1 và Room)
+     * Tip có trong Room được nạp vào cache L1; tip chưa có chỉ tải từ Firebase khi allowNetwork
+     * @param tipIds danh sách ID cần làm nóng
+     * @param allowNetwork cho phép tải các tip chưa có trong cache từ Firebase
+     * @param callback callback nhận các tip đã làm nóng (có content blocks), không theo thứ tự ID
+     */
+    void prefetchHealthTipDetails(List<String> tipIds, boolean allowNetwork, HealthTipCallback callback);
+
     /**
      * Lấy danh sách mẹo sức khỏe mới nhất theo giới hạn
      * @param limit số lượng mẹo sức khỏe cần lấy
@@ -172,6 +240,14 @@ public interface HealthTipRepository {
      */
     void getDailyRecommendedHealthTips(String date, int limit, HealthTipCallback callback);
 
+    /**
+     * Tính trước và lưu danh sách đề xuất của một ngày (nếu ngày đó chưa có)
+     * Dùng cho DailyRecommendationWorker - các lần đọc sau trong ngày chỉ cần một truy vấn Room
+     * @param date ngày cần tính đề xuất (format: yyyy-MM-dd)
+     * @param callback callback nhận danh sách đã lưu
+     */
+    void prepareDailyRecommendedHealthTips(String date, HealthTipCallback callback);
+
     /**
      * Lấy danh sách mẹo sức khỏe được đề xuất cho ngày hiện tại
      * @param limit số lượng mẹo sức khỏe cần lấy
@@ -186,6 +262,21 @@ public interface HealthTipRepository {
      */
     void addHealthTip(HealthTip healthTip, HealthTipOperationCallback callback);
 
+    /**
+     * Xóa một mẹo sức khỏe và ghi tombstone vào deleted_health_tips để các máy khác xóa khỏi cache
+     * @param tipId ID của mẹo sức khỏe cần xóa
+     * @param callback callback để nhận kết quả
+     */
+    void deleteHealthTip(String tipId, HealthTipOperationCallback callback);
+
+    /**
+     * Đồng bộ tăng dần: chỉ tải các mẹo có updatedAt >= watermark và các tombstone mới
+     * Watermark = 0 nghĩa là chưa sync lần nào -> tải toàn bộ và đối chiếu để xóa tip thừa
+     * @param watermark updatedAt lớn nhất của lần sync trước
+     * @param callback callback để nhận kết quả
+     */
+    void syncHealthTipsSince(long watermark, DeltaSyncCallback callback);
+
     /**
      * Remove listener để tránh memory leak
      * @param listener listener object cần remove
@@ -5,6 +5,13 @@ import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
+import androidx.annotation.OptIn;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.rxjava3.PagingRx;
+
 import com.google.android.gms.tasks.OnFailureListener;
 import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.firebase.database.DataSnapshot;
@@ -12,42 +19,65 @@ import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.Query;
+import com.google.firebase.database.ServerValue;
 import com.google.firebase.database.ValueEventListener;
 import com.vhn.doan.data.HealthTip;
-import com.vhn.doan.data.Category;
+import com.vhn.doan.data.HealthTipDeserializer;
 import com.vhn.doan.data.local.AppDatabase;
+import com.vhn.doan.data.local.CacheManager;
+import com.vhn.doan.data.local.HealthTipSearchIndex;
+import com.vhn.doan.data.local.HealthTipMemoryCache;
+import com.vhn.doan.data.local.RecommendationEngine;
+import com.vhn.doan.data.local.TrigramSearchIndex;
 import com.vhn.doan.data.local.dao.HealthTipDao;
+import com.vhn.doan.data.local.entity.DailyRecommendationEntity;
 import com.vhn.doan.data.local.entity.HealthTipEntity;
+import com.vhn.doan.data.local.entity.HealthTipSummary;
+import com.vhn.doan.data.paging.HealthTipPageCursor;
+import com.vhn.doan.data.paging.HealthTipPagingSource;
+import com.vhn.doan.data.paging.HealthTipRemoteMediator;
 import com.vhn.doan.utils.AuthTokenManager;
 import com.vhn.doan.utils.Constants;
 import com.vhn.doan.utils.NetworkUtils;
 import com.vhn.doan.utils.VercelApiHelper;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import io.reactivex.rxjava3.core.Flowable;
 
 /**
  * Triển khai HealthTipRepository sử dụng Firebase Realtime Database + Room Cache
  * Chiến lược Offline-First: Hiển thị cache trước, sau đó sync từ server
+ * Các hàm đọc danh sách (fetchX) được gộp qua RequestCoalescer khi nhiều màn hình gọi cùng lúc
  */
 public class HealthTipRepositoryImpl implements HealthTipRepository {
 
     private static final String TAG = "HealthTipRepoImpl";
 
+    // SQLite giới hạn 999 tham số cho một câu lệnh - chia nhỏ danh sách ID khi dùng IN (...)
+    private static final int SQL_IN_CHUNK_SIZE = 500;
+
+    // Số trang tối đa giữ trong bộ nhớ khi phân trang (PagingConfig.maxSize = pageSize * giá trị này)
+    private static final int PAGING_MAX_PAGES = 5;
+
+    // Đề xuất theo ngày: chọn từ 200 bài mới nhất, lưu sẵn 20 bài (màn hình lấy phần đầu theo limit)
+    private static final int DAILY_RECOMMENDATION_POOL_SIZE = 200;
+    public static final int DAILY_RECOMMENDATION_SIZE = 20;
+
     private final FirebaseDatabase database;
     private final DatabaseReference healthTipsRef;
-    private final DatabaseReference categoriesRef;
     private final HealthTipDao healthTipDao;
     private final AppDatabase appDatabase;
     private final Context context;
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final BatchLoader<HealthTip> healthTipBatchLoader;
     private Map<Object, ValueEventListener> activeListeners = new HashMap<>();
 
     /**
@@ -57,11 +87,11 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         this.context = context.getApplicationContext();
         database = FirebaseDatabase.getInstance();
         healthTipsRef = database.getReference(Constants.HEALTH_TIPS_REF);
-        categoriesRef = database.getReference(Constants.CATEGORIES_REF);
 
         // Khởi tạo Room Database
         appDatabase = AppDatabase.getInstance(this.context);
         healthTipDao = appDatabase.healthTipDao();
+        healthTipBatchLoader = createHealthTipBatchLoader();
 
         Log.d(TAG, "HealthTipRepositoryImpl initialized with offline support");
     }
@@ -75,9 +105,9 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         this.context = null;
         database = FirebaseDatabase.getInstance();
         healthTipsRef = database.getReference(Constants.HEALTH_TIPS_REF);
-        categoriesRef = database.getReference(Constants.CATEGORIES_REF);
         appDatabase = null;
         healthTipDao = null;
+        healthTipBatchLoader = createHealthTipBatchLoader();
 
         Log.w(TAG, "HealthTipRepositoryImpl initialized WITHOUT offline support (deprecated constructor)");
     }
@@ -111,32 +141,18 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
     }
 
     /**
-     * Helper method để lấy category name từ category ID
+     * Helper method để lấy category name từ category ID (tra cứu từ điển danh mục dùng chung)
      */
     private void loadCategoryNameForHealthTip(HealthTip healthTip, final Runnable onComplete) {
         if (healthTip.getCategoryId() == null || healthTip.getCategoryId().isEmpty()) {
-            healthTip.setCategoryName("Chưa phân loại");
+            healthTip.setCategoryName(CategoryRepositoryImpl.UNCATEGORIZED_NAME);
             if (onComplete != null) onComplete.run();
             return;
         }
 
-        categoriesRef.child(healthTip.getCategoryId()).addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                Category category = dataSnapshot.getValue(Category.class);
-                if (category != null && category.getName() != null && !category.getName().isEmpty()) {
-                    healthTip.setCategoryName(category.getName());
-                } else {
-                    healthTip.setCategoryName("Chưa phân loại");
-                }
-                if (onComplete != null) onComplete.run();
-            }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                healthTip.setCategoryName("Chưa phân loại");
-                if (onComplete != null) onComplete.run();
-            }
+        CategoryRepositoryImpl.ensureCategoryDictionary(context, loaded -> {
+            healthTip.setCategoryName(CategoryRepositoryImpl.getCategoryNameOrDefault(healthTip.getCategoryId()));
+            if (onComplete != null) onComplete.run();
         });
     }
 
@@ -151,42 +167,27 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
             return;
         }
 
-        // ⚡ OPTIMIZATION: Load tất cả categories một lần
-        categoriesRef.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                // Tạo HashMap để O(1) lookup
-                HashMap<String, String> categoryMap = new HashMap<>();
-
-                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    Category category = snapshot.getValue(Category.class);
-                    if (category != null && category.getId() != null) {
-                        categoryMap.put(category.getId(), category.getName());
-                    }
-                }
-
-                // Gán category names từ HashMap
-                for (HealthTip healthTip : healthTips) {
-                    if (healthTip.getCategoryId() != null) {
-                        String categoryName = categoryMap.get(healthTip.getCategoryId());
-                        healthTip.setCategoryName(categoryName != null ? categoryName : "Chưa phân loại");
-                    } else {
-                        healthTip.setCategoryName("Chưa phân loại");
-                    }
-                }
-
+        applyCategoryNames(healthTips, success -> {
+            if (success) {
                 // Lưu vào cache và trả về
                 saveToCache(healthTips);
-                callback.onSuccess(healthTips);
             }
+            // Nếu lỗi vẫn trả về health tips nhưng không có category names
+            callback.onSuccess(healthTips);
+        });
+    }
 
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                String errorMsg = handleDatabaseError(databaseError, "Error loading categories");
-                Log.e(TAG, errorMsg);
-                // Vẫn trả về health tips nhưng không có category names
-                callback.onSuccess(healthTips);
+    /**
+     * Gán category name cho danh sách health tips từ từ điển danh mục dùng chung
+     * (CategoryRepositoryImpl) - không đọc lại node categories cho mỗi lần gọi
+     * @param onComplete nhận true nếu từ điển danh mục đã có dữ liệu
+     */
+    private void applyCategoryNames(List<HealthTip> healthTips, final Consumer<Boolean> onComplete) {
+        CategoryRepositoryImpl.ensureCategoryDictionary(context, loaded -> {
+            for (HealthTip healthTip : healthTips) {
+                healthTip.setCategoryName(CategoryRepositoryImpl.getCategoryNameOrDefault(healthTip.getCategoryId()));
             }
+            onComplete.accept(loaded);
         });
     }
 
@@ -195,12 +196,16 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
      */
     private void saveToCache(List<HealthTip> healthTips) {
         if (healthTipDao != null && healthTips != null && !healthTips.isEmpty()) {
-            AppDatabase.databaseWriteExecutor.execute(() -> {
+            // Upsert idempotent - gộp chung transaction với các lệnh ghi khác trong lượt của thread ghi
+            appDatabase.enqueueWrite(() -> {
                 List<HealthTipEntity> entities = new ArrayList<>();
                 for (HealthTip tip : healthTips) {
                     entities.add(HealthTipEntity.fromHealthTip(tip));
                 }
+                RecommendationEngine.getInstance(context).scoreEntities(entities);
                 healthTipDao.insertAll(entities);
+                TrigramSearchIndex.getInstance(context).indexHealthTips(entities);
+                HealthTipMemoryCache.getInstance().invalidateAfterCommit(idsOf(entities));
             });
         }
     }
@@ -217,8 +222,48 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         });
     }
 
+    /**
+     * Gộp các request đọc trùng nhau đang chạy đồng thời thành một lần đọc Room/Firebase
+     * @param key Key của request (method + tham số)
+     * @param operation Thao tác đọc thực sự, nhận callback dùng chung
+     * @param callback Callback của người gọi
+     */
+    private void coalesce(String key, Consumer<HealthTipCallback> operation, final HealthTipCallback callback) {
+        RequestCoalescer.getInstance().execute(key,
+                shared -> operation.accept(new HealthTipCallback() {
+                    @Override
+                    public void onSuccess(List<HealthTip> healthTips) {
+                        shared.onSuccess(healthTips);
+                    }
+
+                    @Override
+                    public void onError(String errorMessage) {
+                        shared.onError(errorMessage);
+                    }
+                }),
+                new RepositoryCallback<List<HealthTip>>() {
+                    @Override
+                    public void onSuccess(List<HealthTip> result) {
+                        callback.onSuccess(result);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        callback.onError(error);
+                    }
+                });
+    }
+
     @Override
     public void getAllHealthTips(final HealthTipCallback callback) {
+        coalesce(RequestCoalescer.key("HealthTipRepository.getAllHealthTips"),
+                shared -> fetchAllHealthTips(shared), callback);
+    }
+
+    /**
+     * Tải toàn bộ health tips (cache Room trước, sau đó Firebase)
+     */
+    private void fetchAllHealthTips(final HealthTipCallback callback) {
         Log.d(TAG, "getAllHealthTips called");
 
         // Kiểm tra network
@@ -228,17 +273,17 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         // OFFLINE-FIRST STRATEGY:
         // 1. Luôn load từ cache trước (nếu có offline support)
         if (healthTipDao != null) {
-            AppDatabase.databaseWriteExecutor.execute(() -> {
+            AppDatabase.databaseReadExecutor.execute(() -> {
                 try {
                     // ⚡ OPTIMIZED: Limit 100 items để giảm memory usage và tăng tốc độ
-                    List<HealthTipEntity> cachedEntities = healthTipDao.getAllHealthTipsSyncLimited(100);
-                    Log.d(TAG, "Cache loaded (limited): " + (cachedEntities != null ? cachedEntities.size() : 0) + " items");
+                    List<HealthTipSummary> cachedSummaries = healthTipDao.getAllHealthTipSummariesSyncLimited(100);
+                    Log.d(TAG, "Cache loaded (limited): " + (cachedSummaries != null ? cachedSummaries.size() : 0) + " items");
 
-                    if (cachedEntities != null && !cachedEntities.isEmpty()) {
+                    if (cachedSummaries != null && !cachedSummaries.isEmpty()) {
                         // Chuyển đổi Entity sang Model
                         List<HealthTip> cachedTips = new ArrayList<>();
-                        for (HealthTipEntity entity : cachedEntities) {
-                            cachedTips.add(entity.toHealthTip());
+                        for (HealthTipSummary summary : cachedSummaries) {
+                            cachedTips.add(summary.toHealthTip());
                         }
 
                         // Trả về cache trên main thread
@@ -285,109 +330,11 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
                     Log.d(TAG, "Firebase onDataChange (limited): " + dataSnapshot.getChildrenCount() + " items");
                     List<HealthTip> healthTips = new ArrayList<>();
                     for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                        try {
-                            HealthTip healthTip = snapshot.getValue(HealthTip.class);
-                            if (healthTip != null) {
-                                // Đảm bảo ID được set từ key của Firebase
-                                String healthTipId = snapshot.getKey();
-                                healthTip.setId(healthTipId);
-
-                            // Validate và set default values nếu cần
-                            if (healthTip.getTitle() == null || healthTip.getTitle().trim().isEmpty()) {
-                                healthTip.setTitle("Mẹo sức khỏe không tên");
-                            }
-
-                            // Kiểm tra nội dung và đảm bảo tương thích ngược
-                            if (healthTip.getContent() == null) {
-                                // Xử lý trường hợp không có nội dung
-                                healthTip.setContent("Nội dung đang được cập nhật");
-                            } else if (healthTip.getContent().trim().isEmpty()) {
-                                // Nếu nội dung trống
-                                healthTip.setContent("Nội dung đang được cập nhật");
-                            }
-
-                            if (healthTip.getCreatedAt() <= 0) {
-                                healthTip.setCreatedAt(System.currentTimeMillis());
-                            }
-                            if (healthTip.getViewCount() < 0) {
-                                healthTip.setViewCount(0);
-                            }
-                            if (healthTip.getLikeCount() < 0) {
-                                healthTip.setLikeCount(0);
-                            }
-
-                            healthTips.add(healthTip);
-                        }
-                    } catch (Exception e) {
-                        // Xử lý lỗi chuyển đổi
-                        try {
-                            // Truy xuất dữ liệu thủ công từ snapshot để xử lý định dạng mới
-                            String id = snapshot.getKey();
-                            String title = snapshot.child("title").getValue(String.class);
-
-                            // Xử lý nội dung
-                            String content = snapshot.child("content").getValue(String.class);
-
-                            // Xử lý contentBlocks nếu có
-                            List<Map<String, Object>> contentBlocksData = null;
-                            DataSnapshot contentBlocksSnapshot = snapshot.child("contentBlocks");
-                            if (contentBlocksSnapshot.exists()) {
-                                contentBlocksData = new ArrayList<>();
-                                for (DataSnapshot blockSnapshot : contentBlocksSnapshot.getChildren()) {
-                                    Map<String, Object> blockMap = (Map<String, Object>) blockSnapshot.getValue();
-                                    if (blockMap != null) {
-                                        contentBlocksData.add(blockMap);
-                                    }
-                                }
-                            }
-
-                            String categoryId = snapshot.child("categoryId").getValue(String.class);
-                            Integer viewCount = snapshot.child("viewCount").getValue(Integer.class);
-                            Integer likeCount = snapshot.child("likeCount").getValue(Integer.class);
-                            String imageUrl = snapshot.child("imageUrl").getValue(String.class);
-                            Long createdAt = snapshot.child("createdAt").getValue(Long.class);
-
-                            // Tạo đối tượng HealthTip mới
-                            HealthTip healthTip = new HealthTip();
-                            healthTip.setId(id);
-                            healthTip.setTitle(title != null ? title : "Mẹo sức khỏe không tên");
-                            healthTip.setContent(content != null ? content : "");
-                            if (contentBlocksData != null) {
-                                healthTip.setContentBlocks(contentBlocksData);
-                            }
-                            healthTip.setCategoryId(categoryId);
-                            healthTip.setViewCount(viewCount != null ? viewCount : 0);
-                            healthTip.setLikeCount(likeCount != null ? likeCount : 0);
-                            healthTip.setImageUrl(imageUrl);
-                            healthTip.setCreatedAt(createdAt != null ? createdAt : System.currentTimeMillis());
-
-                            // Thêm các trường bổ sung
-                            healthTip.setExcerpt(snapshot.child("excerpt").getValue(String.class));
-                            healthTip.setStatus(snapshot.child("status").getValue(String.class));
-                            healthTip.setAuthor(snapshot.child("author").getValue(String.class));
-                            healthTip.setPublishedAt(snapshot.child("publishedAt").getValue(Long.class));
-                            healthTip.setUpdatedAt(snapshot.child("updatedAt").getValue(Long.class));
-
-                            // Xử lý tags nếu có
-                            DataSnapshot tagsSnapshot = snapshot.child("tags");
-                            if (tagsSnapshot.exists()) {
-                                List<String> tags = new ArrayList<>();
-                                for (DataSnapshot tagSnapshot : tagsSnapshot.getChildren()) {
-                                    String tag = tagSnapshot.getValue(String.class);
-                                    if (tag != null) {
-                                        tags.add(tag);
-                                    }
-                                }
-                                healthTip.setTags(tags);
-                            }
-
+                        HealthTip healthTip = parseHealthTipSnapshot(snapshot);
+                        if (healthTip != null) {
                             healthTips.add(healthTip);
-                        } catch (Exception innerEx) {
-                            // Bỏ qua bài viết này nếu không thể xử lý
-                            System.out.println("Không thể xử lý bài viết: " + snapshot.getKey() + " - Lỗi: " + innerEx.getMessage());
                         }
                     }
-                }
                     // Load category names cho tất cả health tips
                     loadCategoryNamesForHealthTips(healthTips, callback);
                 }
@@ -406,6 +353,24 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         }
     }
 
+    /**
+     * Chuyển một snapshot Firebase thành HealthTip (chịu được nhiều định dạng dữ liệu)
+     * Đọc qua HealthTipDeserializer rồi gán title/content mặc định cho bài thiếu
+     * @return HealthTip đã chuẩn hóa, null nếu không thể xử lý
+     */
+    private HealthTip parseHealthTipSnapshot(DataSnapshot snapshot) {
+        HealthTip healthTip = HealthTipDeserializer.fromDataSnapshot(snapshot);
+        if (healthTip != null) {
+            if (healthTip.getTitle() == null || healthTip.getTitle().trim().isEmpty()) {
+                healthTip.setTitle("Mẹo sức khỏe không tên");
+            }
+            if (healthTip.getContent() == null || healthTip.getContent().trim().isEmpty()) {
+                healthTip.setContent("Nội dung đang được cập nhật");
+            }
+        }
+        return healthTip;
+    }
+
     @Override
     public void getHealthTipDetail(String tipId, final SingleHealthTipCallback callback) {
         if (tipId == null || tipId.trim().isEmpty()) {
@@ -422,16 +387,32 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         // 🎯 FIX CRITICAL BUG: Sử dụng flag để tránh callback được gọi nhiều lần
         final boolean[] callbackCalled = {false};
 
+        // 0. Cache L1 trong bộ nhớ - bài vừa mở lại không cần truy vấn Room
+        HealthTipMemoryCache memoryCache = HealthTipMemoryCache.getInstance();
+        HealthTip memoryTip = memoryCache.get(tipId);
+        if (memoryTip != null) {
+            Log.d(TAG, "⚡ Detail memory cache HIT for ID: " + tipId);
+            if (context != null) {
+                CacheManager.getInstance(context).recordLookup(true);
+            }
+            callbackCalled[0] = true;
+            mainHandler.post(() -> callback.onSuccess(memoryTip));
+        }
+
         // 1. Load từ cache trước
-        if (healthTipDao != null) {
+        if (memoryTip == null && healthTipDao != null) {
             Log.d(TAG, "✓ healthTipDao EXISTS for detail, starting executor...");
-            AppDatabase.databaseWriteExecutor.execute(() -> {
+            AppDatabase.databaseReadExecutor.execute(() -> {
                 Log.d(TAG, "✓ EXECUTOR STARTED for detail: " + tipId);
                 try {
+                    // Stamp lấy trước khi đọc: nếu có lệnh ghi commit trong lúc đọc thì không lưu bản cũ vào L1
+                    long stamp = memoryCache.stamp();
                     HealthTipEntity cachedEntity = healthTipDao.getHealthTipByIdSync(tipId);
                     Log.d(TAG, "✓ Detail cache: " + (cachedEntity != null ? "FOUND" : "NOT FOUND") + " for ID: " + tipId);
+                    CacheManager.getInstance(context).recordLookup(cachedEntity != null);
 
                     if (cachedEntity != null) {
+                        memoryCache.put(cachedEntity, stamp);
                         HealthTip cachedTip = cachedEntity.toHealthTip();
                         mainHandler.post(() -> {
                             Log.d(TAG, "✅ Returning cached detail for: " + tipId);
@@ -466,7 +447,7 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
             healthTipsRef.child(tipId).addListenerForSingleValueEvent(new ValueEventListener() {
                 @Override
                 public void onDataChange(DataSnapshot dataSnapshot) {
-                    HealthTip healthTip = dataSnapshot.getValue(HealthTip.class);
+                    HealthTip healthTip = HealthTipDeserializer.fromDataSnapshot(dataSnapshot);
                     if (healthTip != null) {
                         // Đảm bảo ID được set chính xác
                         healthTip.setId(dataSnapshot.getKey());
@@ -547,8 +528,13 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
      */
     private void saveSingleToCache(HealthTip healthTip) {
         if (healthTipDao != null && healthTip != null) {
-            AppDatabase.databaseWriteExecutor.execute(() -> {
-                healthTipDao.insert(HealthTipEntity.fromHealthTip(healthTip));
+            appDatabase.enqueueWrite(() -> {
+                HealthTipEntity entity = HealthTipEntity.fromHealthTip(healthTip);
+                RecommendationEngine.getInstance(context).scoreEntities(Collections.singletonList(entity));
+                healthTipDao.insert(entity);
+                TrigramSearchIndex.getInstance(context).indexHealthTips(Collections.singletonList(entity));
+                // Bài đầy đủ vừa tải: đưa luôn vào cache L1 để lần mở lại không phải đọc Room
+                HealthTipMemoryCache.getInstance().putAfterCommit(entity);
                 Log.d(TAG, "Saved single tip to cache: " + healthTip.getId());
             });
         }
@@ -556,6 +542,14 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
 
     @Override
     public void getHealthTipsByCategory(String categoryId, final HealthTipCallback callback) {
+        coalesce(RequestCoalescer.key("HealthTipRepository.getHealthTipsByCategory", categoryId),
+                shared -> fetchHealthTipsByCategory(categoryId, shared), callback);
+    }
+
+    /**
+     * Tải health tips theo danh mục
+     */
+    private void fetchHealthTipsByCategory(String categoryId, final HealthTipCallback callback) {
         if (categoryId == null || categoryId.trim().isEmpty()) {
             callback.onError("ID danh mục không hợp lệ");
             return;
@@ -568,15 +562,15 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
 
         // 1. Load từ cache trước
         if (healthTipDao != null) {
-            AppDatabase.databaseWriteExecutor.execute(() -> {
+            AppDatabase.databaseReadExecutor.execute(() -> {
                 try {
-                    List<HealthTipEntity> cachedEntities = healthTipDao.getHealthTipsByCategorySync(categoryId);
-                    Log.d(TAG, "Category cache loaded: " + (cachedEntities != null ? cachedEntities.size() : 0) + " items");
+                    List<HealthTipSummary> cachedSummaries = healthTipDao.getHealthTipSummariesByCategorySync(categoryId);
+                    Log.d(TAG, "Category cache loaded: " + (cachedSummaries != null ? cachedSummaries.size() : 0) + " items");
 
-                    if (cachedEntities != null && !cachedEntities.isEmpty()) {
+                    if (cachedSummaries != null && !cachedSummaries.isEmpty()) {
                         List<HealthTip> cachedTips = new ArrayList<>();
-                        for (HealthTipEntity entity : cachedEntities) {
-                            cachedTips.add(entity.toHealthTip());
+                        for (HealthTipSummary summary : cachedSummaries) {
+                            cachedTips.add(summary.toHealthTip());
                         }
 
                         mainHandler.post(() -> {
@@ -610,7 +604,7 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
                 public void onDataChange(DataSnapshot dataSnapshot) {
                     List<HealthTip> healthTips = new ArrayList<>();
                     for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                        HealthTip healthTip = snapshot.getValue(HealthTip.class);
+                        HealthTip healthTip = HealthTipDeserializer.fromDataSnapshot(snapshot);
                         if (healthTip != null) {
                             // Đảm bảo ID được set từ key
                             healthTip.setId(snapshot.getKey());
@@ -642,9 +636,113 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         }
     }
 
+    @Override
+    public void getHealthTipsPage(String categoryId, HealthTipPageCursor cursor, int pageSize,
+                                  final HealthTipCallback callback) {
+        if (healthTipDao == null) {
+            callback.onError("Offline support not available");
+            return;
+        }
+
+        Query query;
+        if (categoryId != null) {
+            // Firebase không hỗ trợ lọc categoryId và sắp xếp createdAt cùng lúc:
+            // tải cả danh mục một lần ở trang đầu, các trang sau đọc hoàn toàn từ Room
+            if (cursor != null) {
+                callback.onSuccess(new ArrayList<>());
+                return;
+            }
+            query = healthTipsRef.orderByChild("categoryId").equalTo(categoryId);
+        } else if (cursor == null) {
+            query = healthTipsRef.orderByChild("createdAt").limitToLast(pageSize);
+        } else {
+            // endAt(createdAt, id) bao gồm chính cursor nên lấy dư 1 item rồi loại bỏ
+            query = healthTipsRef.orderByChild("createdAt")
+                    .endAt(cursor.getCreatedAt(), cursor.getId())
+                    .limitToLast(pageSize + 1);
+        }
+
+        query.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                List<HealthTip> healthTips = new ArrayList<>();
+                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+                    if (cursor != null && cursor.getId().equals(snapshot.getKey())) {
+                        continue;
+                    }
+                    HealthTip healthTip = parseHealthTipSnapshot(snapshot);
+                    if (healthTip != null) {
+                        healthTips.add(healthTip);
+                    }
+                }
+
+                // Cùng thứ tự với PagingSource: createdAt DESC, id DESC
+                Collections.sort(healthTips, (a, b) -> {
+                    int byCreatedAt = Long.compare(getCreatedAtOrZero(b), getCreatedAtOrZero(a));
+                    return byCreatedAt != 0 ? byCreatedAt : b.getId().compareTo(a.getId());
+                });
+                Log.d(TAG, "Remote page loaded: " + healthTips.size() + " items (cursor=" + cursor + ")");
+
+                if (healthTips.isEmpty()) {
+                    callback.onSuccess(healthTips);
+                    return;
+                }
+
+                applyCategoryNames(healthTips, success -> AppDatabase.databaseWriteExecutor.execute(() -> {
+                    try {
+                        List<HealthTipEntity> entities = upsertPreservingLocalState(healthTips);
+                        TrigramSearchIndex.getInstance(context).indexHealthTips(entities);
+                        HealthTipMemoryCache.getInstance().invalidate(idsOf(entities));
+                        mainHandler.post(() -> callback.onSuccess(healthTips));
+                    } catch (Exception e) {
+                        Log.e(TAG, "Error caching remote page: " + e.getMessage(), e);
+                        mainHandler.post(() -> callback.onError("Error caching remote page: " + e.getMessage()));
+                    }
+                }));
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                callback.onError(handleDatabaseError(databaseError, "Error loading health tip page"));
+            }
+        });
+    }
+
+    @OptIn(markerClass = ExperimentalPagingApi.class)
+    @Override
+    public Flowable<PagingData<HealthTip>> getHealthTipsPagingData(String categoryId, int pageSize) {
+        if (appDatabase == null) {
+            return Flowable.just(PagingData.empty());
+        }
+
+        PagingConfig config = new PagingConfig(
+                pageSize,
+                pageSize,                       // prefetchDistance
+                false,                          // enablePlaceholders
+                pageSize * 2,                   // initialLoadSize
+                pageSize * PAGING_MAX_PAGES);   // maxSize - các trang xa bị drop để giữ bộ nhớ cố định
+        Pager<HealthTipPageCursor, HealthTip> pager = new Pager<>(
+                config,
+                null,
+                new HealthTipRemoteMediator(context, this, categoryId),
+                () -> new HealthTipPagingSource(appDatabase, categoryId));
+        return PagingRx.getFlowable(pager);
+    }
+
+    private static long getCreatedAtOrZero(HealthTip healthTip) {
+        return healthTip.getCreatedAt() != null ? healthTip.getCreatedAt() : 0L;
+    }
 
     @Override
     public void getLatestHealthTips(int limit, final HealthTipCallback callback) {
+        coalesce(RequestCoalescer.key("HealthTipRepository.getLatestHealthTips", limit),
+                shared -> fetchLatestHealthTips(limit, shared), callback);
+    }
+
+    /**
+     * Tải health tips mới nhất
+     */
+    private void fetchLatestHealthTips(int limit, final HealthTipCallback callback) {
         Log.d(TAG, "getLatestHealthTips called, limit=" + limit);
 
         // Kiểm tra network
@@ -654,16 +752,16 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         // 1. Load từ cache trước
         if (healthTipDao != null) {
             Log.d(TAG, "✓ healthTipDao EXISTS, starting executor...");
-            AppDatabase.databaseWriteExecutor.execute(() -> {
+            AppDatabase.databaseReadExecutor.execute(() -> {
                 Log.d(TAG, "✓ EXECUTOR STARTED for latest tips");
                 try {
-                    List<HealthTipEntity> cachedEntities = healthTipDao.getLatestHealthTipsSync(limit);
-                    Log.d(TAG, "✓ Latest cache loaded: " + (cachedEntities != null ? cachedEntities.size() : 0) + " items");
+                    List<HealthTipSummary> cachedSummaries = healthTipDao.getLatestHealthTipSummariesSync(limit);
+                    Log.d(TAG, "✓ Latest cache loaded: " + (cachedSummaries != null ? cachedSummaries.size() : 0) + " items");
 
-                    if (cachedEntities != null && !cachedEntities.isEmpty()) {
+                    if (cachedSummaries != null && !cachedSummaries.isEmpty()) {
                         List<HealthTip> cachedTips = new ArrayList<>();
-                        for (HealthTipEntity entity : cachedEntities) {
-                            cachedTips.add(entity.toHealthTip());
+                        for (HealthTipSummary summary : cachedSummaries) {
+                            cachedTips.add(summary.toHealthTip());
                         }
 
                         mainHandler.post(() -> {
@@ -700,7 +798,7 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
                 public void onDataChange(DataSnapshot dataSnapshot) {
                     List<HealthTip> healthTips = new ArrayList<>();
                     for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                        HealthTip healthTip = snapshot.getValue(HealthTip.class);
+                        HealthTip healthTip = HealthTipDeserializer.fromDataSnapshot(snapshot);
                         if (healthTip != null) {
                             healthTip.setId(snapshot.getKey());
                             healthTips.add(healthTip);
@@ -729,6 +827,14 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
 
     @Override
     public void getMostViewedHealthTips(int limit, final HealthTipCallback callback) {
+        coalesce(RequestCoalescer.key("HealthTipRepository.getMostViewedHealthTips", limit),
+                shared -> fetchMostViewedHealthTips(limit, shared), callback);
+    }
+
+    /**
+     * Tải health tips được xem nhiều nhất
+     */
+    private void fetchMostViewedHealthTips(int limit, final HealthTipCallback callback) {
         Log.d(TAG, "getMostViewedHealthTips called, limit=" + limit);
 
         boolean isOnline = context != null && NetworkUtils.isNetworkAvailable(context);
@@ -736,15 +842,15 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         // 1. Load từ cache trước
         if (healthTipDao != null) {
             Log.d(TAG, "✓ healthTipDao EXISTS for most viewed, starting executor...");
-            AppDatabase.databaseWriteExecutor.execute(() -> {
+            AppDatabase.databaseReadExecutor.execute(() -> {
                 Log.d(TAG, "✓ EXECUTOR STARTED for most viewed tips");
                 try {
-                    List<HealthTipEntity> cachedEntities = healthTipDao.getMostViewedHealthTipsSync(limit);
-                    Log.d(TAG, "✓ Most viewed cache loaded: " + (cachedEntities != null ? cachedEntities.size() : 0) + " items");
-                    if (cachedEntities != null && !cachedEntities.isEmpty()) {
+                    List<HealthTipSummary> cachedSummaries = healthTipDao.getMostViewedHealthTipSummariesSync(limit);
+                    Log.d(TAG, "✓ Most viewed cache loaded: " + (cachedSummaries != null ? cachedSummaries.size() : 0) + " items");
+                    if (cachedSummaries != null && !cachedSummaries.isEmpty()) {
                         List<HealthTip> cachedTips = new ArrayList<>();
-                        for (HealthTipEntity entity : cachedEntities) {
-                            cachedTips.add(entity.toHealthTip());
+                        for (HealthTipSummary summary : cachedSummaries) {
+                            cachedTips.add(summary.toHealthTip());
                         }
                         mainHandler.post(() -> callback.onSuccess(cachedTips));
 
@@ -774,7 +880,7 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
                 public void onDataChange(DataSnapshot dataSnapshot) {
                     List<HealthTip> healthTips = new ArrayList<>();
                     for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                        HealthTip healthTip = snapshot.getValue(HealthTip.class);
+                        HealthTip healthTip = HealthTipDeserializer.fromDataSnapshot(snapshot);
                         if (healthTip != null) {
                             healthTip.setId(snapshot.getKey());
                             healthTips.add(healthTip);
@@ -803,13 +909,21 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
 
     @Override
     public void getMostLikedHealthTips(int limit, final HealthTipCallback callback) {
+        coalesce(RequestCoalescer.key("HealthTipRepository.getMostLikedHealthTips", limit),
+                shared -> fetchMostLikedHealthTips(limit, shared), callback);
+    }
+
+    /**
+     * Tải health tips được thích nhiều nhất
+     */
+    private void fetchMostLikedHealthTips(int limit, final HealthTipCallback callback) {
         Query query = healthTipsRef.orderByChild("likeCount").limitToLast(limit);
         query.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot dataSnapshot) {
                 List<HealthTip> healthTips = new ArrayList<>();
                 for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    HealthTip healthTip = snapshot.getValue(HealthTip.class);
+                    HealthTip healthTip = HealthTipDeserializer.fromDataSnapshot(snapshot);
                     if (healthTip != null) {
                         healthTip.setId(snapshot.getKey());
                         healthTips.add(healthTip);
@@ -834,6 +948,44 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
 
     @Override
     public void getRecommendedHealthTips(int limit, final HealthTipCallback callback) {
+        if (healthTipDao == null) {
+            fetchRecommendedHealthTipsFromFirebase(limit, callback);
+            return;
+        }
+
+        // Điểm đề xuất được RecommendationEngine duy trì trong cache:
+        // chỉ một truy vấn theo index recommendation_score, không cần mạng
+        AppDatabase.databaseReadExecutor.execute(() -> {
+            try {
+                List<HealthTipSummary> summaries = healthTipDao.getRecommendedHealthTipSummariesSync(limit);
+                if (summaries != null && !summaries.isEmpty()) {
+                    List<HealthTip> recommendedTips = new ArrayList<>(summaries.size());
+                    for (HealthTipSummary summary : summaries) {
+                        recommendedTips.add(summary.toHealthTip());
+                    }
+                    mainHandler.post(() -> callback.onSuccess(recommendedTips));
+                    RecommendationEngine.getInstance(context).rescoreAllIfStale();
+                    return;
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading recommended tips from cache: " + e.getMessage(), e);
+            }
+
+            // Cache trống (lần đầu cài app): tải từ Firebase, kết quả được lưu và chấm điểm
+            mainHandler.post(() -> {
+                if (NetworkUtils.isNetworkAvailable(context)) {
+                    fetchRecommendedHealthTipsFromFirebase(limit, callback);
+                } else {
+                    callback.onSuccess(new ArrayList<>());
+                }
+            });
+        });
+    }
+
+    /**
+     * Đề xuất từ 200 bài mới nhất trên Firebase - chỉ dùng khi chưa có cache
+     */
+    private void fetchRecommendedHealthTipsFromFirebase(int limit, final HealthTipCallback callback) {
         // Logic đề xuất: Lấy ngẫu nhiên các bài viết từ nhiều danh mục khác nhau
         // Kết hợp từ các bài viết mới, được xem nhiều và được thích nhiều
 
@@ -848,7 +1000,7 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
 
                 // Lấy subset để tính recommendation
                 for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    HealthTip healthTip = snapshot.getValue(HealthTip.class);
+                    HealthTip healthTip = HealthTipDeserializer.fromDataSnapshot(snapshot);
                     if (healthTip != null) {
                         healthTip.setId(snapshot.getKey());
                         allHealthTips.add(healthTip);
@@ -928,6 +1080,14 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
 
     @Override
     public void getPersonalizedRecommendations(String userId, int limit, final HealthTipCallback callback) {
+        coalesce(RequestCoalescer.key("HealthTipRepository.getPersonalizedRecommendations", userId, limit),
+                shared -> fetchPersonalizedRecommendations(userId, limit, shared), callback);
+    }
+
+    /**
+     * Tải đề xuất cá nhân hóa
+     */
+    private void fetchPersonalizedRecommendations(String userId, int limit, final HealthTipCallback callback) {
         if (userId == null || userId.trim().isEmpty()) {
             Log.w(TAG, "UserId is null, falling back to generic recommendations");
             getRecommendedHealthTips(limit, callback);
@@ -975,45 +1135,147 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         );
     }
 
-    /**
-     * Load chi tiết health tips theo danh sách IDs
-     */
-    private void loadHealthTipsByIds(List<String> tipIds, final HealthTipCallback callback) {
-        if (tipIds.isEmpty()) {
+    @Override
+    public void prefetchHealthTipDetails(List<String> tipIds, boolean allowNetwork, final HealthTipCallback callback) {
+        if (tipIds == null || tipIds.isEmpty() || healthTipDao == null) {
             mainHandler.post(() -> callback.onSuccess(new ArrayList<>()));
             return;
         }
 
-        List<HealthTip> loadedTips = new ArrayList<>();
-        final int[] loadedCount = {0};
+        HealthTipMemoryCache memoryCache = HealthTipMemoryCache.getInstance();
+        AppDatabase.databaseReadExecutor.execute(() -> {
+            List<HealthTip> warmed = new ArrayList<>(tipIds.size());
+            List<String> notInMemory = new ArrayList<>();
+            for (String tipId : tipIds) {
+                HealthTip tip = memoryCache.get(tipId);
+                if (tip != null) {
+                    warmed.add(tip);
+                } else {
+                    notInMemory.add(tipId);
+                }
+            }
 
-        for (String tipId : tipIds) {
-            healthTipsRef.child(tipId).addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot snapshot) {
-                    HealthTip tip = snapshot.getValue(HealthTip.class);
-                    if (tip != null) {
-                        tip.setId(snapshot.getKey());
-                        loadedTips.add(tip);
+            Set<String> missing = new HashSet<>(notInMemory);
+            if (!notInMemory.isEmpty()) {
+                try {
+                    long stamp = memoryCache.stamp();
+                    for (HealthTipEntity entity : healthTipDao.getHealthTipsByIdsSync(notInMemory)) {
+                        memoryCache.put(entity, stamp);
+                        warmed.add(entity.toHealthTip());
+                        missing.remove(entity.getId());
                     }
+                } catch (Exception e) {
+                    Log.e(TAG, "Error prefetching health tips from cache: " + e.getMessage(), e);
+                }
+            }
 
-                    loadedCount[0]++;
-                    if (loadedCount[0] == tipIds.size()) {
-                        // Đã load xong tất cả, load category names và trả về
-                        loadCategoryNamesForHealthTips(loadedTips, callback);
-                    }
+            if (missing.isEmpty() || !allowNetwork) {
+                mainHandler.post(() -> callback.onSuccess(warmed));
+                return;
+            }
+
+            // Tip chưa có trong Room: tải theo lô và ghi cache (getHealthTipsByIds), lần mở sau đọc từ Room
+            mainHandler.post(() -> getHealthTipsByIds(new ArrayList<>(missing), new HealthTipCallback() {
+                @Override
+                public void onSuccess(List<HealthTip> healthTips) {
+                    warmed.addAll(healthTips);
+                    callback.onSuccess(warmed);
                 }
 
                 @Override
-                public void onCancelled(DatabaseError error) {
-                    Log.e(TAG, "Error loading tip: " + tipId + " - " + error.getMessage());
-                    loadedCount[0]++;
-                    if (loadedCount[0] == tipIds.size()) {
-                        loadCategoryNamesForHealthTips(loadedTips, callback);
+                public void onError(String errorMessage) {
+                    callback.onSuccess(warmed);
+                }
+            }));
+        });
+    }
+
+    /**
+     * Load chi tiết health tips theo danh sách IDs
+     */
+    private void loadHealthTipsByIds(List<String> tipIds, final HealthTipCallback callback) {
+        getHealthTipsByIds(tipIds, callback);
+    }
+
+    /**
+     * Tạo BatchLoader cho health tips: đọc cache L1 rồi Room theo lô, chỉ tải các ID thiếu từ Firebase
+     * Trả tip đầy đủ (có content/contentBlocks) vì kết quả được dùng cho cả màn hình cần nội dung
+     */
+    private BatchLoader<HealthTip> createHealthTipBatchLoader() {
+        BatchLoader.LocalSource<HealthTip> localSource = healthTipDao == null ? null : ids -> {
+            HealthTipMemoryCache memoryCache = HealthTipMemoryCache.getInstance();
+            Map<String, HealthTip> found = new HashMap<>();
+            List<String> notInMemory = new ArrayList<>();
+            for (String id : ids) {
+                HealthTip tip = memoryCache.get(id);
+                if (tip != null) {
+                    found.put(id, tip);
+                } else {
+                    notInMemory.add(id);
+                }
+            }
+            long stamp = memoryCache.stamp();
+            for (int i = 0; i < notInMemory.size(); i += SQL_IN_CHUNK_SIZE) {
+                List<String> chunk = notInMemory.subList(i, Math.min(i + SQL_IN_CHUNK_SIZE, notInMemory.size()));
+                for (HealthTipEntity entity : healthTipDao.getHealthTipsByIdsSync(chunk)) {
+                    memoryCache.put(entity, stamp);
+                    found.put(entity.getId(), entity.toHealthTip());
+                }
+            }
+            return found;
+        };
+
+        return new BatchLoader<>(localSource, (tipId, callback) ->
+                healthTipsRef.child(tipId).addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(DataSnapshot snapshot) {
+                        HealthTip tip = HealthTipDeserializer.fromDataSnapshot(snapshot);
+                        if (tip != null) {
+                            tip.setId(snapshot.getKey());
+                        }
+                        callback.onSuccess(tip);
+                    }
+
+                    @Override
+                    public void onCancelled(DatabaseError error) {
+                        callback.onError(handleDatabaseError(error, "Error loading tip " + tipId));
                     }
+                }));
+    }
+
+    @Override
+    public void getHealthTipsByIds(List<String> tipIds, final HealthTipCallback callback) {
+        if (tipIds == null || tipIds.isEmpty()) {
+            mainHandler.post(() -> callback.onSuccess(new ArrayList<>()));
+            return;
+        }
+
+        healthTipBatchLoader.load(tipIds, result -> {
+            if (result.items.isEmpty() && result.isPartial()) {
+                callback.onError("Không thể tải " + result.failedIds.size() + " mẹo sức khỏe");
+                return;
+            }
+            if (!result.missingIds.isEmpty()) {
+                Log.w(TAG, "getHealthTipsByIds: " + result.items.size() + "/" + tipIds.size()
+                        + " loaded, failed=" + result.failedIds);
+            }
+            applyCategoryNames(result.items, success -> {
+                // Chỉ ghi lại cache các tip vừa tải từ Firebase, giữ trạng thái local của tip đã có
+                if (success && healthTipDao != null && !result.remoteItems.isEmpty()) {
+                    List<HealthTip> remoteItems = result.remoteItems;
+                    appDatabase.enqueueWrite(() -> {
+                        List<HealthTipEntity> entities = upsertPreservingLocalState(remoteItems);
+                        TrigramSearchIndex.getInstance(context).indexHealthTips(entities);
+                        HealthTipMemoryCache.getInstance().invalidateAfterCommit(idsOf(entities));
+                    });
+                }
+                if (result.isPartial()) {
+                    callback.onPartialResult(result.items, result.failedIds);
+                } else {
+                    callback.onSuccess(result.items);
                 }
             });
-        }
+        });
     }
 
     @Override
@@ -1023,6 +1285,36 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
             return;
         }
 
+        boolean isOnline = context != null && NetworkUtils.isNetworkAvailable(context);
+
+        // 1. Tìm trong index FTS local trước (không tải toàn bộ node health_tips)
+        if (healthTipDao != null) {
+            HealthTipSearchIndex searchIndex = HealthTipSearchIndex.getInstance(context);
+            AppDatabase.databaseReadExecutor.execute(() -> {
+                try {
+                    if (!isOnline || !searchIndex.isStale()) {
+                        List<HealthTip> results = searchIndex.search(query, HealthTipSearchIndex.DEFAULT_SEARCH_LIMIT);
+                        mainHandler.post(() -> callback.onSuccess(results));
+                        return;
+                    }
+                    Log.d(TAG, "Search index is stale - falling back to Firebase search");
+                } catch (Exception e) {
+                    Log.e(TAG, "Error searching local index: " + e.getMessage(), e);
+                }
+                // 2. Index đã cũ hoặc lỗi -> tìm trên Firebase
+                mainHandler.post(() -> searchHealthTipsRemote(query, callback));
+            });
+            return;
+        }
+
+        searchHealthTipsRemote(query, callback);
+    }
+
+    /**
+     * Tìm kiếm trực tiếp trên Firebase (quét toàn bộ node health_tips)
+     * Chỉ dùng khi index local chưa sẵn sàng hoặc đã cũ
+     */
+    private void searchHealthTipsRemote(String query, HealthTipCallback callback) {
         healthTipsRef.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
             public void onDataChange(DataSnapshot dataSnapshot) {
@@ -1030,7 +1322,7 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
                 String searchQuery = query.toLowerCase().trim();
 
                 for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    HealthTip healthTip = snapshot.getValue(HealthTip.class);
+                    HealthTip healthTip = HealthTipDeserializer.fromDataSnapshot(snapshot);
                     if (healthTip != null) {
                         healthTip.setId(snapshot.getKey());
 
@@ -1062,7 +1354,14 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         String key = healthTipsRef.push().getKey();
         if (key != null) {
             healthTip.setId(key);
+            // updatedAt lấy theo giờ server để tip mới nằm trong delta sync của các máy khác
             healthTipsRef.child(key).setValue(healthTip)
+                    .continueWithTask(task -> {
+                        if (!task.isSuccessful()) {
+                            return task;
+                        }
+                        return healthTipsRef.child(key).child("updatedAt").setValue(ServerValue.TIMESTAMP);
+                    })
                     .addOnSuccessListener(aVoid -> callback.onSuccess())
                     .addOnFailureListener(e -> callback.onError(e.getMessage()));
         } else {
@@ -1070,6 +1369,248 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         }
     }
 
+    @Override
+    public void deleteHealthTip(String tipId, final HealthTipOperationCallback callback) {
+        if (tipId == null || tipId.trim().isEmpty()) {
+            callback.onError("ID mẹo sức khỏe không hợp lệ");
+            return;
+        }
+
+        // Xóa tip và ghi tombstone trong cùng một lần cập nhật - delta sync của máy khác
+        // đọc deleted_health_tips để xóa tip khỏi cache
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(Constants.HEALTH_TIPS_REF + "/" + tipId, null);
+        updates.put(Constants.DELETED_HEALTH_TIPS_REF + "/" + tipId, ServerValue.TIMESTAMP);
+
+        database.getReference().updateChildren(updates)
+                .addOnSuccessListener(aVoid -> {
+                    if (appDatabase != null) {
+                        appDatabase.enqueueWrite(() -> {
+                            healthTipDao.deleteByIds(Collections.singletonList(tipId));
+                            HealthTipMemoryCache.getInstance().invalidateAfterCommit(tipId);
+                            TrigramSearchIndex.getInstance(context).pruneOrphans();
+                        });
+                    }
+                    callback.onSuccess();
+                })
+                .addOnFailureListener(e -> callback.onError("Lỗi khi xóa mẹo sức khỏe: " + e.getMessage()));
+    }
+
+    @Override
+    public void syncHealthTipsSince(long watermark, final DeltaSyncCallback callback) {
+        if (healthTipDao == null) {
+            callback.onError("Offline support not available");
+            return;
+        }
+
+        final boolean fullSync = watermark <= 0;
+        // Full sync: tải toàn bộ một lần (tip cũ có thể chưa có updatedAt nên không nằm trong index)
+        // Delta: startAt() bao gồm cả mốc watermark - bản ghi trùng chỉ bị upsert lại (idempotent)
+        Query changedQuery = fullSync
+                ? healthTipsRef
+                : healthTipsRef.orderByChild("updatedAt").startAt(watermark);
+
+        changedQuery.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                List<HealthTip> changedTips = new ArrayList<>();
+                long maxUpdatedAt = watermark;
+                for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+                    HealthTip healthTip = parseHealthTipSnapshot(snapshot);
+                    if (healthTip != null) {
+                        changedTips.add(healthTip);
+                        maxUpdatedAt = Math.max(maxUpdatedAt, getChangeTimestamp(healthTip));
+                    }
+                }
+                Log.d(TAG, (fullSync ? "Full" : "Delta") + " sync: " + changedTips.size()
+                        + " changed tips since " + watermark);
+
+                if (fullSync) {
+                    applyDeltaSync(changedTips, new ArrayList<>(), true, maxUpdatedAt, callback);
+                } else {
+                    loadTombstonesSince(watermark, changedTips, maxUpdatedAt, callback);
+                }
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                callback.onError(handleDatabaseError(databaseError, "Error loading changed health tips"));
+            }
+        });
+    }
+
+    /**
+     * Tải các tombstone (tip đã bị xóa) có deletedAt >= watermark
+     * Tip được tạo lại sau khi xóa (updatedAt > deletedAt) sẽ không bị xóa khỏi cache
+     */
+    private void loadTombstonesSince(long watermark, List<HealthTip> changedTips, long maxUpdatedAt,
+                                     final DeltaSyncCallback callback) {
+        database.getReference(Constants.DELETED_HEALTH_TIPS_REF)
+                .orderByValue()
+                .startAt(watermark)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(DataSnapshot dataSnapshot) {
+                        Map<String, Long> changedAt = new HashMap<>();
+                        for (HealthTip healthTip : changedTips) {
+                            changedAt.put(healthTip.getId(), getChangeTimestamp(healthTip));
+                        }
+
+                        List<String> deletedIds = new ArrayList<>();
+                        long newWatermark = maxUpdatedAt;
+                        for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
+                            Object value = snapshot.getValue();
+                            long deletedAt = value instanceof Number ? ((Number) value).longValue() : 0L;
+                            Long updatedAt = changedAt.get(snapshot.getKey());
+                            if (updatedAt == null || deletedAt >= updatedAt) {
+                                deletedIds.add(snapshot.getKey());
+                            }
+                            newWatermark = Math.max(newWatermark, deletedAt);
+                        }
+
+                        // Tip vừa bị xóa không được upsert lại
+                        if (!deletedIds.isEmpty()) {
+                            Set<String> deletedSet = new HashSet<>(deletedIds);
+                            List<HealthTip> remaining = new ArrayList<>();
+                            for (HealthTip healthTip : changedTips) {
+                                if (!deletedSet.contains(healthTip.getId())) {
+                                    remaining.add(healthTip);
+                                }
+                            }
+                            changedTips.clear();
+                            changedTips.addAll(remaining);
+                        }
+
+                        applyDeltaSync(changedTips, deletedIds, false, newWatermark, callback);
+                    }
+
+                    @Override
+                    public void onCancelled(DatabaseError databaseError) {
+                        callback.onError(handleDatabaseError(databaseError, "Error loading health tip tombstones"));
+                    }
+                });
+    }
+
+    /**
+     * Ghi kết quả delta sync vào Room trong một transaction
+     * - Upsert các tip thay đổi, giữ nguyên trạng thái local (is_favorite, is_liked)
+     * - Xóa tip theo tombstone, hoặc (full sync) xóa các tip không còn trên server
+     * Callback chỉ được gọi sau khi transaction hoàn tất để watermark không vượt dữ liệu đã ghi
+     */
+    private void applyDeltaSync(List<HealthTip> changedTips, List<String> deletedIds, boolean fullSync,
+                                long newWatermark, final DeltaSyncCallback callback) {
+        Runnable writeToCache = () -> AppDatabase.databaseWriteExecutor.execute(() -> {
+            try {
+                List<HealthTipEntity> entities = new ArrayList<>(changedTips.size());
+                List<String> idsToDelete = new ArrayList<>();
+
+                appDatabase.runInTransaction(() -> {
+                    entities.addAll(upsertPreservingLocalState(changedTips));
+
+                    if (fullSync) {
+                        Set<String> serverIds = new HashSet<>();
+                        for (HealthTip healthTip : changedTips) {
+                            serverIds.add(healthTip.getId());
+                        }
+                        for (String id : healthTipDao.getAllIdsSync()) {
+                            if (!serverIds.contains(id)) {
+                                idsToDelete.add(id);
+                            }
+                        }
+                    } else {
+                        idsToDelete.addAll(deletedIds);
+                    }
+                    for (int i = 0; i < idsToDelete.size(); i += SQL_IN_CHUNK_SIZE) {
+                        healthTipDao.deleteByIds(idsToDelete.subList(i, Math.min(i + SQL_IN_CHUNK_SIZE, idsToDelete.size())));
+                    }
+                });
+
+                // Sau khi transaction commit: bỏ bản L1 của các tip vừa ghi/xóa
+                List<String> changedIds = idsOf(entities);
+                changedIds.addAll(idsToDelete);
+                HealthTipMemoryCache.getInstance().invalidate(changedIds);
+
+                TrigramSearchIndex trigramSearchIndex = TrigramSearchIndex.getInstance(context);
+                trigramSearchIndex.indexHealthTips(entities);
+                if (!idsToDelete.isEmpty()) {
+                    trigramSearchIndex.pruneOrphans();
+                }
+
+                Log.d(TAG, "Delta sync applied: " + entities.size() + " upserted, "
+                        + idsToDelete.size() + " deleted, watermark=" + newWatermark);
+                callback.onSuccess(entities.size(), idsToDelete.size(), newWatermark);
+            } catch (Exception e) {
+                Log.e(TAG, "Error applying delta sync: " + e.getMessage(), e);
+                callback.onError("Error applying delta sync: " + e.getMessage());
+            }
+        });
+
+        if (changedTips.isEmpty()) {
+            writeToCache.run();
+        } else {
+            // Category name được denormalize vào cache nên cần gán trước khi ghi
+            applyCategoryNames(changedTips, success -> writeToCache.run());
+        }
+    }
+
+    /**
+     * Upsert danh sách tip vào Room, giữ nguyên trạng thái local (is_favorite, is_liked)
+     * Synchronous - gọi trên AppDatabase.databaseWriteExecutor hoặc trong AppDatabase.enqueueWrite
+     * @return Danh sách entity đã ghi
+     */
+    private List<HealthTipEntity> upsertPreservingLocalState(List<HealthTip> healthTips) {
+        List<HealthTipEntity> entities = new ArrayList<>(healthTips.size());
+        if (healthTips.isEmpty()) {
+            return entities;
+        }
+
+        appDatabase.runInTransaction(() -> {
+            List<String> ids = new ArrayList<>(healthTips.size());
+            for (HealthTip healthTip : healthTips) {
+                ids.add(healthTip.getId());
+            }
+
+            Map<String, HealthTipEntity> existing = new HashMap<>();
+            for (int i = 0; i < ids.size(); i += SQL_IN_CHUNK_SIZE) {
+                List<String> chunk = ids.subList(i, Math.min(i + SQL_IN_CHUNK_SIZE, ids.size()));
+                for (HealthTipEntity entity : healthTipDao.getHealthTipsByIdsSync(chunk)) {
+                    existing.put(entity.getId(), entity);
+                }
+            }
+
+            for (HealthTip healthTip : healthTips) {
+                HealthTipEntity entity = HealthTipEntity.fromHealthTip(healthTip);
+                HealthTipEntity cached = existing.get(healthTip.getId());
+                if (cached != null) {
+                    entity.setFavorite(cached.isFavorite());
+                    entity.setLiked(cached.isLiked());
+                }
+                entities.add(entity);
+            }
+            RecommendationEngine.getInstance(context).scoreEntities(entities);
+            healthTipDao.insertAll(entities);
+        });
+        return entities;
+    }
+
+    private static List<String> idsOf(List<HealthTipEntity> entities) {
+        List<String> ids = new ArrayList<>(entities.size());
+        for (HealthTipEntity entity : entities) {
+            ids.add(entity.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Thời điểm thay đổi của tip dùng làm watermark (updatedAt, fallback createdAt)
+     */
+    private static long getChangeTimestamp(HealthTip healthTip) {
+        if (healthTip.getUpdatedAt() != null) {
+            return healthTip.getUpdatedAt();
+        }
+        return healthTip.getCreatedAt() != null ? healthTip.getCreatedAt() : 0L;
+    }
+
     @Override
     public void updateLikeStatus(String tipId, boolean isLiked, HealthTipOperationCallback callback) {
         if (tipId == null || tipId.isEmpty()) {
@@ -1082,7 +1623,19 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         updates.put("liked", isLiked);
 
         tipRef.updateChildren(updates)
-                .addOnSuccessListener(aVoid -> callback.onSuccess())
+                .addOnSuccessListener(aVoid -> {
+                    if (context != null) {
+                        CounterAggregator.getInstance(context).recordLike(Constants.HEALTH_TIPS_REF, tipId, isLiked);
+                    }
+                    if (appDatabase != null) {
+                        appDatabase.enqueueWrite(() -> {
+                            healthTipDao.updateLikeStatus(tipId, isLiked);
+                            RecommendationEngine.getInstance(context).onInteractionChangedSync(tipId);
+                            HealthTipMemoryCache.getInstance().invalidateAfterCommit(tipId);
+                        });
+                    }
+                    callback.onSuccess();
+                })
                 .addOnFailureListener(e -> callback.onError("Lỗi khi cập nhật trạng thái thích: " + e.getMessage()));
     }
 
@@ -1095,7 +1648,7 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
             public void onDataChange(DataSnapshot dataSnapshot) {
                 List<HealthTip> healthTips = new ArrayList<>();
                 for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    HealthTip healthTip = snapshot.getValue(HealthTip.class);
+                    HealthTip healthTip = HealthTipDeserializer.fromDataSnapshot(snapshot);
                     if (healthTip != null) {
                         healthTip.setId(snapshot.getKey());
                         healthTips.add(healthTip);
@@ -1140,7 +1693,17 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         updates.put("favorite", isFavorite);
 
         tipRef.updateChildren(updates)
-                .addOnSuccessListener(aVoid -> callback.onSuccess())
+                .addOnSuccessListener(aVoid -> {
+                    // Đồng bộ trạng thái vào cache - điểm sở thích của danh mục thay đổi
+                    if (appDatabase != null) {
+                        appDatabase.enqueueWrite(() -> {
+                            healthTipDao.updateFavoriteStatus(tipId, isFavorite);
+                            RecommendationEngine.getInstance(context).onInteractionChangedSync(tipId);
+                            HealthTipMemoryCache.getInstance().invalidateAfterCommit(tipId);
+                        });
+                    }
+                    callback.onSuccess();
+                })
                 .addOnFailureListener(e -> callback.onError("Lỗi khi cập nhật trạng thái yêu thích: " + e.getMessage()));
     }
 
@@ -1151,38 +1714,14 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
             return;
         }
 
-        // 🎯 FIX: Kiểm tra network trước - nếu offline thì callback success luôn
-        // Không cần báo lỗi vì đây chỉ là analytics, không ảnh hưởng UX
-        boolean isOnline = context != null && NetworkUtils.isNetworkAvailable(context);
-        if (!isOnline) {
-            Log.d(TAG, "Offline mode - skipping view count update for: " + tipId);
-            callback.onSuccess(); // Silent success - không block user
-            return;
+        // Không đọc-rồi-ghi Firebase cho mỗi lượt xem: CounterAggregator gộp delta (lưu cả khi offline)
+        // và gửi theo lô bằng ServerValue.increment
+        if (context != null) {
+            CounterAggregator.getInstance(context).recordView(Constants.HEALTH_TIPS_REF, tipId);
+        } else {
+            healthTipsRef.child(tipId).child("viewCount").setValue(ServerValue.increment(1));
         }
-
-        DatabaseReference tipRef = healthTipsRef.child(tipId).child("viewCount");
-        tipRef.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(DataSnapshot dataSnapshot) {
-                int currentCount = 0;
-                if (dataSnapshot.exists()) {
-                    currentCount = dataSnapshot.getValue(Integer.class);
-                }
-                tipRef.setValue(currentCount + 1)
-                        .addOnSuccessListener(aVoid -> callback.onSuccess())
-                        .addOnFailureListener(e -> {
-                            Log.e(TAG, "Failed to update view count: " + e.getMessage());
-                            callback.onSuccess(); // 🎯 FIX: Callback success thay vì error
-                        });
-            }
-
-            @Override
-            public void onCancelled(DatabaseError databaseError) {
-                String errorMsg = handleDatabaseError(databaseError, "View count update cancelled");
-                Log.e(TAG, errorMsg);
-                callback.onSuccess(); // 🎯 FIX: Callback success thay vì error
-            }
-        });
+        callback.onSuccess();
     }
 
 
@@ -1200,7 +1739,7 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
             public void onDataChange(DataSnapshot dataSnapshot) {
                 List<HealthTip> favoriteHealthTips = new ArrayList<>();
                 for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    HealthTip healthTip = snapshot.getValue(HealthTip.class);
+                    HealthTip healthTip = HealthTipDeserializer.fromDataSnapshot(snapshot);
                     if (healthTip != null) {
                         healthTip.setId(snapshot.getKey());
                         favoriteHealthTips.add(healthTip);
@@ -1220,6 +1759,16 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
 
     @Override
     public void getDailyRecommendedHealthTips(String date, int limit, final HealthTipCallback callback) {
+        coalesce(RequestCoalescer.key("HealthTipRepository.getDailyRecommendedHealthTips", date, limit),
+                shared -> fetchDailyRecommendedHealthTips(date, limit, shared), callback);
+    }
+
+    /**
+     * Tải đề xuất theo ngày
+     * Đọc danh sách đã tính sẵn (DailyRecommendationWorker) bằng một truy vấn theo khóa ngày;
+     * chỉ khi ngày đó chưa có mới tính bù (danh sách tính offline là tạm thời, xem computeDailyRecommendations)
+     */
+    private void fetchDailyRecommendedHealthTips(String date, int limit, final HealthTipCallback callback) {
         if (date == null || date.isEmpty()) {
             callback.onError("Ngày không hợp lệ");
             return;
@@ -1227,58 +1776,114 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
 
         Log.d(TAG, "getDailyRecommendedHealthTips called with limit: " + limit);
 
-        // Kiểm tra network
-        boolean isOnline = context != null && NetworkUtils.isNetworkAvailable(context);
-        Log.d(TAG, "Network status for recommended: " + (isOnline ? "ONLINE" : "OFFLINE"));
+        HealthTipCallback limited = new HealthTipCallback() {
+            @Override
+            public void onSuccess(List<HealthTip> healthTips) {
+                callback.onSuccess(healthTips.size() > limit
+                        ? new ArrayList<>(healthTips.subList(0, limit)) : healthTips);
+            }
 
-        // 1. Load từ cache trước (offline-first)
-        if (healthTipDao != null) {
-            AppDatabase.databaseWriteExecutor.execute(() -> {
-                try {
-                    // Lấy recommended tips từ cache (sorted by recommendation_score)
-                    List<HealthTipEntity> cachedEntities = healthTipDao.getLatestHealthTipsSync(limit);
-                    Log.d(TAG, "Recommended cache: " + (cachedEntities != null ? cachedEntities.size() : 0) + " items");
+            @Override
+            public void onError(String errorMessage) {
+                callback.onError(errorMessage);
+            }
+        };
 
-                    if (cachedEntities != null && !cachedEntities.isEmpty()) {
-                        List<HealthTip> cachedTips = new ArrayList<>();
-                        for (HealthTipEntity entity : cachedEntities) {
-                            cachedTips.add(entity.toHealthTip());
-                        }
-                        mainHandler.post(() -> {
-                            Log.d(TAG, "Returning " + cachedTips.size() + " recommended tips from cache");
-                            callback.onSuccess(cachedTips);
-                        });
+        if (appDatabase == null) {
+            computeDailyRecommendationsFromFirebase(date, limited);
+            return;
+        }
 
-                        if (!isOnline) {
-                            Log.d(TAG, "Offline mode - using recommended cache only");
-                            return;
-                        }
-                    } else {
-                        Log.d(TAG, "No recommended cache available");
+        AppDatabase.databaseReadExecutor.execute(() -> {
+            List<HealthTip> precomputed = loadPrecomputedRecommendations(date);
+            if (precomputed != null) {
+                Log.d(TAG, "Returning " + precomputed.size() + " precomputed recommendations for " + date);
+                mainHandler.post(() -> limited.onSuccess(precomputed));
+                return;
+            }
+            mainHandler.post(() -> computeDailyRecommendations(date, limited));
+        });
+    }
 
-                        // 🎯 FIX: Trả về empty list thay vì error khi offline không có cache
-                        if (!isOnline) {
-                            mainHandler.post(() -> {
-                                Log.d(TAG, "📭 Offline with no recommended cache - returning empty list");
-                                callback.onSuccess(new ArrayList<>());
-                            });
-                            return;
-                        }
-                    }
-                } catch (Exception e) {
-                    Log.e(TAG, "Error loading recommended cache: " + e.getMessage(), e);
-                }
-            });
+    @Override
+    public void prepareDailyRecommendedHealthTips(String date, final HealthTipCallback callback) {
+        if (appDatabase == null) {
+            computeDailyRecommendationsFromFirebase(date, callback);
+            return;
         }
 
-        // 2. Nếu online, fetch từ Firebase
-        if (!isOnline) {
-            return; // Đã xử lý offline ở trên
+        AppDatabase.databaseReadExecutor.execute(() -> {
+            List<HealthTip> precomputed = loadPrecomputedRecommendations(date);
+            if (precomputed != null) {
+                mainHandler.post(() -> callback.onSuccess(precomputed));
+                return;
+            }
+            // Worker chỉ lưu danh sách tính từ Firebase - lỗi mạng thì worker thử lại
+            mainHandler.post(() -> computeDailyRecommendationsFromFirebase(date, callback));
+        });
+    }
+
+    /**
+     * Danh sách đề xuất đã lưu cho ngày, null nếu chưa có (gọi trên background thread)
+     */
+    private List<HealthTip> loadPrecomputedRecommendations(String date) {
+        try {
+            DailyRecommendationEntity entity = appDatabase.dailyRecommendationDao().getByDateSync(date);
+            if (entity == null) {
+                return null;
+            }
+            List<HealthTip> healthTips = new ArrayList<>();
+            for (HealthTipSummary summary : entity.getSummaries()) {
+                healthTips.add(summary.toHealthTip());
+            }
+            return healthTips;
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading precomputed recommendations: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Tính đề xuất cho ngày chưa có danh sách: từ Firebase khi online, từ Room cache khi offline
+     *
+     * Danh sách tính offline chỉ là tạm thời và không được lưu: Room cache chỉ giữ một phần bài viết,
+     * nếu lưu thì insertIfAbsent sẽ khóa danh sách thiếu đó cho cả ngày. Lần mở sau khi có mạng
+     * (hoặc DailyRecommendationWorker) sẽ tính từ Firebase và lưu danh sách chính thức.
+     */
+    private void computeDailyRecommendations(String date, final HealthTipCallback callback) {
+        boolean isOnline = context != null && NetworkUtils.isNetworkAvailable(context);
+        Log.d(TAG, "Computing recommendations for " + date + " (" + (isOnline ? "ONLINE" : "OFFLINE") + ")");
+
+        if (isOnline) {
+            computeDailyRecommendationsFromFirebase(date, callback);
+            return;
         }
 
-        Log.d(TAG, "Fetching recommended tips from Firebase...");
+        AppDatabase.databaseReadExecutor.execute(() -> {
+            try {
+                List<HealthTipSummary> cachedSummaries =
+                        healthTipDao.getLatestHealthTipSummariesSync(DAILY_RECOMMENDATION_POOL_SIZE);
+                List<HealthTip> cachedTips = new ArrayList<>();
+                if (cachedSummaries != null) {
+                    for (HealthTipSummary summary : cachedSummaries) {
+                        cachedTips.add(summary.toHealthTip());
+                    }
+                }
+
+                // Offline không có cache: trả về danh sách rỗng thay vì báo lỗi
+                List<HealthTip> dailyRecommended = DailyRecommendationGenerator.generate(
+                        cachedTips, date, DAILY_RECOMMENDATION_SIZE);
+                mainHandler.post(() -> callback.onSuccess(dailyRecommended));
+            } catch (Exception e) {
+                Log.e(TAG, "Error computing recommendations from cache: " + e.getMessage(), e);
+                mainHandler.post(() -> callback.onSuccess(new ArrayList<>()));
+            }
+        });
+    }
+
+    private void computeDailyRecommendationsFromFirebase(String date, final HealthTipCallback callback) {
         // ⚡ OPTIMIZED: Lấy 200 bài viết mới nhất thay vì tất cả
-        Query recommendQuery = healthTipsRef.orderByChild("createdAt").limitToLast(200);
+        Query recommendQuery = healthTipsRef.orderByChild("createdAt").limitToLast(DAILY_RECOMMENDATION_POOL_SIZE);
 
         recommendQuery.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
@@ -1287,7 +1892,7 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
 
                 // Lấy subset để tính recommendation
                 for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                    HealthTip healthTip = snapshot.getValue(HealthTip.class);
+                    HealthTip healthTip = HealthTipDeserializer.fromDataSnapshot(snapshot);
                     if (healthTip != null) {
                         healthTip.setId(snapshot.getKey());
                         allHealthTips.add(healthTip);
@@ -1299,16 +1904,23 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
                     return;
                 }
 
-                // Tạo seed từ ngày để đảm bảo tính nhất quán
                 // Cùng một ngày sẽ luôn có cùng một bộ bài viết được đề xuất
-                long seed = date.hashCode();
-                Random random = new Random(seed);
-
-                // Tạo danh sách đề xuất dựa trên thuật toán
-                List<HealthTip> dailyRecommended = generateDailyRecommendations(allHealthTips, limit, random);
+                List<HealthTip> dailyRecommended = DailyRecommendationGenerator.generate(
+                        allHealthTips, date, DAILY_RECOMMENDATION_SIZE);
+
+                // Load category names trước khi lưu và trả về callback
+                loadCategoryNamesForHealthTips(dailyRecommended, new HealthTipCallback() {
+                    @Override
+                    public void onSuccess(List<HealthTip> healthTips) {
+                        storeDailyRecommendations(date, healthTips);
+                        callback.onSuccess(healthTips);
+                    }
 
-                // Load category names trước khi trả về callback
-                loadCategoryNamesForHealthTips(dailyRecommended, callback);
+                    @Override
+                    public void onError(String errorMessage) {
+                        callback.onError(errorMessage);
+                    }
+                });
             }
 
             @Override
@@ -1319,112 +1931,25 @@ public class HealthTipRepositoryImpl implements HealthTipRepository {
         });
     }
 
-    @Override
-    public void getTodayRecommendedHealthTips(int limit, HealthTipCallback callback) {
-        // Lấy ngày hiện tại theo định dạng yyyy-MM-dd
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        String today = sdf.format(new Date());
-
-        // Gọi phương thức getDailyRecommendedHealthTips với ngày hôm nay
-        getDailyRecommendedHealthTips(today, limit, callback);
-    }
-
     /**
-     * Tạo danh sách bài viết đề xuất cho một ngày cụ thể
-     * Sử dụng thuật toán seed để đảm bảo tính nhất quán
+     * Lưu đề xuất của ngày - nếu ngày đã có danh sách (tính song song ở nơi khác) thì giữ bản cũ
+     * Chỉ gọi với danh sách tính từ Firebase
      */
-    private List<HealthTip> generateDailyRecommendations(List<HealthTip> allHealthTips, int limit, Random random) {
-        if (allHealthTips.isEmpty()) {
-            return new ArrayList<>();
+    private void storeDailyRecommendations(String date, List<HealthTip> healthTips) {
+        if (appDatabase == null || healthTips == null || healthTips.isEmpty()) {
+            return;
         }
-
-        // Tạo bản sao để không ảnh hưởng đến danh sách gốc
-        List<HealthTip> availableTips = new ArrayList<>(allHealthTips);
-        List<HealthTip> recommendedTips = new ArrayList<>();
-
-        // Thuật toán đề xuất:
-        // 1. Chia bài viết thành các nhóm theo điểm số (cao, trung bình, thấp)
-        // 2. Chọn ngẫu nhiên từ mỗi nhóm để đảm bảo đa dạng
-        // 3. Ưu tiên bài viết có điểm cao nhưng vẫn có sự ngẫu nhiên
-
-        // Tính điểm cho từng bài viết
-        for (HealthTip tip : availableTips) {
-            int viewCount = tip.getViewCount() != null ? tip.getViewCount() : 0;
-            int likeCount = tip.getLikeCount() != null ? tip.getLikeCount() : 0;
-            long ageInDays = (System.currentTimeMillis() - tip.getCreatedAt()) / (1000 * 60 * 60 * 24);
-
-            // Điểm = (lượt xem + lượt thích * 2) / (tuổi bài viết + 1)
-            // Điều này ưu tiên bài viết mới và có tương tác cao
-            double score = (viewCount + likeCount * 2.0) / (ageInDays + 1);
-            tip.setRecommendationScore((int) (score * 100)); // Nhân 100 để dễ so sánh
+        List<HealthTipSummary> summaries = new ArrayList<>();
+        for (HealthTip healthTip : healthTips) {
+            summaries.add(HealthTipSummary.fromHealthTip(healthTip));
         }
-
-        // Sắp xếp theo điểm
-        availableTips.sort((tip1, tip2) -> {
-            int score1 = tip1.getRecommendationScore() != null ? tip1.getRecommendationScore() : 0;
-            int score2 = tip2.getRecommendationScore() != null ? tip2.getRecommendationScore() : 0;
-            return Integer.compare(score2, score1);
-        });
-
-        // Chia thành 3 nhóm: Top 30%, Middle 40%, Bottom 30%
-        int totalCount = availableTips.size();
-        int topCount = Math.max(1, (int) (totalCount * 0.3));
-        int middleCount = Math.max(1, (int) (totalCount * 0.4));
-
-        List<HealthTip> topTips = availableTips.subList(0, Math.min(topCount, totalCount));
-        List<HealthTip> middleTips = availableTips.subList(Math.min(topCount, totalCount),
-                Math.min(topCount + middleCount, totalCount));
-        List<HealthTip> bottomTips = availableTips.subList(Math.min(topCount + middleCount, totalCount), totalCount);
-
-        // Chọn bài viết từ mỗi nhóm với tỷ lệ: 50% top, 30% middle, 20% bottom
-        int topLimit = Math.max(1, (int) (limit * 0.5));
-        int middleLimit = Math.max(1, (int) (limit * 0.3));
-        int bottomLimit = limit - topLimit - middleLimit;
-
-        // Thêm bài viết từ nhóm top
-        addRandomTipsFromGroup(topTips, topLimit, recommendedTips, random);
-
-        // Thêm bài viết từ nhóm middle
-        addRandomTipsFromGroup(middleTips, middleLimit, recommendedTips, random);
-
-        // Thêm bài viết từ nhóm bottom
-        addRandomTipsFromGroup(bottomTips, bottomLimit, recommendedTips, random);
-
-        // Nếu chưa đủ số lượng, thêm ngẫu nhiên từ các bài viết còn lại
-        while (recommendedTips.size() < limit && recommendedTips.size() < totalCount) {
-            for (HealthTip tip : availableTips) {
-                if (recommendedTips.size() >= limit) break;
-                if (!recommendedTips.contains(tip)) {
-                    recommendedTips.add(tip);
-                }
-            }
-        }
-
-        // Trộn ngẫu nhiên danh sách cuối cùng để tạo sự đa dạng trong hiển thị
-        Collections.shuffle(recommendedTips, random);
-
-        return recommendedTips;
+        DailyRecommendationEntity entity = DailyRecommendationEntity.of(date, summaries);
+        appDatabase.enqueueWrite(() -> appDatabase.dailyRecommendationDao().insertIfAbsent(entity));
     }
 
-    /**
-     * Thêm ngẫu nhiên các bài viết từ một nhóm vào danh sách đề xuất
-     */
-    private void addRandomTipsFromGroup(List<HealthTip> sourceTips, int maxCount,
-                                       List<HealthTip> targetTips, Random random) {
-        if (sourceTips.isEmpty() || maxCount <= 0) return;
-
-        List<HealthTip> availableTips = new ArrayList<>();
-        for (HealthTip tip : sourceTips) {
-            if (!targetTips.contains(tip)) {
-                availableTips.add(tip);
-            }
-        }
-
-        Collections.shuffle(availableTips, random);
-
-        int addCount = Math.min(maxCount, availableTips.size());
-        for (int i = 0; i < addCount; i++) {
-            targetTips.add(availableTips.get(i));
-        }
+    @Override
+    public void getTodayRecommendedHealthTips(int limit, HealthTipCallback callback) {
+        // Gọi phương thức getDailyRecommendedHealthTips với ngày hôm nay (yyyy-MM-dd)
+        getDailyRecommendedHealthTips(DailyRecommendationGenerator.today(), limit, callback);
     }
 }
@@ -0,0 +1,52 @@
+package com.vhn.doan.data.repository;
+
+import com.vhn.doan.data.KnowledgeBaseArticle;
+
+import java.util.List;
+
+/**
+ * Chọn bài knowledge base khớp nhiều từ khóa nhất
+ * (tách khỏi KnowledgeBaseRepositoryImpl.findArticleByKeywords để dùng được ngoài Android)
+ */
+public final class KnowledgeBaseMatcher {
+
+    private KnowledgeBaseMatcher() {
+    }
+
+    /**
+     * @return bài có nhiều từ khóa trùng nhất (không phân biệt hoa thường), null nếu không bài nào đạt ngưỡng
+     */
+    public static KnowledgeBaseArticle findBestMatch(List<KnowledgeBaseArticle> articles, List<String> keywords) {
+        if (articles == null || keywords == null) {
+            return null;
+        }
+
+        KnowledgeBaseArticle bestMatch = null;
+        int maxScore = 0;
+
+        for (KnowledgeBaseArticle article : articles) {
+            int currentScore = 0;
+            if (article.getKeywords() != null) {
+                for (String keyword : keywords) {
+                    for (String articleKeyword : article.getKeywords()) {
+                        if (articleKeyword.equalsIgnoreCase(keyword)) {
+                            currentScore++;
+                        }
+                    }
+                }
+            }
+
+            if (currentScore > maxScore) {
+                maxScore = currentScore;
+                bestMatch = article;
+            }
+        }
+
+        // Only return a match if the score is above a certain threshold.
+        // A score of 1 could be a coincidence. Let's use a threshold of 2,
+        // or 1 if the user's query only has a few keywords.
+        int threshold = (keywords.size() <= 2) ? 1 : 2;
+
+        return maxScore >= threshold ? bestMatch : null;
+    }
+}
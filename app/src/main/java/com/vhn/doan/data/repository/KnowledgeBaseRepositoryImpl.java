@@ -52,36 +52,6 @@ public class KnowledgeBaseRepositoryImpl implements KnowledgeBaseRepository {
             return;
         }
 
-        KnowledgeBaseArticle bestMatch = null;
-        int maxScore = 0;
-
-        for (KnowledgeBaseArticle article : articles) {
-            int currentScore = 0;
-            if (article.getKeywords() != null) {
-                for (String keyword : keywords) {
-                    for (String articleKeyword : article.getKeywords()) {
-                        if (articleKeyword.equalsIgnoreCase(keyword)) {
-                            currentScore++;
-                        }
-                    }
-                }
-            }
-            
-            if (currentScore > maxScore) {
-                maxScore = currentScore;
-                bestMatch = article;
-            }
-        }
-
-        // Only return a match if the score is above a certain threshold.
-        // A score of 1 could be a coincidence. Let's use a threshold of 2,
-        // or 1 if the user's query only has a few keywords.
-        int threshold = (keywords.size() <= 2) ? 1 : 2;
-
-        if (maxScore >= threshold) {
-            callback.onSuccess(bestMatch);
-        } else {
-            callback.onSuccess(null); // Not found
-        }
+        callback.onSuccess(KnowledgeBaseMatcher.findBestMatch(articles, keywords));
     }
 }
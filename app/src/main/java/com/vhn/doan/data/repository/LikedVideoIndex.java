@@ -0,0 +1,308 @@
+package com.vhn.doan.data.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+import com.vhn.doan.data.local.AppDatabase;
+import com.vhn.doan.data.local.dao.VideoDao;
+import com.vhn.doan.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * LikedVideoIndex - Danh sách video đã thích của người dùng hiện tại, giữ trong bộ nhớ
+ *
+ * Nguồn dữ liệu là index theo người dùng users/{uid}/likedVideos/{videoId} = thời điểm thích,
+ * được likeVideo/unlikeVideo ghi cùng videos/{videoId}/likes/{uid} trong một lệnh updateChildren.
+ * Nhờ vậy kiểm tra trạng thái thích và dựng lưới video đã thích chỉ tốn O(số lượt thích)
+ * thay vì đọc likes của mọi video.
+ *
+ * - Index được nạp một lần cho mỗi người dùng; các lần gọi sau trả lời từ bộ nhớ
+ * - Người dùng có lượt thích cũ (trước khi có index) được quét node videos đúng một lần
+ *   để bù index, sau đó đánh dấu users/{uid}/likedVideosIndexed = true
+ * - Khi đã gắn Context, cột is_liked của bảng videos trong Room được đồng bộ theo index
+ *
+ * Các phương thức được gọi trên main thread (callback Firebase cũng chạy trên main thread).
+ */
+public final class LikedVideoIndex {
+
+    private static final String TAG = "LikedVideoIndex";
+
+    private static volatile LikedVideoIndex instance;
+
+    /**
+     * Callback khi index của người dùng đã sẵn sàng
+     */
+    public interface LoadCallback {
+        void onLoaded(Set<String> likedVideoIds);
+        void onError(String errorMessage);
+    }
+
+    private final DatabaseReference videosRef;
+    private final DatabaseReference usersRef;
+
+    // Room để đồng bộ is_liked - null cho tới khi có Context
+    private volatile AppDatabase appDatabase;
+
+    private String loadedUserId;
+    private final Set<String> likedVideoIds = new HashSet<>();
+    // true sau khi index của loadedUserId đã nạp xong
+    private boolean indexReady = false;
+    private boolean loading = false;
+    private final List<LoadCallback> pendingCallbacks = new ArrayList<>();
+
+    private LikedVideoIndex() {
+        FirebaseDatabase database = FirebaseDatabase.getInstance();
+        videosRef = database.getReference(Constants.VIDEOS_REF);
+        usersRef = database.getReference(Constants.USERS_REF);
+    }
+
+    public static LikedVideoIndex getInstance() {
+        if (instance == null) {
+            synchronized (LikedVideoIndex.class) {
+                if (instance == null) {
+                    instance = new LikedVideoIndex();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Lấy instance và bật đồng bộ is_liked xuống Room
+     */
+    public static LikedVideoIndex getInstance(Context context) {
+        LikedVideoIndex index = getInstance();
+        if (index.appDatabase == null && context != null) {
+            index.appDatabase = AppDatabase.getInstance(context.getApplicationContext());
+        }
+        return index;
+    }
+
+    /**
+     * Trạng thái thích từ bộ nhớ
+     * @return null nếu index của userId chưa được nạp
+     */
+    public synchronized Boolean isLiked(String userId, String videoId) {
+        if (!isLoadedFor(userId)) {
+            return null;
+        }
+        return likedVideoIds.contains(videoId);
+    }
+
+    /**
+     * Nạp index của userId (hoặc trả ngay nếu đã nạp)
+     * Các lời gọi trong lúc đang nạp được gom lại và nhận cùng một kết quả
+     */
+    public void load(String userId, LoadCallback callback) {
+        Set<String> snapshot;
+        synchronized (this) {
+            if (isLoadedFor(userId)) {
+                snapshot = new HashSet<>(likedVideoIds);
+            } else {
+                if (!userId.equals(loadedUserId)) {
+                    // Đổi tài khoản - bỏ index của người dùng trước
+                    loadedUserId = userId;
+                    likedVideoIds.clear();
+                    indexReady = false;
+                    loading = false;
+                    pendingCallbacks.clear();
+                }
+                pendingCallbacks.add(callback);
+                if (loading) {
+                    return;
+                }
+                loading = true;
+                snapshot = null;
+            }
+        }
+
+        if (snapshot != null) {
+            callback.onLoaded(snapshot);
+            return;
+        }
+
+        usersRef.child(userId).child(Constants.USER_LIKED_VIDEOS_INDEXED)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(DataSnapshot dataSnapshot) {
+                        if (Boolean.TRUE.equals(dataSnapshot.getValue(Boolean.class))) {
+                            readIndex(userId);
+                        } else {
+                            backfillFromVideos(userId);
+                        }
+                    }
+
+                    @Override
+                    public void onCancelled(DatabaseError databaseError) {
+                        failLoad(userId, databaseError);
+                    }
+                });
+    }
+
+    /**
+     * Cập nhật index sau khi like/unlike đã được Firebase xác nhận
+     */
+    public void markLiked(String userId, String videoId, boolean liked) {
+        synchronized (this) {
+            if (isLoadedFor(userId)) {
+                if (liked) {
+                    likedVideoIds.add(videoId);
+                } else {
+                    likedVideoIds.remove(videoId);
+                }
+            }
+        }
+
+        AppDatabase db = appDatabase;
+        if (db != null) {
+            VideoDao videoDao = db.videoDao();
+            db.enqueueWrite(() -> videoDao.updateLikeStatus(videoId, liked));
+        }
+    }
+
+    /**
+     * Các đường dẫn (tính từ gốc database) cần ghi cho một lượt like/unlike
+     * Dùng với updateChildren để like và index luôn được ghi cùng nhau
+     */
+    public static Map<String, Object> buildLikeUpdate(String videoId, String userId, boolean liked) {
+        Map<String, Object> updates = new HashMap<>();
+        String likePath = Constants.VIDEOS_REF + "/" + videoId + "/" + Constants.VIDEO_LIKES_REF + "/" + userId;
+        String indexPath = Constants.USERS_REF + "/" + userId + "/" + Constants.USER_LIKED_VIDEOS_REF + "/" + videoId;
+        if (liked) {
+            Map<String, Object> likeData = new HashMap<>();
+            likeData.put("timestamp", com.google.firebase.database.ServerValue.TIMESTAMP);
+            updates.put(likePath, likeData);
+            updates.put(indexPath, com.google.firebase.database.ServerValue.TIMESTAMP);
+        } else {
+            updates.put(likePath, null);
+            updates.put(indexPath, null);
+        }
+        return updates;
+    }
+
+    private boolean isLoadedFor(String userId) {
+        return indexReady && userId != null && userId.equals(loadedUserId);
+    }
+
+    private void readIndex(String userId) {
+        usersRef.child(userId).child(Constants.USER_LIKED_VIDEOS_REF)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(DataSnapshot dataSnapshot) {
+                        Set<String> ids = new HashSet<>();
+                        for (DataSnapshot child : dataSnapshot.getChildren()) {
+                            if (child.getKey() != null) {
+                                ids.add(child.getKey());
+                            }
+                        }
+                        finishLoad(userId, ids);
+                    }
+
+                    @Override
+                    public void onCancelled(DatabaseError databaseError) {
+                        failLoad(userId, databaseError);
+                    }
+                });
+    }
+
+    /**
+     * Bù index cho lượt thích cũ: quét node videos một lần rồi ghi toàn bộ index và cờ đã index
+     */
+    private void backfillFromVideos(String userId) {
+        Log.d(TAG, "Backfill liked index cho user: " + userId);
+        videosRef.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                Set<String> ids = new HashSet<>();
+                Map<String, Object> updates = new HashMap<>();
+                for (DataSnapshot videoSnapshot : dataSnapshot.getChildren()) {
+                    DataSnapshot likeSnapshot = videoSnapshot.child(Constants.VIDEO_LIKES_REF).child(userId);
+                    String videoId = videoSnapshot.getKey();
+                    if (videoId != null && likeSnapshot.exists()) {
+                        ids.add(videoId);
+                        Long likedAt = likeSnapshot.child("timestamp").getValue(Long.class);
+                        updates.put(Constants.USER_LIKED_VIDEOS_REF + "/" + videoId,
+                                likedAt != null ? likedAt : System.currentTimeMillis());
+                    }
+                }
+                updates.put(Constants.USER_LIKED_VIDEOS_INDEXED, true);
+                usersRef.child(userId).updateChildren(updates)
+                        .addOnFailureListener(e -> Log.w(TAG, "Không ghi được liked index", e));
+                finishLoad(userId, ids);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                failLoad(userId, databaseError);
+            }
+        });
+    }
+
+    private void finishLoad(String userId, Set<String> ids) {
+        List<LoadCallback> callbacks;
+        Set<String> snapshot;
+        synchronized (this) {
+            if (!userId.equals(loadedUserId)) {
+                return; // Đã đổi tài khoản trong lúc nạp
+            }
+            likedVideoIds.clear();
+            likedVideoIds.addAll(ids);
+            loading = false;
+            indexReady = true;
+            callbacks = new ArrayList<>(pendingCallbacks);
+            pendingCallbacks.clear();
+            snapshot = Collections.unmodifiableSet(new HashSet<>(likedVideoIds));
+        }
+        Log.d(TAG, "Liked index của " + userId + ": " + snapshot.size() + " video");
+
+        mirrorToLocal(snapshot);
+        for (LoadCallback callback : callbacks) {
+            callback.onLoaded(snapshot);
+        }
+    }
+
+    private void failLoad(String userId, DatabaseError databaseError) {
+        List<LoadCallback> callbacks;
+        synchronized (this) {
+            if (!userId.equals(loadedUserId)) {
+                return;
+            }
+            loading = false;
+            callbacks = new ArrayList<>(pendingCallbacks);
+            pendingCallbacks.clear();
+        }
+        Log.e(TAG, "Lỗi khi nạp liked index", databaseError.toException());
+        for (LoadCallback callback : callbacks) {
+            callback.onError(databaseError.getMessage());
+        }
+    }
+
+    /**
+     * Đồng bộ cột is_liked của video đã cache theo index (một transaction)
+     */
+    private void mirrorToLocal(Set<String> ids) {
+        AppDatabase db = appDatabase;
+        if (db == null) {
+            return;
+        }
+        VideoDao videoDao = db.videoDao();
+        db.enqueueWrite(() -> {
+            videoDao.clearLikeStatus();
+            for (String videoId : ids) {
+                videoDao.updateLikeStatus(videoId, true);
+            }
+        });
+    }
+}
@@ -68,7 +68,7 @@ public class NotificationHistoryRepositoryImpl implements NotificationHistoryRep
 
     @Override
     public void getPagedNotifications(String userId, int limit, int offset, RepositoryCallback<List<NotificationHistory>> callback) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        AppDatabase.databaseReadExecutor.execute(() -> {
             try {
                 List<NotificationHistoryEntity> entities = dao.getPagedByUser(userId, limit, offset);
                 List<NotificationHistory> notifications = toModelList(entities);
@@ -174,7 +174,7 @@ public class NotificationHistoryRepositoryImpl implements NotificationHistoryRep
 
     @Override
     public void getCount(String userId, RepositoryCallback<Integer> callback) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        AppDatabase.databaseReadExecutor.execute(() -> {
             try {
                 int count = dao.getCountByUser(userId);
                 callback.onSuccess(count);
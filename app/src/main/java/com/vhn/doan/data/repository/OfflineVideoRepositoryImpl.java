@@ -6,12 +6,16 @@ import android.net.NetworkInfo;
 import android.util.Log;
 
 import com.vhn.doan.data.ShortVideo;
+import com.vhn.doan.data.VideoFeedPage;
 import com.vhn.doan.data.local.AppDatabase;
+import com.vhn.doan.data.local.TrigramSearchIndex;
 import com.vhn.doan.data.local.dao.VideoDao;
 import com.vhn.doan.data.local.entity.VideoEntity;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
@@ -38,6 +42,8 @@ public class OfflineVideoRepositoryImpl implements VideoRepository {
         this.firebaseRepo = new FirebaseVideoRepositoryImpl();
         this.videoDao = AppDatabase.getInstance(context).videoDao();
         this.executor = Executors.newSingleThreadExecutor();
+        // Đồng bộ cột is_liked theo liked index của người dùng
+        LikedVideoIndex.getInstance(context);
     }
 
     @Override
@@ -56,6 +62,58 @@ public class OfflineVideoRepositoryImpl implements VideoRepository {
         }
     }
 
+    @Override
+    public void getFeedPage(String userId, String country, String continuationToken, int pageSize,
+                            VideoPageCallback callback) {
+        boolean isOnline = isNetworkAvailable();
+        boolean firstPage = continuationToken == null;
+        Log.d(TAG, "getFeedPage called - Network: " + (isOnline ? "ONLINE" : "OFFLINE") +
+            ", firstPage: " + firstPage);
+
+        if (!isOnline) {
+            if (firstPage) {
+                // Offline: toàn bộ cache là một trang duy nhất, không có trang tiếp theo
+                loadCacheAsync(new VideoCallback() {
+                    @Override
+                    public void onSuccess(List<ShortVideo> videos) {
+                        callback.onSuccess(new VideoFeedPage(videos, null));
+                    }
+
+                    @Override
+                    public void onError(String errorMessage) {
+                        callback.onError(errorMessage);
+                    }
+                }, false);
+            } else {
+                runOnMainThread(() -> callback.onSuccess(new VideoFeedPage(new ArrayList<>(), null)));
+            }
+            return;
+        }
+
+        firebaseRepo.getFeedPage(userId, country, continuationToken, pageSize, new VideoPageCallback() {
+            @Override
+            public void onSuccess(VideoFeedPage page) {
+                Log.d(TAG, "✅ Firebase page loaded: " + page.getVideos().size() + " videos");
+                callback.onSuccess(page);
+
+                // Trang đầu thay thế cache, các trang sau được nối thêm
+                cacheVideosAsync(page.getVideos(), firstPage);
+            }
+
+            @Override
+            public void onReranked(VideoFeedPage page) {
+                // Cùng tập video, chỉ đổi thứ tự - cache đã có, không cần ghi lại
+                callback.onReranked(page);
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                Log.e(TAG, "❌ Firebase page error: " + errorMessage);
+                callback.onError(errorMessage);
+            }
+        });
+    }
+
     /**
      * Load cache asynchronously
      */
@@ -117,15 +175,25 @@ public class OfflineVideoRepositoryImpl implements VideoRepository {
         Log.d(TAG, "📡 Fetching from Firebase...");
 
         firebaseRepo.getFeed(userId, country, new VideoCallback() {
+            // Lần trả về thứ hai là cùng danh sách được xếp hạng lại theo tín hiệu cá nhân hóa
+            private boolean cached = false;
+
             @Override
             public void onSuccess(List<ShortVideo> videos) {
-                Log.d(TAG, "✅ Firebase loaded: " + videos.size() + " videos");
+                Log.d(TAG, "✅ Firebase loaded: " + videos.size() + " videos" + (cached ? " (xếp hạng lại)" : ""));
 
                 // Callback to UI
                 callback.onSuccess(videos);
 
+                if (cached) {
+                    // Chỉ đổi thứ tự memory cache, không ghi lại Room và index tìm kiếm
+                    reorderMemoryCacheAsync(videos);
+                    return;
+                }
+                cached = true;
+
                 // Cache in background
-                cacheVideosAsync(videos);
+                cacheVideosAsync(videos, true);
             }
 
             @Override
@@ -142,8 +210,10 @@ public class OfflineVideoRepositoryImpl implements VideoRepository {
 
     /**
      * Cache videos to Room database
+     * @param replace true để xóa cache cũ trước khi ghi (feed đầy đủ hoặc trang đầu),
+     *                false để nối thêm một trang tiếp theo
      */
-    private void cacheVideosAsync(List<ShortVideo> videos) {
+    private void cacheVideosAsync(List<ShortVideo> videos, boolean replace) {
         executor.execute(() -> {
             try {
                 long now = System.currentTimeMillis();
@@ -156,10 +226,21 @@ public class OfflineVideoRepositoryImpl implements VideoRepository {
                 }
 
                 // Clear old cache và insert mới
-                videoDao.deleteAll();
+                if (replace) {
+                    videoDao.deleteAll();
+                }
                 videoDao.insertAll(entities);
 
+                // Index trigram không dấu cho tìm kiếm offline
+                TrigramSearchIndex searchIndex = TrigramSearchIndex.getInstance(context);
+                searchIndex.indexVideos(entities);
+
                 // Update memory cache
+                if (!replace && memoryCache != null) {
+                    List<VideoEntity> merged = new ArrayList<>(memoryCache);
+                    merged.addAll(entities);
+                    entities = merged;
+                }
                 memoryCache = entities;
                 lastCacheTime = now;
 
@@ -168,6 +249,7 @@ public class OfflineVideoRepositoryImpl implements VideoRepository {
                 // Cleanup old entries
                 long expiryTime = now - CACHE_EXPIRY_MS;
                 videoDao.deleteOldVideos(expiryTime);
+                searchIndex.pruneOrphans();
 
             } catch (Exception e) {
                 Log.e(TAG, "❌ Error caching videos", e);
@@ -175,6 +257,36 @@ public class OfflineVideoRepositoryImpl implements VideoRepository {
         });
     }
 
+    /**
+     * Sắp xếp memory cache theo thứ tự feed đã xếp hạng lại
+     * Chạy trên cùng executor nên luôn sau lần cacheVideosAsync của feed đó
+     */
+    private void reorderMemoryCacheAsync(List<ShortVideo> ranked) {
+        executor.execute(() -> {
+            if (memoryCache == null || memoryCache.isEmpty()) {
+                return;
+            }
+            Map<String, VideoEntity> byId = new HashMap<>();
+            for (VideoEntity entity : memoryCache) {
+                byId.put(entity.getId(), entity);
+            }
+            List<VideoEntity> reordered = new ArrayList<>(memoryCache.size());
+            for (ShortVideo video : ranked) {
+                VideoEntity entity = byId.remove(video.getId());
+                if (entity != null) {
+                    reordered.add(entity);
+                }
+            }
+            // Video không còn trong danh sách xếp hạng giữ thứ tự cũ ở cuối
+            for (VideoEntity entity : memoryCache) {
+                if (byId.containsKey(entity.getId())) {
+                    reordered.add(entity);
+                }
+            }
+            memoryCache = reordered;
+        });
+    }
+
     @Override
     public List<ShortVideo> getFeed(String userId, String country) {
         // Synchronous version - try cache first, then Firebase
@@ -191,6 +303,32 @@ public class OfflineVideoRepositoryImpl implements VideoRepository {
         return firebaseRepo.getFeed(userId, country);
     }
 
+    /**
+     * Tìm kiếm videos trong cache local qua index trigram không dấu (synchronous)
+     * Dùng khi offline thay cho LIKE '%...%' trên bảng videos
+     */
+    public List<ShortVideo> searchCachedVideos(String keyword, int limit) {
+        List<String> ids = TrigramSearchIndex.getInstance(context)
+                .search(TrigramSearchIndex.DOC_TYPE_VIDEO, keyword, limit);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Giữ đúng thứ tự trả về từ index
+        java.util.Map<String, VideoEntity> byId = new java.util.HashMap<>();
+        for (VideoEntity entity : videoDao.getVideosByIdsSync(ids)) {
+            byId.put(entity.getId(), entity);
+        }
+        List<VideoEntity> ordered = new ArrayList<>();
+        for (String id : ids) {
+            VideoEntity entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return convertToShortVideos(ordered);
+    }
+
     // ==================== DELEGATE TO FIREBASE REPO ====================
 
     @Override
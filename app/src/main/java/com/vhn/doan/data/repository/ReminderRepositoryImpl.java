@@ -28,12 +28,14 @@ public class ReminderRepositoryImpl implements ReminderRepository {
     private final DatabaseReference database;
     private final DatabaseReference remindersRef;
     private final DatabaseReference userRemindersRef;
+    private final BatchLoader<Reminder> reminderBatchLoader;
 
     @Inject
     public ReminderRepositoryImpl() {
         this.database = FirebaseDatabase.getInstance().getReference();
         this.remindersRef = database.child(REMINDERS_NODE);
         this.userRemindersRef = database.child(USER_REMINDERS_NODE);
+        this.reminderBatchLoader = new BatchLoader<>(null, this::fetchReminder);
     }
 
     @Override
@@ -273,38 +275,35 @@ public class ReminderRepositoryImpl implements ReminderRepository {
 
     /**
      * Helper method để lấy chi tiết nhiều reminder theo IDs
+     * Tải theo lô với số request đồng thời giới hạn thay vì mở một listener cho mỗi ID cùng lúc
      */
     private void fetchRemindersByIds(List<String> reminderIds, RepositoryCallback<List<Reminder>> callback) {
-        List<Reminder> reminders = new ArrayList<>();
-        final int[] pendingRequests = {reminderIds.size()};
-
-        for (String reminderId : reminderIds) {
-            remindersRef.child(reminderId).addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot dataSnapshot) {
-                    if (dataSnapshot.exists()) {
-                        Reminder reminder = dataSnapshot.getValue(Reminder.class);
-                        if (reminder != null) {
-                            reminders.add(reminder);
-                        }
-                    }
+        reminderBatchLoader.load(reminderIds, result -> {
+            if (result.items.isEmpty() && result.isPartial()) {
+                callback.onError("Lỗi khi lấy chi tiết nhắc nhở");
+                return;
+            }
+            List<Reminder> reminders = new ArrayList<>(result.items);
+            // Sắp xếp theo thời gian tạo (mới nhất trước)
+            reminders.sort((r1, r2) -> Long.compare(r2.getCreatedAt(), r1.getCreatedAt()));
+            callback.onSuccess(reminders);
+        });
+    }
 
-                    pendingRequests[0]--;
-                    if (pendingRequests[0] == 0) {
-                        // Sắp xếp theo thời gian tạo (mới nhất trước)
-                        reminders.sort((r1, r2) -> Long.compare(r2.getCreatedAt(), r1.getCreatedAt()));
-                        callback.onSuccess(reminders);
-                    }
-                }
+    /**
+     * Tải một reminder theo ID cho BatchLoader (không có cache Room cho reminders)
+     */
+    private void fetchReminder(String reminderId, RepositoryCallback<Reminder> callback) {
+        remindersRef.child(reminderId).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot dataSnapshot) {
+                callback.onSuccess(dataSnapshot.exists() ? dataSnapshot.getValue(Reminder.class) : null);
+            }
 
-                @Override
-                public void onCancelled(DatabaseError databaseError) {
-                    pendingRequests[0]--;
-                    if (pendingRequests[0] == 0) {
-                        callback.onError("Lỗi khi lấy chi tiết nhắc nhở: " + databaseError.getMessage());
-                    }
-                }
-            });
-        }
+            @Override
+            public void onCancelled(DatabaseError databaseError) {
+                callback.onError(databaseError.getMessage());
+            }
+        });
     }
 }
@@ -0,0 +1,216 @@
+package com.vhn.doan.data.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RequestCoalescer - Gộp các request đọc giống hệt nhau đang chạy đồng thời (single-flight)
+ *
+ * Các request cùng key (tên method + tham số) đến trong lúc một request đang chạy sẽ không
+ * mở thêm listener Firebase/truy vấn Room, mà chỉ đăng ký callback vào request đang chạy:
+ * - Chỉ gộp khi request chưa trả kết quả nào; kết quả đầu tiên (hoặc lỗi) đóng request,
+ *   request cùng key đến sau đó sẽ chạy operation mới - không phát lại kết quả cũ
+ * - Mọi kết quả của operation (cache Room rồi dữ liệu Firebase) được gửi theo đúng thứ tự
+ *   tới tất cả callback đã gộp trước khi request đóng
+ * - Request bị đóng nếu quá MAX_FLIGHT_MILLIS mà chưa có kết quả (operation không bao giờ gọi callback)
+ *
+ * Kết quả dạng List được sao chép nông cho từng callback để các presenter sửa list không ảnh hưởng nhau.
+ */
+public final class RequestCoalescer {
+
+    private static final String TAG = "RequestCoalescer";
+
+    // Thời gian tối đa một request chưa có kết quả được giữ để gộp
+    private static final long MAX_FLIGHT_MILLIS = 15_000L;
+
+    /**
+     * Thao tác đọc thực sự - chỉ được chạy một lần cho mỗi nhóm request trùng nhau
+     */
+    public interface Operation<T> {
+        void execute(RepositoryCallback<T> callback);
+    }
+
+    private static RequestCoalescer instance;
+
+    private final Map<String, Flight<?>> inFlight = new HashMap<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong executedCount = new AtomicLong();
+    private final AtomicLong deduplicatedCount = new AtomicLong();
+
+    private RequestCoalescer() {
+    }
+
+    /**
+     * Singleton instance
+     */
+    public static synchronized RequestCoalescer getInstance() {
+        if (instance == null) {
+            instance = new RequestCoalescer();
+        }
+        return instance;
+    }
+
+    /**
+     * Tạo key cho request từ tên method và tham số
+     */
+    public static String key(String method, Object... args) {
+        return args == null || args.length == 0 ? method : method + Arrays.deepToString(args);
+    }
+
+    /**
+     * Chạy operation, hoặc gắn callback vào operation cùng key đang chạy
+     *
+     * @param key Key của request (xem {@link #key(String, Object...)})
+     * @param operation Thao tác đọc thực sự
+     * @param callback Callback của người gọi
+     */
+    public <T> void execute(String key, Operation<T> operation, RepositoryCallback<T> callback) {
+        requestCount.incrementAndGet();
+
+        Flight<T> flight;
+        synchronized (inFlight) {
+            @SuppressWarnings("unchecked")
+            Flight<T> existing = (Flight<T>) inFlight.get(key);
+            if (existing != null) {
+                deduplicatedCount.incrementAndGet();
+                Log.d(TAG, "Coalesced request: " + key);
+                existing.join(callback);
+                return;
+            }
+            flight = new Flight<>(key);
+            flight.join(callback);
+            inFlight.put(key, flight);
+        }
+
+        executedCount.incrementAndGet();
+        mainHandler.postDelayed(flight.expireRunnable, MAX_FLIGHT_MILLIS);
+        try {
+            operation.execute(flight);
+        } catch (Exception e) {
+            Log.e(TAG, "Operation failed: " + key, e);
+            flight.onError(e.getMessage());
+        }
+    }
+
+    /**
+     * Số request đang được gộp
+     */
+    public int getInFlightCount() {
+        synchronized (inFlight) {
+            return inFlight.size();
+        }
+    }
+
+    /**
+     * Lấy thống kê gộp request
+     */
+    public CoalescerStats getStats() {
+        return new CoalescerStats(requestCount.get(), executedCount.get(), deduplicatedCount.get());
+    }
+
+    /**
+     * Reset bộ đếm thống kê
+     */
+    public void resetStats() {
+        requestCount.set(0);
+        executedCount.set(0);
+        deduplicatedCount.set(0);
+    }
+
+    private void finish(Flight<?> flight) {
+        synchronized (inFlight) {
+            if (inFlight.get(flight.key) == flight) {
+                inFlight.remove(flight.key);
+            }
+        }
+        mainHandler.removeCallbacks(flight.expireRunnable);
+    }
+
+    /**
+     * Một request đang chạy cùng các callback đã đăng ký
+     */
+    private final class Flight<T> implements RepositoryCallback<T> {
+        private final String key;
+        private final List<RepositoryCallback<T>> callbacks = new ArrayList<>();
+        private final Runnable expireRunnable = () -> finish(this);
+
+        Flight(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Chỉ được gọi khi flight còn trong inFlight (giữ lock inFlight) - tức là chưa có kết quả
+         */
+        void join(RepositoryCallback<T> callback) {
+            synchronized (this) {
+                callbacks.add(callback);
+            }
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            // Đóng request trước khi gửi kết quả: callback đến sau sẽ tự chạy operation mới
+            // thay vì nhận lại kết quả cũ (có thể là cache Room đến sau dữ liệu Firebase)
+            finish(this);
+            List<RepositoryCallback<T>> targets;
+            synchronized (this) {
+                targets = new ArrayList<>(callbacks);
+            }
+
+            for (int i = 0; i < targets.size(); i++) {
+                targets.get(i).onSuccess(i == 0 ? result : copyOf(result));
+            }
+        }
+
+        @Override
+        public void onError(String error) {
+            // Đóng request ngay để lần gọi sau được thử lại
+            finish(this);
+            List<RepositoryCallback<T>> targets;
+            synchronized (this) {
+                targets = new ArrayList<>(callbacks);
+            }
+            for (RepositoryCallback<T> callback : targets) {
+                callback.onError(error);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private T copyOf(T result) {
+            if (result instanceof List) {
+                return (T) new ArrayList<>((List<?>) result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Thống kê gộp request
+     */
+    public static class CoalescerStats {
+        public final long requestCount;
+        public final long executedCount;
+        public final long deduplicatedCount;
+
+        public CoalescerStats(long requestCount, long executedCount, long deduplicatedCount) {
+            this.requestCount = requestCount;
+            this.executedCount = executedCount;
+            this.deduplicatedCount = deduplicatedCount;
+        }
+
+        public double getDeduplicatedPercent() {
+            if (requestCount == 0) return 0;
+            return (deduplicatedCount * 100.0) / requestCount;
+        }
+    }
+}
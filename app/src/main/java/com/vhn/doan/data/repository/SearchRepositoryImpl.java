@@ -1,5 +1,10 @@
 package com.vhn.doan.data.repository;
 
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
 import androidx.annotation.NonNull;
 
 import com.google.firebase.database.DataSnapshot;
@@ -9,9 +14,14 @@ import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.Query;
 import com.google.firebase.database.ValueEventListener;
 import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.HealthTipDeserializer;
 import com.vhn.doan.data.SearchHistory;
 import com.vhn.doan.data.ShortVideo;
+import com.vhn.doan.data.local.AppDatabase;
+import com.vhn.doan.data.local.HealthTipSearchIndex;
 import com.vhn.doan.utils.Constants;
+import com.vhn.doan.utils.NetworkUtils;
+import com.vhn.doan.utils.VietnameseTextNormalizer;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -22,10 +32,32 @@ import java.util.Map;
  * Implementation của SearchRepository để thực hiện các thao tác tìm kiếm qua Firebase
  */
 public class SearchRepositoryImpl implements SearchRepository {
+    private static final String TAG = "SearchRepositoryImpl";
+
     private final DatabaseReference mDatabase;
+    private final Context context;
+    private final HealthTipSearchIndex searchIndex;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private OfflineVideoRepositoryImpl offlineVideoRepository;
+
+    /**
+     * Constructor với Context để tìm kiếm qua index FTS trong Room
+     */
+    public SearchRepositoryImpl(Context context) {
+        mDatabase = FirebaseDatabase.getInstance().getReference();
+        this.context = context.getApplicationContext();
+        this.searchIndex = HealthTipSearchIndex.getInstance(this.context);
+    }
 
+    /**
+     * Constructor mặc định (để tương thích ngược) - luôn tìm kiếm trên Firebase
+     * @deprecated Sử dụng constructor với Context thay thế
+     */
+    @Deprecated
     public SearchRepositoryImpl() {
         mDatabase = FirebaseDatabase.getInstance().getReference();
+        this.context = null;
+        this.searchIndex = null;
     }
 
     @Override
@@ -35,37 +67,75 @@ public class SearchRepositoryImpl implements SearchRepository {
             return;
         }
 
+        if (searchIndex == null) {
+            searchHealthTipsRemote(keyword, callback);
+            return;
+        }
+
+        boolean isOnline = NetworkUtils.isNetworkAvailable(context);
+
+        // Tìm trong index FTS local trước, chỉ gọi Firebase khi index đã cũ
+        AppDatabase.databaseReadExecutor.execute(() -> {
+            try {
+                if (!isOnline || !searchIndex.isStale()) {
+                    List<HealthTip> results = searchIndex.search(keyword, HealthTipSearchIndex.DEFAULT_SEARCH_LIMIT);
+                    mainHandler.post(() -> callback.onSuccess(results));
+                    return;
+                }
+                Log.d(TAG, "Search index is stale - falling back to Firebase search");
+            } catch (Exception e) {
+                Log.e(TAG, "Error searching local index: " + e.getMessage(), e);
+            }
+            mainHandler.post(() -> searchHealthTipsRemote(keyword, callback));
+        });
+    }
+
+    /**
+     * Tìm kiếm bài viết bằng cách quét node health_tips trên Firebase
+     * Chỉ dùng khi index local chưa sẵn sàng hoặc đã cũ
+     */
+    private void searchHealthTipsRemote(String keyword, RepositoryCallback<List<HealthTip>> callback) {
         // Chuyển keyword về lowercase để tìm kiếm không phân biệt hoa thường
         final String searchKeyword = keyword.toLowerCase().trim();
 
-        System.out.println("===== TÌM KIẾM BÀI VIẾT =====");
-        System.out.println("Từ khóa tìm kiếm: " + searchKeyword);
+        Log.d(TAG, "===== TÌM KIẾM BÀI VIẾT =====");
+        Log.d(TAG, "Từ khóa tìm kiếm: " + searchKeyword);
 
         // LƯU Ý: Sử dụng node "health_tips" đúng với cấu trúc Firebase (thay vì "healthTips")
         DatabaseReference healthTipsRef = mDatabase.child("health_tips");
-        System.out.println("Đang truy cập node Firebase: " + healthTipsRef.toString());
+        Log.d(TAG, "Đang truy cập node Firebase: " + healthTipsRef.toString());
+
+        // Chờ từ điển danh mục sẵn sàng (thường đã có từ trước) để gán tên danh mục cho kết quả
+        CategoryRepositoryImpl.ensureCategoryDictionary(context,
+                loaded -> scanHealthTipsRemote(healthTipsRef, searchKeyword, callback));
+    }
 
+    private void scanHealthTipsRemote(DatabaseReference healthTipsRef, String searchKeyword,
+                                      RepositoryCallback<List<HealthTip>> callback) {
         healthTipsRef.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
                 List<HealthTip> results = new ArrayList<>();
-                System.out.println("Tổng số bài viết trong cơ sở dữ liệu: " + dataSnapshot.getChildrenCount());
+                Log.d(TAG, "Tổng số bài viết trong cơ sở dữ liệu: " + dataSnapshot.getChildrenCount());
 
                 for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
                     try {
-                        System.out.println("Đang xử lý snapshot key: " + snapshot.getKey());
+                        Log.d(TAG, "Đang xử lý snapshot key: " + snapshot.getKey());
 
-                        HealthTip healthTip = snapshot.getValue(HealthTip.class);
+                        HealthTip healthTip = HealthTipDeserializer.fromDataSnapshot(snapshot);
                         if (healthTip != null) {
                             // Đảm bảo ID được set từ key của Firebase
                             String healthTipId = snapshot.getKey();
                             healthTip.setId(healthTipId);
-                            System.out.println("Bài viết có ID: " + healthTipId + ", title: " + healthTip.getTitle());
+                            Log.d(TAG, "Bài viết có ID: " + healthTipId + ", title: " + healthTip.getTitle());
 
                             // Xử lý dữ liệu null và validate dữ liệu
                             if (healthTip.getTitle() == null) healthTip.setTitle("");
                             if (healthTip.getContent() == null) healthTip.setContent("");
-                            if (healthTip.getCategoryName() == null) healthTip.setCategoryName("");
+                            if (healthTip.getCategoryName() == null) {
+                                String dictionaryName = CategoryRepositoryImpl.getCategoryName(healthTip.getCategoryId());
+                                healthTip.setCategoryName(dictionaryName != null ? dictionaryName : "");
+                            }
 
                             String title = healthTip.getTitle().toLowerCase();
                             String content = healthTip.getContent().toLowerCase();
@@ -77,7 +147,7 @@ public class SearchRepositoryImpl implements SearchRepository {
                             boolean matchesCategory = !categoryName.isEmpty() && categoryName.contains(searchKeyword);
 
                             if (matchesTitle || matchesContent || matchesCategory) {
-                                System.out.println("Tìm thấy bài viết phù hợp: " + title);
+                                Log.d(TAG, "Tìm thấy bài viết phù hợp: " + title);
 
                                 // Tải thông tin category name nếu cần
                                 loadCategoryNameForHealthTip(healthTip);
@@ -85,69 +155,70 @@ public class SearchRepositoryImpl implements SearchRepository {
                                 results.add(healthTip);
                             }
                         } else {
-                            System.out.println("Không thể parse bài viết từ snapshot (null)");
+                            Log.d(TAG, "Không thể parse bài viết từ snapshot (null)");
                         }
                     } catch (Exception e) {
-                        System.out.println("Lỗi khi phân tích bài viết: " + e.getMessage());
-                        e.printStackTrace();
+                        Log.w(TAG, "Lỗi khi phân tích bài viết: " + e.getMessage(), e);
                     }
                 }
 
-                System.out.println("Tổng số kết quả tìm kiếm: " + results.size());
+                Log.d(TAG, "Tổng số kết quả tìm kiếm: " + results.size());
                 callback.onSuccess(results);
             }
 
             @Override
             public void onCancelled(@NonNull DatabaseError databaseError) {
-                System.out.println("Lỗi khi tìm kiếm bài viết: " + databaseError.getMessage());
+                Log.e(TAG, "Lỗi khi tìm kiếm bài viết: " + databaseError.getMessage());
                 callback.onError(databaseError.getMessage());
             }
         });
     }
 
     /**
-     * Helper method để load category name cho bài viết
+     * Helper method để gán category name cho bài viết từ từ điển danh mục dùng chung
+     * (tra cứu O(1) trong bộ nhớ thay vì một lần đọc Firebase cho mỗi kết quả)
      */
     private void loadCategoryNameForHealthTip(HealthTip healthTip) {
-        if (healthTip.getCategoryId() == null || healthTip.getCategoryId().isEmpty()) {
-            healthTip.setCategoryName("Chưa phân loại");
-            return;
-        }
-
-        // Nếu đã có categoryName thì không cần load lại
+        // Nếu đã có categoryName thì không cần gán lại
         if (healthTip.getCategoryName() != null && !healthTip.getCategoryName().isEmpty()) {
             return;
         }
+        healthTip.setCategoryName(CategoryRepositoryImpl.getCategoryNameOrDefault(healthTip.getCategoryId()));
+    }
 
-        // Tải category name bất đồng bộ - không cần đợi kết quả ngay lập tức
-        // vì kết quả tìm kiếm sẽ được hiển thị trước
-        mDatabase.child("categories").child(healthTip.getCategoryId()).addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                if (dataSnapshot.exists() && dataSnapshot.hasChild("name")) {
-                    String categoryName = dataSnapshot.child("name").getValue(String.class);
-                    if (categoryName != null && !categoryName.isEmpty()) {
-                        healthTip.setCategoryName(categoryName);
-                    } else {
-                        healthTip.setCategoryName("Chưa phân loại");
-                    }
-                } else {
-                    healthTip.setCategoryName("Chưa phân loại");
-                }
-            }
-
-            @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
-                healthTip.setCategoryName("Chưa phân loại");
-            }
-        });
+    /**
+     * Khởi tạo lazy repository video offline (chỉ cần khi tìm kiếm lúc không có mạng)
+     */
+    private synchronized OfflineVideoRepositoryImpl getOfflineVideoRepository() {
+        if (offlineVideoRepository == null) {
+            offlineVideoRepository = new OfflineVideoRepositoryImpl(context);
+        }
+        return offlineVideoRepository;
     }
 
     @Override
     public void searchVideos(String keyword, RepositoryCallback<List<ShortVideo>> callback) {
-        // Chuyển keyword về lowercase để tìm kiếm không phân biệt hoa thường
-        keyword = keyword.toLowerCase();
-        final String searchKeyword = keyword;
+        // Offline: tìm trong cache videos qua index trigram không dấu
+        if (context != null && keyword != null && !NetworkUtils.isNetworkAvailable(context)) {
+            AppDatabase.databaseReadExecutor.execute(() -> {
+                try {
+                    List<ShortVideo> results = getOfflineVideoRepository()
+                            .searchCachedVideos(keyword, HealthTipSearchIndex.DEFAULT_SEARCH_LIMIT);
+                    mainHandler.post(() -> callback.onSuccess(results));
+                } catch (Exception e) {
+                    Log.e(TAG, "Error searching cached videos: " + e.getMessage(), e);
+                    mainHandler.post(() -> callback.onSuccess(new ArrayList<>()));
+                }
+            });
+            return;
+        }
+
+        // Chuẩn hóa không dấu giống index offline: "suc khoe" khớp "Sức Khỏe"
+        final String searchKeyword = VietnameseTextNormalizer.normalize(keyword);
+        if (searchKeyword.isEmpty()) {
+            callback.onSuccess(new ArrayList<>());
+            return;
+        }
 
         // Tìm kiếm trong tất cả video
         Query query = mDatabase.child("videos");
@@ -160,17 +231,17 @@ public class SearchRepositoryImpl implements SearchRepository {
                     ShortVideo video = snapshot.getValue(ShortVideo.class);
                     if (video != null) {
                         // Tìm kiếm trong title, caption, tags
-                        boolean matchesTitle = video.getTitle() != null &&
-                                video.getTitle().toLowerCase().contains(searchKeyword);
-                        boolean matchesCaption = video.getCaption() != null &&
-                                video.getCaption().toLowerCase().contains(searchKeyword);
+                        boolean matchesTitle = VietnameseTextNormalizer.normalize(video.getTitle())
+                                .contains(searchKeyword);
+                        boolean matchesCaption = VietnameseTextNormalizer.normalize(video.getCaption())
+                                .contains(searchKeyword);
                         boolean matchesTags = false;
 
                         // Tìm trong tags
                         Map<String, Boolean> tags = video.getTags();
                         if (tags != null) {
                             for (String tag : tags.keySet()) {
-                                if (tag.toLowerCase().contains(searchKeyword)) {
+                                if (VietnameseTextNormalizer.normalize(tag).contains(searchKeyword)) {
                                     matchesTags = true;
                                     break;
                                 }
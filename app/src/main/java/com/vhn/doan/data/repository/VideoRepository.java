@@ -2,6 +2,7 @@ package com.vhn.doan.data.repository;
 
 import com.vhn.doan.data.ShortVideo;
 import com.vhn.doan.data.VideoComment;
+import com.vhn.doan.data.VideoFeedPage;
 
 import java.util.List;
 
@@ -28,6 +29,22 @@ public interface VideoRepository {
         void onError(String errorMessage);
     }
 
+    /**
+     * Interface callback cho một trang feed video
+     */
+    interface VideoPageCallback {
+        void onSuccess(VideoFeedPage page);
+        void onError(String errorMessage);
+
+        /**
+         * Trang đã trả về được xếp hạng lại khi tín hiệu cá nhân hóa về sau danh sách video
+         * @param page cùng cửa sổ video (cùng continuation token) theo thứ tự mới
+         */
+        default void onReranked(VideoFeedPage page) {
+            // Mặc định giữ thứ tự đã hiển thị
+        }
+    }
+
     /**
      * Interface callback cho single video
      */
@@ -64,6 +81,8 @@ public interface VideoRepository {
 
     /**
      * Lấy feed video cho người dùng dựa trên preferences và trending
+     * onSuccess có thể được gọi hai lần: ngay khi danh sách video về (xếp hạng với tín hiệu sẵn có),
+     * rồi một lần nữa khi tín hiệu cá nhân hóa về sau
      * @param userId ID của người dùng để lấy preferences
      * @param country Quốc gia để lấy trending videos
      * @param callback Callback để nhận kết quả
@@ -80,6 +99,18 @@ public interface VideoRepository {
     @Deprecated
     List<ShortVideo> getFeed(String userId, String country);
 
+    /**
+     * Lấy một trang feed video: tải một cửa sổ pageSize video ứng viên (mới nhất trước)
+     * rồi xếp hạng theo preferences, trending và lịch sử xem của người dùng
+     * @param userId ID của người dùng để lấy preferences
+     * @param country Quốc gia để lấy trending videos
+     * @param continuationToken token của trang trước (VideoFeedPage.getContinuationToken), null cho trang đầu
+     * @param pageSize số video ứng viên mỗi trang
+     * @param callback Callback để nhận trang kết quả
+     */
+    void getFeedPage(String userId, String country, String continuationToken, int pageSize,
+                     VideoPageCallback callback);
+
     /**
      * Lấy thông tin chi tiết của một video
      * @param videoId ID của video
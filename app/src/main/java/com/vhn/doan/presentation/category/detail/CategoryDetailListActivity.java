@@ -12,18 +12,25 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
+import androidx.paging.LoadState;
+import androidx.paging.PagingData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.vhn.doan.R;
 import com.vhn.doan.data.Category;
 import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.repository.HealthTipRepository;
+import com.vhn.doan.data.repository.HealthTipRepositoryImpl;
 import com.vhn.doan.presentation.healthtip.detail.HealthTipDetailActivity;
+import com.vhn.doan.presentation.home.adapter.HealthTipPrefetchScheduler;
 import com.vhn.doan.services.FirebaseManager;
 import com.vhn.doan.utils.Constants;
 
 import java.util.List;
 
+import kotlin.Unit;
+
 /**
  * Activity hiển thị danh sách các mẹo sức khỏe theo danh mục
  */
@@ -33,6 +40,8 @@ public class CategoryDetailListActivity extends AppCompatActivity implements Cat
 
     private CategoryDetailListPresenter presenter;
     private HealthTipAdapter adapter;
+    private HealthTipRepository healthTipRepository;
+    private HealthTipPrefetchScheduler prefetchScheduler;
 
     private RecyclerView recyclerViewHealthTips;
     private ProgressBar progressBarLoading;
@@ -60,6 +69,7 @@ public class CategoryDetailListActivity extends AppCompatActivity implements Cat
         // Khởi tạo views
         initViews();
         setupToolbar();
+        healthTipRepository = new HealthTipRepositoryImpl(this);
         setupRecyclerView();
         setupPresenter();
 
@@ -114,11 +124,38 @@ public class CategoryDetailListActivity extends AppCompatActivity implements Cat
         adapter = new HealthTipAdapter(this, this);
         recyclerViewHealthTips.setLayoutManager(new LinearLayoutManager(this));
         recyclerViewHealthTips.setAdapter(adapter);
+        // Dừng cuộn → làm nóng chi tiết/ảnh của các tip đang hiển thị
+        prefetchScheduler = HealthTipPrefetchScheduler.attach(recyclerViewHealthTips, healthTipRepository);
+
+        // Trạng thái loading/empty cho chế độ phân trang
+        adapter.addLoadStateListener(loadStates -> {
+            boolean refreshing = loadStates.getRefresh() instanceof LoadState.Loading;
+            boolean isEmpty = adapter.getItemCount() == 0;
+            if (refreshing && isEmpty) {
+                return Unit.INSTANCE;
+            }
+
+            showLoading(false);
+            if (isEmpty && loadStates.getAppend().getEndOfPaginationReached()) {
+                showEmptyState();
+            } else if (!isEmpty) {
+                recyclerViewHealthTips.setVisibility(View.VISIBLE);
+                layoutEmpty.setVisibility(View.GONE);
+                prefetchScheduler.schedule();
+
+                // Cuộn đến mẹo sức khỏe được chọn (nếu đã nằm trong các trang đã tải)
+                if (selectedHealthTipId != null && findHealthTipPosition(selectedHealthTipId) != -1) {
+                    scrollToHealthTip(selectedHealthTipId);
+                    selectedHealthTipId = null;
+                }
+            }
+            return Unit.INSTANCE;
+        });
     }
 
     private void setupPresenter() {
         FirebaseManager firebaseManager = new FirebaseManager();
-        presenter = new CategoryDetailListPresenterImpl(firebaseManager);
+        presenter = new CategoryDetailListPresenterImpl(firebaseManager, healthTipRepository);
         presenter.attachView(this);
     }
 
@@ -128,6 +165,9 @@ public class CategoryDetailListActivity extends AppCompatActivity implements Cat
         if (presenter != null) {
             presenter.detachView();
         }
+        if (prefetchScheduler != null) {
+            prefetchScheduler.detach();
+        }
     }
 
     // Implementation của CategoryDetailListView interface
@@ -137,6 +177,7 @@ public class CategoryDetailListActivity extends AppCompatActivity implements Cat
             adapter.updateHealthTips(healthTips);
             recyclerViewHealthTips.setVisibility(View.VISIBLE);
             layoutEmpty.setVisibility(View.GONE);
+            prefetchScheduler.schedule();
 
             // Cuộn đến mẹo sức khỏe được chọn nếu có
             if (selectedHealthTipId != null) {
@@ -147,6 +188,11 @@ public class CategoryDetailListActivity extends AppCompatActivity implements Cat
         }
     }
 
+    @Override
+    public void displayHealthTipPage(PagingData<HealthTip> pagingData) {
+        adapter.submitPagingData(getLifecycle(), pagingData);
+    }
+
     @Override
     public void displayCategoryDetails(Category category) {
         if (category != null && textViewCategoryTitle != null) {
@@ -5,27 +5,33 @@ import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.ValueEventListener;
 import com.vhn.doan.data.Category;
-import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.repository.HealthTipRepository;
 import com.vhn.doan.services.FirebaseManager;
 import com.vhn.doan.utils.Constants;
 
-import java.util.ArrayList;
-import java.util.List;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
 
 /**
  * Implementation của CategoryDetailListPresenter
  */
 public class CategoryDetailListPresenterImpl implements CategoryDetailListPresenter {
 
+    private static final int PAGE_SIZE = 20;
+
     private CategoryDetailListView view;
     private FirebaseManager firebaseManager;
+    private final HealthTipRepository healthTipRepository;
+    private final CompositeDisposable pagingDisposable = new CompositeDisposable();
 
     /**
-     * Constructor nhận FirebaseManager từ DI
+     * Constructor nhận FirebaseManager và HealthTipRepository từ DI
      * @param firebaseManager Manager quản lý giao tiếp với Firebase
+     * @param healthTipRepository Repository cung cấp danh sách mẹo sức khỏe phân trang
      */
-    public CategoryDetailListPresenterImpl(FirebaseManager firebaseManager) {
+    public CategoryDetailListPresenterImpl(FirebaseManager firebaseManager, HealthTipRepository healthTipRepository) {
         this.firebaseManager = firebaseManager;
+        this.healthTipRepository = healthTipRepository;
     }
 
     @Override
@@ -36,6 +42,7 @@ public class CategoryDetailListPresenterImpl implements CategoryDetailListPresen
     @Override
     public void detachView() {
         this.view = null;
+        pagingDisposable.clear();
     }
 
     @Override
@@ -44,51 +51,23 @@ public class CategoryDetailListPresenterImpl implements CategoryDetailListPresen
 
         view.showLoading(true);
 
-        firebaseManager.getDatabaseReference()
-                .child(Constants.HEALTH_TIPS_REF)
-                .orderByChild("categoryId")
-                .equalTo(categoryId)
-                .addValueEventListener(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                        // Null check quan trọng trong callback - sử dụng local reference để tránh race condition
-                        CategoryDetailListView currentView = view;
-                        if (currentView == null) return;
-
-                        currentView.showLoading(false);
-
-                        if (dataSnapshot.exists()) {
-                            List<HealthTip> healthTips = new ArrayList<>();
-                            for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                                HealthTip healthTip = snapshot.getValue(HealthTip.class);
-                                if (healthTip != null) {
-                                    healthTip.setId(snapshot.getKey());
-                                    healthTips.add(healthTip);
-                                }
-                            }
-
-                            // Double check view vẫn còn tồn tại trước khi cập nhật UI
-                            if (view != null) {
-                                view.displayHealthTips(healthTips);
-                            }
-                        } else {
-                            // Double check view vẫn còn tồn tại trước khi hiển thị empty state
-                            if (view != null) {
-                                view.showEmptyState();
-                            }
-                        }
-                    }
-
-                    @Override
-                    public void onCancelled(@NonNull DatabaseError databaseError) {
-                        // Null check quan trọng trong callback onCancelled
-                        CategoryDetailListView currentView = view;
-                        if (currentView == null) return;
-
-                        currentView.showLoading(false);
-                        currentView.showError("Lỗi khi tải dữ liệu: " + databaseError.getMessage());
-                    }
-                });
+        // Phân trang keyset từ Room (+ Firebase khi cần) thay vì giữ listener trên cả danh mục
+        pagingDisposable.clear();
+        pagingDisposable.add(healthTipRepository.getHealthTipsPagingData(categoryId, PAGE_SIZE)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(pagingData -> {
+                    // Null check quan trọng trong callback - sử dụng local reference để tránh race condition
+                    CategoryDetailListView currentView = view;
+                    if (currentView == null) return;
+
+                    currentView.displayHealthTipPage(pagingData);
+                }, error -> {
+                    CategoryDetailListView currentView = view;
+                    if (currentView == null) return;
+
+                    currentView.showLoading(false);
+                    currentView.showError("Lỗi khi tải dữ liệu: " + error.getMessage());
+                }));
     }
 
     @Override
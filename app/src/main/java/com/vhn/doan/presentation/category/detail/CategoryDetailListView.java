@@ -1,5 +1,7 @@
 package com.vhn.doan.presentation.category.detail;
 
+import androidx.paging.PagingData;
+
 import com.vhn.doan.data.Category;
 import com.vhn.doan.data.HealthTip;
 import com.vhn.doan.presentation.base.BaseView;
@@ -18,6 +20,12 @@ public interface CategoryDetailListView extends BaseView {
      */
     void displayHealthTips(List<HealthTip> healthTips);
 
+    /**
+     * Hiển thị danh sách mẹo sức khỏe dạng phân trang (cuộn không giới hạn)
+     * @param pagingData Dữ liệu phân trang từ HealthTipRepository
+     */
+    void displayHealthTipPage(PagingData<HealthTip> pagingData);
+
     /**
      * Hiển thị thông tin chi tiết danh mục
      * @param category Thông tin danh mục
@@ -9,6 +9,9 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.PagingData;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
@@ -18,6 +21,8 @@ import com.vhn.doan.R;
 import com.vhn.doan.data.HealthTip;
 import com.vhn.doan.data.repository.FavoriteRepository;
 import com.vhn.doan.data.repository.FavoriteRepositoryImpl;
+import com.vhn.doan.presentation.home.adapter.HealthTipPagingHelper;
+import com.vhn.doan.presentation.home.adapter.PrefetchableHealthTipAdapter;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -27,19 +32,26 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 
+import kotlin.Unit;
+import kotlin.jvm.functions.Function1;
+
 /**
  * Adapter hiển thị danh sách mẹo sức khỏe trong RecyclerView
  * Đã được cập nhật để hỗ trợ chức năng yêu thích
  */
-public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.HealthTipViewHolder> {
+public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.HealthTipViewHolder>
+        implements PrefetchableHealthTipAdapter {
 
-    private List<HealthTip> healthTips = new ArrayList<>();
+    private final List<HealthTip> healthTips = new ArrayList<>();
     private final Context context;
     private final HealthTipClickListener listener;
     private final FavoriteRepository favoriteRepository;
     private final FirebaseAuth firebaseAuth;
     private final Set<String> favoriteHealthTipIds; // Cache để theo dõi trạng thái yêu thích
 
+    // Chế độ phân trang (Paging 3) dùng chung với adapter ở màn hình chính
+    private final HealthTipPagingHelper pagingHelper;
+
     /**
      * Interface để xử lý sự kiện khi nhấp vào mẹo sức khỏe
      * Đã thống nhất với home adapter
@@ -60,6 +72,7 @@ public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.Heal
         this.favoriteRepository = new FavoriteRepositoryImpl(context);
         this.firebaseAuth = FirebaseAuth.getInstance();
         this.favoriteHealthTipIds = new HashSet<>();
+        this.pagingHelper = new HealthTipPagingHelper(this, healthTips);
 
         // Load danh sách yêu thích khi khởi tạo adapter
         loadUserFavorites();
@@ -74,6 +87,7 @@ public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.Heal
         this.favoriteRepository = favoriteRepository;
         this.firebaseAuth = FirebaseAuth.getInstance();
         this.favoriteHealthTipIds = new HashSet<>();
+        this.pagingHelper = new HealthTipPagingHelper(this, healthTips);
 
         loadUserFavorites();
     }
@@ -97,7 +111,28 @@ public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.Heal
      * @return Danh sách health tips
      */
     public List<HealthTip> getHealthTipsList() {
-        return new ArrayList<>(healthTips);
+        return new ArrayList<>(pagingHelper.getItems());
+    }
+
+    @Override
+    public HealthTip getHealthTipAt(int position) {
+        return pagingHelper.peek(position);
+    }
+
+    /**
+     * Chuyển adapter sang chế độ phân trang và hiển thị PagingData mới
+     * @param lifecycle Lifecycle của màn hình để tự dừng khi bị hủy
+     * @param pagingData Dữ liệu phân trang
+     */
+    public void submitPagingData(@NonNull Lifecycle lifecycle, @NonNull PagingData<HealthTip> pagingData) {
+        pagingHelper.submitPagingData(lifecycle, pagingData);
+    }
+
+    /**
+     * Lắng nghe trạng thái tải (loading/empty/error) ở chế độ phân trang
+     */
+    public void addLoadStateListener(@NonNull Function1<CombinedLoadStates, Unit> listener) {
+        pagingHelper.addLoadStateListener(listener);
     }
 
     /**
@@ -205,14 +240,17 @@ public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.Heal
 
     @Override
     public void onBindViewHolder(@NonNull HealthTipViewHolder holder, int position) {
-        HealthTip healthTip = healthTips.get(position);
+        HealthTip healthTip = pagingHelper.getItem(position);
+        if (healthTip == null) {
+            return;
+        }
         boolean isFavorite = favoriteHealthTipIds.contains(healthTip.getId());
         holder.bind(healthTip, listener, isFavorite, this);
     }
 
     @Override
     public int getItemCount() {
-        return healthTips.size();
+        return pagingHelper.getItemCount();
     }
 
     /**
@@ -7,6 +7,7 @@ import android.widget.LinearLayout;
 import android.widget.ProgressBar;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -15,11 +16,17 @@ import com.vhn.doan.data.HealthTip;
 import com.vhn.doan.data.repository.HealthTipRepository;
 import com.vhn.doan.data.repository.HealthTipRepositoryImpl;
 import com.vhn.doan.presentation.home.adapter.HealthTipAdapter;
+import com.vhn.doan.presentation.home.adapter.HealthTipPrefetchScheduler;
 
 import java.util.List;
 
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import kotlin.Unit;
+
 /**
  * Activity hiển thị danh sách mẹo sức khỏe theo các chế độ: mới nhất, xem nhiều nhất hoặc ưa thích nhất.
+ * Chế độ mới nhất dùng phân trang (Paging 3) nên có thể cuộn hết toàn bộ mẹo sức khỏe.
  */
 public class AllHealthTipsActivity extends AppCompatActivity implements HealthTipAdapter.HealthTipClickListener {
 
@@ -29,12 +36,17 @@ public class AllHealthTipsActivity extends AppCompatActivity implements HealthTi
     public static final String MODE_MOST_LIKED = "most_liked";
     public static final String MODE_RECOMMENDED = "recommended";
 
+    // Kích thước trang khi cuộn danh sách mới nhất (phân trang keyset, không giới hạn tổng số)
+    private static final int PAGE_SIZE = 20;
+
     private RecyclerView recyclerView;
     private ProgressBar progressBar;
     private LinearLayout emptyLayout;
     private HealthTipAdapter adapter;
     private HealthTipRepository repository;
+    private HealthTipPrefetchScheduler prefetchScheduler;
     private androidx.appcompat.widget.Toolbar toolbar;
+    private final CompositeDisposable disposables = new CompositeDisposable();
 
     public static Intent createIntent(Context context, String mode) {
         Intent intent = new Intent(context, AllHealthTipsActivity.class);
@@ -60,6 +72,8 @@ public class AllHealthTipsActivity extends AppCompatActivity implements HealthTi
         recyclerView.setAdapter(adapter);
 
         repository = new HealthTipRepositoryImpl(this);
+        // Dừng cuộn → làm nóng chi tiết/ảnh của các tip đang hiển thị
+        prefetchScheduler = HealthTipPrefetchScheduler.attach(recyclerView, repository);
 
         // Lấy mode từ Intent và thiết lập tiêu đề
         String mode = getIntent().getStringExtra(EXTRA_MODE);
@@ -141,6 +155,7 @@ public class AllHealthTipsActivity extends AppCompatActivity implements HealthTi
                 } else {
                     emptyLayout.setVisibility(android.view.View.GONE);
                     adapter.updateHealthTips(healthTips);
+                    prefetchScheduler.schedule();
                 }
             }
 
@@ -162,7 +177,7 @@ public class AllHealthTipsActivity extends AppCompatActivity implements HealthTi
                     repository.getTodayRecommendedHealthTips(10, callback);
                     break;
                 case MODE_LATEST:
-                    repository.getLatestHealthTips(50, callback);
+                    loadPagedData();
                     break;
                 case MODE_MOST_VIEWED:
                     repository.getMostViewedHealthTips(50, callback);
@@ -171,14 +186,46 @@ public class AllHealthTipsActivity extends AppCompatActivity implements HealthTi
                     repository.getMostLikedHealthTips(50, callback);
                     break;
                 default:
-                    repository.getAllHealthTips(callback);
+                    loadPagedData();
                     break;
             }
         } else {
-            repository.getAllHealthTips(callback);
+            loadPagedData();
         }
     }
 
+    /**
+     * Tải danh sách mới nhất theo trang (Room + Firebase), cuộn không giới hạn với bộ nhớ cố định
+     */
+    private void loadPagedData() {
+        adapter.addLoadStateListener(loadStates -> {
+            boolean refreshing = loadStates.getRefresh() instanceof LoadState.Loading;
+            boolean isEmpty = adapter.getItemCount() == 0;
+            progressBar.setVisibility(refreshing && isEmpty ? android.view.View.VISIBLE : android.view.View.GONE);
+            boolean reachedEnd = loadStates.getAppend().getEndOfPaginationReached();
+            emptyLayout.setVisibility(!refreshing && reachedEnd && isEmpty
+                    ? android.view.View.VISIBLE : android.view.View.GONE);
+            if (!refreshing && !isEmpty) {
+                prefetchScheduler.schedule();
+            }
+            return Unit.INSTANCE;
+        });
+
+        disposables.add(repository.getHealthTipsPagingData(null, PAGE_SIZE)
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(pagingData -> adapter.submitPagingData(getLifecycle(), pagingData),
+                        error -> android.widget.Toast.makeText(AllHealthTipsActivity.this,
+                                "Lỗi khi tải dữ liệu: " + error.getMessage(),
+                                android.widget.Toast.LENGTH_SHORT).show()));
+    }
+
+    @Override
+    protected void onDestroy() {
+        disposables.clear();
+        prefetchScheduler.detach();
+        super.onDestroy();
+    }
+
     @Override
     public void onHealthTipClick(HealthTip healthTip) {
         if (healthTip != null && healthTip.getId() != null) {
@@ -12,6 +12,8 @@ import androidx.fragment.app.Fragment;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.navigation.NavigationBarView;
 import com.vhn.doan.R;
+import com.vhn.doan.data.repository.CounterAggregator;
+import com.vhn.doan.data.repository.LikedVideoIndex;
 import com.vhn.doan.presentation.auth.LoginActivity;
 import com.vhn.doan.presentation.base.BaseActivity;
 import com.vhn.doan.presentation.base.FragmentVisibilityListener;
@@ -104,6 +106,18 @@ public class HomeActivity extends BaseActivity {
         SyncScheduler.scheduleHealthTipSync(this);
         Log.d(TAG, "Health tip sync scheduled for offline mode");
 
+        // Tính trước đề xuất theo ngày (sau nửa đêm và cho hôm nay nếu chưa có)
+        SyncScheduler.scheduleDailyRecommendations(this);
+
+        // Tải sẵn ảnh của các tip đã cache khi có WiFi (xem offline đầy đủ)
+        SyncScheduler.scheduleOfflineImagePrecache(this);
+
+        // Khởi tạo bộ gộp lượt xem/lượt thích (nạp lại delta chưa gửi từ lần chạy trước)
+        CounterAggregator.getInstance(this);
+
+        // Liked index của video đồng bộ trạng thái thích xuống Room
+        LikedVideoIndex.getInstance(this);
+
         // Khởi tạo và thiết lập BottomNavigationView
         setupBottomNavigation();
 
@@ -38,6 +38,7 @@ import com.vhn.doan.utils.Constants;
 import com.vhn.doan.presentation.home.adapter.CategoryAdapter;
 import com.vhn.doan.presentation.home.adapter.InfiniteHealthTipAdapter;
 import com.vhn.doan.presentation.home.adapter.HealthTipAdapter;
+import com.vhn.doan.presentation.home.adapter.HealthTipPrefetchScheduler;
 import com.vhn.doan.presentation.home.adapter.CategorySkeletonAdapter;
 import com.vhn.doan.presentation.home.adapter.HealthTipSkeletonAdapter;
 import com.vhn.doan.utils.NetworkMonitor;
@@ -88,6 +89,13 @@ public class HomeFragment extends Fragment implements HomeView, FragmentVisibili
 
     // Presenter
     private HomePresenter presenter;
+    private HealthTipRepository healthTipRepository;
+
+    // Dừng cuộn → làm nóng chi tiết/ảnh của các tip đang hiển thị
+    private HealthTipPrefetchScheduler featuredTipsPrefetch;
+    private HealthTipPrefetchScheduler latestTipsPrefetch;
+    private HealthTipPrefetchScheduler mostViewedTipsPrefetch;
+    private HealthTipPrefetchScheduler mostLikedTipsPrefetch;
 
     // Network Monitor để theo dõi trạng thái mạng
     private NetworkMonitor networkMonitor;
@@ -125,7 +133,7 @@ public class HomeFragment extends Fragment implements HomeView, FragmentVisibili
 
         // Khởi tạo repositories
         CategoryRepository categoryRepository = new CategoryRepositoryImpl();
-        HealthTipRepository healthTipRepository = new HealthTipRepositoryImpl(requireContext());
+        healthTipRepository = new HealthTipRepositoryImpl(requireContext());
 
         // Khởi tạo presenter
         presenter = new HomePresenter(requireContext(), categoryRepository, healthTipRepository);
@@ -160,6 +168,9 @@ public class HomeFragment extends Fragment implements HomeView, FragmentVisibili
         // Khởi tạo real adapters (nhưng chưa set vào RecyclerViews)
         initializeRealAdapters();
 
+        // Prefetch chi tiết/ảnh khi dừng cuộn các danh sách tip
+        setupPrefetchSchedulers();
+
         // Thiết lập các sự kiện click
         setupClickListeners();
 
@@ -358,6 +369,31 @@ public class HomeFragment extends Fragment implements HomeView, FragmentVisibili
         initializeRealAdapters();
     }
 
+    /**
+     * Gắn HealthTipPrefetchScheduler cho các danh sách tip
+     * Skeleton adapter bị scheduler bỏ qua cho tới khi real adapter được gán
+     */
+    private void setupPrefetchSchedulers() {
+        detachPrefetchSchedulers();
+        featuredTipsPrefetch = HealthTipPrefetchScheduler.attach(recyclerViewFeaturedTips, healthTipRepository);
+        latestTipsPrefetch = HealthTipPrefetchScheduler.attach(recyclerViewLatestTips, healthTipRepository);
+        mostViewedTipsPrefetch = HealthTipPrefetchScheduler.attach(recyclerViewMostViewedTips, healthTipRepository);
+        mostLikedTipsPrefetch = HealthTipPrefetchScheduler.attach(recyclerViewMostLikedTips, healthTipRepository);
+    }
+
+    private void detachPrefetchSchedulers() {
+        for (HealthTipPrefetchScheduler scheduler : new HealthTipPrefetchScheduler[]{
+                featuredTipsPrefetch, latestTipsPrefetch, mostViewedTipsPrefetch, mostLikedTipsPrefetch}) {
+            if (scheduler != null) {
+                scheduler.detach();
+            }
+        }
+        featuredTipsPrefetch = null;
+        latestTipsPrefetch = null;
+        mostViewedTipsPrefetch = null;
+        mostLikedTipsPrefetch = null;
+    }
+
     /**
      * Thiết lập Layout Managers cho tất cả RecyclerViews
      */
@@ -636,6 +672,7 @@ public class HomeFragment extends Fragment implements HomeView, FragmentVisibili
     public void onDestroy() {
         super.onDestroy();
         presenter.detachView(); // Tách View khỏi Presenter
+        detachPrefetchSchedulers();
 
         // Dọn dẹp auto-scroll resources
         stopAutoScrollForFeatured();
@@ -704,6 +741,9 @@ public class HomeFragment extends Fragment implements HomeView, FragmentVisibili
         // Luôn update data
         Log.d(TAG, "Updating featured tips data");
         featuredTipsAdapter.updateHealthTips(healthTips);
+        if (featuredTipsPrefetch != null) {
+            featuredTipsPrefetch.schedule();
+        }
     }
 
     @Override
@@ -716,6 +756,9 @@ public class HomeFragment extends Fragment implements HomeView, FragmentVisibili
             isLatestTipsLoaded = true;
         }
         latestTipsAdapter.updateHealthTips(healthTips);
+        if (latestTipsPrefetch != null) {
+            latestTipsPrefetch.schedule();
+        }
         Log.d(TAG, "Latest tips adapter updated");
     }
 
@@ -729,6 +772,9 @@ public class HomeFragment extends Fragment implements HomeView, FragmentVisibili
             isMostViewedTipsLoaded = true;
         }
         mostViewedTipsAdapter.updateHealthTips(healthTips);
+        if (mostViewedTipsPrefetch != null) {
+            mostViewedTipsPrefetch.schedule();
+        }
         Log.d(TAG, "Most viewed tips adapter updated");
     }
 
@@ -740,6 +786,9 @@ public class HomeFragment extends Fragment implements HomeView, FragmentVisibili
             isMostLikedTipsLoaded = true;
         }
         mostLikedTipsAdapter.updateHealthTips(healthTips);
+        if (mostLikedTipsPrefetch != null) {
+            mostLikedTipsPrefetch.schedule();
+        }
     }
 
     /**
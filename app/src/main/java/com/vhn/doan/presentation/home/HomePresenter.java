@@ -3,15 +3,24 @@ package com.vhn.doan.presentation.home;
 import android.content.Context;
 import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.vhn.doan.data.Category;
 import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.local.HomeSnapshot;
+import com.vhn.doan.data.local.HomeSnapshotStore;
 import com.vhn.doan.data.repository.CategoryRepository;
 import com.vhn.doan.data.repository.HealthTipRepository;
 
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
 
 /**
  * HomePresenter kết nối HomeView với dữ liệu từ Repository
@@ -22,10 +31,24 @@ public class HomePresenter {
     private static final int CATEGORY_LIMIT = 10;
     private static final int HEALTH_TIP_LIMIT = 10;
 
+    // Chờ các kết quả tiếp theo (cache rồi Firebase) trước khi lưu snapshot
+    private static final long SNAPSHOT_SAVE_DELAY_MILLIS = 1_500L;
+
     private HomeView view;
     private final Context context;
     private final CategoryRepository categoryRepository;
     private final HealthTipRepository healthTipRepository;
+    private final HomeSnapshotStore snapshotStore;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable saveSnapshotRunnable = this::saveSnapshot;
+
+    // Dữ liệu đang hiển thị - được lưu thành HomeSnapshot khi đủ 5 phần
+    private HomeSnapshot currentSnapshot = new HomeSnapshot();
+    private String recommendedDate;
+    private String recommendedUserId;
+    private long loadStartedAt;
+    private boolean firstContentShown = false;
+    private boolean snapshotSavePending = false;
 
     // Biến để lưu trữ đối tượng listener cho firebase
     private Object categoriesListener;
@@ -41,6 +64,7 @@ public class HomePresenter {
         this.context = context;
         this.categoryRepository = categoryRepository;
         this.healthTipRepository = healthTipRepository;
+        this.snapshotStore = HomeSnapshotStore.getInstance(context);
     }
 
     /**
@@ -64,7 +88,22 @@ public class HomePresenter {
     public void start() {
         if (view != null) {
             view.showLoading(true);
-            loadHomeData();
+            loadStartedAt = SystemClock.elapsedRealtime();
+            firstContentShown = false;
+            currentSnapshot = new HomeSnapshot();
+
+            FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
+            recommendedUserId = currentUser != null ? currentUser.getUid() : null;
+            recommendedDate = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date());
+
+            // Hiển thị snapshot lần trước bằng một lần đọc, sau đó mới gọi repository (Room + Firebase)
+            snapshotStore.load(snapshot -> {
+                if (view == null) {
+                    return;
+                }
+                showSnapshot(snapshot);
+                loadHomeData();
+            });
         }
     }
 
@@ -72,6 +111,12 @@ public class HomePresenter {
      * Dừng lắng nghe khi không cần thiết
      */
     public void stop() {
+        // Lưu ngay snapshot đang chờ để lần mở sau có dữ liệu mới nhất
+        if (snapshotSavePending) {
+            mainHandler.removeCallbacks(saveSnapshotRunnable);
+            saveSnapshot();
+        }
+
         if (categoriesListener != null) {
             categoryRepository.removeListener(categoriesListener);
             categoriesListener = null;
@@ -98,9 +143,7 @@ public class HomePresenter {
         categoryRepository.getCategoriesByActiveStatus(true, new CategoryRepository.CategoryCallback() {
             @Override
             public void onSuccess(java.util.List<Category> categories) {
-                if (view != null) {
-                    view.showCategories(categories);
-                }
+                onCategoriesLoaded(categories);
             }
 
             @Override
@@ -120,9 +163,7 @@ public class HomePresenter {
         healthTipRepository.getLatestHealthTips(HEALTH_TIP_LIMIT, new HealthTipRepository.HealthTipCallback() {
             @Override
             public void onSuccess(java.util.List<HealthTip> healthTips) {
-                if (view != null) {
-                    view.showLatestHealthTips(healthTips);
-                }
+                onLatestLoaded(healthTips);
             }
 
             @Override
@@ -137,9 +178,11 @@ public class HomePresenter {
         healthTipRepository.getMostViewedHealthTips(HEALTH_TIP_LIMIT, new HealthTipRepository.HealthTipCallback() {
             @Override
             public void onSuccess(java.util.List<HealthTip> healthTips) {
+                currentSnapshot.setMostViewed(HomeSnapshot.toSummaries(healthTips));
                 if (view != null) {
                     view.showMostViewedHealthTips(healthTips);
                 }
+                onSectionLoaded(healthTips);
             }
 
             @Override
@@ -151,18 +194,15 @@ public class HomePresenter {
         });
 
         // Tải mẹo đề xuất CÁ NHÂN HÓA cho người dùng
-        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
-        if (currentUser != null) {
+        if (recommendedUserId != null) {
             // Người dùng đã đăng nhập → Sử dụng personalized recommendations
             healthTipRepository.getPersonalizedRecommendations(
-                currentUser.getUid(),
+                recommendedUserId,
                 HEALTH_TIP_LIMIT,
                 new HealthTipRepository.HealthTipCallback() {
                     @Override
                     public void onSuccess(java.util.List<HealthTip> healthTips) {
-                        if (view != null) {
-                            view.showRecommendedHealthTips(healthTips);
-                        }
+                        onRecommendedLoaded(healthTips);
                     }
 
                     @Override
@@ -178,9 +218,7 @@ public class HomePresenter {
             healthTipRepository.getTodayRecommendedHealthTips(HEALTH_TIP_LIMIT, new HealthTipRepository.HealthTipCallback() {
                 @Override
                 public void onSuccess(java.util.List<HealthTip> healthTips) {
-                    if (view != null) {
-                        view.showRecommendedHealthTips(healthTips);
-                    }
+                    onRecommendedLoaded(healthTips);
                 }
 
                 @Override
@@ -196,10 +234,12 @@ public class HomePresenter {
         healthTipRepository.getMostLikedHealthTips(HEALTH_TIP_LIMIT, new HealthTipRepository.HealthTipCallback() {
             @Override
             public void onSuccess(java.util.List<HealthTip> healthTips) {
+                currentSnapshot.setMostLiked(HomeSnapshot.toSummaries(healthTips));
                 if (view != null) {
                     view.showMostLikedHealthTips(healthTips);
                     view.showLoading(false); // Tắt loading sau khi tất cả dữ liệu đã được tải
                 }
+                onSectionLoaded(healthTips);
             }
 
             @Override
@@ -212,6 +252,82 @@ public class HomePresenter {
         });
     }
 
+    /**
+     * Hiển thị snapshot đã lưu (nếu có) trước khi repository trả dữ liệu
+     */
+    private void showSnapshot(HomeSnapshot snapshot) {
+        if (snapshot == null || !snapshot.hasContent()) {
+            return;
+        }
+
+        if (snapshot.getCategories() != null) {
+            view.showCategories(snapshot.getCategories());
+        }
+        if (snapshot.getLatest() != null) {
+            view.showLatestHealthTips(HomeSnapshot.toHealthTips(snapshot.getLatest()));
+        }
+        if (snapshot.getMostViewed() != null) {
+            view.showMostViewedHealthTips(HomeSnapshot.toHealthTips(snapshot.getMostViewed()));
+        }
+        if (snapshot.getMostLiked() != null) {
+            view.showMostLikedHealthTips(HomeSnapshot.toHealthTips(snapshot.getMostLiked()));
+        }
+        // Đề xuất của ngày khác/người dùng khác không dùng lại
+        if (snapshot.isRecommendedValidFor(recommendedDate, recommendedUserId)) {
+            view.showRecommendedHealthTips(HomeSnapshot.toHealthTips(snapshot.getRecommended()));
+        }
+        view.showLoading(false);
+
+        firstContentShown = true;
+        snapshotStore.reportFirstContent(loadStartedAt, true);
+    }
+
+    private void onCategoriesLoaded(List<Category> categories) {
+        currentSnapshot.setCategories(categories != null ? new ArrayList<>(categories) : new ArrayList<>());
+        if (view != null) {
+            view.showCategories(categories);
+        }
+        onSectionLoaded(categories);
+    }
+
+    private void onLatestLoaded(List<HealthTip> healthTips) {
+        currentSnapshot.setLatest(HomeSnapshot.toSummaries(healthTips));
+        if (view != null) {
+            view.showLatestHealthTips(healthTips);
+        }
+        onSectionLoaded(healthTips);
+    }
+
+    private void onRecommendedLoaded(List<HealthTip> healthTips) {
+        currentSnapshot.setRecommended(HomeSnapshot.toSummaries(healthTips), recommendedDate, recommendedUserId);
+        if (view != null) {
+            view.showRecommendedHealthTips(healthTips);
+        }
+        onSectionLoaded(healthTips);
+    }
+
+    /**
+     * Ghi nhận time-to-first-content và lên lịch lưu snapshot khi đủ 5 phần
+     */
+    private void onSectionLoaded(List<?> items) {
+        if (!firstContentShown && items != null && !items.isEmpty()) {
+            firstContentShown = true;
+            snapshotStore.reportFirstContent(loadStartedAt, false);
+        }
+
+        if (currentSnapshot.isComplete()) {
+            // Gộp các lần cập nhật liên tiếp (cache rồi Firebase) thành một lần ghi
+            mainHandler.removeCallbacks(saveSnapshotRunnable);
+            mainHandler.postDelayed(saveSnapshotRunnable, SNAPSHOT_SAVE_DELAY_MILLIS);
+            snapshotSavePending = true;
+        }
+    }
+
+    private void saveSnapshot() {
+        snapshotSavePending = false;
+        snapshotStore.save(currentSnapshot);
+    }
+
     /**
      * Lắng nghe thay đổi từ danh mục
      */
@@ -220,9 +336,7 @@ public class HomePresenter {
             categoriesListener = categoryRepository.listenToCategories(new CategoryRepository.CategoryCallback() {
                 @Override
                 public void onSuccess(java.util.List<Category> categories) {
-                    if (view != null) {
-                        view.showCategories(categories);
-                    }
+                    onCategoriesLoaded(categories);
                 }
 
                 @Override
@@ -248,9 +362,7 @@ public class HomePresenter {
             latestTipsListener = healthTipRepository.listenToLatestHealthTips(HEALTH_TIP_LIMIT, new HealthTipRepository.HealthTipCallback() {
                 @Override
                 public void onSuccess(java.util.List<HealthTip> healthTips) {
-                    if (view != null) {
-                        view.showLatestHealthTips(healthTips);
-                    }
+                    onLatestLoaded(healthTips);
                 }
 
                 @Override
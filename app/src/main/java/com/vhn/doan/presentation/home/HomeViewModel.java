@@ -9,6 +9,8 @@ import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.vhn.doan.data.local.AppDatabase;
+import com.vhn.doan.data.local.HealthTipMemoryCache;
+import com.vhn.doan.data.local.RecommendationEngine;
 import com.vhn.doan.data.local.entity.CategoryEntity;
 import com.vhn.doan.data.local.entity.HealthTipEntity;
 import com.vhn.doan.presentation.base.BaseViewModel;
@@ -85,8 +87,10 @@ public class HomeViewModel extends BaseViewModel {
      * Toggle favorite status cho health tip
      */
     public void toggleFavorite(String healthTipId, boolean isFavorite) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        database.enqueueWrite(() -> {
             database.healthTipDao().updateFavoriteStatus(healthTipId, isFavorite);
+            RecommendationEngine.getInstance(getApplication()).onInteractionChangedSync(healthTipId);
+            HealthTipMemoryCache.getInstance().invalidateAfterCommit(healthTipId);
             Log.d(TAG, "Updated favorite status: " + healthTipId + " = " + isFavorite);
         });
     }
@@ -95,8 +99,10 @@ public class HomeViewModel extends BaseViewModel {
      * Toggle like status cho health tip
      */
     public void toggleLike(String healthTipId, boolean isLiked) {
-        AppDatabase.databaseWriteExecutor.execute(() -> {
+        database.enqueueWrite(() -> {
             database.healthTipDao().updateLikeStatus(healthTipId, isLiked);
+            RecommendationEngine.getInstance(getApplication()).onInteractionChangedSync(healthTipId);
+            HealthTipMemoryCache.getInstance().invalidateAfterCommit(healthTipId);
             Log.d(TAG, "Updated like status: " + healthTipId + " = " + isLiked);
         });
     }
@@ -109,6 +115,8 @@ public class HomeViewModel extends BaseViewModel {
             HealthTipEntity tip = database.healthTipDao().getHealthTipByIdSync(healthTipId);
             if (tip != null) {
                 database.healthTipDao().updateViewCount(healthTipId, tip.getViewCount() + 1);
+                RecommendationEngine.getInstance(getApplication()).rescoreSync(java.util.Collections.singletonList(healthTipId));
+                HealthTipMemoryCache.getInstance().invalidate(healthTipId);
                 Log.d(TAG, "Incremented view count: " + healthTipId);
             }
         });
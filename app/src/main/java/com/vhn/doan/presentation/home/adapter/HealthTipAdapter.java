@@ -11,6 +11,9 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.lifecycle.Lifecycle;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.PagingData;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
@@ -27,11 +30,15 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import kotlin.Unit;
+import kotlin.jvm.functions.Function1;
+
 /**
  * Adapter để hiển thị danh sách mẹo sức khỏe trong RecyclerView
  * Tuân theo mô hình MVP và hỗ trợ chức năng yêu thích
  */
-public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.HealthTipViewHolder> {
+public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.HealthTipViewHolder>
+        implements PrefetchableHealthTipAdapter {
 
     private final List<HealthTip> healthTips;
     private final HealthTipClickListener listener;
@@ -40,6 +47,9 @@ public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.Heal
     private final FirebaseAuth firebaseAuth;
     private final Set<String> favoriteHealthTipIds; // Cache để theo dõi trạng thái yêu thích
 
+    // Chế độ phân trang (Paging 3): khi bật thì dữ liệu lấy từ differ thay vì healthTips
+    private final HealthTipPagingHelper pagingHelper;
+
     /**
      * Interface cho sự kiện click vào mẹo sức khỏe
      */
@@ -61,6 +71,7 @@ public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.Heal
         this.favoriteRepository = new FavoriteRepositoryImpl(context);
         this.firebaseAuth = FirebaseAuth.getInstance();
         this.favoriteHealthTipIds = new HashSet<>();
+        this.pagingHelper = new HealthTipPagingHelper(this, healthTips);
 
         // Load danh sách yêu thích khi khởi tạo adapter
         loadUserFavorites();
@@ -77,6 +88,7 @@ public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.Heal
         this.favoriteRepository = favoriteRepository;
         this.firebaseAuth = FirebaseAuth.getInstance();
         this.favoriteHealthTipIds = new HashSet<>();
+        this.pagingHelper = new HealthTipPagingHelper(this, healthTips);
 
         loadUserFavorites();
     }
@@ -90,18 +102,46 @@ public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.Heal
 
     @Override
     public void onBindViewHolder(@NonNull HealthTipViewHolder holder, int position) {
-        HealthTip healthTip = healthTips.get(position);
+        HealthTip healthTip = pagingHelper.getItem(position);
+        if (healthTip == null) {
+            return;
+        }
         boolean isFavorite = favoriteHealthTipIds.contains(healthTip.getId());
         holder.bind(healthTip, listener, isFavorite, this);
 
         // 🎯 CACHE NGAY KHI USER SCROLL QUA! (Giống TikTok/Facebook)
         // Cache passive - user không cần làm gì, chỉ cần nhìn thấy item
-        CacheManager.getInstance(context).cacheHealthTipImmediately(healthTip);
+        // Chế độ phân trang đọc trực tiếp từ Room: ghi lại sẽ invalidate PagingSource liên tục
+        if (!pagingHelper.isPaging()) {
+            CacheManager.getInstance(context).cacheHealthTipImmediately(healthTip);
+        }
     }
 
     @Override
     public int getItemCount() {
-        return healthTips != null ? healthTips.size() : 0;
+        return pagingHelper.getItemCount();
+    }
+
+    @Override
+    public HealthTip getHealthTipAt(int position) {
+        return pagingHelper.peek(position);
+    }
+
+    /**
+     * Chuyển adapter sang chế độ phân trang và hiển thị PagingData mới
+     * Dùng cho danh sách không giới hạn (xem HealthTipRepository.getHealthTipsPagingData)
+     * @param lifecycle Lifecycle của màn hình để tự dừng khi bị hủy
+     * @param pagingData Dữ liệu phân trang
+     */
+    public void submitPagingData(@NonNull Lifecycle lifecycle, @NonNull PagingData<HealthTip> pagingData) {
+        pagingHelper.submitPagingData(lifecycle, pagingData);
+    }
+
+    /**
+     * Lắng nghe trạng thái tải (loading/empty/error) ở chế độ phân trang
+     */
+    public void addLoadStateListener(@NonNull Function1<CombinedLoadStates, Unit> listener) {
+        pagingHelper.addLoadStateListener(listener);
     }
 
     /**
@@ -135,18 +175,9 @@ public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.Heal
 
                 @Override
                 public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-                    // So sánh nội dung để xác định có thay đổi không
-                    HealthTip oldItem = oldList.get(oldItemPosition);
-                    HealthTip newItem = newHealthTips.get(newItemPosition);
-
-                    // So sánh các fields quan trọng
-                    boolean sameTitle = (oldItem.getTitle() == null && newItem.getTitle() == null) ||
-                            (oldItem.getTitle() != null && oldItem.getTitle().equals(newItem.getTitle()));
-
-                    boolean sameLikeCount = oldItem.getLikeCount() == newItem.getLikeCount();
-                    boolean sameViewCount = oldItem.getViewCount() == newItem.getViewCount();
-
-                    return sameTitle && sameLikeCount && sameViewCount;
+                    // So sánh nội dung giống chế độ phân trang
+                    return HealthTipPagingHelper.DIFF_CALLBACK.areContentsTheSame(
+                            oldList.get(oldItemPosition), newHealthTips.get(newItemPosition));
                 }
             });
 
@@ -284,8 +315,9 @@ public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.Heal
         }
 
         // Tìm và cập nhật UI cho item có ID tương ứng
-        for (int i = 0; i < healthTips.size(); i++) {
-            HealthTip healthTip = healthTips.get(i);
+        List<HealthTip> currentItems = pagingHelper.getItems();
+        for (int i = 0; i < currentItems.size(); i++) {
+            HealthTip healthTip = currentItems.get(i);
             if (healthTip != null && healthTipId.equals(healthTip.getId())) {
                 // Chỉ cập nhật item cụ thể thay vì toàn bộ danh sách
                 notifyItemChanged(i);
@@ -354,7 +386,8 @@ public class HealthTipAdapter extends RecyclerView.Adapter<HealthTipAdapter.Heal
                 // ⚡ OPTIMIZED: Glide with disk cache, priority, and thumbnail
                 Glide.with(itemView.getContext())
                         .load(imageUrl)
-                        .diskCacheStrategy(com.bumptech.glide.load.engine.DiskCacheStrategy.RESOURCE) // Cache decoded images
+                        // ALL: dùng được cả ảnh gốc do OfflineImagePrecacheWorker tải sẵn khi offline
+                        .diskCacheStrategy(com.bumptech.glide.load.engine.DiskCacheStrategy.ALL)
                         .priority(com.bumptech.glide.Priority.HIGH) // High priority for visible items
                         .thumbnail(0.1f) // Load 10% thumbnail first for faster display
                         .centerCrop()
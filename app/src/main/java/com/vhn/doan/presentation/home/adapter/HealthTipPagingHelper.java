@@ -0,0 +1,135 @@
+package com.vhn.doan.presentation.home.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.paging.AsyncPagingDataDiffer;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.PagingData;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.vhn.doan.data.HealthTip;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import kotlin.Unit;
+import kotlin.jvm.functions.Function1;
+
+/**
+ * Phần phân trang (Paging 3) dùng chung cho các adapter mẹo sức khỏe
+ *
+ * Adapter giữ một danh sách tĩnh (updateHealthTips) và có thể chuyển sang chế độ phân trang
+ * bằng submitPagingData - khi đó dữ liệu lấy từ AsyncPagingDataDiffer thay vì danh sách tĩnh.
+ */
+public final class HealthTipPagingHelper {
+
+    /**
+     * So sánh mẹo sức khỏe cho DiffUtil - nội dung gồm các trường hiển thị trên item
+     */
+    public static final DiffUtil.ItemCallback<HealthTip> DIFF_CALLBACK = new DiffUtil.ItemCallback<HealthTip>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull HealthTip oldItem, @NonNull HealthTip newItem) {
+            return oldItem.getId() != null && oldItem.getId().equals(newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull HealthTip oldItem, @NonNull HealthTip newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getImageUrl(), newItem.getImageUrl())
+                    && oldItem.isFavorite() == newItem.isFavorite()
+                    && Objects.equals(oldItem.getLikeCount(), newItem.getLikeCount())
+                    && Objects.equals(oldItem.getViewCount(), newItem.getViewCount());
+        }
+    };
+
+    private final RecyclerView.Adapter<?> adapter;
+    private final List<HealthTip> staticItems;
+
+    // Khác null thì adapter đang ở chế độ phân trang
+    private AsyncPagingDataDiffer<HealthTip> pagingDiffer;
+
+    /**
+     * @param adapter adapter nhận thông báo thay đổi từ differ
+     * @param staticItems danh sách tĩnh của adapter (bị xóa khi chuyển sang phân trang)
+     */
+    public HealthTipPagingHelper(@NonNull RecyclerView.Adapter<?> adapter, List<HealthTip> staticItems) {
+        this.adapter = adapter;
+        this.staticItems = staticItems;
+    }
+
+    public boolean isPaging() {
+        return pagingDiffer != null;
+    }
+
+    public int getItemCount() {
+        if (pagingDiffer != null) {
+            return pagingDiffer.getItemCount();
+        }
+        return staticItems != null ? staticItems.size() : 0;
+    }
+
+    /**
+     * Lấy item tại vị trí (chế độ phân trang sẽ kích hoạt tải trang kế tiếp khi gần cuối)
+     */
+    public HealthTip getItem(int position) {
+        if (pagingDiffer != null) {
+            return pagingDiffer.getItem(position);
+        }
+        return staticItems.get(position);
+    }
+
+    /**
+     * Lấy item tại vị trí mà không kích hoạt tải trang mới
+     * @return null nếu vị trí ngoài danh sách hoặc là placeholder
+     */
+    public HealthTip peek(int position) {
+        if (position < 0 || position >= getItemCount()) {
+            return null;
+        }
+        if (pagingDiffer != null) {
+            return pagingDiffer.peek(position);
+        }
+        return staticItems.get(position);
+    }
+
+    /**
+     * Danh sách item đang hiển thị (chế độ phân trang: các trang đang giữ trong bộ nhớ)
+     */
+    public List<HealthTip> getItems() {
+        if (pagingDiffer != null) {
+            return pagingDiffer.snapshot().getItems();
+        }
+        return staticItems != null ? staticItems : Collections.emptyList();
+    }
+
+    /**
+     * Chuyển adapter sang chế độ phân trang và hiển thị PagingData mới
+     * @param lifecycle Lifecycle của màn hình để tự dừng khi bị hủy
+     * @param pagingData Dữ liệu phân trang
+     */
+    public void submitPagingData(@NonNull Lifecycle lifecycle, @NonNull PagingData<HealthTip> pagingData) {
+        ensurePagingDiffer().submitData(lifecycle, pagingData);
+    }
+
+    /**
+     * Lắng nghe trạng thái tải (loading/empty/error) ở chế độ phân trang
+     */
+    public void addLoadStateListener(@NonNull Function1<CombinedLoadStates, Unit> listener) {
+        ensurePagingDiffer().addLoadStateListener(listener);
+    }
+
+    private AsyncPagingDataDiffer<HealthTip> ensurePagingDiffer() {
+        if (pagingDiffer == null) {
+            if (staticItems != null && !staticItems.isEmpty()) {
+                int previousCount = staticItems.size();
+                staticItems.clear();
+                adapter.notifyItemRangeRemoved(0, previousCount);
+            }
+            pagingDiffer = new AsyncPagingDataDiffer<>(DIFF_CALLBACK, new AdapterListUpdateCallback(adapter));
+        }
+        return pagingDiffer;
+    }
+}
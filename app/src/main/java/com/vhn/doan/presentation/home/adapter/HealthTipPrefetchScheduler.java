@@ -0,0 +1,281 @@
+package com.vhn.doan.presentation.home.adapter;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.request.target.Target;
+import com.vhn.doan.data.ContentBlock;
+import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.repository.HealthTipRepository;
+import com.vhn.doan.utils.NetworkMonitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * HealthTipPrefetchScheduler - Làm nóng trước chi tiết các tip đang hiển thị khi người dùng dừng cuộn
+ *
+ * Khi RecyclerView đứng yên (SCROLL_STATE_IDLE) quá IDLE_DELAY_MS, các tip đang hiển thị là
+ * các lượt bấm tiếp theo có khả năng nhất:
+ * - Chi tiết được nạp vào cache L1/Room (HealthTipRepository.prefetchHealthTipDetails)
+ * - Ảnh trong content blocks đầu tiên được tải sẵn vào disk cache của Glide (preload)
+ * Ngân sách phụ thuộc loại mạng (NetworkMonitor): WiFi tải nhiều hơn, mạng di động ít hơn,
+ * không có mạng thì chỉ nạp từ Room. Ảnh của tip đã cuộn khỏi màn hình bị hủy.
+ *
+ * Adapter phải implement PrefetchableHealthTipAdapter; adapter khác (skeleton) bị bỏ qua.
+ * Chỉ dùng trên main thread.
+ */
+public class HealthTipPrefetchScheduler extends RecyclerView.OnScrollListener {
+
+    private static final String TAG = "HealthTipPrefetch";
+
+    // Chờ một chút sau khi dừng cuộn để không prefetch khi người dùng chỉ ngừng tay giữa hai lần vuốt
+    private static final long IDLE_DELAY_MS = 150;
+
+    // Số tip đã làm nóng được nhớ để không prefetch lại
+    private static final int MAX_REMEMBERED_TIPS = 256;
+
+    /**
+     * Ngân sách prefetch cho một lần dừng cuộn
+     */
+    static final class Budget {
+        final int maxTips;
+        final int imagesPerTip;
+        final boolean allowNetwork;
+
+        Budget(int maxTips, int imagesPerTip, boolean allowNetwork) {
+            this.maxTips = maxTips;
+            this.imagesPerTip = imagesPerTip;
+            this.allowNetwork = allowNetwork;
+        }
+
+        static Budget forNetwork(NetworkMonitor.NetworkType networkType) {
+            switch (networkType) {
+                case WIFI:
+                case ETHERNET:
+                    return new Budget(8, 3, true);
+                case CELLULAR:
+                    return new Budget(4, 1, true);
+                default:
+                    // Offline: chỉ nạp từ Room vào L1
+                    return new Budget(8, 0, false);
+            }
+        }
+    }
+
+    private final RecyclerView recyclerView;
+    private final HealthTipRepository repository;
+    private final NetworkMonitor networkMonitor;
+    private final RequestManager requestManager;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable prefetchRunnable = this::prefetchVisible;
+
+    // Tip đã làm nóng xong (hoặc đang làm) - bỏ qua ở các lần dừng cuộn sau
+    private final Set<String> prefetchedIds = new HashSet<>();
+    // Ảnh đang preload theo tip - hủy khi tip cuộn khỏi màn hình
+    private final Map<String, List<Target<?>>> imageTargets = new HashMap<>();
+
+    private boolean attached = true;
+
+    private HealthTipPrefetchScheduler(RecyclerView recyclerView, HealthTipRepository repository) {
+        this.recyclerView = recyclerView;
+        this.repository = repository;
+        this.networkMonitor = NetworkMonitor.getInstance(recyclerView.getContext());
+        this.requestManager = Glide.with(recyclerView);
+    }
+
+    /**
+     * Gắn scheduler vào RecyclerView (LayoutManager phải là LinearLayoutManager hoặc lớp con)
+     */
+    public static HealthTipPrefetchScheduler attach(@NonNull RecyclerView recyclerView,
+                                                    @NonNull HealthTipRepository repository) {
+        HealthTipPrefetchScheduler scheduler = new HealthTipPrefetchScheduler(recyclerView, repository);
+        recyclerView.addOnScrollListener(scheduler);
+        return scheduler;
+    }
+
+    /**
+     * Gỡ scheduler và hủy mọi ảnh đang preload
+     */
+    public void detach() {
+        attached = false;
+        handler.removeCallbacks(prefetchRunnable);
+        recyclerView.removeOnScrollListener(this);
+        for (String tipId : new ArrayList<>(imageTargets.keySet())) {
+            cancelImages(tipId);
+        }
+    }
+
+    /**
+     * Lên lịch prefetch cho các item đang hiển thị (gọi sau khi gán adapter/dữ liệu mới)
+     */
+    public void schedule() {
+        if (!attached) {
+            return;
+        }
+        handler.removeCallbacks(prefetchRunnable);
+        handler.postDelayed(prefetchRunnable, IDLE_DELAY_MS);
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            schedule();
+        } else {
+            handler.removeCallbacks(prefetchRunnable);
+        }
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        // Hủy ảnh của tip vừa cuộn khỏi màn hình (chỉ tốn công khi còn ảnh đang preload)
+        if (!imageTargets.isEmpty()) {
+            Set<String> visible = collectVisibleIds(Integer.MAX_VALUE);
+            if (visible != null) {
+                cancelImagesExcept(visible);
+            }
+        }
+    }
+
+    private void prefetchVisible() {
+        if (!attached) {
+            return;
+        }
+        Budget budget = Budget.forNetwork(networkMonitor.getCurrentNetworkType());
+        Set<String> visible = collectVisibleIds(budget.maxTips);
+        if (visible == null || visible.isEmpty()) {
+            return;
+        }
+        cancelImagesExcept(visible);
+
+        List<String> toPrefetch = new ArrayList<>();
+        for (String tipId : visible) {
+            if (!prefetchedIds.contains(tipId)) {
+                toPrefetch.add(tipId);
+            }
+        }
+        if (toPrefetch.isEmpty()) {
+            return;
+        }
+        if (prefetchedIds.size() + toPrefetch.size() > MAX_REMEMBERED_TIPS) {
+            prefetchedIds.clear();
+        }
+        prefetchedIds.addAll(toPrefetch);
+        Log.d(TAG, "Prefetching " + toPrefetch.size() + " tips (" + budget.imagesPerTip + " images each)");
+
+        repository.prefetchHealthTipDetails(toPrefetch, budget.allowNetwork, new HealthTipRepository.HealthTipCallback() {
+            @Override
+            public void onSuccess(List<HealthTip> healthTips) {
+                if (!attached) {
+                    return;
+                }
+                if (budget.imagesPerTip == 0) {
+                    // Chưa tải ảnh - làm lại khi có mạng (đọc L1 lần nữa rất rẻ)
+                    prefetchedIds.removeAll(toPrefetch);
+                    return;
+                }
+                // Chỉ tải ảnh cho tip vẫn còn trên màn hình
+                Set<String> stillVisible = collectVisibleIds(Integer.MAX_VALUE);
+                for (HealthTip tip : healthTips) {
+                    if (tip != null && stillVisible != null && stillVisible.contains(tip.getId())) {
+                        preloadImages(tip, budget.imagesPerTip);
+                    } else if (tip != null) {
+                        prefetchedIds.remove(tip.getId());
+                    }
+                }
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                prefetchedIds.removeAll(toPrefetch);
+                Log.w(TAG, "Prefetch failed: " + errorMessage);
+            }
+        });
+    }
+
+    /**
+     * Tải sẵn ảnh trong content blocks (ảnh bìa đã được adapter tải khi bind)
+     */
+    private void preloadImages(HealthTip tip, int maxImages) {
+        List<ContentBlock> blocks = tip.getContentBlockObjects();
+        if (blocks == null || blocks.isEmpty()) {
+            return;
+        }
+        List<Target<?>> targets = new ArrayList<>();
+        for (ContentBlock block : blocks) {
+            if (targets.size() >= maxImages) {
+                break;
+            }
+            if ("image".equals(block.getType()) && block.getValue() != null && !block.getValue().isEmpty()) {
+                // DATA: lưu ảnh gốc vào disk cache, màn hình chi tiết decode theo kích thước của nó
+                targets.add(requestManager
+                        .load(block.getValue())
+                        .diskCacheStrategy(DiskCacheStrategy.DATA)
+                        .priority(Priority.LOW)
+                        .preload());
+            }
+        }
+        if (!targets.isEmpty()) {
+            imageTargets.put(tip.getId(), targets);
+        }
+    }
+
+    private void cancelImagesExcept(Set<String> visible) {
+        for (String tipId : new ArrayList<>(imageTargets.keySet())) {
+            if (!visible.contains(tipId)) {
+                cancelImages(tipId);
+                // Chưa chắc đã tải xong - cho phép prefetch lại khi tip hiện lại
+                prefetchedIds.remove(tipId);
+            }
+        }
+    }
+
+    private void cancelImages(String tipId) {
+        List<Target<?>> targets = imageTargets.remove(tipId);
+        if (targets != null) {
+            for (Target<?> target : targets) {
+                requestManager.clear(target);
+            }
+        }
+    }
+
+    /**
+     * ID các tip đang hiển thị theo thứ tự vị trí, null nếu adapter/LayoutManager không hỗ trợ
+     */
+    private Set<String> collectVisibleIds(int limit) {
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (!(adapter instanceof PrefetchableHealthTipAdapter) || !(layoutManager instanceof LinearLayoutManager)) {
+            return null;
+        }
+        LinearLayoutManager linearLayoutManager = (LinearLayoutManager) layoutManager;
+        int first = linearLayoutManager.findFirstVisibleItemPosition();
+        int last = linearLayoutManager.findLastVisibleItemPosition();
+        Set<String> ids = new LinkedHashSet<>();
+        if (first == RecyclerView.NO_POSITION) {
+            return ids;
+        }
+        PrefetchableHealthTipAdapter prefetchable = (PrefetchableHealthTipAdapter) adapter;
+        for (int position = first; position <= last && ids.size() < limit; position++) {
+            HealthTip tip = prefetchable.getHealthTipAt(position);
+            if (tip != null && tip.getId() != null) {
+                ids.add(tip.getId());
+            }
+        }
+        return ids;
+    }
+}
@@ -27,7 +27,8 @@ import java.util.Locale;
  * Adapter cho RecyclerView hiển thị danh sách mẹo sức khỏe với khả năng scroll vô hạn
  * Tạo hiệu ứng vòng tròn bằng cách nhân đôi số lượng items
  */
-public class InfiniteHealthTipAdapter extends RecyclerView.Adapter<InfiniteHealthTipAdapter.HealthTipViewHolder> {
+public class InfiniteHealthTipAdapter extends RecyclerView.Adapter<InfiniteHealthTipAdapter.HealthTipViewHolder>
+        implements PrefetchableHealthTipAdapter {
 
     private Context context;
     private List<HealthTip> originalHealthTips; // Danh sách gốc
@@ -92,6 +93,14 @@ public class InfiniteHealthTipAdapter extends RecyclerView.Adapter<InfiniteHealt
         return originalHealthTips.size() * INFINITE_MULTIPLIER;
     }
 
+    @Override
+    public HealthTip getHealthTipAt(int position) {
+        if (originalHealthTips.isEmpty() || position < 0) {
+            return null;
+        }
+        return originalHealthTips.get(position % originalHealthTips.size());
+    }
+
     /**
      * Cập nhật danh sách mẹo sức khỏe
      */
@@ -161,8 +170,19 @@ public class InfiniteHealthTipAdapter extends RecyclerView.Adapter<InfiniteHealt
                     textViewSummary.setText(healthTip.getExcerpt());
                 } else {
                     // Tạo tóm tắt từ nội dung - sử dụng ContentBlocks thay vì content trực tiếp
+                    // Tip đọc từ HealthTipSummary không có ContentBlocks, chỉ có đoạn đầu của content
                     List<ContentBlock> contentBlocks = healthTip.getContentBlockObjects();
-                    if (contentBlocks != null && !contentBlocks.isEmpty()) {
+                    if (healthTip.isSummaryOnly() || contentBlocks == null || contentBlocks.isEmpty()) {
+                        String content = healthTip.getContent();
+                        if (content != null && !content.trim().isEmpty()) {
+                            String preview = content.trim();
+                            textViewSummary.setText(preview.length() > 150
+                                    ? preview.substring(0, 150).trim() + "..."
+                                    : preview);
+                        } else {
+                            textViewSummary.setText("Xem chi tiết...");
+                        }
+                    } else {
                         // Tạo tóm tắt từ các block loại text và heading
                         StringBuilder summaryBuilder = new StringBuilder();
                         for (ContentBlock block : contentBlocks) {
@@ -188,8 +208,6 @@ public class InfiniteHealthTipAdapter extends RecyclerView.Adapter<InfiniteHealt
                         } else {
                             textViewSummary.setText("Xem chi tiết...");
                         }
-                    } else {
-                        textViewSummary.setText("Xem chi tiết...");
                     }
                 }
             }
@@ -0,0 +1,15 @@
+package com.vhn.doan.presentation.home.adapter;
+
+import com.vhn.doan.data.HealthTip;
+
+/**
+ * Adapter danh sách mẹo sức khỏe hỗ trợ HealthTipPrefetchScheduler
+ */
+public interface PrefetchableHealthTipAdapter {
+
+    /**
+     * Mẹo sức khỏe tại vị trí adapter, null nếu chưa có (placeholder của Paging)
+     * Không được kích hoạt tải trang mới như getItem của Paging
+     */
+    HealthTip getHealthTipAt(int position);
+}
@@ -67,6 +67,14 @@ public class FavoritePresenter extends BasePresenter<FavoriteView> {
                 }
             }
 
+            @Override
+            public void onPartialResult(List<HealthTip> favoriteHealthTips, List<String> failedIds) {
+                onSuccess(favoriteHealthTips);
+                if (getView() != null) {
+                    getView().showMessage("Chưa tải được " + failedIds.size() + " bài viết yêu thích, hãy thử lại sau");
+                }
+            }
+
             @Override
             public void onError(String error) {
                 if (getView() != null) {
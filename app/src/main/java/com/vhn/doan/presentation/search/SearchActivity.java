@@ -91,7 +91,7 @@ public class SearchActivity extends AppCompatActivity implements SearchContract.
 
         // Khởi tạo presenter
         FirebaseAuthHelper authHelper = new FirebaseAuthHelper();
-        SearchRepository searchRepository = new SearchRepositoryImpl();
+        SearchRepository searchRepository = new SearchRepositoryImpl(this);
         mPresenter = new SearchPresenter(searchRepository, authHelper);
         mPresenter.attachView(this);
 
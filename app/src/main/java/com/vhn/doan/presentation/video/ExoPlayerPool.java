@@ -0,0 +1,233 @@
+package com.vhn.doan.presentation.video;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.exoplayer2.ExoPlayer;
+import com.google.android.exoplayer2.PlaybackParameters;
+import com.google.android.exoplayer2.Player;
+import com.google.android.exoplayer2.source.DefaultMediaSourceFactory;
+import com.google.android.exoplayer2.upstream.DataSource;
+import com.google.android.exoplayer2.upstream.DefaultDataSource;
+import com.google.android.exoplayer2.upstream.DefaultHttpDataSource;
+import com.google.android.exoplayer2.upstream.cache.CacheDataSource;
+import com.vhn.doan.data.local.VideoCacheManager;
+
+import java.util.ArrayDeque;
+
+/**
+ * ExoPlayerPool - Pool ExoPlayer dùng chung cho feed video, video đã thích và màn hình xem một video
+ *
+ * Thay vì tạo ExoPlayer mới cho mỗi vị trí (và giải phóng khi vuốt qua), player được trả về pool
+ * và dùng lại cho video kế tiếp - giữ lại thread phát, renderer và audio session của player.
+ *
+ * - Số player tối đa (đang dùng + rảnh) tính theo memory class của thiết bị
+ * - acquire(): luôn trả player (dùng cho video đang phát), có thể vượt giới hạn
+ * - tryAcquire(): trả null khi đã đủ giới hạn (dùng cho preload)
+ * - release(): trả player về pool; player vượt giới hạn bị giải phóng hẳn
+ * - Player rảnh được giải phóng khi app xuống nền hoặc thiếu bộ nhớ
+ *
+ * Tất cả player dùng chung CacheDataSource của VideoCacheManager để video đã xem phát được offline.
+ * Chỉ gọi trên main thread (player được tạo với main looper).
+ */
+public final class ExoPlayerPool {
+
+    private static final String TAG = "ExoPlayerPool";
+
+    // Giới hạn số player theo memory class (MB) của thiết bị
+    private static final int LOW_MEMORY_CLASS_MB = 128;
+    private static final int MID_MEMORY_CLASS_MB = 256;
+    private static final int LOW_MEMORY_MAX_PLAYERS = 3;
+    private static final int MID_MEMORY_MAX_PLAYERS = 5;
+    private static final int HIGH_MEMORY_MAX_PLAYERS = 7;
+
+    private static volatile ExoPlayerPool instance;
+
+    private final Context appContext;
+    private final DefaultMediaSourceFactory mediaSourceFactory;
+    private final int maxPlayers;
+    private final ArrayDeque<ExoPlayer> idlePlayers = new ArrayDeque<>();
+    private int inUseCount = 0;
+
+    // Thống kê
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long rejectedCount = 0;
+
+    private ExoPlayerPool(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.maxPlayers = maxPlayersFor(appContext);
+
+        VideoCacheManager videoCacheManager = VideoCacheManager.getInstance(appContext);
+        DataSource.Factory upstreamFactory = new DefaultDataSource.Factory(
+            appContext,
+            new DefaultHttpDataSource.Factory()
+                .setUserAgent("HealthTipsApp/1.0")
+                .setConnectTimeoutMs(30000)
+                .setReadTimeoutMs(30000)
+        );
+        CacheDataSource.Factory cacheDataSourceFactory = new CacheDataSource.Factory()
+            .setCache(videoCacheManager.getCache())
+            .setUpstreamDataSourceFactory(upstreamFactory)
+            .setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR); // Nếu cache lỗi thì fallback online
+        this.mediaSourceFactory = new DefaultMediaSourceFactory(cacheDataSourceFactory);
+
+        appContext.registerComponentCallbacks(new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                if (level >= TRIM_MEMORY_UI_HIDDEN) {
+                    trimIdle();
+                }
+            }
+
+            @Override
+            public void onConfigurationChanged(@NonNull Configuration newConfig) {
+            }
+
+            @Override
+            public void onLowMemory() {
+                trimIdle();
+            }
+        });
+
+        Log.d(TAG, "✅ ExoPlayerPool initialized - max players: " + maxPlayers);
+    }
+
+    public static ExoPlayerPool getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (ExoPlayerPool.class) {
+                if (instance == null) {
+                    instance = new ExoPlayerPool(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Lấy một player cho video đang phát - dùng lại player rảnh nếu có, không thì tạo mới
+     */
+    public ExoPlayer acquire() {
+        ExoPlayer player = idlePlayers.pollFirst();
+        if (player != null) {
+            hitCount++;
+        } else {
+            missCount++;
+            player = createPlayer();
+        }
+        inUseCount++;
+        return player;
+    }
+
+    /**
+     * Lấy một player cho preload
+     * @return null nếu số player đã đạt giới hạn và không còn player rảnh
+     */
+    public ExoPlayer tryAcquire() {
+        if (idlePlayers.isEmpty() && inUseCount >= maxPlayers) {
+            rejectedCount++;
+            return null;
+        }
+        return acquire();
+    }
+
+    /**
+     * Trả player về pool
+     * Người gọi phải gỡ Player.Listener đã gắn và tách player khỏi PlayerView trước khi trả
+     */
+    public void release(ExoPlayer player) {
+        if (player == null) {
+            return;
+        }
+        inUseCount = Math.max(0, inUseCount - 1);
+
+        if (inUseCount + idlePlayers.size() >= maxPlayers) {
+            releaseQuietly(player);
+            return;
+        }
+
+        try {
+            // Không gọi stop() để player giữ renderer - chỉ bỏ media và đưa về trạng thái mặc định
+            player.setPlayWhenReady(false);
+            player.clearMediaItems();
+            player.setVolume(1f);
+            player.setRepeatMode(Player.REPEAT_MODE_OFF);
+            player.setPlaybackParameters(PlaybackParameters.DEFAULT);
+            player.clearVideoSurface();
+            idlePlayers.addFirst(player);
+        } catch (Exception e) {
+            Log.w(TAG, "Không đưa được player về pool", e);
+            releaseQuietly(player);
+        }
+    }
+
+    /**
+     * Giải phóng toàn bộ player rảnh (player đang dùng không bị ảnh hưởng)
+     */
+    public void trimIdle() {
+        if (idlePlayers.isEmpty()) {
+            return;
+        }
+        int trimmed = idlePlayers.size();
+        ExoPlayer player;
+        while ((player = idlePlayers.pollFirst()) != null) {
+            releaseQuietly(player);
+        }
+        Log.d(TAG, "🧹 Released " + trimmed + " idle players - " + getStats());
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Thống kê pool dạng "hits=.. misses=.. rejected=.. inUse=.. idle=.. max=.."
+     */
+    public String getStats() {
+        return "hits=" + hitCount + " misses=" + missCount + " rejected=" + rejectedCount +
+            " inUse=" + inUseCount + " idle=" + idlePlayers.size() + " max=" + maxPlayers;
+    }
+
+    private ExoPlayer createPlayer() {
+        ExoPlayer player = new ExoPlayer.Builder(appContext)
+            .setMediaSourceFactory(mediaSourceFactory)
+            .build();
+        Log.d(TAG, "📦 Created player - " + getStats());
+        return player;
+    }
+
+    private static void releaseQuietly(ExoPlayer player) {
+        try {
+            player.release();
+        } catch (Exception ignore) {
+        }
+    }
+
+    private static int maxPlayersFor(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        if (activityManager == null || activityManager.isLowRamDevice()) {
+            return LOW_MEMORY_MAX_PLAYERS;
+        }
+        int memoryClass = activityManager.getMemoryClass();
+        if (memoryClass <= LOW_MEMORY_CLASS_MB) {
+            return LOW_MEMORY_MAX_PLAYERS;
+        }
+        if (memoryClass <= MID_MEMORY_CLASS_MB) {
+            return MID_MEMORY_MAX_PLAYERS;
+        }
+        return HIGH_MEMORY_MAX_PLAYERS;
+    }
+}
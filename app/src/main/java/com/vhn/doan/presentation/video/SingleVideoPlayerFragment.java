@@ -54,6 +54,8 @@ public class SingleVideoPlayerFragment extends Fragment {
     private List<ShortVideo> videoList;
     private int currentPosition = 0;
     private ExoPlayer player;
+    private Player.Listener playerListener;
+    private ExoPlayerPool playerPool;
     private boolean isPlaying = false;
 
     // Views - giống y hệt Video Short Fragment
@@ -254,7 +256,9 @@ public class SingleVideoPlayerFragment extends Fragment {
 
     private void setupPlayer() {
         if (getContext() != null) {
-            player = new ExoPlayer.Builder(getContext()).build();
+            // Lấy player từ pool dùng chung thay vì tạo mới mỗi lần mở màn hình
+            playerPool = ExoPlayerPool.getInstance(getContext());
+            player = playerPool.acquire();
 
             // Thiết lập repeat mode để video phát lại tự động
             player.setRepeatMode(Player.REPEAT_MODE_ONE);
@@ -262,7 +266,7 @@ public class SingleVideoPlayerFragment extends Fragment {
             playerView.setPlayer(player);
 
             // Thiết lập listener cho player
-            player.addListener(new Player.Listener() {
+            playerListener = new Player.Listener() {
                 @Override
                 public void onPlaybackStateChanged(int playbackState) {
                     switch (playbackState) {
@@ -293,7 +297,8 @@ public class SingleVideoPlayerFragment extends Fragment {
                     showLoading(false);
                     Toast.makeText(getContext(), "Lỗi phát video", Toast.LENGTH_SHORT).show();
                 }
-            });
+            };
+            player.addListener(playerListener);
         }
     }
 
@@ -814,7 +819,15 @@ public class SingleVideoPlayerFragment extends Fragment {
 
     public void releasePlayer() {
         if (player != null) {
-            player.release();
+            // Gỡ listener và PlayerView trước khi trả player về pool
+            if (playerListener != null) {
+                player.removeListener(playerListener);
+                playerListener = null;
+            }
+            if (playerView != null) {
+                playerView.setPlayer(null);
+            }
+            playerPool.release(player);
             player = null;
         }
     }
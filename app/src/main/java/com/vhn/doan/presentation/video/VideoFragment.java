@@ -42,6 +42,8 @@ import java.util.Map;
 public class VideoFragment extends BaseFragment implements VideoView, FragmentVisibilityListener {
 
     private static final String TAG = "VideoFragment";
+    // Số video còn lại trước khi tải trang feed tiếp theo
+    private static final int FEED_LOAD_MORE_THRESHOLD = 3;
 
     private RecyclerView recyclerView;
     private View loadingLayout;
@@ -186,6 +188,11 @@ public class VideoFragment extends BaseFragment implements VideoView, FragmentVi
 
                             // Kiểm tra và cập nhật trạng thái like của video hiện tại
                             presenter.checkLikeStatusForVideo(position);
+
+                            // Gần cuối feed - tải trước trang tiếp theo
+                            if (position >= videoAdapter.getItemCount() - FEED_LOAD_MORE_THRESHOLD) {
+                                presenter.loadNextPage();
+                            }
                         }
                     }
                 }
@@ -251,8 +258,8 @@ public class VideoFragment extends BaseFragment implements VideoView, FragmentVi
             @Override
             public void onLoadMore() {
                 // Load thêm video khi scroll gần hết
-                // TODO: Implement load more videos feature in presenter
                 android.util.Log.d(TAG, "Load more videos requested");
+                presenter.loadNextPage();
             }
 
             @Override
@@ -394,6 +401,22 @@ public class VideoFragment extends BaseFragment implements VideoView, FragmentVi
         }
     }
 
+    @Override
+    public void appendVideoFeed(List<ShortVideo> videos) {
+        if (getActivity() == null || !isAdded()) return;
+
+        videoAdapter.appendVideos(videos);
+        android.util.Log.d(TAG, "➕ Appended " + videos.size() + " videos to feed");
+    }
+
+    @Override
+    public void replaceUpcomingVideos(int fromPosition, List<ShortVideo> videos) {
+        if (getActivity() == null || !isAdded()) return;
+
+        videoAdapter.replaceUpcoming(fromPosition, videos);
+        android.util.Log.d(TAG, "🔀 Re-ranked " + videos.size() + " upcoming videos from position " + fromPosition);
+    }
+
     @Override
     public void showError(String message) {
         // Đảm bảo Fragment vẫn còn hoạt động trước khi hiển thị Snackbar
@@ -1,11 +1,15 @@
 package com.vhn.doan.presentation.video;
 
 import com.vhn.doan.data.ShortVideo;
+import com.vhn.doan.data.VideoFeedPage;
 import com.vhn.doan.data.repository.VideoRepository;
 import com.vhn.doan.presentation.base.BasePresenter;
 import com.vhn.doan.utils.EventBus;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * VideoPresenter xử lý logic nghiệp vụ cho màn hình video short
@@ -13,12 +17,21 @@ import java.util.List;
  */
 public class VideoPresenter extends BasePresenter<VideoView> {
 
+    // Số video mỗi trang feed
+    private static final int FEED_PAGE_SIZE = 12;
+
     private final VideoRepository videoRepository;
     private final EventBus eventBus;
     private List<ShortVideo> currentVideos;
     private int currentPosition = 0;
     private String currentUserId;
     private String currentCountry;
+    private String nextPageToken;
+    private boolean isLoadingPage = false;
+    // Lần tải feed hiện tại - kết quả xếp hạng lại của lần tải cũ bị bỏ qua
+    private int feedGeneration = 0;
+    // true khi danh sách vẫn chỉ gồm trang đầu, có thể nhận thứ tự xếp hạng lại
+    private boolean firstPageRerankable = false;
 
     /**
      * Constructor với dependency injection
@@ -49,33 +62,53 @@ public class VideoPresenter extends BasePresenter<VideoView> {
         view.showLoadingVideos();
         view.hideEmptyState();
 
-        videoRepository.getFeed(userId, country, new VideoRepository.VideoCallback() {
+        nextPageToken = null;
+        isLoadingPage = true;
+        firstPageRerankable = false;
+        final int generation = ++feedGeneration;
+
+        videoRepository.getFeedPage(userId, country, null, FEED_PAGE_SIZE, new VideoRepository.VideoPageCallback() {
             @Override
-            public void onSuccess(List<ShortVideo> videos) {
+            public void onSuccess(VideoFeedPage page) {
+                isLoadingPage = false;
                 // Đảm bảo UI updates chỉ được thực hiện khi view vẫn được attach
-                if (!isViewAttached()) return;
+                if (!isViewAttached() || generation != feedGeneration) return;
 
                 view.hideLoadingVideos();
 
-                if (videos == null || videos.isEmpty()) {
-                    view.showEmptyState();
+                List<ShortVideo> videos = page.getVideos();
+                nextPageToken = page.getContinuationToken();
+
+                if (videos.isEmpty()) {
+                    if (page.hasMore()) {
+                        // Cửa sổ đầu toàn video chưa sẵn sàng - tải tiếp trang sau
+                        loadNextPage();
+                    } else {
+                        view.showEmptyState();
+                    }
                     return;
                 }
 
-                currentVideos = videos;
+                currentVideos = new ArrayList<>(videos);
+                firstPageRerankable = true;
                 view.showVideoFeed(videos);
 
                 // Tự động phát video đầu tiên
-                if (!videos.isEmpty()) {
-                    currentPosition = 0;
-                    view.playVideoAtPosition(currentPosition);
-                }
+                currentPosition = 0;
+                view.playVideoAtPosition(currentPosition);
+            }
+
+            @Override
+            public void onReranked(VideoFeedPage page) {
+                if (!isViewAttached() || generation != feedGeneration || !firstPageRerankable) return;
+                applyReranking(page.getVideos());
             }
 
             @Override
             public void onError(String errorMessage) {
+                isLoadingPage = false;
                 // Đảm bảo UI updates chỉ được thực hiện khi view vẫn được attach
-                if (!isViewAttached()) return;
+                if (!isViewAttached() || generation != feedGeneration) return;
 
                 view.hideLoadingVideos();
                 view.showError(errorMessage);
@@ -83,6 +116,123 @@ public class VideoPresenter extends BasePresenter<VideoView> {
         });
     }
 
+    /**
+     * Tải trang feed tiếp theo và nối vào cuối danh sách hiện tại
+     * Bỏ qua nếu đang tải một trang hoặc đã hết feed
+     */
+    public void loadNextPage() {
+        if (!isViewAttached() || isLoadingPage || nextPageToken == null) {
+            return;
+        }
+
+        isLoadingPage = true;
+        final String requestedToken = nextPageToken;
+        videoRepository.getFeedPage(currentUserId, currentCountry, requestedToken, FEED_PAGE_SIZE,
+                new VideoRepository.VideoPageCallback() {
+            @Override
+            public void onSuccess(VideoFeedPage page) {
+                isLoadingPage = false;
+                // Bỏ trang trả về muộn sau khi feed đã được tải lại
+                if (!isViewAttached() || !requestedToken.equals(nextPageToken)) return;
+
+                nextPageToken = page.getContinuationToken();
+
+                // Bỏ video đã có trong danh sách (cache offline có thể trùng với trang online)
+                Set<String> knownIds = new HashSet<>();
+                if (currentVideos != null) {
+                    for (ShortVideo video : currentVideos) {
+                        knownIds.add(video.getId());
+                    }
+                }
+                List<ShortVideo> newVideos = new ArrayList<>();
+                for (ShortVideo video : page.getVideos()) {
+                    if (video != null && knownIds.add(video.getId())) {
+                        newVideos.add(video);
+                    }
+                }
+
+                if (newVideos.isEmpty()) {
+                    // Cả trang đã lọc hết - thử trang kế tiếp nếu còn
+                    loadNextPage();
+                    return;
+                }
+
+                boolean wasEmpty = currentVideos == null || currentVideos.isEmpty();
+                if (wasEmpty) {
+                    currentVideos = new ArrayList<>(newVideos);
+                    view.hideEmptyState();
+                    view.showVideoFeed(newVideos);
+                    currentPosition = 0;
+                    view.playVideoAtPosition(currentPosition);
+                } else {
+                    currentVideos.addAll(newVideos);
+                    view.appendVideoFeed(newVideos);
+                }
+                firstPageRerankable = false;
+            }
+
+            @Override
+            public void onError(String errorMessage) {
+                isLoadingPage = false;
+                android.util.Log.w("VideoPresenter", "Không tải được trang feed tiếp theo: " + errorMessage);
+                if (isViewAttached() && (currentVideos == null || currentVideos.isEmpty())) {
+                    view.showError(errorMessage);
+                }
+            }
+        });
+    }
+
+    /**
+     * Áp dụng thứ tự mới của trang đầu khi tín hiệu cá nhân hóa về sau video
+     * Chỉ sắp xếp lại các video phía sau video đang xem - những video đã hiển thị giữ nguyên
+     */
+    private void applyReranking(List<ShortVideo> rankedVideos) {
+        if (currentVideos == null || currentVideos.isEmpty()) {
+            return;
+        }
+
+        int fromPosition = Math.min(currentPosition + 1, currentVideos.size());
+        Set<String> shownIds = new HashSet<>();
+        for (int i = 0; i < fromPosition; i++) {
+            shownIds.add(currentVideos.get(i).getId());
+        }
+        List<ShortVideo> upcoming = new ArrayList<>();
+        for (ShortVideo video : rankedVideos) {
+            if (video != null && shownIds.add(video.getId())) {
+                upcoming.add(video);
+            }
+        }
+
+        List<ShortVideo> currentUpcoming = currentVideos.subList(fromPosition, currentVideos.size());
+        if (sameOrder(currentUpcoming, upcoming)) {
+            return;
+        }
+
+        List<ShortVideo> reordered = new ArrayList<>(currentVideos.subList(0, fromPosition));
+        reordered.addAll(upcoming);
+        currentVideos = reordered;
+        view.replaceUpcomingVideos(fromPosition, upcoming);
+    }
+
+    private static boolean sameOrder(List<ShortVideo> first, List<ShortVideo> second) {
+        if (first.size() != second.size()) {
+            return false;
+        }
+        for (int i = 0; i < first.size(); i++) {
+            if (!first.get(i).getId().equals(second.get(i).getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Feed còn trang tiếp theo hay không
+     */
+    public boolean hasMoreVideos() {
+        return nextPageToken != null;
+    }
+
     /**
      * Refresh video feed
      */
@@ -162,8 +312,11 @@ public class VideoPresenter extends BasePresenter<VideoView> {
      * @param videos Danh sách video mới
      */
     public void updateVideoList(List<ShortVideo> videos) {
-        this.currentVideos = videos;
+        this.currentVideos = videos != null ? new ArrayList<>(videos) : null;
         this.currentPosition = 0;
+        // Danh sách tìm kiếm không phân trang theo feed
+        this.nextPageToken = null;
+        this.firstPageRerankable = false;
     }
 
     /**
@@ -405,6 +558,8 @@ public class VideoPresenter extends BasePresenter<VideoView> {
             return;
         }
 
+        // Video này đang được xem - các video phía trước đã hiển thị cho người dùng
+        currentPosition = position;
         ShortVideo video = currentVideos.get(position);
 
         // Cập nhật view count locally trước
@@ -17,6 +17,23 @@ public interface VideoView extends BaseView {
      */
     void showVideoFeed(List<ShortVideo> videos);
 
+    /**
+     * Nối thêm trang video tiếp theo vào cuối feed đang hiển thị
+     * @param videos Các video mới của trang
+     */
+    default void appendVideoFeed(List<ShortVideo> videos) {
+        // Mặc định không hỗ trợ phân trang
+    }
+
+    /**
+     * Thay các video chưa xem (từ fromPosition tới cuối) bằng thứ tự mới sau khi feed được xếp hạng lại
+     * @param fromPosition Vị trí đầu tiên được thay
+     * @param videos Các video mới cho phần còn lại của feed
+     */
+    default void replaceUpcomingVideos(int fromPosition, List<ShortVideo> videos) {
+        // Mặc định giữ nguyên thứ tự đang hiển thị
+    }
+
     /**
      * Hiển thị thông báo lỗi khi tải video
      * @param message Thông báo lỗi
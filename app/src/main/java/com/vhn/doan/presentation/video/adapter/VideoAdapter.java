@@ -24,15 +24,10 @@ import com.google.android.exoplayer2.ExoPlayer;
 import com.google.android.exoplayer2.MediaItem;
 import com.google.android.exoplayer2.PlaybackException;
 import com.google.android.exoplayer2.Player;
-import com.google.android.exoplayer2.source.DefaultMediaSourceFactory;
 import com.google.android.exoplayer2.ui.PlayerView;
-import com.google.android.exoplayer2.upstream.DataSource;
-import com.google.android.exoplayer2.upstream.DefaultDataSource;
-import com.google.android.exoplayer2.upstream.DefaultHttpDataSource;
-import com.google.android.exoplayer2.upstream.cache.CacheDataSource;
 import com.vhn.doan.R;
 import com.vhn.doan.data.ShortVideo;
-import com.vhn.doan.data.local.VideoCacheManager;
+import com.vhn.doan.presentation.video.ExoPlayerPool;
 import com.vhn.doan.utils.CloudinaryUrls;
 
 import java.text.SimpleDateFormat;
@@ -162,6 +157,44 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
         notifyDataSetChanged();
     }
 
+    /**
+     * Nối thêm video vào cuối danh sách mà không release player đang phát
+     */
+    public void appendVideos(List<ShortVideo> moreVideos) {
+        if (moreVideos == null || moreVideos.isEmpty()) return;
+        int start = videos.size();
+        videos.addAll(moreVideos);
+        notifyItemRangeInserted(start, moreVideos.size());
+    }
+
+    /**
+     * Thay phần feed từ fromPosition tới cuối (các video chưa xem) bằng danh sách mới
+     * Video đang phát nằm trước fromPosition nên không bị gián đoạn
+     */
+    public void replaceUpcoming(int fromPosition, List<ShortVideo> upcoming) {
+        if (fromPosition < 0 || fromPosition > videos.size() || upcoming == null) return;
+
+        // Player preload và trạng thái like đang gắn theo vị trí cũ
+        preloadedPlayers.entrySet().removeIf(e -> {
+            if (e.getKey() >= fromPosition) {
+                releaseToPool(e.getValue());
+                return true;
+            }
+            return false;
+        });
+        likeStatusMap.keySet().removeIf(position -> position >= fromPosition);
+
+        int removed = videos.size() - fromPosition;
+        videos.subList(fromPosition, videos.size()).clear();
+        notifyItemRangeRemoved(fromPosition, removed);
+        videos.addAll(upcoming);
+        notifyItemRangeInserted(fromPosition, upcoming.size());
+
+        if (currentPlayingPosition != RecyclerView.NO_POSITION) {
+            preloadAround(currentPlayingPosition);
+        }
+    }
+
     public void updateVideo(ShortVideo video, int position) {
         if (position >= 0 && position < videos.size()) {
             videos.set(position, video);
@@ -229,38 +262,24 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
     private final Map<Integer, ExoPlayer> preloadedPlayers = new HashMap<>(); // đã prepare, mute
     private VideoViewHolder activeHolder;                  // holder đang gắn player
     private Context appContext;
+    private Player.Listener mainPlayerListener;            // listener đang gắn vào currentPlayer
+
+    // 🎯 Pool player dùng chung (đã gắn VideoCacheManager để hỗ trợ offline playback)
+    private ExoPlayerPool playerPool;
 
-    // 🎯 VIDEO CACHE để hỗ trợ offline playback
-    private VideoCacheManager videoCacheManager;
-    private CacheDataSource.Factory cacheDataSourceFactory;
+    private ExoPlayerPool getPlayerPool(Context context) {
+        if (playerPool == null) {
+            playerPool = ExoPlayerPool.getInstance(context);
+        }
+        return playerPool;
+    }
 
     private void ensureCurrentPlayer(Context context) {
         if (currentPlayer != null) return;
         appContext = context.getApplicationContext();
 
-        // 🎯 Khởi tạo Video Cache Manager
-        if (videoCacheManager == null) {
-            videoCacheManager = VideoCacheManager.getInstance(appContext);
-
-            // Tạo CacheDataSourceFactory để ExoPlayer tự động cache
-            DataSource.Factory upstreamFactory = new DefaultDataSource.Factory(
-                appContext,
-                new DefaultHttpDataSource.Factory()
-                    .setUserAgent("HealthTipsApp/1.0")
-                    .setConnectTimeoutMs(30000)
-                    .setReadTimeoutMs(30000)
-            );
-
-            cacheDataSourceFactory = new CacheDataSource.Factory()
-                .setCache(videoCacheManager.getCache())
-                .setUpstreamDataSourceFactory(upstreamFactory)
-                .setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR); // Nếu cache lỗi thì fallback online
-        }
-
-        // Tạo ExoPlayer với cache support
-        currentPlayer = new ExoPlayer.Builder(appContext)
-            .setMediaSourceFactory(new DefaultMediaSourceFactory(cacheDataSourceFactory))
-            .build();
+        // Lấy player từ pool (dùng lại player/decoder của màn hình khác nếu có)
+        currentPlayer = getPlayerPool(appContext).acquire();
 
         // Set repeat mode dựa trên auto-scroll
         currentPlayer.setRepeatMode(autoScrollEnabled ? Player.REPEAT_MODE_OFF : Player.REPEAT_MODE_ONE);
@@ -288,7 +307,7 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
     }
 
     private void attachMainPlayerListener() {
-        currentPlayer.addListener(new Player.Listener() {
+        mainPlayerListener = new Player.Listener() {
             @Override
             public void onPlaybackStateChanged(int state) {
                 if (activeHolder == null) return;
@@ -332,42 +351,54 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
                     activeHolder.showPoster(true);
                 }
             }
-        });
+        };
+        currentPlayer.addListener(mainPlayerListener);
+    }
+
+    /**
+     * Trả player chính về pool: gỡ listener và tách khỏi PlayerView trước
+     */
+    private void releaseCurrentPlayer() {
+        if (currentPlayer == null) return;
+        if (mainPlayerListener != null) {
+            currentPlayer.removeListener(mainPlayerListener);
+            mainPlayerListener = null;
+        }
+        if (activeHolder != null) {
+            activeHolder.playerView.setPlayer(null);
+        }
+        releaseToPool(currentPlayer);
+        currentPlayer = null;
+    }
+
+    private void releaseToPool(ExoPlayer player) {
+        if (playerPool != null) {
+            playerPool.release(player);
+        } else {
+            try { player.release(); } catch (Exception ignore) {}
+        }
     }
 
+    /**
+     * Lấy player preload từ pool
+     * @return null nếu pool đã đủ số player cho phép (bỏ qua preload vị trí này)
+     */
     private ExoPlayer createPreloadPlayer(String url) {
         Context ctx = appContext != null ? appContext : lastKnownContext;
 
-        // 🎯 Đảm bảo cache factory đã được khởi tạo
-        if (cacheDataSourceFactory == null && ctx != null) {
-            videoCacheManager = VideoCacheManager.getInstance(ctx);
-
-            DataSource.Factory upstreamFactory = new DefaultDataSource.Factory(
-                ctx,
-                new DefaultHttpDataSource.Factory()
-                    .setUserAgent("HealthTipsApp/1.0")
-                    .setConnectTimeoutMs(30000)
-                    .setReadTimeoutMs(30000)
-            );
-
-            cacheDataSourceFactory = new CacheDataSource.Factory()
-                .setCache(videoCacheManager.getCache())
-                .setUpstreamDataSourceFactory(upstreamFactory)
-                .setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR);
+        ExoPlayer p = getPlayerPool(ctx).tryAcquire();
+        if (p == null) {
+            Log.d("VideoAdapter", "⏭️ Player pool full - skip preload: " + url);
+            return null;
         }
 
-        // Tạo preload player với cache support
-        ExoPlayer p = new ExoPlayer.Builder(ctx)
-            .setMediaSourceFactory(new DefaultMediaSourceFactory(cacheDataSourceFactory))
-            .build();
-
         p.setRepeatMode(Player.REPEAT_MODE_ONE);
         p.setPlayWhenReady(false);      // preload -> không phát
         p.setVolume(0f);                // luôn mute trong preload
         p.setMediaItem(MediaItem.fromUri(Uri.parse(url)));
         p.prepare();                    // sẵn sàng - ExoPlayer sẽ tự cache!
 
-        Log.d("VideoAdapter", "📦 Preload player created with cache for: " + url);
+        Log.d("VideoAdapter", "📦 Preload player acquired for: " + url);
         return p;
     }
 
@@ -498,10 +529,8 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
                 pre.pause();
                 pre.setPlayWhenReady(false);
 
-                // Giải phóng player chính cũ
-                if (currentPlayer != null) {
-                    try { currentPlayer.release(); } catch (Exception ignore) {}
-                }
+                // Trả player chính cũ về pool
+                releaseCurrentPlayer();
 
                 // Handover sang player chính
                 currentPlayer = pre;
@@ -575,23 +604,19 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
      * Dọn dẹp toàn bộ players (Fragment onDestroyView/onDestroy).
      */
     public void releaseAllPlayers() {
-        if (currentPlayer != null) {
-            try {
-                // 🎯 QUAN TRỌNG: Stop và clear media items trước khi release
-                currentPlayer.stop();
-                currentPlayer.clearMediaItems();
-                currentPlayer.release();
-            } catch (Exception ignore) {}
-            currentPlayer = null;
-        }
+        // 🎯 Player được trả về pool (pool tự bỏ media item) để màn hình sau dùng lại
+        releaseCurrentPlayer();
         if (loudnessEnhancer != null) {
             try { loudnessEnhancer.release(); } catch (Exception ignore) {}
             loudnessEnhancer = null;
         }
         for (ExoPlayer p : preloadedPlayers.values()) {
-            try { p.release(); } catch (Exception ignore) {}
+            releaseToPool(p);
         }
         preloadedPlayers.clear();
+        if (playerPool != null) {
+            Log.d("VideoAdapter", "📊 Player pool: " + playerPool.getStats());
+        }
         activeHolder = null;
         currentPlayingPosition = RecyclerView.NO_POSITION;
     }
@@ -606,7 +631,7 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
             int pos = e.getKey();
             // 🎯 Xóa player preload nếu quá xa HOẶC là video đang phát
             if (Math.abs(pos - anchorPosition) > PRELOAD_AHEAD || pos == anchorPosition) {
-                try { e.getValue().release(); } catch (Exception ignore) {}
+                releaseToPool(e.getValue());
                 return true;
             }
             return false;
@@ -619,8 +644,9 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
             if (next < getItemCount() && next != anchorPosition && !preloadedPlayers.containsKey(next)) {
                 try {
                     String url = getVideoUrl(videos.get(next));
-                    if (url != null && !url.isEmpty()) {
-                        preloadedPlayers.put(next, createPreloadPlayer(url));
+                    ExoPlayer p = url != null && !url.isEmpty() ? createPreloadPlayer(url) : null;
+                    if (p != null) {
+                        preloadedPlayers.put(next, p);
                     }
                 } catch (Exception e) {
                     android.util.Log.e("VideoAdapter", "Error preloading video at position " + next, e);
@@ -631,8 +657,9 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
             if (prev >= 0 && prev != anchorPosition && !preloadedPlayers.containsKey(prev)) {
                 try {
                     String url = getVideoUrl(videos.get(prev));
-                    if (url != null && !url.isEmpty()) {
-                        preloadedPlayers.put(prev, createPreloadPlayer(url));
+                    ExoPlayer p = url != null && !url.isEmpty() ? createPreloadPlayer(url) : null;
+                    if (p != null) {
+                        preloadedPlayers.put(prev, p);
                     }
                 } catch (Exception e) {
                     android.util.Log.e("VideoAdapter", "Error preloading video at position " + prev, e);
@@ -9,6 +9,7 @@ import com.vhn.doan.data.Reminder;
 import com.vhn.doan.data.repository.ReminderRepository;
 import com.vhn.doan.data.repository.ReminderRepositoryImpl;
 import com.vhn.doan.services.ReminderService;
+import com.vhn.doan.utils.SyncScheduler;
 import com.vhn.doan.utils.UserSessionManager;
 
 import java.util.List;
@@ -31,6 +32,9 @@ public class BootReceiver extends BroadcastReceiver {
 
             Log.d(TAG, "Device booted or app updated - rescheduling all active reminders");
             rescheduleAllActiveReminders(context);
+
+            // Lần mở khóa đầu tiên sau khi khởi động: tính sẵn đề xuất của hôm nay
+            SyncScheduler.prepareTodayRecommendations(context);
         }
     }
 
@@ -14,6 +14,7 @@ public class Constants {
     public static final String USERS_REF = "users";
     public static final String CATEGORIES_REF = "categories";
     public static final String HEALTH_TIPS_REF = "health_tips";
+    public static final String DELETED_HEALTH_TIPS_REF = "deleted_health_tips"; // Tombstone: {tipId: deletedAt}
     public static final String VIDEOS_REF = "videos";
     public static final String TRENDING_VIDEOS_REF = "trendingVideos";
     public static final String USER_PREFERENCES_REF = "preferences";
@@ -24,6 +25,8 @@ public class Constants {
 
     // Constants cho Video Structure - cần thiết cho likes và comments
     public static final String VIDEO_LIKES_REF = "likes";
+    public static final String USER_LIKED_VIDEOS_REF = "likedVideos"; // users/{uid}/likedVideos/{videoId}: thời điểm thích
+    public static final String USER_LIKED_VIDEOS_INDEXED = "likedVideosIndexed"; // Cờ: index đã bù lượt thích cũ
     public static final String VIDEO_COMMENTS_REF = "comments";
     public static final String COMMENT_LIKES_REF = "likes";
     public static final String COMMENT_REPLIES_REF = "replies";
@@ -45,6 +45,7 @@ public class DataStoreManager {
         // Cache keys
         public static final Preferences.Key<Long> LAST_CACHE_CLEANUP = PreferencesKeys.longKey("last_cache_cleanup");
         public static final Preferences.Key<Long> LAST_DATA_SYNC = PreferencesKeys.longKey("last_data_sync");
+        public static final Preferences.Key<Long> LAST_SEARCH_INDEX_SYNC = PreferencesKeys.longKey("last_search_index_sync");
 
         // Account deletion keys
         public static final Preferences.Key<Boolean> ACCOUNT_PENDING_DELETION = PreferencesKeys.booleanKey("account_pending_deletion");
@@ -31,6 +31,10 @@ public class HealthTipsGlideModule extends AppGlideModule {
     private static final int DISK_CACHE_SIZE = 250 * 1024 * 1024; // 250 MB
     private static final String DISK_CACHE_DIR = "image_cache";
 
+    // Phần disk cache tối đa OfflineImagePrecacheWorker được ghi ảnh tải sẵn, phần còn lại cho ảnh
+    // xem khi duyệt. Disk cache là một LRU chung nên ảnh tải sẵn vẫn có thể bị đẩy ra - worker kiểm tra lại mỗi lượt
+    private static final int OFFLINE_PRECACHE_PERCENT = 40;
+
     @Override
     public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
         // Tính toán memory cache size dựa trên device
@@ -116,4 +120,11 @@ public class HealthTipsGlideModule extends AppGlideModule {
     public static long getCacheSize() {
         return DISK_CACHE_SIZE;
     }
+
+    /**
+     * Ngân sách byte cho ảnh tải sẵn cho offline (một phần của disk cache)
+     */
+    public static long getOfflinePrecacheBudget() {
+        return (long) DISK_CACHE_SIZE * OFFLINE_PRECACHE_PERCENT / 100;
+    }
 }
@@ -5,12 +5,17 @@ import android.util.Log;
 
 import androidx.work.Constraints;
 import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
 import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
 import androidx.work.PeriodicWorkRequest;
 import androidx.work.WorkManager;
 
+import com.vhn.doan.workers.DailyRecommendationWorker;
 import com.vhn.doan.workers.HealthTipSyncWorker;
+import com.vhn.doan.workers.OfflineImagePrecacheWorker;
 
+import java.util.Calendar;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -20,6 +25,12 @@ public class SyncScheduler {
 
     private static final String TAG = "SyncScheduler";
     private static final String HEALTH_TIP_SYNC_WORK_NAME = "health_tip_sync";
+    private static final String DAILY_RECOMMENDATION_WORK_NAME = "daily_recommendations";
+    private static final String TODAY_RECOMMENDATION_WORK_NAME = "daily_recommendations_today";
+    private static final String OFFLINE_IMAGE_PRECACHE_WORK_NAME = "offline_image_precache";
+
+    // Tính đề xuất ngày mới lúc 00:05 (giờ máy)
+    private static final int DAILY_RECOMMENDATION_MINUTE_AFTER_MIDNIGHT = 5;
 
     /**
      * Schedule periodic sync cho health tips
@@ -93,4 +104,96 @@ public class SyncScheduler {
 
         WorkManager.getInstance(context).enqueue(syncWorkRequest);
     }
+
+    /**
+     * Schedule tính trước đề xuất theo ngày:
+     * - Periodic mỗi 24 giờ, lần đầu ngay sau nửa đêm kế tiếp
+     * - One-time ngay bây giờ cho ngày hôm nay (worker bỏ qua nếu hôm nay đã có danh sách)
+     */
+    public static void scheduleDailyRecommendations(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        long initialDelay = millisUntilNextMidnight(System.currentTimeMillis())
+                + TimeUnit.MINUTES.toMillis(DAILY_RECOMMENDATION_MINUTE_AFTER_MIDNIGHT);
+        Log.d(TAG, "Scheduling daily recommendations, first run in " + initialDelay / 60000 + " minutes");
+
+        PeriodicWorkRequest dailyRequest = new PeriodicWorkRequest.Builder(
+                DailyRecommendationWorker.class,
+                24,
+                TimeUnit.HOURS
+        )
+                .setInitialDelay(initialDelay, TimeUnit.MILLISECONDS)
+                .setConstraints(constraints)
+                .addTag("recommendations")
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                DAILY_RECOMMENDATION_WORK_NAME,
+                ExistingPeriodicWorkPolicy.KEEP,
+                dailyRequest
+        );
+
+        prepareTodayRecommendations(context);
+    }
+
+    /**
+     * Tính đề xuất của hôm nay ngay khi có mạng (mở app, khởi động lại máy)
+     */
+    public static void prepareTodayRecommendations(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest todayRequest = new OneTimeWorkRequest.Builder(DailyRecommendationWorker.class)
+                .setConstraints(constraints)
+                .addTag("recommendations")
+                .build();
+
+        // KEEP: nếu lần trước còn đang chờ mạng thì không xếp thêm
+        WorkManager.getInstance(context).enqueueUniqueWork(
+                TODAY_RECOMMENDATION_WORK_NAME,
+                ExistingWorkPolicy.KEEP,
+                todayRequest
+        );
+    }
+
+    /**
+     * Schedule tải sẵn ảnh của các tip đã cache cho offline
+     * Mỗi 12 giờ, chỉ khi mạng không tính phí (WiFi), pin không yếu và bộ nhớ không đầy
+     */
+    public static void scheduleOfflineImagePrecache(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresBatteryNotLow(true)
+                .setRequiresStorageNotLow(true)
+                .build();
+
+        PeriodicWorkRequest precacheRequest = new PeriodicWorkRequest.Builder(
+                OfflineImagePrecacheWorker.class,
+                12,
+                TimeUnit.HOURS
+        )
+                .setConstraints(constraints)
+                .addTag("offline_images")
+                .build();
+
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(
+                OFFLINE_IMAGE_PRECACHE_WORK_NAME,
+                ExistingPeriodicWorkPolicy.KEEP,
+                precacheRequest
+        );
+    }
+
+    private static long millisUntilNextMidnight(long now) {
+        Calendar midnight = Calendar.getInstance();
+        midnight.setTimeInMillis(now);
+        midnight.add(Calendar.DAY_OF_YEAR, 1);
+        midnight.set(Calendar.HOUR_OF_DAY, 0);
+        midnight.set(Calendar.MINUTE, 0);
+        midnight.set(Calendar.SECOND, 0);
+        midnight.set(Calendar.MILLISECOND, 0);
+        return midnight.getTimeInMillis() - now;
+    }
 }
@@ -0,0 +1,116 @@
+package com.vhn.doan.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Chuẩn hóa văn bản tiếng Việt cho tìm kiếm không dấu
+ * - Bỏ dấu thanh và dấu mũ ("sức khỏe" -> "suc khoe")
+ * - Chuyển đ/Đ thành d (Unicode không tách được đ khi NFD)
+ * - Gộp mọi ký tự không phải chữ/số thành một khoảng trắng
+ *
+ * Class thuần Java (không phụ thuộc Android) để dùng chung cho Room index và unit test
+ */
+public final class VietnameseTextNormalizer {
+
+    // Độ dài n-gram dùng cho index tìm kiếm chuỗi con
+    public static final int GRAM_SIZE = 3;
+
+    private VietnameseTextNormalizer() {
+        // Utility class
+    }
+
+    /**
+     * Chuẩn hóa một chuỗi: chữ thường, không dấu, chỉ gồm chữ/số và khoảng trắng đơn
+     * @param text Văn bản gốc (có thể null)
+     * @return Chuỗi đã chuẩn hóa, rỗng nếu text null
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue; // Dấu thanh/dấu mũ đã được tách ra bởi NFD
+            }
+            if (c == 'đ') {
+                c = 'd';
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && builder.length() > 0) {
+                    builder.append(' ');
+                }
+                pendingSpace = false;
+                builder.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Tách văn bản thành các token đã chuẩn hóa
+     * @param text Văn bản gốc
+     * @return Danh sách token theo thứ tự xuất hiện
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return tokens;
+        }
+        for (String token : normalized.split(" ")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Sinh tập trigram (không trùng lặp) từ một chuỗi ĐÃ chuẩn hóa
+     * Trigram được lấy trên toàn chuỗi (kể cả khoảng trắng) để truy vấn nhiều từ vẫn khớp chuỗi con
+     * @param normalized Chuỗi đã qua normalize()
+     * @return Tập trigram, rỗng nếu chuỗi ngắn hơn GRAM_SIZE
+     */
+    public static Set<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (normalized == null || normalized.length() < GRAM_SIZE) {
+            return grams;
+        }
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    /**
+     * Ghép nhiều trường văn bản thành một tài liệu đã chuẩn hóa để index
+     * @param fields Các trường (title, excerpt, content...), bỏ qua giá trị null
+     */
+    public static String normalizeFields(String... fields) {
+        StringBuilder builder = new StringBuilder();
+        for (String field : fields) {
+            String normalized = normalize(field);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(normalized);
+        }
+        return builder.toString();
+    }
+}
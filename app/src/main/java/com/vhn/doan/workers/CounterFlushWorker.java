@@ -0,0 +1,39 @@
+package com.vhn.doan.workers;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.vhn.doan.data.repository.CounterAggregator;
+
+/**
+ * WorkManager Worker gửi nốt lượt xem/lượt thích còn chờ trong CounterAggregator
+ * Được lên lịch khi app xuống nền, chạy khi có mạng kể cả sau khi process bị kill
+ */
+public class CounterFlushWorker extends Worker {
+
+    private static final String TAG = "CounterFlushWorker";
+
+    public CounterFlushWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            if (CounterAggregator.getInstance(getApplicationContext()).flushBlocking()) {
+                Log.d(TAG, "Pending counters flushed");
+                return Result.success();
+            }
+            // Đang có lượt flush khác, lệnh ghi lỗi hoặc chưa xong - thử lại sau
+            return Result.retry();
+        } catch (Exception e) {
+            Log.e(TAG, "Error flushing counters: " + e.getMessage(), e);
+            return getRunAttemptCount() < 3 ? Result.retry() : Result.failure();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.vhn.doan.workers;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.local.AppDatabase;
+import com.vhn.doan.data.repository.DailyRecommendationGenerator;
+import com.vhn.doan.data.repository.HealthTipRepository;
+import com.vhn.doan.data.repository.HealthTipRepositoryImpl;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkManager Worker tính trước danh sách đề xuất của ngày hôm nay
+ * Chạy ngay sau nửa đêm (periodic) và khi mở app/khởi động máy lần đầu trong ngày (one-time),
+ * kết quả lưu trong bảng daily_recommendations theo khóa yyyy-MM-dd
+ */
+public class DailyRecommendationWorker extends Worker {
+
+    private static final String TAG = "DailyRecommendWorker";
+
+    // Giữ đề xuất của 7 ngày gần nhất
+    private static final long RETENTION_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+    public DailyRecommendationWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String today = DailyRecommendationGenerator.today();
+        Log.d(TAG, "Preparing recommendations for " + today);
+
+        try {
+            HealthTipRepository repository = new HealthTipRepositoryImpl(getApplicationContext());
+            CountDownLatch latch = new CountDownLatch(1);
+            final boolean[] success = {false};
+
+            repository.prepareDailyRecommendedHealthTips(today, new HealthTipRepository.HealthTipCallback() {
+                @Override
+                public void onSuccess(List<HealthTip> healthTips) {
+                    Log.d(TAG, healthTips.size() + " recommendations ready for " + today);
+                    success[0] = true;
+                    latch.countDown();
+                }
+
+                @Override
+                public void onError(String errorMessage) {
+                    Log.e(TAG, "Error preparing recommendations: " + errorMessage);
+                    latch.countDown();
+                }
+            });
+
+            // Wait tối đa 60 giây
+            if (!latch.await(60, TimeUnit.SECONDS) || !success[0]) {
+                return getRunAttemptCount() < 3 ? Result.retry() : Result.failure();
+            }
+
+            deleteExpiredRecommendations();
+            return Result.success();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        } catch (Exception e) {
+            Log.e(TAG, "Error preparing recommendations: " + e.getMessage(), e);
+            return getRunAttemptCount() < 3 ? Result.retry() : Result.failure();
+        }
+    }
+
+    private void deleteExpiredRecommendations() {
+        String oldestKept = new SimpleDateFormat(DailyRecommendationGenerator.DATE_PATTERN, Locale.getDefault())
+                .format(new Date(System.currentTimeMillis() - RETENTION_MILLIS));
+        AppDatabase database = AppDatabase.getInstance(getApplicationContext());
+        database.enqueueWrite(() -> database.dailyRecommendationDao().deleteBefore(oldestKept));
+    }
+}
@@ -7,24 +7,26 @@ import androidx.annotation.NonNull;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 
-import com.vhn.doan.data.HealthTip;
+import com.vhn.doan.data.local.HealthTipSearchIndex;
+import com.vhn.doan.data.local.RecommendationEngine;
 import com.vhn.doan.data.repository.HealthTipRepository;
 import com.vhn.doan.data.repository.HealthTipRepositoryImpl;
-
-import java.util.List;
+import com.vhn.doan.utils.DataStoreManager;
 
 /**
  * WorkManager Worker để sync health tips từ Firebase định kỳ
- * Chạy ngầm để tự động cập nhật cache local
+ * Chạy ngầm để tự động cập nhật cache local (delta sync theo watermark updatedAt)
  */
 public class HealthTipSyncWorker extends Worker {
 
     private static final String TAG = "HealthTipSyncWorker";
     private final HealthTipRepository healthTipRepository;
+    private final DataStoreManager dataStoreManager;
 
     public HealthTipSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
         super(context, params);
         this.healthTipRepository = new HealthTipRepositoryImpl(context);
+        this.dataStoreManager = DataStoreManager.getInstance(context);
     }
 
     @NonNull
@@ -36,6 +38,12 @@ public class HealthTipSyncWorker extends Worker {
             // Sync health tips từ Firebase
             syncHealthTips();
 
+            // Dữ liệu mới đã được ghi vào Room (index FTS tự cập nhật qua trigger)
+            HealthTipSearchIndex.getInstance(getApplicationContext()).markFresh();
+
+            // Số tip theo danh mục và độ mới đã đổi - chấm lại điểm đề xuất toàn bộ cache
+            RecommendationEngine.getInstance(getApplicationContext()).rescoreAll();
+
             Log.d(TAG, "Health tips sync completed successfully");
             return Result.success();
 
@@ -52,18 +60,26 @@ public class HealthTipSyncWorker extends Worker {
     }
 
     /**
-     * Sync health tips từ Firebase và lưu vào Room cache
+     * Delta sync health tips từ Firebase và lưu vào Room cache
+     * Chỉ tải các tip có updatedAt >= watermark (LAST_DATA_SYNC) và tombstone mới,
+     * nên băng thông tỷ lệ với lượng thay đổi thay vì kích thước catalog
      */
     private void syncHealthTips() {
         final Object lock = new Object();
         final boolean[] syncCompleted = {false};
         final boolean[] syncSuccess = {false};
+        final long[] newWatermark = {0L};
 
-        healthTipRepository.getAllHealthTips(new HealthTipRepository.HealthTipCallback() {
+        long watermark = dataStoreManager.getLong(DataStoreManager.Keys.LAST_DATA_SYNC, 0L)
+                .blockingFirst(0L);
+        Log.d(TAG, "Delta sync from watermark: " + watermark);
+
+        healthTipRepository.syncHealthTipsSince(watermark, new HealthTipRepository.DeltaSyncCallback() {
             @Override
-            public void onSuccess(List<HealthTip> healthTips) {
+            public void onSuccess(int upsertedCount, int deletedCount, long watermarkAfterSync) {
                 synchronized (lock) {
-                    Log.d(TAG, "Synced " + healthTips.size() + " health tips");
+                    Log.d(TAG, "Synced " + upsertedCount + " changed, " + deletedCount + " deleted health tips");
+                    newWatermark[0] = watermarkAfterSync;
                     syncSuccess[0] = true;
                     syncCompleted[0] = true;
                     lock.notifyAll();
@@ -96,5 +112,8 @@ public class HealthTipSyncWorker extends Worker {
         if (!syncSuccess[0]) {
             throw new RuntimeException("Failed to sync health tips");
         }
+
+        // Chỉ tăng watermark sau khi Room đã ghi xong
+        dataStoreManager.putLong(DataStoreManager.Keys.LAST_DATA_SYNC, newWatermark[0]).blockingGet();
     }
 }
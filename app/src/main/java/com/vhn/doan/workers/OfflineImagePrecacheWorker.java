@@ -0,0 +1,192 @@
+package com.vhn.doan.workers;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Priority;
+import com.vhn.doan.data.local.AppDatabase;
+import com.vhn.doan.data.local.dao.OfflineImageDao;
+import com.vhn.doan.data.local.entity.OfflineImageCandidate;
+import com.vhn.doan.data.local.entity.OfflineImageStateEntity;
+import com.vhn.doan.utils.HealthTipsGlideModule;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkManager Worker tải sẵn ảnh của các tip trong cache Room vào disk cache của Glide
+ *
+ * Room giữ nội dung chữ cho offline nhưng ảnh chỉ có trong disk cache nếu đã từng hiển thị.
+ * Worker duyệt các tip theo thứ tự ưu tiên (đã thích/yêu thích, điểm đề xuất, vừa truy cập),
+ * tải ảnh bìa và ảnh trong content blocks, dừng khi tổng byte ảnh tải sẵn chạm
+ * HealthTipsGlideModule.getOfflinePrecacheBudget(). Trạng thái từng tip (đủ ảnh hay chưa)
+ * lưu trong bảng offline_images.
+ *
+ * Disk cache của Glide là một LRU chung: ảnh xem khi duyệt (và ảnh tải sẵn khác) vẫn có thể đẩy
+ * ảnh tải sẵn ra, ngân sách chỉ giới hạn phần worker tự ghi vào. Vì vậy mỗi lượt kiểm tra lại
+ * ảnh của tip đã đánh dấu sẵn sàng (onlyRetrieveFromCache) và tải lại / bỏ đánh dấu khi ảnh đã mất.
+ *
+ * Chỉ chạy khi mạng không tính phí và pin không yếu (xem SyncScheduler.scheduleOfflineImagePrecache).
+ */
+public class OfflineImagePrecacheWorker extends Worker {
+
+    private static final String TAG = "OfflineImageWorker";
+
+    // Số tip xét mỗi lượt
+    private static final int MAX_TIPS_PER_RUN = 200;
+
+    // Thời gian chờ tối đa cho một ảnh
+    private static final long IMAGE_TIMEOUT_SECONDS = 30;
+
+    public OfflineImagePrecacheWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        AppDatabase database = AppDatabase.getInstance(getApplicationContext());
+        OfflineImageDao offlineImageDao = database.offlineImageDao();
+
+        try {
+            // Bỏ trạng thái của tip đã bị xóa khỏi cache (lượt này vẫn tính chúng vào ngân sách - an toàn hơn)
+            database.enqueueWrite(offlineImageDao::deleteOrphans);
+            long budget = HealthTipsGlideModule.getOfflinePrecacheBudget();
+            long usedBytes = offlineImageDao.getReadyByteSizeSync();
+
+            Map<String, OfflineImageStateEntity> states = new HashMap<>();
+            for (OfflineImageStateEntity state : offlineImageDao.getAllSync()) {
+                states.put(state.getTipId(), state);
+            }
+
+            List<OfflineImageCandidate> candidates =
+                    database.healthTipDao().getOfflineImageCandidatesSync(MAX_TIPS_PER_RUN);
+
+            int readyTips = 0;
+            int downloadedTips = 0;
+            int failedImages = 0;
+            int evictedTips = 0;
+            for (OfflineImageCandidate candidate : candidates) {
+                if (isStopped()) {
+                    Log.d(TAG, "Stopped by WorkManager (constraints changed)");
+                    return Result.retry();
+                }
+
+                List<String> imageUrls = candidate.getImageUrls();
+                int signature = OfflineImageStateEntity.signatureOf(imageUrls);
+                OfflineImageStateEntity previous = states.get(candidate.id);
+                if (previous != null && previous.isReady() && previous.getImageSignature() == signature) {
+                    if (allInDiskCache(imageUrls)) {
+                        readyTips++;
+                        continue;
+                    }
+                    // Glide đã đẩy ảnh ra khỏi disk cache: tip không còn đọc offline đủ ảnh
+                    evictedTips++;
+                    usedBytes -= previous.getByteSize();
+                    OfflineImageStateEntity evicted = new OfflineImageStateEntity(candidate.id, signature,
+                            imageUrls.size(), 0, false, System.currentTimeMillis());
+                    database.enqueueWrite(() -> offlineImageDao.upsert(evicted));
+                    previous = null;
+                }
+                if (usedBytes >= budget) {
+                    Log.d(TAG, "Offline image budget reached: " + usedBytes / 1024 / 1024 + "MB");
+                    break;
+                }
+
+                long tipBytes = 0;
+                int downloaded = 0;
+                for (String url : imageUrls) {
+                    long size = download(url);
+                    if (size >= 0) {
+                        tipBytes += size;
+                        downloaded++;
+                    } else {
+                        failedImages++;
+                    }
+                }
+
+                boolean ready = downloaded == imageUrls.size();
+                if (ready) {
+                    readyTips++;
+                    usedBytes += tipBytes;
+                    if (previous != null && previous.isReady()) {
+                        // Ảnh cũ của tip này không còn được tính
+                        usedBytes -= previous.getByteSize();
+                    }
+                }
+                downloadedTips++;
+                OfflineImageStateEntity state = new OfflineImageStateEntity(candidate.id, signature,
+                        imageUrls.size(), tipBytes, ready, System.currentTimeMillis());
+                database.enqueueWrite(() -> offlineImageDao.upsert(state));
+            }
+
+            Log.d(TAG, "Offline images: " + readyTips + "/" + candidates.size() + " tips ready, "
+                    + downloadedTips + " processed, " + evictedTips + " evicted by Glide, "
+                    + failedImages + " images failed, "
+                    + usedBytes / 1024 + "KB of " + budget / 1024 + "KB");
+            return Result.success();
+
+        } catch (Exception e) {
+            Log.e(TAG, "Error pre-caching offline images: " + e.getMessage(), e);
+            return getRunAttemptCount() < 3 ? Result.retry() : Result.failure();
+        }
+    }
+
+    /**
+     * Ảnh gốc của mọi URL còn trong disk cache của Glide (chỉ đọc cache, không tải mạng)
+     * Bị dừng giữa chừng thì coi như còn - không bỏ đánh dấu vì thiếu thông tin.
+     */
+    private boolean allInDiskCache(List<String> urls) {
+        for (String url : urls) {
+            try {
+                File file = Glide.with(getApplicationContext())
+                        .downloadOnly()
+                        .load(url)
+                        .onlyRetrieveFromCache(true)
+                        .submit()
+                        .get(IMAGE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                if (file == null || !file.exists()) {
+                    return false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return true;
+            } catch (Exception e) {
+                // Glide báo lỗi khi không có trong cache mà không được tải mạng
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tải ảnh gốc vào disk cache của Glide (DATA) - khi offline, request mặc định (AUTOMATIC)
+     * decode từ bản gốc này theo đúng kích thước ImageView của màn hình hiển thị
+     * @return số byte trong disk cache, -1 nếu lỗi
+     */
+    private long download(String url) {
+        try {
+            File file = Glide.with(getApplicationContext())
+                    .downloadOnly()
+                    .load(url)
+                    .priority(Priority.LOW)
+                    .submit()
+                    .get(IMAGE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return file != null ? file.length() : -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            Log.w(TAG, "Failed to pre-cache image " + url + ": " + e.getMessage());
+            return -1;
+        }
+    }
+}
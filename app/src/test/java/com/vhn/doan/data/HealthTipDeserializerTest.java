@@ -0,0 +1,179 @@
+package com.vhn.doan.data;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Kiểm tra HealthTipDeserializer đọc đúng các định dạng node cũ và mới
+ * (đo thời gian parse: SnapshotParsingBenchmark trong module :benchmark)
+ *
+ * DataSnapshot không tạo được ngoài Android nên mỗi node là cây Map/List mà
+ * DataSnapshot.getValue() trả về (Long/Double, ArrayList, HashMap), dựng từ bài viết
+ * thật trong sample_health_tip_data.json với 4 biến thể định dạng xen kẽ:
+ * - 0: định dạng mới (contentBlocks dạng List)
+ * - 1: định dạng cũ (content là chuỗi, tags dạng Map tag -> true)
+ * - 2: số lưu thành chuỗi, contentBlocks dạng Map theo chỉ số
+ * - 3: content là danh sách khối, cờ liked dạng chuỗi
+ */
+public class HealthTipDeserializerTest {
+
+    // Hai lượt của 4 biến thể định dạng
+    private static final int NODES = 8;
+
+    @Test
+    public void deserializer_readsLegacyAndCurrentFormats() throws IOException {
+        List<Map<String, Object>> nodes = buildSnapshot();
+        Map<String, Object> sample = nodes.get(0);
+        int blockCount = ((List<?>) sample.get("contentBlocks")).size();
+
+        for (int i = 0; i < NODES; i++) {
+            HealthTip tip = HealthTipDeserializer.fromValue("tip_" + i, nodes.get(i));
+            assertNotNull(tip);
+            assertEquals("tip_" + i, tip.getId());
+            assertEquals(sample.get("title"), tip.getTitle());
+            assertEquals(2847, (int) tip.getViewCount());
+            assertEquals(156, (int) tip.getLikeCount());
+            assertEquals(1727683200000L, (long) tip.getCreatedAt());
+            assertEquals(6, tip.getTags().size());
+            assertEquals(Boolean.TRUE, tip.getIsFeature());
+
+            switch (i % 4) {
+                case 1:
+                    assertEquals("Nội dung dạng chuỗi " + i, tip.getContent());
+                    assertFalse(tip.hasContentBlocks());
+                    break;
+                case 3:
+                    assertTrue(tip.isLiked());
+                    assertNull(tip.getContent());
+                    assertEquals(blockCount, tip.getContentBlockObjects().size());
+                    break;
+                default:
+                    assertEquals(blockCount, tip.getContentBlockObjects().size());
+                    assertEquals("intro_block_1", tip.getContentBlockObjects().get(0).getId());
+                    break;
+            }
+        }
+
+        // Số âm/không đọc được và node không phải bài viết
+        Map<String, Object> broken = new HashMap<>();
+        broken.put("viewCount", -5L);
+        broken.put("likeCount", "abc");
+        broken.put("tags", "không phải danh sách");
+        HealthTip tip = HealthTipDeserializer.fromValue("broken", broken);
+        assertNotNull(tip);
+        assertEquals(0, (int) tip.getViewCount());
+        assertEquals(0, (int) tip.getLikeCount());
+        assertNull(tip.getTags());
+        assertNull(tip.getTitle());
+        assertTrue(tip.getCreatedAt() > 0);
+        assertNull(HealthTipDeserializer.fromValue("leaf", "chuỗi"));
+        assertNull(HealthTipDeserializer.fromValue("missing", null));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> buildSnapshot() throws IOException {
+        JsonObject article = loadSampleArticle();
+        List<Map<String, Object>> nodes = new ArrayList<>(NODES);
+        for (int i = 0; i < NODES; i++) {
+            Map<String, Object> node = (Map<String, Object>) toFirebaseValue(article);
+            switch (i % 4) {
+                case 1: {
+                    node.remove("contentBlocks");
+                    node.put("content", "Nội dung dạng chuỗi " + i);
+                    Map<String, Object> tags = new HashMap<>();
+                    for (Object tag : (List<?>) node.get("tags")) {
+                        tags.put((String) tag, true);
+                    }
+                    node.put("tags", tags);
+                    break;
+                }
+                case 2: {
+                    node.put("viewCount", String.valueOf(node.get("viewCount")));
+                    node.put("likeCount", String.valueOf(node.get("likeCount")));
+                    node.put("createdAt", String.valueOf(node.get("createdAt")));
+                    Map<String, Object> blocks = new HashMap<>();
+                    List<?> list = (List<?>) node.get("contentBlocks");
+                    for (int b = 0; b < list.size(); b++) {
+                        blocks.put(String.valueOf(b), list.get(b));
+                    }
+                    node.put("contentBlocks", blocks);
+                    break;
+                }
+                case 3:
+                    node.put("content", node.remove("contentBlocks"));
+                    node.put("liked", "true");
+                    break;
+                default:
+                    break;
+            }
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    /**
+     * Chuyển JSON sang kiểu mà Firebase trả về: số nguyên -> Long, số thực -> Double
+     */
+    private static Object toFirebaseValue(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        if (element.isJsonObject()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                Object value = toFirebaseValue(entry.getValue());
+                if (value != null) {
+                    map.put(entry.getKey(), value);
+                }
+            }
+            return map;
+        }
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            List<Object> list = new ArrayList<>(array.size());
+            for (JsonElement item : array) {
+                list.add(toFirebaseValue(item));
+            }
+            return list;
+        }
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+            return primitive.getAsBoolean();
+        }
+        if (primitive.isNumber()) {
+            double number = primitive.getAsDouble();
+            return number == Math.rint(number) ? (Object) primitive.getAsLong() : (Object) number;
+        }
+        return primitive.getAsString();
+    }
+
+    private static JsonObject loadSampleArticle() throws IOException {
+        File file = new File("sample_health_tip_data.json");
+        if (!file.exists()) {
+            file = new File("../sample_health_tip_data.json");
+        }
+        String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        return JsonParser.parseString(json).getAsJsonObject();
+    }
+}
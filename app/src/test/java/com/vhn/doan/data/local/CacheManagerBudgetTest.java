@@ -0,0 +1,23 @@
+package com.vhn.doan.data.local;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Ngân sách byte mặc định của CacheManager (đặt qua setMaxCacheBytes khi khởi tạo)
+ */
+public class CacheManagerBudgetTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void budgetForUsableSpace_staysBetweenMinAndMax() {
+        assertEquals(50 * MB, CacheManager.budgetForUsableSpace(64L * 1024 * MB));
+        assertEquals(50 * MB, CacheManager.budgetForUsableSpace(1000 * MB));
+        assertEquals(20 * MB, CacheManager.budgetForUsableSpace(400 * MB));
+        assertEquals(10 * MB, CacheManager.budgetForUsableSpace(50 * MB));
+        assertEquals(10 * MB, CacheManager.budgetForUsableSpace(0));
+        assertEquals(10 * MB, CacheManager.budgetForUsableSpace(-1));
+    }
+}
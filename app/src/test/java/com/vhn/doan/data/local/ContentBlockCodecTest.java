@@ -0,0 +1,99 @@
+package com.vhn.doan.data.local;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.vhn.doan.data.ContentBlock;
+import com.vhn.doan.data.ContentMetadata;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Kiểm tra ContentBlockCodec đọc được cả định dạng v1 (Gson) và v2, cho kết quả giống đường đọc cũ
+ *
+ * Dữ liệu là bài viết thật trong sample_health_tip_data.json (thư mục gốc repo):
+ * - Cũ: Converters.toContentBlocks (Gson + TypeToken -> List<Map>) rồi ContentBlock.fromJson từng Map
+ * - Mới: ContentBlockCodec.decode đọc streaming thẳng sang ContentBlock
+ * Hiệu năng đo trong module :benchmark (ContentBlockBenchmark)
+ */
+public class ContentBlockCodecTest {
+
+    @Test
+    public void codec_roundTripsAndReadsLegacyFormat() throws IOException {
+        String legacy = loadLegacyContentBlocks();
+        List<ContentBlock> expected = decodeWithGson(legacy);
+        assertTrue(!expected.isEmpty());
+
+        List<ContentBlock> fromLegacy = ContentBlockCodec.decode(legacy);
+        List<ContentBlock> fromCurrent = ContentBlockCodec.decode(ContentBlockCodec.encode(expected));
+        assertSameBlocks(expected, fromLegacy);
+        assertSameBlocks(expected, fromCurrent);
+
+        String upgraded = ContentBlockCodec.upgrade(legacy);
+        assertTrue(ContentBlockCodec.isCurrentFormat(upgraded));
+        assertEquals(upgraded, ContentBlockCodec.upgrade(upgraded));
+
+        assertNull(ContentBlockCodec.decode(null));
+        assertNull(ContentBlockCodec.decode("{\"v\":99,\"b\":[]}"));
+        assertNull(ContentBlockCodec.decode("not json ["));
+    }
+
+    /**
+     * Đường đọc cũ: HealthTipEntity -> Converters -> HealthTip.getContentBlockObjects
+     */
+    private static List<ContentBlock> decodeWithGson(String json) {
+        List<Map<String, Object>> maps = Converters.toContentBlocks(json);
+        List<ContentBlock> blocks = new ArrayList<>(maps.size());
+        for (Map<String, Object> map : maps) {
+            ContentBlock block = ContentBlock.fromJson(map);
+            if (block != null) {
+                blocks.add(block);
+            }
+        }
+        return blocks;
+    }
+
+    private static void assertSameBlocks(List<ContentBlock> expected, List<ContentBlock> actual) {
+        assertNotNull(actual);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ContentBlock e = expected.get(i);
+            ContentBlock a = actual.get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.getValue(), a.getValue());
+            ContentMetadata em = e.getMetadata();
+            ContentMetadata am = a.getMetadata();
+            if (em == null || am == null) {
+                continue;
+            }
+            assertEquals(em.getAlt(), am.getAlt());
+            assertEquals(em.getCaption(), am.getCaption());
+        }
+    }
+
+    /**
+     * Lấy contentBlocks của bài viết mẫu ở định dạng v1 (giống cột Room do Gson ghi)
+     */
+    private static String loadLegacyContentBlocks() throws IOException {
+        File file = new File("sample_health_tip_data.json");
+        if (!file.exists()) {
+            file = new File("../sample_health_tip_data.json");
+        }
+        String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        JsonObject article = JsonParser.parseString(json).getAsJsonObject();
+        return article.get("contentBlocks").toString();
+    }
+}
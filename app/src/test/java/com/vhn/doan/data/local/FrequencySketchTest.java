@@ -0,0 +1,49 @@
+package com.vhn.doan.data.local;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Kiểm tra lưu/khôi phục FrequencySketch (CacheManager giữ bộ đếm qua các lần khởi động app)
+ */
+public class FrequencySketchTest {
+
+    @Test
+    public void mergeFrom_restoresSavedCountsAndKeepsNewOnes() {
+        FrequencySketch before = new FrequencySketch(1024);
+        for (int i = 0; i < 5; i++) {
+            before.increment("hot");
+        }
+        before.increment("warm");
+
+        FrequencySketch after = new FrequencySketch(1024);
+        after.increment("hot");
+        assertTrue(after.mergeFrom(before.toByteArray()));
+
+        assertEquals(6, after.frequency("hot"));
+        assertEquals(1, after.frequency("warm"));
+        assertEquals(0, after.frequency("cold"));
+    }
+
+    @Test
+    public void mergeFrom_saturatesAndRejectsOtherSizes() {
+        FrequencySketch saved = new FrequencySketch(1024);
+        for (int i = 0; i < 20; i++) {
+            saved.increment("hot");
+        }
+        FrequencySketch restored = new FrequencySketch(1024);
+        for (int i = 0; i < 20; i++) {
+            restored.increment("hot");
+        }
+        assertTrue(restored.mergeFrom(saved.toByteArray()));
+        assertEquals(15, restored.frequency("hot"));
+
+        FrequencySketch otherSize = new FrequencySketch(64);
+        assertFalse(otherSize.mergeFrom(saved.toByteArray()));
+        assertFalse(otherSize.mergeFrom(new byte[3]));
+        assertEquals(0, otherSize.frequency("hot"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.vhn.doan.data.local;
+
+import com.vhn.doan.data.local.entity.HealthTipScoreInput;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Kiểm tra thứ tự điểm của RecommendationScorer
+ * (đo thời gian chấm lại + ghi SQLite: RecommendationRescoreBenchmark trong module :benchmark)
+ */
+public class RecommendationScorerTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    @Test
+    public void score_prefersRecentPopularAndLikedCategories() {
+        List<HealthTipScoreInput> inputs = new ArrayList<>();
+        inputs.add(input("a", "c1", 100, 10, NOW - DAY_MILLIS, false));
+        inputs.add(input("b", "c1", 100, 10, NOW - 60 * DAY_MILLIS, false));
+        inputs.add(input("c", "c2", 0, 0, NOW - DAY_MILLIS, false));
+        inputs.add(input("d", "c2", 5, 0, NOW - DAY_MILLIS, true));
+        inputs.add(input("e", "c3", 5, 0, NOW - DAY_MILLIS, false));
+        RecommendationScorer.Stats stats = RecommendationScorer.Stats.fromInputs(inputs);
+
+        // Mới hơn thắng khi tương tác như nhau
+        assertTrue(score(inputs.get(0), stats) > score(inputs.get(1), stats));
+        // Phổ biến hơn thắng khi cùng tuổi
+        assertTrue(score(inputs.get(0), stats) > score(inputs.get(2), stats));
+        // Danh mục người dùng đã thích (c2) được ưu tiên hơn danh mục chưa tương tác (c3)
+        HealthTipScoreInput sameInLikedCategory = input("f", "c2", 5, 0, NOW - DAY_MILLIS, false);
+        assertTrue(score(sameInLikedCategory, stats) > score(inputs.get(4), stats));
+        // Bài đã thích bị giảm điểm so với bài chưa đọc giống hệt
+        assertTrue(score(inputs.get(3), stats) < score(sameInLikedCategory, stats));
+        assertTrue(score(inputs.get(0), stats) <= RecommendationScorer.SCORE_SCALE);
+    }
+
+    private static int score(HealthTipScoreInput input, RecommendationScorer.Stats stats) {
+        return RecommendationScorer.score(input, stats, NOW);
+    }
+
+    private static HealthTipScoreInput input(String id, String categoryId, int views, int likes,
+                                             long createdAt, boolean liked) {
+        HealthTipScoreInput input = new HealthTipScoreInput();
+        input.setId(id);
+        input.setCategoryId(categoryId);
+        input.setViewCount(views);
+        input.setLikeCount(likes);
+        input.setCreatedAt(createdAt);
+        input.setLiked(liked);
+        return input;
+    }
+}
@@ -0,0 +1,163 @@
+package com.vhn.doan.data.repository;
+
+import com.vhn.doan.data.ShortVideo;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * FeedRanker phải cho đúng thứ tự của thuật toán cũ (VideoFeedRanking) với cùng seed
+ * (đo thời gian: FeedRankingBenchmark trong module :benchmark)
+ */
+public class FeedRankerTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final int[] SIZES = {0, 1, 2, 5, 17, 100, 1_000};
+
+    private static final String[] CATEGORIES = {"dinhduong", "tapluyen", "giacngu", "timmach", "Tập luyện", "tinhthan"};
+    private static final String[] TAGS = {"dinhduong", "smoothie", "yoga", "giamcan", "tim", "ngu", "thien"};
+
+    @Test
+    public void rank_matchesLegacyOrdering() {
+        for (int size : SIZES) {
+            List<ShortVideo> videos = generateVideos(size, size);
+            for (Signals signals : signalVariants(videos)) {
+                for (long seed = 0; seed < 5; seed++) {
+                    List<ShortVideo> expected = VideoFeedRanking.rank(videos, signals.userPreferences,
+                            signals.favoriteCategories, signals.trendingVideoIds, signals.watchedVideoIds,
+                            signals.likedVideoIds, NOW, new Random(seed));
+                    List<ShortVideo> actual = FeedRanker.rank(videos, signals.userPreferences,
+                            signals.favoriteCategories, signals.trendingVideoIds, signals.watchedVideoIds,
+                            signals.likedVideoIds, NOW, new Random(seed));
+
+                    assertEquals("size=" + size + " signals=" + signals.name + " seed=" + seed,
+                            ids(expected), ids(actual));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rank_withLimitReturnsPrefixOfFullFeed() {
+        List<ShortVideo> videos = generateVideos(1_000, 7);
+        for (Signals signals : signalVariants(videos)) {
+            for (long seed = 0; seed < 5; seed++) {
+                List<String> full = ids(FeedRanker.rank(videos, signals.userPreferences, signals.favoriteCategories,
+                        signals.trendingVideoIds, signals.watchedVideoIds, signals.likedVideoIds, NOW, new Random(seed)));
+
+                for (int limit : new int[] {1, 3, 4, 12, 50, 333, 999, 1_000, 5_000}) {
+                    List<String> page = ids(FeedRanker.rank(videos, signals.userPreferences, signals.favoriteCategories,
+                            signals.trendingVideoIds, signals.watchedVideoIds, signals.likedVideoIds, NOW,
+                            new Random(seed), limit));
+                    assertEquals("signals=" + signals.name + " seed=" + seed + " limit=" + limit,
+                            full.subList(0, Math.min(limit, full.size())), page);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void interleaveQuotas_followsTwoOneOnePattern() {
+        assertEquals(Arrays.asList(2, 1, 1), asList(FeedRanker.interleaveQuotas(10, 10, 10, 4)));
+        assertEquals(Arrays.asList(6, 3, 3), asList(FeedRanker.interleaveQuotas(10, 10, 10, 12)));
+        // Hết trending/diverse thì lấy bù từ favorite
+        assertEquals(Arrays.asList(10, 1, 0), asList(FeedRanker.interleaveQuotas(10, 1, 0, 11)));
+        assertEquals(Arrays.asList(0, 2, 2), asList(FeedRanker.interleaveQuotas(0, 5, 5, 4)));
+        assertEquals(Arrays.asList(3, 4, 5), asList(FeedRanker.interleaveQuotas(3, 4, 5, 100)));
+    }
+
+    private static List<ShortVideo> generateVideos(int count, long seed) {
+        Random random = new Random(seed);
+        List<ShortVideo> videos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ShortVideo video = new ShortVideo("video_" + i, "Video " + i, "", "uploader");
+            video.setCategoryId(random.nextInt(10) == 0 ? null : CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            Map<String, Boolean> tags = new HashMap<>();
+            for (int t = random.nextInt(3); t > 0; t--) {
+                tags.put(TAGS[random.nextInt(TAGS.length)], random.nextInt(4) != 0);
+            }
+            video.setTags(tags);
+            // Giá trị trong khoảng hẹp để có nhiều video cùng điểm (kiểm tra thứ tự ổn định)
+            long views = random.nextInt(5) == 0 ? 0L : (long) Math.pow(10, random.nextInt(5));
+            video.setViewCount(views);
+            video.setLikeCount((long) random.nextInt(4) * 10);
+            video.setUploadDate(NOW - random.nextInt(14) * DAY_MS);
+            videos.add(video);
+        }
+        return videos;
+    }
+
+    private static List<Signals> signalVariants(List<ShortVideo> videos) {
+        Random random = new Random(7);
+
+        Signals personalized = new Signals("personalized");
+        personalized.userPreferences.put("dinhduong", true);
+        personalized.userPreferences.put("yoga", true);
+        personalized.userPreferences.put("giamcan", false);
+        personalized.favoriteCategories.addAll(Arrays.asList("tapluyen", "TẬP LUYỆN", null));
+        for (ShortVideo video : videos) {
+            double roll = random.nextDouble();
+            if (roll < 0.10) {
+                personalized.watchedVideoIds.put(video.getId(), NOW - DAY_MS);
+            } else if (roll < 0.15) {
+                personalized.likedVideoIds.add(video.getId());
+            } else if (roll < 0.30) {
+                personalized.trendingVideoIds.add(video.getId());
+            }
+        }
+
+        Signals anonymous = new Signals("anonymous");
+        for (int i = 0; i < videos.size(); i += 3) {
+            anonymous.trendingVideoIds.add(videos.get(i).getId());
+        }
+
+        // Đã xem hết - thuật toán dùng lại toàn bộ video
+        Signals allWatched = new Signals("allWatched");
+        allWatched.favoriteCategories.add("giac");
+        for (ShortVideo video : videos) {
+            allWatched.watchedVideoIds.put(video.getId(), NOW);
+        }
+
+        return Arrays.asList(personalized, anonymous, allWatched);
+    }
+
+    private static List<String> ids(List<ShortVideo> videos) {
+        List<String> ids = new ArrayList<>(videos.size());
+        for (ShortVideo video : videos) {
+            ids.add(video.getId());
+        }
+        return ids;
+    }
+
+    private static List<Integer> asList(int[] values) {
+        List<Integer> list = new ArrayList<>(values.length);
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    private static final class Signals {
+        final String name;
+        final Map<String, Boolean> userPreferences = new HashMap<>();
+        final List<String> favoriteCategories = new ArrayList<>();
+        final List<String> trendingVideoIds = new ArrayList<>();
+        final Map<String, Long> watchedVideoIds = new HashMap<>();
+        final Set<String> likedVideoIds = new HashSet<>();
+
+        Signals(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.vhn.doan.data.repository;
+
+import com.vhn.doan.data.ShortVideo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Thuật toán xếp hạng feed video ngắn trước FeedRanker (sắp xếp bằng comparator tính lại điểm)
+ *
+ * Giữ lại làm chuẩn đối chiếu: FeedRankerTest so thứ tự của FeedRanker với bản này
+ * và đo thời gian của cả hai; module benchmark JMH cũng dùng nó làm mốc so sánh.
+ */
+public final class VideoFeedRanking {
+
+    private VideoFeedRanking() {
+    }
+
+    /**
+     * 🎯 TikTok-STYLE ALGORITHM: Filter and sort videos intelligently
+     *
+     * Strategy:
+     * 1. Filter out watched AND liked videos (unless all videos are filtered - then recycle)
+     * 2. Categorize videos into groups: Favorite, Trending, Diverse
+     * 3. Mix groups intelligently to prevent boredom
+     * 4. Sort within each group by engagement metrics
+     *
+     * @param now thời điểm hiện tại (ms) dùng cho điểm độ mới
+     * @param random nguồn ngẫu nhiên cho bước xáo trộn trong từng tier
+     */
+    public static List<ShortVideo> rank(
+            List<ShortVideo> videos,
+            Map<String, Boolean> userPreferences,
+            List<String> favoriteCategories,
+            List<String> trendingVideoIds,
+            Map<String, Long> watchedVideoIds,
+            Set<String> likedVideoIds,
+            long now,
+            Random random) {
+
+        // Step 1: Filter watched AND liked videos
+        List<ShortVideo> availableVideos = new ArrayList<>();
+        for (ShortVideo video : videos) {
+            // Loại bỏ video đã xem HOẶC đã like
+            if (!watchedVideoIds.containsKey(video.getId()) && !likedVideoIds.contains(video.getId())) {
+                availableVideos.add(video);
+            }
+        }
+
+        // 🎯 RECYCLING LOGIC: If no available videos, allow all videos again
+        if (availableVideos.isEmpty() && !videos.isEmpty()) {
+            availableVideos = new ArrayList<>(videos);
+        }
+
+        // Step 2: Categorize videos into groups
+        List<ShortVideo> favoriteVideos = new ArrayList<>();
+        List<ShortVideo> trendingVideos = new ArrayList<>();
+        List<ShortVideo> diverseVideos = new ArrayList<>();
+
+        for (ShortVideo video : availableVideos) {
+            boolean isFavorite = isFavoriteCategory(video, favoriteCategories) ||
+                               calculateTagMatchScore(video, userPreferences) > 0;
+            boolean isTrending = trendingVideoIds.contains(video.getId());
+
+            if (isFavorite) {
+                favoriteVideos.add(video);
+            } else if (isTrending) {
+                trendingVideos.add(video);
+            } else {
+                diverseVideos.add(video);
+            }
+        }
+
+        // Step 3: Sort each group by engagement
+        Comparator<ShortVideo> engagementComparator = new Comparator<ShortVideo>() {
+            @Override
+            public int compare(ShortVideo v1, ShortVideo v2) {
+                // Calculate engagement score
+                double score1 = calculateEngagementScore(v1, userPreferences, favoriteCategories, trendingVideoIds, now);
+                double score2 = calculateEngagementScore(v2, userPreferences, favoriteCategories, trendingVideoIds, now);
+                return Double.compare(score2, score1); // Higher score first
+            }
+        };
+
+        Collections.sort(favoriteVideos, engagementComparator);
+        Collections.sort(trendingVideos, engagementComparator);
+        Collections.sort(diverseVideos, engagementComparator);
+
+        // 🎯 SHUFFLE NHẸ: Shuffle trong mỗi nhóm để tránh video đầu luôn giống nhau
+        // Nhưng vẫn ưu tiên video có engagement cao bằng cách shuffle theo "tiers"
+        shuffleWithinTiers(favoriteVideos, userPreferences, favoriteCategories, trendingVideoIds, now, random);
+        shuffleWithinTiers(trendingVideos, userPreferences, favoriteCategories, trendingVideoIds, now, random);
+        shuffleWithinTiers(diverseVideos, userPreferences, favoriteCategories, trendingVideoIds, now, random);
+
+        // Step 4: 🎯 SMART MIXING to prevent boredom (like TikTok)
+        // Pattern: 2 favorites → 1 trending → 1 diverse → repeat
+        List<ShortVideo> finalFeed = new ArrayList<>();
+        int favIndex = 0, trendIndex = 0, divIndex = 0;
+        int pattern = 0;
+
+        while (favIndex < favoriteVideos.size() ||
+               trendIndex < trendingVideos.size() ||
+               divIndex < diverseVideos.size()) {
+
+            // Add 2 favorite videos
+            if (pattern == 0 || pattern == 1) {
+                if (favIndex < favoriteVideos.size()) {
+                    finalFeed.add(favoriteVideos.get(favIndex++));
+                }
+            }
+            // Add 1 trending video
+            else if (pattern == 2) {
+                if (trendIndex < trendingVideos.size()) {
+                    finalFeed.add(trendingVideos.get(trendIndex++));
+                } else if (favIndex < favoriteVideos.size()) {
+                    // Fallback to favorite if no trending
+                    finalFeed.add(favoriteVideos.get(favIndex++));
+                }
+            }
+            // Add 1 diverse video
+            else if (pattern == 3) {
+                if (divIndex < diverseVideos.size()) {
+                    finalFeed.add(diverseVideos.get(divIndex++));
+                } else if (favIndex < favoriteVideos.size()) {
+                    // Fallback to favorite if no diverse
+                    finalFeed.add(favoriteVideos.get(favIndex++));
+                }
+            }
+
+            pattern = (pattern + 1) % 4; // Cycle through pattern
+        }
+
+        return finalFeed;
+    }
+
+    /**
+     * Calculate engagement score for a video based on multiple factors
+     */
+    static double calculateEngagementScore(ShortVideo video,
+                                           Map<String, Boolean> userPreferences,
+                                           List<String> favoriteCategories,
+                                           List<String> trendingVideoIds,
+                                           long now) {
+        double score = 0.0;
+
+        // Factor 1: Favorite category (high weight)
+        if (isFavoriteCategory(video, favoriteCategories)) {
+            score += 100.0;
+        }
+
+        // Factor 2: Tag matching (medium-high weight)
+        int tagMatches = calculateTagMatchScore(video, userPreferences);
+        score += tagMatches * 20.0;
+
+        // Factor 3: Trending status (medium weight)
+        if (trendingVideoIds.contains(video.getId())) {
+            score += 50.0;
+        }
+
+        // Factor 4: Engagement metrics (normalized)
+        // Like ratio (likes / views) - max 30 points
+        if (video.getViewCount() > 0) {
+            double likeRatio = (double) video.getLikeCount() / video.getViewCount();
+            score += Math.min(likeRatio * 1000, 30.0);
+        }
+
+        // Factor 5: View count (logarithmic scale) - max 20 points
+        if (video.getViewCount() > 0) {
+            score += Math.min(Math.log10(video.getViewCount()) * 5, 20.0);
+        }
+
+        // Factor 6: Recency (newer videos get boost) - max 15 points
+        long daysSinceUpload = (now - video.getUploadDate()) / (1000 * 60 * 60 * 24);
+        if (daysSinceUpload < 7) {
+            score += (7 - daysSinceUpload) * 2.0; // New videos get more points
+        }
+
+        return score;
+    }
+
+    /**
+     * Tính điểm khớp tags giữa video và user preferences
+     */
+    static int calculateTagMatchScore(ShortVideo video, Map<String, Boolean> userPreferences) {
+        if (video.getTags() == null || video.getTags().isEmpty() ||
+            userPreferences == null || userPreferences.isEmpty()) {
+            return 0;
+        }
+
+        int matchCount = 0;
+        for (Map.Entry<String, Boolean> videoTag : video.getTags().entrySet()) {
+            String tagName = videoTag.getKey();
+            Boolean tagEnabled = videoTag.getValue();
+
+            // Chỉ tính các tag được bật trong video
+            if (tagEnabled != null && tagEnabled) {
+                Boolean userPref = userPreferences.get(tagName);
+                // Nếu user cũng bật preference này
+                if (userPref != null && userPref) {
+                    matchCount++;
+                }
+            }
+        }
+
+        return matchCount;
+    }
+
+    /**
+     * 🎯 NEW: Kiểm tra video có thuộc favorite category không
+     */
+    static boolean isFavoriteCategory(ShortVideo video, List<String> favoriteCategories) {
+        if (video == null || video.getCategoryId() == null ||
+            favoriteCategories == null || favoriteCategories.isEmpty()) {
+            return false;
+        }
+
+        // Lấy category ID/name từ video và check xem có trong favoriteCategories không
+        String videoCategoryId = video.getCategoryId();
+
+        // So sánh với favorite categories (case-insensitive)
+        for (String favCategory : favoriteCategories) {
+            if (favCategory != null &&
+                (favCategory.equalsIgnoreCase(videoCategoryId) ||
+                 videoCategoryId.toLowerCase().contains(favCategory.toLowerCase()) ||
+                 favCategory.toLowerCase().contains(videoCategoryId.toLowerCase()))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 🎯 Shuffle video trong cùng tier để tạo đa dạng nhưng vẫn ưu tiên video có engagement cao
+     *
+     * Chiến lược:
+     * - Chia danh sách thành các tier dựa trên điểm engagement (mỗi tier ~20% danh sách)
+     * - Shuffle trong mỗi tier
+     * - Kết quả: Video top vẫn ưu tiên nhưng thứ tự thay đổi mỗi lần
+     */
+    private static void shuffleWithinTiers(List<ShortVideo> videos,
+                                   Map<String, Boolean> userPreferences,
+                                   List<String> favoriteCategories,
+                                   List<String> trendingVideoIds,
+                                   long now,
+                                   Random random) {
+        if (videos == null || videos.size() <= 1) return;
+
+        // Tính điểm cho từng video
+        List<VideoWithScore> videosWithScores = new ArrayList<>();
+        for (ShortVideo video : videos) {
+            double score = calculateEngagementScore(video, userPreferences, favoriteCategories, trendingVideoIds, now);
+            videosWithScores.add(new VideoWithScore(video, score));
+        }
+
+        // Chia thành tiers (mỗi tier 20% hoặc tối thiểu 3 videos)
+        int tierSize = Math.max(3, videos.size() / 5);
+        List<ShortVideo> shuffledVideos = new ArrayList<>();
+
+        for (int i = 0; i < videos.size(); i += tierSize) {
+            int end = Math.min(i + tierSize, videos.size());
+            List<VideoWithScore> tier = videosWithScores.subList(i, end);
+
+            // Shuffle trong tier
+            Collections.shuffle(tier, random);
+
+            // Add vào kết quả
+            for (VideoWithScore vws : tier) {
+                shuffledVideos.add(vws.video);
+            }
+        }
+
+        // Cập nhật lại list gốc
+        videos.clear();
+        videos.addAll(shuffledVideos);
+    }
+
+    /**
+     * Helper class để lưu video cùng điểm số
+     */
+    private static class VideoWithScore {
+        ShortVideo video;
+        double score;
+
+        VideoWithScore(ShortVideo video, double score) {
+            this.video = video;
+            this.score = score;
+        }
+    }
+}
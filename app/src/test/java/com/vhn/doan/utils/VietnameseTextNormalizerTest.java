@@ -0,0 +1,35 @@
+package com.vhn.doan.utils;
+
+import org.junit.Test;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Chuẩn hóa không dấu và trigram dùng cho index tìm kiếm và tìm kiếm video online
+ * (benchmark câu SQL thật nằm ở :benchmark - TrigramSearchBenchmark)
+ */
+public class VietnameseTextNormalizerTest {
+
+    @Test
+    public void normalize_foldsVietnameseDiacritics() {
+        assertEquals("suc khoe duong huyet 100",
+                VietnameseTextNormalizer.normalize("Sức Khỏe, ĐƯỜNG huyết!! 100%"));
+        assertEquals("", VietnameseTextNormalizer.normalize(null));
+        assertTrue(VietnameseTextNormalizer.trigrams("ab").isEmpty());
+    }
+
+    @Test
+    public void normalizeFields_matchesAccentInsensitiveSubstring() {
+        String indexed = VietnameseTextNormalizer.normalizeFields("Mẹo giữ huyết áp ổn định", null, "Tim mạch");
+        assertTrue(indexed.contains(VietnameseTextNormalizer.normalize("huyet ap")));
+        assertTrue(indexed.contains(VietnameseTextNormalizer.normalize("TIM MẠCH")));
+
+        // Mọi trigram của từ khóa phải có trong trigram của văn bản (điều kiện lọc ứng viên)
+        Set<String> documentGrams = VietnameseTextNormalizer.trigrams(indexed);
+        assertTrue(documentGrams.containsAll(VietnameseTextNormalizer.trigrams(
+                VietnameseTextNormalizer.normalize("ổn đinh"))));
+    }
+}
@@ -0,0 +1,86 @@
+// Module benchmark JMH chạy trên JVM thường (không cần Android SDK hay thiết bị)
+//
+// Biên dịch lại các lớp Java thuần của :app liệt kê trong appSources, cùng vài stub tối thiểu
+// (src/main/java) cho android.util.Log và các kiểu Firebase mà các lớp đó tham chiếu.
+// Chạy: ./gradlew :benchmark:jmh
+// Lọc benchmark: ./gradlew :benchmark:jmh -PjmhIncludes=FeedRanking
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+val appSources = listOf(
+    "com/vhn/doan/data/ContentBlock.java",
+    "com/vhn/doan/data/ContentMetadata.java",
+    "com/vhn/doan/data/HealthTip.java",
+    "com/vhn/doan/data/HealthTipDeserializer.java",
+    "com/vhn/doan/data/KnowledgeBaseArticle.java",
+    "com/vhn/doan/data/ShortVideo.java",
+    "com/vhn/doan/data/ShortVideoDeserializer.java",
+    "com/vhn/doan/data/local/ContentBlockCodec.java",
+    "com/vhn/doan/data/local/Converters.java",
+    "com/vhn/doan/data/local/HealthTipFtsTriggers.java",
+    "com/vhn/doan/data/local/RecommendationScorer.java",
+    "com/vhn/doan/data/local/dao/SearchIndexDao.java",
+    "com/vhn/doan/data/local/entity/CategoryScoreStats.java",
+    "com/vhn/doan/data/local/entity/HealthTipScoreInput.java",
+    "com/vhn/doan/data/local/entity/SearchDocumentEntity.java",
+    "com/vhn/doan/data/local/entity/SearchTrigramEntity.java",
+    "com/vhn/doan/data/repository/ChatTopicExtractor.java",
+    "com/vhn/doan/data/repository/FeedRanker.java",
+    "com/vhn/doan/data/repository/KnowledgeBaseMatcher.java",
+    "com/vhn/doan/utils/VietnameseTextNormalizer.java",
+)
+
+// Bản cài đặt cũ giữ trong unit test làm mốc so sánh
+val appTestSources = listOf(
+    "com/vhn/doan/data/repository/VideoFeedRanking.java",
+)
+
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            srcDir("../app/src/test/java")
+            include(appSources)
+            include(appTestSources)
+            include("android/**", "com/google/firebase/**")
+        }
+    }
+}
+
+// Dữ liệu ghi sẵn trong repo làm hạt giống cho Fixtures
+tasks.named<ProcessResources>("processJmhResources") {
+    from(
+        rootProject.file("firebase_test_data.json"),
+        rootProject.file("sample_health_tip_data.json"),
+        rootProject.file("app/src/main/assets/knowledge_base_data.json"),
+    ) {
+        into("fixtures")
+    }
+}
+
+dependencies {
+    implementation(libs.gson)
+    implementation(libs.room.common)
+    // SQLite thật cho benchmark chạy câu SQL của DAO Room
+    jmh(libs.sqlite.jdbc)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    includes.set(listOf(providers.gradleProperty("jmhIncludes").getOrElse(".*")))
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+}
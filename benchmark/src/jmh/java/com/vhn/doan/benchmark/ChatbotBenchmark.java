@@ -0,0 +1,55 @@
+package com.vhn.doan.benchmark;
+
+import com.vhn.doan.data.KnowledgeBaseArticle;
+import com.vhn.doan.data.repository.ChatTopicExtractor;
+import com.vhn.doan.data.repository.KnowledgeBaseMatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Các đường xử lý chat chạy trên mỗi tin nhắn:
+ * - KnowledgeBaseRepositoryImpl.findArticleByKeywords trên knowledge base size bài
+ * - ChatRepositoryImpl.extractTopic trên size tin nhắn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChatbotBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    private List<KnowledgeBaseArticle> articles;
+    private List<String> queryKeywords;
+    private List<String> messages;
+
+    @Setup
+    public void setUp() {
+        articles = Fixtures.knowledgeBase(size);
+        queryKeywords = Fixtures.knowledgeBaseQuery();
+        messages = Fixtures.chatMessages(size);
+    }
+
+    @Benchmark
+    public KnowledgeBaseArticle findArticleByKeywords() {
+        return KnowledgeBaseMatcher.findBestMatch(articles, queryKeywords);
+    }
+
+    @Benchmark
+    public void extractTopic(Blackhole blackhole) {
+        for (String message : messages) {
+            blackhole.consume(ChatTopicExtractor.extract(message));
+        }
+    }
+}
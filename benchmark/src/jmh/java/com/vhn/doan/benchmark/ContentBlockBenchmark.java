@@ -0,0 +1,95 @@
+package com.vhn.doan.benchmark;
+
+import com.vhn.doan.data.ContentBlock;
+import com.vhn.doan.data.local.Converters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ContentBlock.fromJson và các TypeConverter của cột content_blocks với size khối nội dung
+ *
+ * decodeContentBlocks / decodeLegacyContentBlocks đọc qua ContentBlockCodec (định dạng v2 / v1),
+ * decodeLegacyMapsToContentBlocks là đường đọc cũ (Gson -> List<Map> -> ContentBlock.fromJson)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContentBlockBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    private List<Map<String, Object>> blockMaps;
+    private List<ContentBlock> blocks;
+    private String legacyJson;
+    private String currentJson;
+
+    @Setup
+    public void setUp() {
+        blockMaps = Fixtures.contentBlockMaps(size);
+        blocks = new ArrayList<>(size);
+        for (Map<String, Object> map : blockMaps) {
+            blocks.add(ContentBlock.fromJson(map));
+        }
+        legacyJson = Converters.fromContentBlocks(blockMaps);
+        currentJson = Converters.fromContentBlockList(blocks);
+    }
+
+    @Benchmark
+    public void contentBlockFromJson(Blackhole blackhole) {
+        for (Map<String, Object> map : blockMaps) {
+            blackhole.consume(ContentBlock.fromJson(map));
+        }
+    }
+
+    @Benchmark
+    public String encodeLegacyMaps() {
+        return Converters.fromContentBlocks(blockMaps);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> decodeLegacyMaps() {
+        return Converters.toContentBlocks(legacyJson);
+    }
+
+    @Benchmark
+    public List<ContentBlock> decodeLegacyMapsToContentBlocks() {
+        List<Map<String, Object>> maps = Converters.toContentBlocks(legacyJson);
+        List<ContentBlock> decoded = new ArrayList<>(maps.size());
+        for (Map<String, Object> map : maps) {
+            ContentBlock block = ContentBlock.fromJson(map);
+            if (block != null) {
+                decoded.add(block);
+            }
+        }
+        return decoded;
+    }
+
+    @Benchmark
+    public String encodeContentBlocks() {
+        return Converters.fromContentBlockList(blocks);
+    }
+
+    @Benchmark
+    public List<ContentBlock> decodeContentBlocks() {
+        return Converters.toContentBlockList(currentJson);
+    }
+
+    @Benchmark
+    public List<ContentBlock> decodeLegacyContentBlocks() {
+        return Converters.toContentBlockList(legacyJson);
+    }
+}
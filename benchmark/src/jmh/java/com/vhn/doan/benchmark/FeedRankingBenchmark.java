@@ -0,0 +1,65 @@
+package com.vhn.doan.benchmark;
+
+import com.vhn.doan.data.ShortVideo;
+import com.vhn.doan.data.repository.FeedRanker;
+import com.vhn.doan.data.repository.VideoFeedRanking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Xếp hạng feed video của FirebaseVideoRepositoryImpl.getFeed với size video
+ * - rankFeed: FeedRanker, toàn bộ feed
+ * - rankFirstPage: FeedRanker, chỉ PAGE_SIZE video đầu (top-K theo tier)
+ * - rankFeedLegacy: thuật toán cũ dùng comparator tính lại điểm, làm mốc so sánh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FeedRankingBenchmark {
+
+    private static final int PAGE_SIZE = 12;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    private List<ShortVideo> videos;
+    private Fixtures.FeedSignals signals;
+
+    @Setup
+    public void setUp() {
+        videos = Fixtures.videos(size);
+        signals = Fixtures.feedSignals(videos);
+    }
+
+    @Benchmark
+    public List<ShortVideo> rankFeed() {
+        return FeedRanker.rank(videos, signals.userPreferences, signals.favoriteCategories,
+                signals.trendingVideoIds, signals.watchedVideoIds, signals.likedVideoIds,
+                Fixtures.NOW, new Random(42));
+    }
+
+    @Benchmark
+    public List<ShortVideo> rankFirstPage() {
+        return FeedRanker.rank(videos, signals.userPreferences, signals.favoriteCategories,
+                signals.trendingVideoIds, signals.watchedVideoIds, signals.likedVideoIds,
+                Fixtures.NOW, new Random(42), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ShortVideo> rankFeedLegacy() {
+        return VideoFeedRanking.rank(videos, signals.userPreferences, signals.favoriteCategories,
+                signals.trendingVideoIds, signals.watchedVideoIds, signals.likedVideoIds,
+                Fixtures.NOW, new Random(42));
+    }
+}
@@ -0,0 +1,327 @@
+package com.vhn.doan.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.vhn.doan.data.KnowledgeBaseArticle;
+import com.vhn.doan.data.ShortVideo;
+import com.vhn.doan.data.ShortVideoDeserializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Sinh dữ liệu benchmark với số phần tử bất kỳ (100 đến 100k) từ dữ liệu ghi sẵn trong repo:
+ * - firebase_test_data.json: videos, health_tips, trendingVideos
+ * - sample_health_tip_data.json: bài viết đầy đủ với contentBlocks
+ * - knowledge_base_data.json: knowledge base của chatbot
+ *
+ * Bản ghi gốc được nhân bản xoay vòng với ID mới và số liệu ngẫu nhiên theo seed cố định,
+ * nên cùng một size luôn cho cùng một bộ dữ liệu. Giá trị dùng kiểu mà
+ * DataSnapshot.getValue() trả về (Long/Double, ArrayList, HashMap).
+ */
+public final class Fixtures {
+
+    private static final long SEED = 20_251_018L;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    // Thời điểm cố định cho điểm độ mới của feed
+    public static final long NOW = 1_760_745_600_000L;
+
+    private static Map<String, Object> firebaseData;
+    private static Map<String, Object> sampleArticle;
+    private static List<KnowledgeBaseArticle> knowledgeBase;
+
+    private Fixtures() {
+    }
+
+    /**
+     * Node video theo định dạng Firebase, nhân bản từ videos ghi sẵn
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Map<String, Object>> videoNodes(int count) {
+        List<Map<String, Object>> recorded = new ArrayList<>();
+        for (Object video : ((Map<String, Object>) firebaseData().get("videos")).values()) {
+            recorded.add((Map<String, Object>) video);
+        }
+        Random random = new Random(SEED);
+        List<Map<String, Object>> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> node = deepCopy(recorded.get(i % recorded.size()));
+            long views = 1 + random.nextInt(500_000);
+            node.put("id", "video_" + i);
+            node.put("viewCount", views);
+            node.put("likeCount", (long) (views * random.nextDouble() * 0.1));
+            node.put("uploadDate", NOW - random.nextInt(60) * DAY_MS);
+            if (i % 5 == 0) {
+                // Một phần dữ liệu cũ lưu số dạng chuỗi
+                node.put("viewCount", String.valueOf(views));
+            }
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    public static List<ShortVideo> videos(int count) {
+        List<Map<String, Object>> nodes = videoNodes(count);
+        List<ShortVideo> videos = new ArrayList<>(count);
+        for (Map<String, Object> node : nodes) {
+            videos.add(ShortVideoDeserializer.fromValue((String) node.get("id"), node));
+        }
+        return videos;
+    }
+
+    /**
+     * Node health tip xen kẽ định dạng cũ (content dạng chuỗi, từ firebase_test_data.json)
+     * và định dạng mới (contentBlocks, từ sample_health_tip_data.json)
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Map<String, Object>> healthTipNodes(int count) {
+        List<Map<String, Object>> recorded = new ArrayList<>();
+        for (Object tip : ((Map<String, Object>) firebaseData().get("health_tips")).values()) {
+            recorded.add((Map<String, Object>) tip);
+        }
+        recorded.add(sampleArticle());
+        Random random = new Random(SEED);
+        List<Map<String, Object>> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> node = deepCopy(recorded.get(i % recorded.size()));
+            node.put("viewCount", (long) random.nextInt(100_000));
+            node.put("likeCount", (long) random.nextInt(5_000));
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    /**
+     * Khối nội dung dạng Map (như HealthTip.getContentBlocks), lặp lại các khối của bài viết mẫu
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Map<String, Object>> contentBlockMaps(int count) {
+        List<Object> recorded = (List<Object>) sampleArticle().get("contentBlocks");
+        List<Map<String, Object>> blocks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> block = deepCopy((Map<String, Object>) recorded.get(i % recorded.size()));
+            block.put("id", "block_" + i);
+            blocks.add(block);
+        }
+        return blocks;
+    }
+
+    /**
+     * Tín hiệu cá nhân hóa cho feed: ~10% đã xem, ~2% đã thích, ~5% trending
+     */
+    public static FeedSignals feedSignals(List<ShortVideo> videos) {
+        Random random = new Random(SEED);
+        FeedSignals signals = new FeedSignals();
+        signals.userPreferences.put("dinhduong", true);
+        signals.userPreferences.put("smoothie", true);
+        signals.userPreferences.put("yoga", true);
+        signals.userPreferences.put("giamcan", false);
+        signals.favoriteCategories.addAll(Arrays.asList("dinhduong", "Tập luyện"));
+        for (ShortVideo video : videos) {
+            double roll = random.nextDouble();
+            if (roll < 0.10) {
+                signals.watchedVideoIds.put(video.getId(), NOW - random.nextInt(30) * DAY_MS);
+            } else if (roll < 0.12) {
+                signals.likedVideoIds.add(video.getId());
+            } else if (roll < 0.17) {
+                signals.trendingVideoIds.add(video.getId());
+            }
+        }
+        return signals;
+    }
+
+    /**
+     * Knowledge base: các bài ghi sẵn cộng thêm bài tổng hợp từ bộ từ khóa chung
+     */
+    public static List<KnowledgeBaseArticle> knowledgeBase(int count) {
+        List<KnowledgeBaseArticle> recorded = recordedKnowledgeBase();
+        List<String> vocabulary = new ArrayList<>();
+        for (KnowledgeBaseArticle article : recorded) {
+            vocabulary.addAll(article.getKeywords());
+        }
+        vocabulary.addAll(Arrays.asList("tài khoản", "mật khẩu", "thông báo", "nhắc nhở", "video",
+                "yêu thích", "ngôn ngữ", "cỡ chữ", "đồng bộ", "ngoại tuyến", "bảo mật", "đăng xuất"));
+
+        Random random = new Random(SEED);
+        List<KnowledgeBaseArticle> articles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (i < recorded.size()) {
+                articles.add(recorded.get(i));
+                continue;
+            }
+            KnowledgeBaseArticle article = new KnowledgeBaseArticle();
+            article.setId("kb_gen_" + i);
+            List<String> keywords = new ArrayList<>();
+            int keywordCount = 3 + random.nextInt(4);
+            for (int k = 0; k < keywordCount; k++) {
+                keywords.add(vocabulary.get(random.nextInt(vocabulary.size())));
+            }
+            article.setKeywords(keywords);
+            article.setQuestion("Câu hỏi " + i);
+            article.setAnswer("Trả lời " + i);
+            articles.add(article);
+        }
+        return articles;
+    }
+
+    /**
+     * Từ khóa của câu hỏi người dùng khớp với bài đầu tiên trong knowledge base
+     */
+    public static List<String> knowledgeBaseQuery() {
+        List<String> keywords = new ArrayList<>(recordedKnowledgeBase().get(0).getKeywords());
+        keywords.add("làm thế nào");
+        return keywords;
+    }
+
+    /**
+     * Tin nhắn chat: phần lớn có chủ đề sức khỏe ở vị trí khác nhau trong danh sách từ khóa,
+     * một phần không có chủ đề (duyệt hết danh sách)
+     */
+    public static List<String> chatMessages(int count) {
+        String[] templates = {
+            "Tôi hay bị mất ngủ vào ban đêm, có cách nào cải thiện không?",
+            "Chế độ dinh dưỡng nào tốt cho người bị huyết áp cao?",
+            "Làm sao để giảm cân an toàn trong ba tháng?",
+            "Trẻ em bị sốt nhẹ thì nên làm gì trước khi đi khám?",
+            "Cho tôi hỏi về liều dùng của thuốc hạ sốt",
+            "Xin chào, bạn có thể giúp gì cho tôi hôm nay?",
+            "Ứng dụng này có chế độ tối không?"
+        };
+        List<String> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(templates[i % templates.length] + " (" + i + ")");
+        }
+        return messages;
+    }
+
+    /**
+     * Tín hiệu cá nhân hóa truyền vào FeedRanker.rank
+     */
+    public static final class FeedSignals {
+        public final Map<String, Boolean> userPreferences = new HashMap<>();
+        public final List<String> favoriteCategories = new ArrayList<>();
+        public final List<String> trendingVideoIds = new ArrayList<>();
+        public final Map<String, Long> watchedVideoIds = new HashMap<>();
+        public final Set<String> likedVideoIds = new HashSet<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static synchronized Map<String, Object> firebaseData() {
+        if (firebaseData == null) {
+            firebaseData = (Map<String, Object>) toFirebaseValue(readJson("firebase_test_data.json"));
+        }
+        return firebaseData;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static synchronized Map<String, Object> sampleArticle() {
+        if (sampleArticle == null) {
+            sampleArticle = (Map<String, Object>) toFirebaseValue(readJson("sample_health_tip_data.json"));
+        }
+        return sampleArticle;
+    }
+
+    private static synchronized List<KnowledgeBaseArticle> recordedKnowledgeBase() {
+        if (knowledgeBase == null) {
+            knowledgeBase = new ArrayList<>();
+            for (Map.Entry<String, JsonElement> entry : readJson("knowledge_base_data.json")
+                    .getAsJsonObject().getAsJsonObject("knowledge_base").entrySet()) {
+                KnowledgeBaseArticle article = new KnowledgeBaseArticle();
+                article.setId(entry.getKey());
+                List<String> keywords = new ArrayList<>();
+                for (JsonElement keyword : entry.getValue().getAsJsonObject().getAsJsonArray("keywords")) {
+                    keywords.add(keyword.getAsString());
+                }
+                article.setKeywords(keywords);
+                article.setQuestion(entry.getValue().getAsJsonObject().get("question").getAsString());
+                article.setAnswer(entry.getValue().getAsJsonObject().get("answer").getAsString());
+                knowledgeBase.add(article);
+            }
+        }
+        return knowledgeBase;
+    }
+
+    private static JsonElement readJson(String name) {
+        try (InputStream stream = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (stream == null) {
+                throw new IllegalStateException("Thiếu fixture " + name);
+            }
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                return JsonParser.parseReader(reader);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Chuyển JSON sang kiểu mà Firebase trả về: số nguyên -> Long, số thực -> Double
+     */
+    private static Object toFirebaseValue(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        if (element.isJsonObject()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                Object value = toFirebaseValue(entry.getValue());
+                if (value != null) {
+                    map.put(entry.getKey(), value);
+                }
+            }
+            return map;
+        }
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            List<Object> list = new ArrayList<>(array.size());
+            for (JsonElement item : array) {
+                list.add(toFirebaseValue(item));
+            }
+            return list;
+        }
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+            return primitive.getAsBoolean();
+        }
+        if (primitive.isNumber()) {
+            double number = primitive.getAsDouble();
+            return number == Math.rint(number) ? (Object) primitive.getAsLong() : (Object) number;
+        }
+        return primitive.getAsString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T deepCopy(T value) {
+        if (value instanceof Map) {
+            Map<String, Object> copy = new HashMap<>();
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                copy.put(entry.getKey(), deepCopy(entry.getValue()));
+            }
+            return (T) copy;
+        }
+        if (value instanceof List) {
+            List<Object> copy = new ArrayList<>();
+            for (Object item : (List<Object>) value) {
+                copy.add(deepCopy(item));
+            }
+            return (T) copy;
+        }
+        return value;
+    }
+}
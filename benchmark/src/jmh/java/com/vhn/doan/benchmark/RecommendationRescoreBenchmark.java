@@ -0,0 +1,169 @@
+package com.vhn.doan.benchmark;
+
+import com.vhn.doan.data.local.HealthTipFtsTriggers;
+import com.vhn.doan.data.local.RecommendationScorer;
+import com.vhn.doan.data.local.entity.HealthTipScoreInput;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chấm lại điểm đề xuất toàn bộ cache trên SQLite thật có bảng FTS4 health_tips_fts
+ * - scoreOnly: phần CPU của RecommendationEngine.rescoreAllSync (RecommendationScorer)
+ * - rescoreAll: chấm điểm rồi ghi recommendation_score cho mọi dòng trong một transaction
+ * - touchCachedAt: cập nhật cached_at cho một màn hình item (CacheManager khi người dùng cuộn)
+ *
+ * triggers = roomGenerated: trigger Room tự sinh, mọi UPDATE đều tokenize lại title/excerpt/content;
+ * triggers = columnLimited: trigger của AppDatabase (HealthTipFtsTriggers.COLUMN_LIMITED).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RecommendationRescoreBenchmark {
+
+    // Câu Room sinh cho @Update HealthTipDao.updateRecommendationScores(List<HealthTipScore>)
+    private static final String UPDATE_SCORE_SQL =
+            "UPDATE OR ABORT `health_tips` SET `id` = ?,`recommendation_score` = ? WHERE `id` = ?";
+    // HealthTipDao.updateCachedAt
+    private static final String UPDATE_CACHED_AT_SQL = "UPDATE health_tips SET cached_at = ? WHERE id = ?";
+
+    private static final int CATEGORY_COUNT = 12;
+    private static final int VISIBLE_ITEMS = 20;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    @Param({"roomGenerated", "columnLimited"})
+    public String triggers;
+
+    private Connection connection;
+    private List<HealthTipScoreInput> inputs;
+    private long now = Fixtures.NOW;
+    private int scrollOffset = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE health_tips (id TEXT NOT NULL PRIMARY KEY, title TEXT, excerpt TEXT, " +
+                    "content TEXT, category_id TEXT, view_count INTEGER NOT NULL, like_count INTEGER NOT NULL, " +
+                    "created_at INTEGER NOT NULL, is_liked INTEGER NOT NULL, " +
+                    "recommendation_score INTEGER NOT NULL DEFAULT 0, cached_at INTEGER NOT NULL)");
+            statement.execute(HealthTipFtsTriggers.CREATE_FTS_TABLE);
+            for (String sql : HealthTipFtsTriggers.ROOM_GENERATED) {
+                statement.execute(sql);
+            }
+            if ("columnLimited".equals(triggers)) {
+                for (String sql : HealthTipFtsTriggers.COLUMN_LIMITED) {
+                    statement.execute(sql);
+                }
+            }
+        }
+
+        List<Map<String, Object>> nodes = Fixtures.healthTipNodes(size);
+        Random random = new Random(42);
+        inputs = new ArrayList<>(size);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO health_tips VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)")) {
+            for (int i = 0; i < size; i++) {
+                Map<String, Object> node = nodes.get(i);
+                Object content = node.containsKey("content") ? node.get("content") : node.get("contentBlocks");
+
+                HealthTipScoreInput input = new HealthTipScoreInput();
+                input.setId("tip_" + i);
+                // Danh mục lệch (vài danh mục rất đông) giống cache thật
+                input.setCategoryId("cat" + (int) (CATEGORY_COUNT * Math.pow(random.nextDouble(), 2)));
+                input.setViewCount(((Number) node.get("viewCount")).intValue());
+                input.setLikeCount(((Number) node.get("likeCount")).intValue());
+                input.setCreatedAt(Fixtures.NOW - (long) (random.nextDouble() * 365 * DAY_MS));
+                input.setLiked(random.nextInt(50) == 0);
+                inputs.add(input);
+
+                insert.setString(1, input.getId());
+                insert.setString(2, String.valueOf(node.get("title")));
+                insert.setString(3, node.get("excerpt") != null ? String.valueOf(node.get("excerpt")) : null);
+                insert.setString(4, String.valueOf(content));
+                insert.setString(5, input.getCategoryId());
+                insert.setInt(6, input.getViewCount());
+                insert.setInt(7, input.getLikeCount());
+                insert.setLong(8, input.getCreatedAt());
+                insert.setInt(9, input.isLiked() ? 1 : 0);
+                insert.setLong(10, Fixtures.NOW);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int[] scoreOnly() {
+        RecommendationScorer.Stats stats = RecommendationScorer.Stats.fromInputs(inputs);
+        int[] scores = new int[inputs.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = RecommendationScorer.score(inputs.get(i), stats, now);
+        }
+        return scores;
+    }
+
+    @Benchmark
+    public int rescoreAll() throws SQLException {
+        // Mỗi lượt chấm ở một thời điểm khác nên điểm thực sự thay đổi
+        now += 60_000L;
+        int[] scores = scoreOnly();
+        try (PreparedStatement update = connection.prepareStatement(UPDATE_SCORE_SQL)) {
+            for (int i = 0; i < scores.length; i++) {
+                String id = inputs.get(i).getId();
+                update.setString(1, id);
+                update.setInt(2, scores[i]);
+                update.setString(3, id);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+        connection.commit();
+        return scores.length;
+    }
+
+    @Benchmark
+    public int touchCachedAt() throws SQLException {
+        now += 1_000L;
+        scrollOffset = (scrollOffset + VISIBLE_ITEMS) % size;
+        try (PreparedStatement update = connection.prepareStatement(UPDATE_CACHED_AT_SQL)) {
+            for (int i = 0; i < VISIBLE_ITEMS; i++) {
+                update.setLong(1, now);
+                update.setString(2, inputs.get((scrollOffset + i) % size).getId());
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+        connection.commit();
+        return VISIBLE_ITEMS;
+    }
+}
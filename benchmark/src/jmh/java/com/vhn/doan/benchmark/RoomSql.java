@@ -0,0 +1,75 @@
+package com.vhn.doan.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Chạy câu @Query của DAO Room trên SQLite JDBC
+ *
+ * Room thay :tên bằng tham số bind và mở rộng tham số kiểu danh sách thành "?, ?, ...";
+ * lớp này làm đúng như vậy để benchmark đo chính câu SQL app dùng, không phải bản sao.
+ */
+final class RoomSql {
+
+    private static final Pattern PARAMETER = Pattern.compile(":(\\w+)");
+
+    private RoomSql() {
+    }
+
+    static PreparedStatement prepare(Connection connection, String roomSql, Map<String, Object> args)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder();
+        List<Object> values = new ArrayList<>();
+        Matcher matcher = PARAMETER.matcher(roomSql);
+        int last = 0;
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            if (!args.containsKey(name)) {
+                throw new IllegalArgumentException("Thiếu tham số :" + name);
+            }
+            sql.append(roomSql, last, matcher.start());
+            Object value = args.get(name);
+            if (value instanceof Collection) {
+                int count = 0;
+                for (Object item : (Collection<?>) value) {
+                    sql.append(count++ == 0 ? "?" : ", ?");
+                    values.add(item);
+                }
+            } else {
+                sql.append('?');
+                values.add(value);
+            }
+            last = matcher.end();
+        }
+        sql.append(roomSql, last, roomSql.length());
+
+        PreparedStatement statement = connection.prepareStatement(sql.toString());
+        for (int i = 0; i < values.size(); i++) {
+            statement.setObject(i + 1, values.get(i));
+        }
+        return statement;
+    }
+
+    /**
+     * Chạy truy vấn và trả về cột đầu tiên của mọi dòng
+     */
+    static List<String> queryStrings(Connection connection, String roomSql, Map<String, Object> args)
+            throws SQLException {
+        try (PreparedStatement statement = prepare(connection, roomSql, args);
+             ResultSet resultSet = statement.executeQuery()) {
+            List<String> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                rows.add(resultSet.getString(1));
+            }
+            return rows;
+        }
+    }
+}
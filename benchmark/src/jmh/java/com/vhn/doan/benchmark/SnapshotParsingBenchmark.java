@@ -0,0 +1,53 @@
+package com.vhn.doan.benchmark;
+
+import com.vhn.doan.data.HealthTipDeserializer;
+import com.vhn.doan.data.ShortVideoDeserializer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đọc size node Firebase (giá trị của DataSnapshot.getValue()) bằng các deserializer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnapshotParsingBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    private List<Map<String, Object>> videoNodes;
+    private List<Map<String, Object>> healthTipNodes;
+
+    @Setup
+    public void setUp() {
+        videoNodes = Fixtures.videoNodes(size);
+        healthTipNodes = Fixtures.healthTipNodes(size);
+    }
+
+    @Benchmark
+    public void shortVideos(Blackhole blackhole) {
+        for (Map<String, Object> node : videoNodes) {
+            blackhole.consume(ShortVideoDeserializer.fromValue((String) node.get("id"), node));
+        }
+    }
+
+    @Benchmark
+    public void healthTips(Blackhole blackhole) {
+        for (Map<String, Object> node : healthTipNodes) {
+            blackhole.consume(HealthTipDeserializer.fromValue((String) node.get("id"), node));
+        }
+    }
+}
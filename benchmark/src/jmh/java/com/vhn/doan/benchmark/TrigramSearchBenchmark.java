@@ -0,0 +1,147 @@
+package com.vhn.doan.benchmark;
+
+import com.vhn.doan.data.local.dao.SearchIndexDao;
+import com.vhn.doan.utils.VietnameseTextNormalizer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tìm kiếm offline trên SQLite thật với size tài liệu
+ * - trigramSearch: SearchIndexDao.SEARCH_BY_TRIGRAMS_SQL / SEARCH_SHORT_QUERY_SQL như TrigramSearchIndex.search
+ * - likeScan: quét LIKE '%query%' trên title có dấu, cách tìm trước khi có index trigram
+ *
+ * Bảng search_documents/search_trigrams tạo bằng DDL của AppDatabase.MIGRATION_5_6,
+ * dữ liệu được index giống TrigramSearchIndex.indexDocuments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrigramSearchBenchmark {
+
+    private static final String DOC_TYPE = "health_tip";
+    private static final int LIMIT = 50;
+    private static final int MAX_QUERY_TRIGRAMS = 32;
+    private static final String LIKE_SCAN_SQL =
+            "SELECT id FROM health_tips WHERE title LIKE '%' || :query || '%' LIMIT :limit";
+
+    private static final String[] WORDS = {
+            "sức khỏe", "huyết áp", "dinh dưỡng", "giấc ngủ", "tim mạch", "đường huyết",
+            "vitamin", "tập luyện", "thư giãn", "miễn dịch", "tiêu hóa", "nước uống",
+            "rau xanh", "trái cây", "căng thẳng", "hô hấp", "xương khớp", "làn da"
+    };
+
+    @Param({"1000", "10000", "50000"})
+    public int size;
+
+    @Param({"suc khoe", "huyết áp", "dinh duong", "ngu"})
+    public String query;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE health_tips (id TEXT NOT NULL PRIMARY KEY, title TEXT)");
+            statement.execute("CREATE TABLE search_documents (doc_type TEXT NOT NULL, doc_id TEXT NOT NULL, " +
+                    "normalized_text TEXT, PRIMARY KEY(doc_type, doc_id))");
+            statement.execute("CREATE TABLE search_trigrams (doc_type TEXT NOT NULL, trigram TEXT NOT NULL, " +
+                    "doc_id TEXT NOT NULL, PRIMARY KEY(doc_type, trigram, doc_id))");
+            statement.execute("CREATE INDEX index_search_trigrams_doc_type_doc_id ON search_trigrams(doc_type, doc_id)");
+        }
+
+        connection.setAutoCommit(false);
+        Random random = new Random(42);
+        try (PreparedStatement tip = connection.prepareStatement("INSERT INTO health_tips VALUES (?, ?)");
+             PreparedStatement document = connection.prepareStatement(
+                     "INSERT INTO search_documents VALUES (?, ?, ?)");
+             PreparedStatement trigram = connection.prepareStatement(
+                     "INSERT OR IGNORE INTO search_trigrams VALUES (?, ?, ?)")) {
+            for (int i = 0; i < size; i++) {
+                String id = "tip_" + i;
+                String title = "Mẹo " + WORDS[random.nextInt(WORDS.length)] + " và "
+                        + WORDS[random.nextInt(WORDS.length)] + " số " + i;
+                String excerpt = "Bài viết về " + WORDS[random.nextInt(WORDS.length)];
+                String normalized = VietnameseTextNormalizer.normalizeFields(title, excerpt);
+
+                tip.setString(1, id);
+                tip.setString(2, title);
+                tip.addBatch();
+                document.setString(1, DOC_TYPE);
+                document.setString(2, id);
+                document.setString(3, normalized);
+                document.addBatch();
+                for (String gram : VietnameseTextNormalizer.trigrams(normalized)) {
+                    trigram.setString(1, DOC_TYPE);
+                    trigram.setString(2, gram);
+                    trigram.setString(3, id);
+                    trigram.addBatch();
+                }
+            }
+            tip.executeBatch();
+            document.executeBatch();
+            trigram.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<String> trigramSearch() throws SQLException {
+        String normalizedQuery = VietnameseTextNormalizer.normalize(query);
+        Map<String, Object> args = new HashMap<>();
+        args.put("docType", DOC_TYPE);
+        args.put("normalizedQuery", normalizedQuery);
+        args.put("limit", LIMIT);
+
+        Set<String> grams = VietnameseTextNormalizer.trigrams(normalizedQuery);
+        if (grams.isEmpty()) {
+            return RoomSql.queryStrings(connection, SearchIndexDao.SEARCH_SHORT_QUERY_SQL, args);
+        }
+        List<String> queryGrams = new ArrayList<>(grams);
+        if (queryGrams.size() > MAX_QUERY_TRIGRAMS) {
+            queryGrams = queryGrams.subList(0, MAX_QUERY_TRIGRAMS);
+        }
+        args.put("trigrams", queryGrams);
+        args.put("trigramCount", queryGrams.size());
+        return RoomSql.queryStrings(connection, SearchIndexDao.SEARCH_BY_TRIGRAMS_SQL, args);
+    }
+
+    @Benchmark
+    public List<String> likeScan() throws SQLException {
+        Map<String, Object> args = new HashMap<>();
+        args.put("query", query);
+        args.put("limit", LIMIT);
+        return RoomSql.queryStrings(connection, LIKE_SCAN_SQL, args);
+    }
+}
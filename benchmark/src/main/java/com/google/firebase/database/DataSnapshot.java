@@ -0,0 +1,20 @@
+package com.google.firebase.database;
+
+/**
+ * Stub của DataSnapshot cho module benchmark JVM
+ * Benchmark gọi thẳng fromValue của các deserializer nên không tạo DataSnapshot
+ */
+public class DataSnapshot {
+
+    public boolean exists() {
+        throw new UnsupportedOperationException("DataSnapshot không dùng được ngoài Android");
+    }
+
+    public String getKey() {
+        throw new UnsupportedOperationException("DataSnapshot không dùng được ngoài Android");
+    }
+
+    public Object getValue() {
+        throw new UnsupportedOperationException("DataSnapshot không dùng được ngoài Android");
+    }
+}
@@ -18,4 +18,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "HealthTips-App-"
 include(":app")
+include(":benchmark")
 